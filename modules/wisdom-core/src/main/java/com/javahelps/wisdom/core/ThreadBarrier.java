@@ -20,24 +20,227 @@
 
 package com.javahelps.wisdom.core;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
 
+/**
+ * {@link ThreadBarrier} lets {@link WisdomApp#clear()} stop the world without making the event processing threads
+ * acquire a lock. Every processing thread publishes the epoch it entered the app in a per-thread slot using a
+ * volatile write and resets it when it leaves. {@link #lock()} closes the barrier, advances the epoch and waits until
+ * all the threads entered in an older epoch have left.
+ */
 public class ThreadBarrier {
 
-    private ReentrantLock lock = new ReentrantLock();
+    private static final long IDLE = 0L;
+    private static final int SPIN_LIMIT = 100;
+    private static final long PARK_NANOS = 50_000L;
+
+    private final boolean enabled;
+    private final List<Slot> slots = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Slot> localSlot = ThreadLocal.withInitial(this::register);
+    private final ReentrantLock exclusiveLock = new ReentrantLock();
+    private volatile long epoch = 1L;
+    private volatile boolean closed = false;
+
+    public ThreadBarrier() {
+        this(true);
+    }
+
+    /**
+     * Create a {@link ThreadBarrier}. A disabled barrier never blocks the threads and must be used only when all the
+     * events are processed by a single thread.
+     *
+     * @param enabled false to create a no-op barrier
+     */
+    public ThreadBarrier(boolean enabled) {
+        this.enabled = enabled;
+    }
 
-    public void pass() {
-        if (lock.isLocked()) {
-            lock.lock();
-            lock.unlock();
+    /**
+     * Mark the current thread as processing an event. Blocks the thread if the barrier is closed by another thread.
+     * Nested calls from the same thread are counted and only the outermost call publishes the epoch.
+     */
+    public void enter() {
+        if (!enabled) {
+            return;
+        }
+        Slot slot = this.localSlot.get();
+        if (slot.depth++ == 0) {
+            // Published by the volatile write of the epoch
+            slot.entries++;
+            while (true) {
+                slot.epoch = this.epoch;
+                if (!this.closed || this.exclusiveLock.isHeldByCurrentThread()) {
+                    break;
+                }
+                // Step back and wait until the barrier is opened
+                slot.epoch = IDLE;
+                this.awaitOpen();
+            }
+        }
+    }
+
+    /**
+     * Mark the current thread as done with the event entered by the matching {@link #enter()} call.
+     */
+    public void exit() {
+        if (!enabled) {
+            return;
+        }
+        Slot slot = this.localSlot.get();
+        if (--slot.depth == 0) {
+            slot.epoch = IDLE;
         }
     }
 
+    /**
+     * Step out of the barrier before blocking on another thread which may itself be waiting to {@link #enter()}, for
+     * example while publishing into a full async buffer. Holding the barrier there would make {@link #lock()} wait
+     * for a thread which cannot make progress until the barrier is opened.
+     *
+     * @return the nesting depth to pass to {@link #rejoin(int)} or 0 if the thread was not in the barrier
+     */
+    public int leave() {
+        if (!enabled) {
+            return 0;
+        }
+        Slot slot = this.localSlot.get();
+        int depth = slot.depth;
+        if (depth > 0) {
+            slot.depth = 0;
+            slot.epoch = IDLE;
+        }
+        return depth;
+    }
+
+    /**
+     * Enter the barrier left by {@link #leave()} restoring the nesting depth. Blocks the thread if the barrier is
+     * closed in the meantime.
+     *
+     * @param depth the depth returned by {@link #leave()}
+     */
+    public void rejoin(int depth) {
+        if (depth == 0) {
+            return;
+        }
+        this.enter();
+        this.localSlot.get().depth = depth;
+    }
+
+    /**
+     * Close the barrier and wait for the threads processing events to leave. The current thread is not waited even if
+     * it is processing an event.
+     */
     public void lock() {
-        lock.lock();
+        if (!enabled) {
+            return;
+        }
+        this.exclusiveLock.lock();
+        if (this.exclusiveLock.getHoldCount() > 1) {
+            return;
+        }
+        this.closed = true;
+        long closingEpoch = this.epoch;
+        this.epoch = closingEpoch + 1;
+
+        Thread currentThread = Thread.currentThread();
+        for (Slot slot : this.slots) {
+            if (slot.thread == currentThread) {
+                continue;
+            }
+            if (!slot.thread.isAlive()) {
+                this.slots.remove(slot);
+                continue;
+            }
+            int spins = 0;
+            long slotEpoch = slot.epoch;
+            while (slotEpoch != IDLE && slotEpoch <= closingEpoch) {
+                spins = backOff(spins);
+                slotEpoch = slot.epoch;
+            }
+        }
     }
 
+    /**
+     * Open the barrier closed by {@link #lock()}.
+     */
     public void unlock() {
-        lock.unlock();
+        if (!enabled) {
+            return;
+        }
+        if (this.exclusiveLock.getHoldCount() == 1) {
+            this.closed = false;
+        }
+        this.exclusiveLock.unlock();
+    }
+
+    /**
+     * Start a grace period which is over once every thread processing an event at the time of this call has left
+     * the barrier at least once. Objects unlinked from shared structures before this call can be destroyed once the
+     * grace period is over since no thread can reach them anymore. Never blocks.
+     *
+     * @return the supplier checking whether the grace period is over
+     */
+    public BooleanSupplier startGracePeriod() {
+        if (!enabled) {
+            return () -> true;
+        }
+        List<Slot> active = new ArrayList<>();
+        List<Integer> entries = new ArrayList<>();
+        for (Slot slot : this.slots) {
+            if (slot.epoch != IDLE) {
+                active.add(slot);
+                entries.add(slot.entries);
+            }
+        }
+        if (active.isEmpty()) {
+            return () -> true;
+        }
+        return () -> {
+            for (int i = 0; i < active.size(); i++) {
+                Slot slot = active.get(i);
+                if (slot.epoch != IDLE && slot.entries == entries.get(i) && slot.thread.isAlive()) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    private void awaitOpen() {
+        int spins = 0;
+        while (this.closed) {
+            spins = backOff(spins);
+        }
+    }
+
+    private static int backOff(int spins) {
+        if (spins < SPIN_LIMIT) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return spins + 1;
+    }
+
+    private Slot register() {
+        Slot slot = new Slot(Thread.currentThread());
+        this.slots.add(slot);
+        return slot;
+    }
+
+    private static class Slot {
+        private final Thread thread;
+        private volatile long epoch = IDLE;
+        private int depth;
+        private int entries;
+
+        private Slot(Thread thread) {
+            this.thread = thread;
+        }
     }
 }
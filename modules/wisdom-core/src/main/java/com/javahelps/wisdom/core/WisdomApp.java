@@ -21,6 +21,7 @@
 package com.javahelps.wisdom.core;
 
 import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.Schema;
 import com.javahelps.wisdom.core.exception.ExceptionListener;
 import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
 import com.javahelps.wisdom.core.operand.WisdomArray;
@@ -34,12 +35,16 @@ import com.javahelps.wisdom.core.stream.Stream;
 import com.javahelps.wisdom.core.stream.StreamCallback;
 import com.javahelps.wisdom.core.stream.input.Source;
 import com.javahelps.wisdom.core.stream.output.Sink;
+import com.javahelps.wisdom.core.stream.reactive.StreamPublisher;
+import com.javahelps.wisdom.core.stream.reactive.StreamSubscriber;
 import com.javahelps.wisdom.core.util.WisdomConfig;
 import com.javahelps.wisdom.core.variable.Variable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 
 import static com.javahelps.wisdom.core.util.Commons.toProperties;
@@ -63,6 +68,7 @@ public class WisdomApp implements Stateful {
     private final ThreadBarrier threadBarrier;
     private final List<Sink> sinks = new ArrayList<>();
     private final List<Source> sources = new ArrayList<>();
+    private final List<StreamPublisher> publishers = new ArrayList<>();
     private final List<Variable> trainable = new ArrayList<>();
     private final Map<String, Query> queryMap = new HashMap<>();
     private final Map<String, Stream> streamMap = new HashMap<>();
@@ -112,6 +118,9 @@ public class WisdomApp implements Stateful {
     }
 
     public void start() {
+        if (this.wisdomContext.isSingleThreaded()) {
+            this.validateSingleThreaded();
+        }
         // Initialize components
         for (Consumer<WisdomApp> consumer : this.initConsumers) {
             consumer.accept(this);
@@ -130,9 +139,24 @@ public class WisdomApp implements Stateful {
         this.sources.forEach(Source::start);
     }
 
+    private void validateSingleThreaded() {
+        if (this.wisdomContext.isAsync()) {
+            throw new WisdomAppValidationException("%s cannot be async in %s threading mode", this.name,
+                    THREADING_SINGLE);
+        }
+        for (Stream stream : this.streamMap.values()) {
+            if (stream.isAsync()) {
+                throw new WisdomAppValidationException("Stream %s cannot be async in %s threading mode",
+                        stream.getId(), THREADING_SINGLE);
+            }
+        }
+    }
+
     public void shutdown() {
         // Stop sources first
         this.sources.forEach(Source::stop);
+        // Release stream threads waiting for the demand of subscribers
+        this.publishers.forEach(StreamPublisher::complete);
         if (this.statisticsManager != null) {
             this.statisticsManager.stop();
         }
@@ -148,6 +172,12 @@ public class WisdomApp implements Stateful {
         return this.defineStream(id, EMPTY_PROPERTIES);
     }
 
+    public Stream defineStream(String id, Schema schema) {
+        Properties properties = new Properties();
+        properties.put(SCHEMA, schema);
+        return this.defineStream(id, properties);
+    }
+
     public Stream defineStream(String id, Properties properties) {
         Stream stream = this.getStream(id);
         if (stream != null) {
@@ -233,6 +263,67 @@ public class WisdomApp implements Stateful {
         }
     }
 
+    /**
+     * Create a {@link Flow.Publisher} emitting the events of the given stream. Like callbacks, publishers must be
+     * created before starting the app. Subscribers are completed when the app is shutdown.
+     *
+     * @param streamId the Wisdom stream id
+     * @return new {@link Flow.Publisher}
+     */
+    public Flow.Publisher<Event> getPublisher(String streamId) {
+        return this.getPublisher(streamId, Duration.ofMillis(PUBLISHER_TIMEOUT));
+    }
+
+    /**
+     * Create a {@link Flow.Publisher} emitting the events of the given stream. Subscribers not requesting an event
+     * within the timeout are cancelled.
+     *
+     * @param streamId the Wisdom stream id
+     * @param timeout  the maximum time to wait for the demand of a subscriber
+     * @return new {@link Flow.Publisher}
+     */
+    public Flow.Publisher<Event> getPublisher(String streamId, Duration timeout) {
+        Stream stream = this.streamMap.get(streamId);
+        if (stream == null) {
+            throw new WisdomAppValidationException("Stream id %s is not defined", streamId);
+        }
+        StreamPublisher publisher = new StreamPublisher(timeout, this.threadBarrier);
+        stream.addProcessor(publisher, 0);
+        this.publishers.add(publisher);
+        return publisher;
+    }
+
+    /**
+     * Create a {@link Flow.Subscriber} feeding events to the given stream, requesting events in chunks of the stream
+     * batch size.
+     *
+     * @param streamId the Wisdom stream id
+     * @return new {@link StreamSubscriber}
+     */
+    public StreamSubscriber getSubscriber(String streamId) {
+        Stream stream = this.streamMap.get(streamId);
+        if (stream == null) {
+            throw new WisdomAppValidationException("Stream id %s is not defined", streamId);
+        }
+        return this.getSubscriber(streamId, stream.getBatchSize());
+    }
+
+    /**
+     * Create a {@link Flow.Subscriber} feeding events to the given stream.
+     *
+     * @param streamId  the Wisdom stream id
+     * @param batchSize the maximum number of events requested at once
+     * @return new {@link StreamSubscriber}
+     */
+    public StreamSubscriber getSubscriber(String streamId, int batchSize) {
+        if (batchSize < 1) {
+            throw new WisdomAppValidationException("Batch size of subscriber must be positive but found %d",
+                    batchSize);
+        }
+        return new StreamSubscriber(this.getInputHandler(streamId), batchSize,
+                this.wisdomContext.getScheduledExecutorService());
+    }
+
     /**
      * Create input handler to feed events to the given stream.
      *
@@ -267,7 +358,7 @@ public class WisdomApp implements Stateful {
     public void send(String streamId, Event event) {
         Stream stream = this.streamMap.get(streamId);
         if (stream != null) {
-            stream.process(event);
+            this.wisdomContext.dispatch(stream::process, event);
         }
     }
 
@@ -380,11 +471,13 @@ public class WisdomApp implements Stateful {
 
     @Override
     public void clear() {
-        this.threadBarrier.lock();
-        this.streamMap.values().forEach(Stream::disable);
-        this.queryMap.values().forEach(Query::clear);
-        this.streamMap.values().forEach(Stream::enable);
-        this.threadBarrier.unlock();
+        this.wisdomContext.dispatchAndWait(() -> {
+            this.threadBarrier.lock();
+            this.streamMap.values().forEach(Stream::disable);
+            this.queryMap.values().forEach(Query::clear);
+            this.streamMap.values().forEach(Stream::enable);
+            this.threadBarrier.unlock();
+        });
     }
 
     public Properties getProperties() {
@@ -20,24 +20,43 @@
 
 package com.javahelps.wisdom.core;
 
+import com.javahelps.wisdom.core.exception.WisdomAppRuntimeException;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.stream.async.Dispatcher;
+import com.javahelps.wisdom.core.stream.async.WaitStrategies;
 import com.javahelps.wisdom.core.time.*;
+import com.javahelps.wisdom.core.util.NoOpLock;
+import com.javahelps.wisdom.core.util.NoOpReadWriteLock;
+import com.javahelps.wisdom.core.util.VirtualThreads;
 import com.javahelps.wisdom.core.util.WisdomConfig;
+import com.lmax.disruptor.WaitStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
-import static com.javahelps.wisdom.core.util.WisdomConstants.ASYNC;
-import static com.javahelps.wisdom.core.util.WisdomConstants.PLAYBACK;
+import static com.javahelps.wisdom.core.util.WisdomConstants.*;
 
 /**
  * The user defined and system defined configurations of the stream processor are stored in {@link WisdomContext}.
  */
 public class WisdomContext {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(WisdomContext.class);
+
     private final boolean async;
+    private final boolean singleThreaded;
+    private final boolean virtualThreads;
+    private final String waitStrategy;
+    private final long waitIdleTime;
     private final boolean playbackEnabled;
     private final String playbackAttribute;
     private final Scheduler scheduler;
@@ -47,19 +66,74 @@ public class WisdomContext {
     private final ThreadBarrier threadBarrier;
     private final TimestampGenerator timestampGenerator;
     private final ScheduledExecutorService scheduledExecutorService;
+    private final Dispatcher dispatcher;
+    private final Map<String, Object> sharedState = new ConcurrentHashMap<>();
+    private volatile Thread dispatcherThread;
 
     public WisdomContext(Properties properties) {
         this.properties = properties;
-        this.scheduledExecutorService = Executors.newScheduledThreadPool(4);
-        this.executorService = Executors.newCachedThreadPool();
+        String threading = String.valueOf(properties.getOrDefault(THREADING, WisdomConfig.THREADING));
+        if (THREADING_SINGLE.equals(threading)) {
+            this.singleThreaded = true;
+        } else if (THREADING_MULTI.equals(threading)) {
+            this.singleThreaded = false;
+        } else {
+            throw new WisdomAppValidationException("Invalid threading mode %s. Supported modes are %s and %s",
+                    threading, THREADING_MULTI, THREADING_SINGLE);
+        }
+        String ioThreads = String.valueOf(properties.getOrDefault(IO_THREADS, WisdomConfig.IO_THREADS));
+        if (IO_THREADS_VIRTUAL.equals(ioThreads)) {
+            this.virtualThreads = VirtualThreads.isSupported();
+            if (!this.virtualThreads) {
+                LOGGER.warn("Virtual threads require Java 21 or later. Platform threads are used instead");
+            }
+        } else if (IO_THREADS_PLATFORM.equals(ioThreads)) {
+            this.virtualThreads = false;
+        } else {
+            throw new WisdomAppValidationException("Invalid I/O threads %s. Supported values are %s and %s",
+                    ioThreads, IO_THREADS_PLATFORM, IO_THREADS_VIRTUAL);
+        }
+        // Disruptor consumers always run on platform threads
         this.threadFactory = Executors.defaultThreadFactory();
-        this.threadBarrier = new ThreadBarrier();
+        if (this.virtualThreads) {
+            // Sources, sinks fed by them and scheduled tasks block on I/O without holding platform threads
+            this.executorService = VirtualThreads.newThreadPerTaskExecutor(VirtualThreads.factory("wisdom-io-"));
+        } else {
+            this.executorService = Executors.newCachedThreadPool();
+        }
+        if (this.singleThreaded) {
+            // The only thread processing events and scheduled tasks
+            this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = this.threadFactory.newThread(runnable);
+                this.dispatcherThread = thread;
+                return thread;
+            });
+            // Events are queued in a bounded ring buffer instead of the unbounded queue of the executor
+            int bufferSize = ((Number) properties.getOrDefault(BUFFER, WisdomConfig.EVENT_BUFFER_SIZE)).intValue();
+            if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+                throw new WisdomAppValidationException("Buffer size of the dispatcher must be a power of 2 but " +
+                        "found %d", bufferSize);
+            }
+            long timeout = ((Number) properties.getOrDefault(OVERFLOW_TIMEOUT, -1L)).longValue();
+            this.dispatcher = new Dispatcher(this.scheduledExecutorService, bufferSize, timeout);
+        } else {
+            this.dispatcher = null;
+            this.scheduledExecutorService = this.virtualThreads ?
+                    Executors.newScheduledThreadPool(4, VirtualThreads.factory("wisdom-scheduler-")) :
+                    Executors.newScheduledThreadPool(4);
+        }
+        this.threadBarrier = new ThreadBarrier(!this.singleThreaded);
         this.async = (boolean) properties.getOrDefault(ASYNC, WisdomConfig.ASYNC_ENABLED);
+        this.waitStrategy = String.valueOf(properties.getOrDefault(WAIT, WisdomConfig.WAIT_STRATEGY));
+        this.waitIdleTime = ((Number) properties.getOrDefault(WAIT_IDLE, WisdomConfig.WAIT_IDLE_TIME)).longValue();
+        // Fail fast on invalid wait strategies
+        WaitStrategies.create(this.waitStrategy, this.waitIdleTime);
         this.playbackAttribute = properties.getProperty(PLAYBACK);
         this.playbackEnabled = this.playbackAttribute != null;
         if (this.playbackEnabled) {
             this.timestampGenerator = new EventBasedTimestampGenerator();
-            this.scheduler = new EventBasedScheduler(this.executorService, (EventBasedTimestampGenerator) this.timestampGenerator);
+            this.scheduler = new EventBasedScheduler(this.singleThreaded ? this.scheduledExecutorService : this.executorService,
+                    (EventBasedTimestampGenerator) this.timestampGenerator);
         } else {
             this.timestampGenerator = new SystemTimestampGenerator();
             this.scheduler = new SystemScheduler(this.scheduledExecutorService, this.timestampGenerator);
@@ -103,6 +177,110 @@ public class WisdomContext {
         return async;
     }
 
+    public String getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public long getWaitIdleTime() {
+        return waitIdleTime;
+    }
+
+    /**
+     * Create a new instance of the app level default Disruptor {@link WaitStrategy}.
+     *
+     * @return new wait strategy
+     */
+    public WaitStrategy createWaitStrategy() {
+        return WaitStrategies.create(this.waitStrategy, this.waitIdleTime);
+    }
+
+    public boolean isSingleThreaded() {
+        return singleThreaded;
+    }
+
+    /**
+     * Check whether the executor services of the app run tasks on virtual threads.
+     *
+     * @return true if virtual threads are requested and supported by the Java runtime
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Create a {@link Lock} for the stateful components of the app. In the single threading mode, the lock is a no-op.
+     *
+     * @return new lock
+     */
+    public Lock createLock() {
+        return this.singleThreaded ? NoOpLock.INSTANCE : new ReentrantLock();
+    }
+
+    public ReadWriteLock createReadWriteLock() {
+        return this.singleThreaded ? NoOpReadWriteLock.INSTANCE : new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Run the task in the dispatcher thread if the app is running in the single threading mode. Otherwise, or if the
+     * caller is the dispatcher thread, the task is executed in the current thread.
+     *
+     * @param task the task to run
+     */
+    public void dispatch(Runnable task) {
+        if (!this.singleThreaded || Thread.currentThread() == this.dispatcherThread) {
+            task.run();
+        } else {
+            this.dispatcher.dispatch(task);
+        }
+    }
+
+    /**
+     * Pass the value to the consumer in the dispatcher thread if the app is running in the single threading mode.
+     * Otherwise, or if the caller is the dispatcher thread, the consumer is called in the current thread.
+     *
+     * @param consumer the consumer to call
+     * @param value    the value to pass
+     * @param <T>      the type of the value
+     */
+    public <T> void dispatch(Consumer<T> consumer, T value) {
+        if (!this.singleThreaded || Thread.currentThread() == this.dispatcherThread) {
+            consumer.accept(value);
+        } else {
+            this.dispatcher.dispatch(consumer, value);
+        }
+    }
+
+    /**
+     * Same as {@link #dispatch(Runnable)} but waits until the task is completed.
+     *
+     * @param task the task to run
+     */
+    public void dispatchAndWait(Runnable task) {
+        if (!this.singleThreaded || Thread.currentThread() == this.dispatcherThread) {
+            task.run();
+        } else {
+            FutureTask<Void> future = new FutureTask<>(task, null);
+            this.dispatcher.dispatchBlocking(future);
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WisdomAppRuntimeException("Interrupted while waiting for the dispatcher thread", e);
+            } catch (ExecutionException e) {
+                throw new WisdomAppRuntimeException("Failed to execute the task in the dispatcher thread", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Get the {@link Dispatcher} feeding the dispatcher thread.
+     *
+     * @return the dispatcher or null if the app is not running in the single threading mode
+     */
+    public Dispatcher getDispatcher() {
+        return dispatcher;
+    }
+
     public boolean isPlaybackEnabled() {
         return playbackEnabled;
     }
@@ -114,4 +292,17 @@ public class WisdomContext {
     public Comparable getProperty(Comparable property) {
         return (Comparable) this.properties.get(property);
     }
+
+    /**
+     * Get the state shared by the components of the app with the same key, creating it on the first call.
+     *
+     * @param key      the key identifying the state
+     * @param supplier the supplier creating the state
+     * @param <T>      the type of the state
+     * @return the shared state
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getSharedState(String key, Supplier<T> supplier) {
+        return (T) this.sharedState.computeIfAbsent(key, k -> supplier.get());
+    }
 }
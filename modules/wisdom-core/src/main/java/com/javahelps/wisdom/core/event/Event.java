@@ -24,6 +24,8 @@ import com.javahelps.wisdom.core.exception.AttributeNotFoundException;
 import com.javahelps.wisdom.core.exception.WisdomAppRuntimeException;
 import com.javahelps.wisdom.core.stream.Stream;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -37,6 +39,8 @@ public class Event implements AttributeSupplier {
     private Stream stream;
     private String name;
     private Map<String, Object> data;
+    private boolean shared = false;
+    private boolean unbound = false;
     private transient Map<String, String> alias;
     private boolean expired = false;
     private boolean reset = false;
@@ -49,9 +53,25 @@ public class Event implements AttributeSupplier {
     }
 
     public Event(long timestamp) {
+        this(timestamp, new HashMap<>());
+    }
+
+    /**
+     * Create an {@link Event} storing the attributes defined in the given {@link Schema} in slot-indexed primitive
+     * columns.
+     *
+     * @param stream    the source stream
+     * @param schema    the schema of the event
+     * @param timestamp the timestamp of the event
+     */
+    public Event(Stream stream, Schema schema, long timestamp) {
+        this(timestamp, schema == null ? new HashMap<>() : new SlotData(schema));
+        this.stream = stream;
+    }
+
+    private Event(long timestamp, Map<String, Object> data) {
         this.timestamp = timestamp;
-        this.data = new HashMap<>();
-        this.alias = new HashMap<>();
+        this.data = data;
         this.original = null;
     }
 
@@ -60,26 +80,75 @@ public class Event implements AttributeSupplier {
     }
 
     public Event set(String attribute, Object value) {
-        this.data.put(attribute, value);
+        this.writableData().put(attribute, value);
         return this;
     }
 
+    /**
+     * Get the attribute by its name. If the event is named, an attribute name without a stream prefix is qualified by
+     * the event name. The name is resolved on every call; processors reading an attribute of every event should use
+     * a {@link RuntimeAttribute} which resolves it once.
+     *
+     * @param attribute the attribute name
+     * @return the value or null if the attribute is not found
+     */
     @Override
     public Object get(String attribute) {
         if (this.name != null) {
-            if (!attribute.contains(".")) {
+            if (attribute.indexOf('.') < 0) {
                 attribute = this.name + "." + attribute;
             }
         }
+        return this.getQualified(attribute);
+    }
+
+    /**
+     * Get the attribute by the name already qualified by the name of this event.
+     *
+     * @param attribute the qualified attribute name
+     * @return the value or null if the attribute is not found
+     */
+    Object getQualified(String attribute) {
         Object data = this.data.get(attribute);
-        if (data == null) {
-            data = this.data.get(this.alias.get(attribute));
+        if (data == null && this.alias != null) {
+            String key = this.alias.get(attribute);
+            if (key != null) {
+                data = this.data.get(key);
+            }
         }
         return data;
     }
 
+    /**
+     * Get the attribute stored in the given slot of the {@link Schema} of this event.
+     *
+     * @param index the schema index of the attribute
+     * @return the value or null if the event is not bound to a schema
+     */
+    public Object get(int index) {
+        if (this.data instanceof SlotData) {
+            return ((SlotData) this.data).get(index);
+        }
+        return null;
+    }
+
+    /**
+     * Get the {@link Schema} this event is bound to.
+     *
+     * @return the schema or null if the event stores attributes in a {@link HashMap}
+     */
+    public Schema getSchema() {
+        if (this.data instanceof SlotData && !this.unbound) {
+            return ((SlotData) this.data).getSchema();
+        }
+        return null;
+    }
+
     public Number getAsNumber(String attribute) {
-        Object value = this.get(attribute);
+        return this.toNumber(attribute, this.get(attribute));
+    }
+
+    Number toNumber(String attribute, Object value) {
         if (value == null) {
             throw new AttributeNotFoundException(String.format("Attribute %s not found in event %s", attribute,
                     this.toString()));
@@ -107,16 +176,83 @@ public class Event implements AttributeSupplier {
         return bool;
     }
 
+    /**
+     * Get the numeric attribute by its name. Like {@link #get(String)}, the name is resolved on every call. Use
+     * {@link RuntimeAttribute#getAsLong(Event)} to read the attribute from the slot of a typed event without boxing.
+     *
+     * @param attribute the attribute name
+     * @return the value as long
+     */
     public long getAsLong(String attribute) {
         return this.getAsNumber(attribute).longValue();
     }
 
+    /**
+     * Get the numeric attribute stored in the given slot of the {@link Schema} of this event without boxing it.
+     *
+     * @param index the schema index of the attribute
+     * @return the value as long
+     */
+    public long getAsLong(int index) {
+        SlotData slotData = (SlotData) this.data;
+        if (slotData.isNumeric(index)) {
+            return slotData.getLong(index);
+        }
+        return this.toNumber(slotData.getSchema().getName(index), slotData.get(index)).longValue();
+    }
+
+    /**
+     * Get the numeric attribute by its name. Like {@link #get(String)}, the name is resolved on every call. Use
+     * {@link RuntimeAttribute#getAsDouble(Event)} to read the attribute from the slot of a typed event without boxing.
+     *
+     * @param attribute the attribute name
+     * @return the value as double
+     */
     public double getAsDouble(String attribute) {
         return this.getAsNumber(attribute).doubleValue();
     }
 
+    /**
+     * Get the numeric attribute stored in the given slot of the {@link Schema} of this event without boxing it.
+     *
+     * @param index the schema index of the attribute
+     * @return the value as double
+     */
+    public double getAsDouble(int index) {
+        SlotData slotData = (SlotData) this.data;
+        if (slotData.isNumeric(index)) {
+            return slotData.getDouble(index);
+        }
+        return this.toNumber(slotData.getSchema().getName(index), slotData.get(index)).doubleValue();
+    }
+
     public Event remove(String attribute) {
-        this.data.remove(attribute);
+        this.writableData().remove(attribute);
+        return this;
+    }
+
+    /**
+     * Remove all the attributes except the given attributes. If the attributes are shared with other events, only the
+     * retained attributes are copied into a private storage.
+     *
+     * @param attributes the attributes to retain
+     * @return this event
+     */
+    public Event retain(Collection<String> attributes) {
+        if (this.shared) {
+            Map<String, Object> retained = this.newStorage();
+            for (String attribute : attributes) {
+                Object value = this.data.get(attribute);
+                if (value != null || this.data.containsKey(attribute)) {
+                    retained.put(attribute, value);
+                }
+            }
+            this.data = retained;
+            this.shared = false;
+            this.unbound = false;
+        } else {
+            this.data.keySet().retainAll(attributes);
+        }
         return this;
     }
 
@@ -139,6 +275,10 @@ public class Event implements AttributeSupplier {
         return timestamp;
     }
 
+    public boolean isExpired() {
+        return expired;
+    }
+
     public void setExpired(boolean expired) {
         this.expired = expired;
     }
@@ -159,8 +299,54 @@ public class Event implements AttributeSupplier {
         this.original = original;
     }
 
+    /**
+     * Get the attributes of this event. The returned map can be modified, therefore the attributes are copied into a
+     * private storage if they are shared with other events. Use {@link #getDataView()} to read the attributes
+     * without copying them.
+     *
+     * @return the modifiable attributes of this event
+     */
     public Map<String, Object> getData() {
-        return data;
+        return this.writableData();
+    }
+
+    /**
+     * Get a read-only view of the attributes of this event without breaking the sharing with other events.
+     *
+     * @return the unmodifiable attributes of this event
+     */
+    public Map<String, Object> getDataView() {
+        return Collections.unmodifiableMap(this.data);
+    }
+
+    /**
+     * Check whether the attributes of this event are shared with other events created by {@link #copyEvent()}.
+     *
+     * @return true if the attributes will be copied on the next modification
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    private Map<String, Object> writableData() {
+        if (this.shared) {
+            if (this.data instanceof SlotData && !this.unbound) {
+                this.data = ((SlotData) this.data).copy();
+            } else {
+                this.data = new HashMap<>(this.data);
+            }
+            this.shared = false;
+            this.unbound = false;
+        }
+        return this.data;
+    }
+
+    private Map<String, Object> newStorage() {
+        if (this.data instanceof SlotData && !this.unbound) {
+            return new SlotData(((SlotData) this.data).getSchema());
+        } else {
+            return new HashMap<>();
+        }
     }
 
     public boolean isReset() {
@@ -171,23 +357,61 @@ public class Event implements AttributeSupplier {
         this.reset = reset;
     }
 
+    /**
+     * Create a copy of this event sharing the attributes with this event. Both events copy the attributes into a
+     * private storage only when they are modified for the first time.
+     *
+     * @return the new event
+     */
     public Event copyEvent() {
-        Event event = new Event(this.stream, this.timestamp);
-        event.data = new HashMap<>(this.data);
-        event.expired = this.expired;
-        event.original = this;
+        Event event = this.derive(this.data);
+        event.shared = true;
+        event.unbound = this.unbound;
+        this.shared = true;
         return event;
     }
 
+    /**
+     * Copy this event into the attribute layout of the given {@link Schema}. If this event is already bound to the
+     * same schema, the copy shares the primitive columns like {@link #copyEvent()}. If the target has no schema, the
+     * copy shares the primitive columns as a read-only map view which is copied into a {@link HashMap} only when the
+     * copy is modified for the first time.
+     *
+     * @param schema the target schema or null to store the attributes in a {@link HashMap}
+     * @return the new event
+     */
+    public Event copyEvent(Schema schema) {
+        if (schema == null) {
+            Event event = this.copyEvent();
+            event.unbound = this.data instanceof SlotData;
+            return event;
+        } else if (this.data instanceof SlotData && ((SlotData) this.data).getSchema() == schema) {
+            Event event = this.copyEvent();
+            event.unbound = false;
+            return event;
+        } else {
+            SlotData slotData = new SlotData(schema);
+            slotData.putAll(this.data);
+            return this.derive(slotData);
+        }
+    }
+
     public Event emptyEvent() {
-        Event event = new Event(this.stream, this.timestamp);
-        event.data = new HashMap<>();
+        return this.derive(this.newStorage());
+    }
+
+    private Event derive(Map<String, Object> data) {
+        Event event = new Event(this.timestamp, data);
+        event.stream = this.stream;
         event.expired = this.expired;
         event.original = this;
         return event;
     }
 
     public void setAlias(String key, String as) {
+        if (this.alias == null) {
+            this.alias = new HashMap<>();
+        }
         this.alias.put(as, key);
     }
 
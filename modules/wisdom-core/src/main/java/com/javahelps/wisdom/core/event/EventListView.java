@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.event;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list backed by a reusable array of events. Windows emit their batches as views and reuse the array once
+ * the {@link com.javahelps.wisdom.core.processor.Processor#process(java.util.List)} call returns, so processors
+ * keeping or modifying the list after the call must copy it. Only the owner of the view can add events.
+ */
+public final class EventListView extends AbstractList<Event> implements RandomAccess {
+
+    private Event[] events;
+    private int size;
+
+    public EventListView(int capacity) {
+        this.events = new Event[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Append an event, growing the array if it is full.
+     *
+     * @param event the event
+     */
+    public void append(Event event) {
+        if (this.size == this.events.length) {
+            this.events = Arrays.copyOf(this.events, this.size * 2);
+        }
+        this.events[this.size++] = event;
+    }
+
+    /**
+     * Remove all events without releasing the array.
+     */
+    public void reset() {
+        Arrays.fill(this.events, 0, this.size, null);
+        this.size = 0;
+    }
+
+    @Override
+    public Event get(int index) {
+        Objects.checkIndex(index, this.size);
+        return this.events[index];
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+}
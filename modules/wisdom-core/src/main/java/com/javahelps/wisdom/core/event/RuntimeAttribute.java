@@ -22,20 +22,145 @@ package com.javahelps.wisdom.core.event;
 
 import java.util.function.Function;
 
+/**
+ * Reference to an attribute of events resolved once instead of for every event. The slot index of the attribute in
+ * the {@link Schema} of typed events is resolved when the stream or query reading the attribute is defined, and the
+ * name qualified by the event name is cached for the named events of patterns.
+ */
 public class RuntimeAttribute implements Function<AttributeSupplier, Object> {
 
     private final String name;
+    private final boolean qualified;
+    private volatile Binding binding;
+    private volatile boolean fixed;
+    private volatile QualifiedName qualifiedName;
 
     public RuntimeAttribute(String name) {
         this.name = name;
+        this.qualified = name.indexOf('.') >= 0;
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * Resolve the slot index of this attribute in the given {@link Schema} so that events bound to the schema can be
+     * read without hashing the attribute name. Called when the stream or query reading the attribute is defined;
+     * events of any other layout are read by the attribute name. Attributes which are never bound, like the ones
+     * created through the Java API, are bound to the schema of the events they read.
+     *
+     * @param schema the schema of the events
+     * @return this attribute
+     */
+    public RuntimeAttribute bind(Schema schema) {
+        if (schema != null) {
+            this.binding = new Binding(schema, schema.indexOf(this.name));
+            this.fixed = true;
+        }
+        return this;
+    }
+
     @Override
-    public Object apply(AttributeSupplier event) {
-        return event.get(name);
+    public Object apply(AttributeSupplier supplier) {
+        if (supplier instanceof Event) {
+            Event event = (Event) supplier;
+            String eventName = event.getName();
+            if (eventName != null) {
+                return event.getQualified(this.qualify(eventName));
+            }
+            int index = this.indexOf(event.getSchema());
+            if (index >= 0) {
+                Object value = event.get(index);
+                if (value != null) {
+                    return value;
+                }
+            }
+            return event.getQualified(this.name);
+        }
+        return supplier.get(name);
+    }
+
+    /**
+     * Read this attribute of the given event as long without boxing it if the event is bound to the schema of this
+     * attribute.
+     *
+     * @param event the event
+     * @return the value as long
+     */
+    public long getAsLong(Event event) {
+        if (event.getName() == null) {
+            int index = this.indexOf(event.getSchema());
+            if (index >= 0) {
+                return event.getAsLong(index);
+            }
+        }
+        return event.toNumber(this.name, this.apply(event)).longValue();
+    }
+
+    /**
+     * Read this attribute of the given event as double without boxing it if the event is bound to the schema of this
+     * attribute.
+     *
+     * @param event the event
+     * @return the value as double
+     */
+    public double getAsDouble(Event event) {
+        if (event.getName() == null) {
+            int index = this.indexOf(event.getSchema());
+            if (index >= 0) {
+                return event.getAsDouble(index);
+            }
+        }
+        return event.toNumber(this.name, this.apply(event)).doubleValue();
+    }
+
+    private int indexOf(Schema schema) {
+        if (schema == null) {
+            return -1;
+        }
+        Binding binding = this.binding;
+        if (binding != null && binding.schema == schema) {
+            return binding.index;
+        }
+        if (this.fixed) {
+            // Events of another schema are read by the attribute name
+            return -1;
+        }
+        binding = new Binding(schema, schema.indexOf(this.name));
+        this.binding = binding;
+        return binding.index;
+    }
+
+    private String qualify(String eventName) {
+        if (this.qualified) {
+            return this.name;
+        }
+        QualifiedName qualifiedName = this.qualifiedName;
+        if (qualifiedName == null || !qualifiedName.eventName.equals(eventName)) {
+            qualifiedName = new QualifiedName(eventName, eventName + "." + this.name);
+            this.qualifiedName = qualifiedName;
+        }
+        return qualifiedName.name;
+    }
+
+    private static class Binding {
+        private final Schema schema;
+        private final int index;
+
+        private Binding(Schema schema, int index) {
+            this.schema = schema;
+            this.index = index;
+        }
+    }
+
+    private static class QualifiedName {
+        private final String eventName;
+        private final String name;
+
+        private QualifiedName(String eventName, String name) {
+            this.eventName = eventName;
+            this.name = name;
+        }
     }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.event;
+
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+
+import java.util.*;
+
+/**
+ * {@link Schema} is the fixed attribute layout of a typed {@link com.javahelps.wisdom.core.stream.Stream}.
+ * Each attribute is assigned a slot in one of the primitive columns (long, double and boolean) or in the object
+ * column of the {@link Event}s belonging to the stream, so that attribute references can be resolved into slot
+ * indices once instead of hashing the attribute name for every event.
+ */
+public class Schema {
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Type> types = new ArrayList<>();
+    private final Map<String, Integer> indices = new HashMap<>();
+    private int[] columns = new int[0];
+    private int longCount;
+    private int doubleCount;
+    private int boolCount;
+    private int objectCount;
+    private volatile boolean frozen;
+
+    public static Schema of(Object... entries) {
+        int count = entries.length;
+        if (count % 2 != 0) {
+            throw new WisdomAppValidationException("The given values must be name, type pairs with even number of " +
+                    "parameters");
+        }
+        Schema schema = new Schema();
+        for (int i = 0; i < count; i += 2) {
+            Object type = entries[i + 1];
+            schema.attribute(Objects.toString(entries[i]), type instanceof Type ? (Type) type : Type.of(Objects.toString(type)));
+        }
+        return schema;
+    }
+
+    public Schema attribute(String name, Type type) {
+        Objects.requireNonNull(name, "Attribute name cannot be null");
+        Objects.requireNonNull(type, "Attribute type cannot be null");
+        if (this.frozen) {
+            throw new WisdomAppValidationException("Cannot add attribute %s to %s which is already bound to a stream",
+                    name, this);
+        }
+        if (this.indices.containsKey(name)) {
+            throw new WisdomAppValidationException("Attribute %s is already defined in the schema", name);
+        }
+        int column;
+        switch (type) {
+            case LONG:
+                column = this.longCount++;
+                break;
+            case DOUBLE:
+                column = this.doubleCount++;
+                break;
+            case BOOL:
+                column = this.boolCount++;
+                break;
+            default:
+                column = this.objectCount++;
+        }
+        this.indices.put(name, this.names.size());
+        this.names.add(name);
+        this.types.add(type);
+        this.columns = Arrays.copyOf(this.columns, this.columns.length + 1);
+        this.columns[this.columns.length - 1] = column;
+        return this;
+    }
+
+    /**
+     * Prevent adding attributes to this schema. Called when a stream is bound to the schema, since the events of the
+     * stream and the slot indices resolved by {@link RuntimeAttribute}s rely on a fixed layout.
+     *
+     * @return this schema
+     */
+    public Schema freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Get the slot index of the given attribute.
+     *
+     * @param name the attribute name
+     * @return the index or -1 if the attribute is not defined in this schema
+     */
+    public int indexOf(Object name) {
+        Integer index = this.indices.get(name);
+        return index == null ? -1 : index;
+    }
+
+    public int size() {
+        return this.names.size();
+    }
+
+    public String getName(int index) {
+        return this.names.get(index);
+    }
+
+    public Type getType(int index) {
+        return this.types.get(index);
+    }
+
+    public List<String> getNames() {
+        return Collections.unmodifiableList(this.names);
+    }
+
+    int getColumn(int index) {
+        return this.columns[index];
+    }
+
+    int getLongCount() {
+        return longCount;
+    }
+
+    int getDoubleCount() {
+        return doubleCount;
+    }
+
+    int getBoolCount() {
+        return boolCount;
+    }
+
+    int getObjectCount() {
+        return objectCount;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "Schema{", "}");
+        for (int i = 0; i < this.names.size(); i++) {
+            joiner.add(this.names.get(i) + ": " + this.types.get(i).name().toLowerCase());
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Data types supported by {@link Schema} attributes.
+     */
+    public enum Type {
+        LONG, DOUBLE, BOOL, STRING, OBJECT;
+
+        public static Type of(String name) {
+            try {
+                return Type.valueOf(name.toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                throw new WisdomAppValidationException("Unknown attribute type %s. Supported types are %s", name,
+                        Arrays.toString(Type.values()).toLowerCase());
+            }
+        }
+    }
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.event;
+
+import java.util.*;
+
+/**
+ * The attribute storage of {@link Event}s bound to a {@link Schema}. Attributes defined in the schema are stored in
+ * primitive columns indexed by the schema, and any other attributes or values which do not match the declared type
+ * are stored in an overflow map created on demand. Values are widened into a column only if the widening is
+ * lossless: {@code Integer}, {@code Short} and {@code Byte} into long columns and {@code Float}, {@code Integer},
+ * {@code Short} and {@code Byte} into double columns, so that {@link #get(Object)} returns them as {@code Long} or
+ * {@code Double}. A {@code Long} sent to a double attribute is kept as it is in the overflow map. {@link SlotData}
+ * behaves exactly like a {@link Map} so the processors relying on {@link Event#getData()} work without knowing the
+ * underlying layout.
+ */
+class SlotData extends AbstractMap<String, Object> {
+
+    private final Schema schema;
+    private final long[] longs;
+    private final double[] doubles;
+    private final boolean[] bools;
+    private final Object[] objects;
+    private final long[] present;
+    private Map<String, Object> overflow;
+    private transient Set<Map.Entry<String, Object>> entrySet;
+
+    SlotData(Schema schema) {
+        this.schema = schema;
+        this.longs = new long[schema.getLongCount()];
+        this.doubles = new double[schema.getDoubleCount()];
+        this.bools = new boolean[schema.getBoolCount()];
+        this.objects = new Object[schema.getObjectCount()];
+        this.present = new long[(schema.size() + 63) >>> 6];
+    }
+
+    private SlotData(SlotData data) {
+        this.schema = data.schema;
+        this.longs = data.longs.clone();
+        this.doubles = data.doubles.clone();
+        this.bools = data.bools.clone();
+        this.objects = data.objects.clone();
+        this.present = data.present.clone();
+        if (data.overflow != null && !data.overflow.isEmpty()) {
+            this.overflow = new HashMap<>(data.overflow);
+        }
+    }
+
+    Schema getSchema() {
+        return schema;
+    }
+
+    SlotData copy() {
+        return new SlotData(this);
+    }
+
+    boolean isPresent(int index) {
+        return (this.present[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private void setPresent(int index, boolean value) {
+        if (value) {
+            this.present[index >>> 6] |= (1L << index);
+        } else {
+            this.present[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    Object get(int index) {
+        if (this.isPresent(index)) {
+            int column = this.schema.getColumn(index);
+            switch (this.schema.getType(index)) {
+                case LONG:
+                    return this.longs[column];
+                case DOUBLE:
+                    return this.doubles[column];
+                case BOOL:
+                    return this.bools[column];
+                default:
+                    return this.objects[column];
+            }
+        } else if (this.overflow != null) {
+            return this.overflow.get(this.schema.getName(index));
+        }
+        return null;
+    }
+
+    /**
+     * Read a numeric attribute without boxing it.
+     *
+     * @param index the schema index
+     * @return the value or {@link Double#NaN} if the attribute is not stored in a numeric column
+     */
+    double getDouble(int index) {
+        if (this.isPresent(index)) {
+            Schema.Type type = this.schema.getType(index);
+            if (type == Schema.Type.DOUBLE) {
+                return this.doubles[this.schema.getColumn(index)];
+            } else if (type == Schema.Type.LONG) {
+                return this.longs[this.schema.getColumn(index)];
+            }
+        }
+        return Double.NaN;
+    }
+
+    boolean isNumeric(int index) {
+        if (this.isPresent(index)) {
+            Schema.Type type = this.schema.getType(index);
+            return type == Schema.Type.DOUBLE || type == Schema.Type.LONG;
+        }
+        return false;
+    }
+
+    long getLong(int index) {
+        Schema.Type type = this.schema.getType(index);
+        if (type == Schema.Type.LONG) {
+            return this.longs[this.schema.getColumn(index)];
+        } else {
+            return (long) this.doubles[this.schema.getColumn(index)];
+        }
+    }
+
+    private boolean store(int index, Object value) {
+        int column = this.schema.getColumn(index);
+        switch (this.schema.getType(index)) {
+            case LONG:
+                // Integral values are widened to long
+                if (value instanceof Long || value instanceof Integer || value instanceof Short ||
+                        value instanceof Byte) {
+                    this.longs[column] = ((Number) value).longValue();
+                    return true;
+                }
+                return false;
+            case DOUBLE:
+                // Long values may not fit into the mantissa of a double
+                if (value instanceof Double || value instanceof Float || value instanceof Integer ||
+                        value instanceof Short || value instanceof Byte) {
+                    this.doubles[column] = ((Number) value).doubleValue();
+                    return true;
+                }
+                return false;
+            case BOOL:
+                if (value instanceof Boolean) {
+                    this.bools[column] = (Boolean) value;
+                    return true;
+                }
+                return false;
+            case STRING:
+                if (value instanceof String) {
+                    this.objects[column] = value;
+                    return true;
+                }
+                return false;
+            default:
+                if (value != null) {
+                    this.objects[column] = value;
+                    return true;
+                }
+                return false;
+        }
+    }
+
+    private void clearSlot(int index) {
+        this.setPresent(index, false);
+        Schema.Type type = this.schema.getType(index);
+        if (type == Schema.Type.STRING || type == Schema.Type.OBJECT) {
+            this.objects[this.schema.getColumn(index)] = null;
+        }
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = this.schema.indexOf(key);
+        if (index >= 0) {
+            return this.get(index);
+        } else if (this.overflow != null) {
+            return this.overflow.get(key);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int index = this.schema.indexOf(key);
+        if (index >= 0 && this.isPresent(index)) {
+            return true;
+        }
+        return this.overflow != null && this.overflow.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int index = this.schema.indexOf(key);
+        if (index >= 0) {
+            Object previous = this.get(index);
+            if (this.store(index, value)) {
+                this.setPresent(index, true);
+                if (this.overflow != null) {
+                    this.overflow.remove(key);
+                }
+            } else {
+                // Value does not match the declared type
+                this.clearSlot(index);
+                this.overflow().put(key, value);
+            }
+            return previous;
+        } else {
+            return this.overflow().put(key, value);
+        }
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int index = this.schema.indexOf(key);
+        if (index >= 0) {
+            Object previous = this.get(index);
+            this.clearSlot(index);
+            if (this.overflow != null) {
+                this.overflow.remove(key);
+            }
+            return previous;
+        } else if (this.overflow != null) {
+            return this.overflow.remove(key);
+        }
+        return null;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.present, 0L);
+        Arrays.fill(this.objects, null);
+        if (this.overflow != null) {
+            this.overflow.clear();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (long word : this.present) {
+            size += Long.bitCount(word);
+        }
+        if (this.overflow != null) {
+            size += this.overflow.size();
+        }
+        return size;
+    }
+
+    private Map<String, Object> overflow() {
+        if (this.overflow == null) {
+            this.overflow = new HashMap<>();
+        }
+        return this.overflow;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (this.entrySet == null) {
+            this.entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return SlotData.this.size();
+                }
+            };
+        }
+        return this.entrySet;
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+        private final int noOfSlots = schema.size();
+        private int nextSlot = -1;
+        private int lastSlot = -1;
+        private Iterator<Map.Entry<String, Object>> overflowIterator;
+        private boolean inOverflow = false;
+
+        private EntryIterator() {
+            this.advance();
+        }
+
+        private void advance() {
+            do {
+                this.nextSlot++;
+            } while (this.nextSlot < this.noOfSlots && !isPresent(this.nextSlot));
+            if (this.nextSlot >= this.noOfSlots && overflow != null) {
+                this.overflowIterator = overflow.entrySet().iterator();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.nextSlot < this.noOfSlots) {
+                return true;
+            }
+            return this.overflowIterator != null && this.overflowIterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (this.nextSlot < this.noOfSlots) {
+                int slot = this.nextSlot;
+                this.lastSlot = slot;
+                this.inOverflow = false;
+                this.advance();
+                return new SlotEntry(slot);
+            } else if (this.overflowIterator != null) {
+                this.inOverflow = true;
+                return this.overflowIterator.next();
+            }
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        public void remove() {
+            if (this.inOverflow) {
+                this.overflowIterator.remove();
+            } else if (this.lastSlot >= 0) {
+                clearSlot(this.lastSlot);
+                this.lastSlot = -1;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    private class SlotEntry implements Map.Entry<String, Object> {
+
+        private final int index;
+
+        private SlotEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return schema.getName(this.index);
+        }
+
+        @Override
+        public Object getValue() {
+            return get(this.index);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return put(this.getKey(), value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return Objects.equals(this.getKey(), entry.getKey()) && Objects.equals(this.getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(this.getKey()) ^ Objects.hashCode(this.getValue());
+        }
+
+        @Override
+        public String toString() {
+            return this.getKey() + "=" + this.getValue();
+        }
+    }
+}
@@ -22,6 +22,7 @@ package com.javahelps.wisdom.core.map;
 
 import com.javahelps.wisdom.core.WisdomApp;
 import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.RuntimeAttribute;
 import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
 import com.javahelps.wisdom.core.extension.WisdomExtension;
 import com.javahelps.wisdom.core.util.Commons;
@@ -37,6 +38,7 @@ import static com.javahelps.wisdom.core.util.WisdomConstants.ATTR;
 public class FormatTimeMapper extends Mapper {
 
     private final String currentName;
+    private final RuntimeAttribute currentAttribute;
     private final ZoneId systemZone;
 
     public FormatTimeMapper(String attrName, Map<String, ?> properties) {
@@ -46,6 +48,7 @@ public class FormatTimeMapper extends Mapper {
         if (this.currentName == null) {
             throw new WisdomAppValidationException("Required property %s for FormatTime mapper not found", ATTR);
         }
+        this.currentAttribute = new RuntimeAttribute(this.currentName);
         if (zoneId == null) {
             systemZone = ZoneId.systemDefault();
         } else {
@@ -70,7 +73,7 @@ public class FormatTimeMapper extends Mapper {
 
     @Override
     public Event map(Event event) {
-        long timestamp = event.getAsLong(currentName);
+        long timestamp = this.currentAttribute.getAsLong(event);
         event.set(attrName, LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), systemZone).toString());
         return event;
     }
@@ -21,6 +21,7 @@
 package com.javahelps.wisdom.core.operand;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
@@ -30,7 +31,7 @@ public class WisdomArray implements WisdomDataType<WisdomArray>, Iterable {
     private final List<Object> list;
     private final int size;
 
-    protected WisdomArray(List<Object> list) {
+    protected WisdomArray(Collection<Object> list) {
         this.list = new ArrayList<>(list);
         this.size = this.list.size();
     }
@@ -51,6 +52,10 @@ public class WisdomArray implements WisdomDataType<WisdomArray>, Iterable {
         return new WisdomArray(items);
     }
 
+    public static WisdomArray of(Collection<Object> items) {
+        return new WisdomArray(items);
+    }
+
     public boolean contains(Comparable item) {
         if (item instanceof WisdomArray) {
             return this.list.containsAll(((WisdomArray) item).list);
@@ -21,16 +21,22 @@
 package com.javahelps.wisdom.core.operator;
 
 import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.Schema;
 import com.javahelps.wisdom.core.extension.ImportsManager;
 import com.javahelps.wisdom.core.partition.Partitionable;
 import com.javahelps.wisdom.core.processor.Stateful;
+import com.javahelps.wisdom.core.util.NoOpLock;
 
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Function;
 
 public abstract class AggregateOperator implements Function<Event, Object>, Stateful, Partitionable {
 
     protected final String newName;
+    protected Lock lock = NoOpLock.INSTANCE;
+    protected boolean expiring;
+    private Schema schema;
 
     static {
         ImportsManager.INSTANCE.use(AggregateOperator.class.getPackageName());
@@ -44,6 +50,44 @@ public abstract class AggregateOperator implements Function<Event, Object>, Stat
         return newName;
     }
 
+    public void setLock(Lock lock) {
+        this.lock = lock;
+    }
+
+    /**
+     * Resolve the attributes read by this operator in the {@link Schema} of the input events. Called by the
+     * {@link com.javahelps.wisdom.core.query.Query} when the operator is defined and by the
+     * {@link com.javahelps.wisdom.core.processor.AggregateProcessor} for the copies of the operator.
+     *
+     * @param schema the schema of the input events or null if they are not typed
+     */
+    public void bind(Schema schema) {
+        this.schema = schema;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Prepare this operator to receive expired events from a sliding window. The values of expired events are removed
+     * from the aggregate.
+     *
+     * @param expiring true if the operator follows a sliding window
+     */
+    public void setExpiring(boolean expiring) {
+        this.expiring = expiring;
+    }
+
+    /**
+     * Apply an event without computing the aggregate. Used for the events of a batch before the last event.
+     *
+     * @param event the event
+     */
+    public void accumulate(Event event) {
+        this.apply(event);
+    }
+
     public static AggregateOperator create(String namespace, String as, Map<String, ?> properties) {
         return ImportsManager.INSTANCE.createAggregateOperator(namespace, as, properties);
     }
@@ -21,8 +21,11 @@
 package com.javahelps.wisdom.core.operator;
 
 import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.RuntimeAttribute;
+import com.javahelps.wisdom.core.event.Schema;
 import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
 import com.javahelps.wisdom.core.extension.WisdomExtension;
+import com.javahelps.wisdom.core.partition.KeyedState;
 import com.javahelps.wisdom.core.partition.Partitionable;
 import com.javahelps.wisdom.core.util.Commons;
 import com.javahelps.wisdom.core.util.WisdomConfig;
@@ -32,11 +35,14 @@ import java.util.Map;
 import static com.javahelps.wisdom.core.util.WisdomConstants.ATTR;
 
 @WisdomExtension("avg")
-public class AvgOperator extends AggregateOperator {
+public class AvgOperator extends AggregateOperator implements KeyedAggregateOperator {
 
     private String attribute;
+    private final RuntimeAttribute runtimeAttribute;
     private double sum;
     private long count;
+    private double[] keyedSums;
+    private long[] keyedCounts;
 
 
     public AvgOperator(String as, Map<String, ?> properties) {
@@ -45,33 +51,135 @@ public class AvgOperator extends AggregateOperator {
         if (this.attribute == null) {
             throw new WisdomAppValidationException("Required property %s of Avg operator not found", ATTR);
         }
+        this.runtimeAttribute = new RuntimeAttribute(this.attribute);
+    }
+
+    @Override
+    public void bind(Schema schema) {
+        super.bind(schema);
+        this.runtimeAttribute.bind(schema);
     }
 
     @Override
     public Object apply(Event event) {
         double value;
-        synchronized (this) {
+        this.lock.lock();
+        try {
             if (event.isReset()) {
                 sum = 0.0;
                 count = 0L;
                 value = 0.0;
+            } else if (event.isExpired()) {
+                this.sum -= this.runtimeAttribute.getAsDouble(event);
+                this.count--;
+                value = this.count == 0 ? 0.0 : Math.round(this.sum / this.count * WisdomConfig.DOUBLE_PRECISION) /
+                        WisdomConfig.DOUBLE_PRECISION;
             } else {
-                this.sum += event.getAsDouble(attribute);
+                this.sum += this.runtimeAttribute.getAsDouble(event);
                 this.count++;
                 value = this.sum / this.count;
                 if (value != Double.NaN) {
                     value = Math.round(value * WisdomConfig.DOUBLE_PRECISION) / WisdomConfig.DOUBLE_PRECISION;
                 }
             }
+        } finally {
+            this.lock.unlock();
+        }
+        return value;
+    }
+
+    @Override
+    public Object apply(int key, Event event) {
+        double value;
+        this.lock.lock();
+        try {
+            this.keyedSums = KeyedState.ensureCapacity(this.keyedSums, key);
+            this.keyedCounts = KeyedState.ensureCapacity(this.keyedCounts, key);
+            if (event.isReset()) {
+                this.keyedSums[key] = 0.0;
+                this.keyedCounts[key] = 0L;
+                value = 0.0;
+            } else if (event.isExpired()) {
+                this.keyedSums[key] -= this.runtimeAttribute.getAsDouble(event);
+                this.keyedCounts[key]--;
+                value = this.keyedCounts[key] == 0 ? 0.0 : Math.round(this.keyedSums[key] / this.keyedCounts[key] *
+                        WisdomConfig.DOUBLE_PRECISION) / WisdomConfig.DOUBLE_PRECISION;
+            } else {
+                this.keyedSums[key] += this.runtimeAttribute.getAsDouble(event);
+                this.keyedCounts[key]++;
+                value = this.keyedSums[key] / this.keyedCounts[key];
+                value = Math.round(value * WisdomConfig.DOUBLE_PRECISION) / WisdomConfig.DOUBLE_PRECISION;
+            }
+        } finally {
+            this.lock.unlock();
         }
         return value;
     }
 
+    @Override
+    public Object combine(KeyedAggregateOperator[] operators, int[] keys) {
+        double sum = 0.0;
+        long count = 0L;
+        for (int i = 0; i < keys.length; i++) {
+            AvgOperator operator = (AvgOperator) operators[i];
+            operator.lock.lock();
+            try {
+                if (operator.keyedSums != null && keys[i] < operator.keyedSums.length) {
+                    sum += operator.keyedSums[keys[i]];
+                    count += operator.keyedCounts[keys[i]];
+                }
+            } finally {
+                operator.lock.unlock();
+            }
+        }
+        if (count == 0) {
+            return 0.0;
+        }
+        return Math.round(sum / count * WisdomConfig.DOUBLE_PRECISION) / WisdomConfig.DOUBLE_PRECISION;
+    }
+
+    @Override
+    public Object combine(int[] keys) {
+        double sum = 0.0;
+        long count = 0L;
+        this.lock.lock();
+        try {
+            for (int key : keys) {
+                if (this.keyedSums != null && key < this.keyedSums.length) {
+                    sum += this.keyedSums[key];
+                    count += this.keyedCounts[key];
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        if (count == 0) {
+            return 0.0;
+        }
+        return Math.round(sum / count * WisdomConfig.DOUBLE_PRECISION) / WisdomConfig.DOUBLE_PRECISION;
+    }
+
+    @Override
+    public void clear(int key) {
+        this.lock.lock();
+        try {
+            if (this.keyedSums != null && key < this.keyedSums.length) {
+                this.keyedSums[key] = 0.0;
+                this.keyedCounts[key] = 0L;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
     @Override
     public void clear() {
-        synchronized (this) {
+        this.lock.lock();
+        try {
             this.sum = 0.0;
             this.count = 0L;
+        } finally {
+            this.lock.unlock();
         }
     }
 
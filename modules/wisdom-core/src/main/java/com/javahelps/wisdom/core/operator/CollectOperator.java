@@ -27,8 +27,7 @@ import com.javahelps.wisdom.core.operand.WisdomArray;
 import com.javahelps.wisdom.core.partition.Partitionable;
 import com.javahelps.wisdom.core.util.Commons;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
 import java.util.Map;
 
 import static com.javahelps.wisdom.core.util.WisdomConstants.ATTR;
@@ -37,7 +36,7 @@ import static com.javahelps.wisdom.core.util.WisdomConstants.ATTR;
 public class CollectOperator extends AggregateOperator {
 
     private String attribute;
-    private List<Object> values = new ArrayList<>();
+    private ArrayDeque<Object> values = new ArrayDeque<>();
 
     public CollectOperator(String as, Map<String, ?> properties) {
         super(as, properties);
@@ -50,21 +49,30 @@ public class CollectOperator extends AggregateOperator {
     @Override
     public Object apply(Event event) {
         WisdomArray value;
-        synchronized (this) {
+        this.lock.lock();
+        try {
             if (event.isReset()) {
                 this.values.clear();
+            } else if (event.isExpired()) {
+                // Sliding windows expire events in their arrival order
+                this.values.pollFirst();
             } else {
                 this.values.add(event.get(this.attribute));
             }
             value = WisdomArray.of(this.values);
+        } finally {
+            this.lock.unlock();
         }
         return value;
     }
 
     @Override
     public void clear() {
-        synchronized (this) {
+        this.lock.lock();
+        try {
             this.values.clear();
+        } finally {
+            this.lock.unlock();
         }
     }
 
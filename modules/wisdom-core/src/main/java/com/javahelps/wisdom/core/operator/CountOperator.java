@@ -22,15 +22,17 @@ package com.javahelps.wisdom.core.operator;
 
 import com.javahelps.wisdom.core.event.Event;
 import com.javahelps.wisdom.core.extension.WisdomExtension;
+import com.javahelps.wisdom.core.partition.KeyedState;
 import com.javahelps.wisdom.core.partition.Partitionable;
 
 import java.util.Collections;
 import java.util.Map;
 
 @WisdomExtension("count")
-public class CountOperator extends AggregateOperator {
+public class CountOperator extends AggregateOperator implements KeyedAggregateOperator {
 
     private long count;
+    private long[] keyedCounts;
 
     public CountOperator(String as, Map<String, ?> properties) {
         super(as, properties);
@@ -39,21 +41,94 @@ public class CountOperator extends AggregateOperator {
     @Override
     public Object apply(Event event) {
         long value;
-        synchronized (this) {
+        this.lock.lock();
+        try {
             if (event.isReset()) {
                 this.count = 0;
+            } else if (event.isExpired()) {
+                this.count--;
             } else {
                 this.count++;
             }
             value = this.count;
+        } finally {
+            this.lock.unlock();
         }
         return value;
     }
 
+    @Override
+    public Object apply(int key, Event event) {
+        long value;
+        this.lock.lock();
+        try {
+            this.keyedCounts = KeyedState.ensureCapacity(this.keyedCounts, key);
+            if (event.isReset()) {
+                this.keyedCounts[key] = 0;
+            } else if (event.isExpired()) {
+                this.keyedCounts[key]--;
+            } else {
+                this.keyedCounts[key]++;
+            }
+            value = this.keyedCounts[key];
+        } finally {
+            this.lock.unlock();
+        }
+        return value;
+    }
+
+    @Override
+    public Object combine(KeyedAggregateOperator[] operators, int[] keys) {
+        long value = 0L;
+        for (int i = 0; i < keys.length; i++) {
+            CountOperator operator = (CountOperator) operators[i];
+            operator.lock.lock();
+            try {
+                if (operator.keyedCounts != null && keys[i] < operator.keyedCounts.length) {
+                    value += operator.keyedCounts[keys[i]];
+                }
+            } finally {
+                operator.lock.unlock();
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public Object combine(int[] keys) {
+        long value = 0L;
+        this.lock.lock();
+        try {
+            for (int key : keys) {
+                if (this.keyedCounts != null && key < this.keyedCounts.length) {
+                    value += this.keyedCounts[key];
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        return value;
+    }
+
+    @Override
+    public void clear(int key) {
+        this.lock.lock();
+        try {
+            if (this.keyedCounts != null && key < this.keyedCounts.length) {
+                this.keyedCounts[key] = 0L;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
     @Override
     public void clear() {
-        synchronized (this) {
+        this.lock.lock();
+        try {
             this.count = 0L;
+        } finally {
+            this.lock.unlock();
         }
     }
 
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.operator;
+
+import com.javahelps.wisdom.core.event.Event;
+
+/**
+ * An {@link AggregateOperator} able to keep the accumulators of all partitions in a single instance, indexed by the
+ * dense keys of partitions.
+ */
+public interface KeyedAggregateOperator {
+
+    Object apply(int key, Event event);
+
+    /**
+     * Apply an event to the accumulator of a partition without computing the aggregate.
+     *
+     * @param key   the key of the partition
+     * @param event the event
+     */
+    default void accumulate(int key, Event event) {
+        this.apply(key, event);
+    }
+
+    /**
+     * Combine the accumulators of a partition split among the shards of a parallel partition. Every shard keeps its
+     * sub-partition in its own copy of this operator.
+     *
+     * @param operators the copies of this operator indexed by shard
+     * @param keys      the keys of the sub-partitions indexed by shard
+     * @return the aggregate of the partition
+     */
+    Object combine(KeyedAggregateOperator[] operators, int[] keys);
+
+    /**
+     * Combine the accumulators of the given keys without changing them.
+     *
+     * @param keys the keys of the accumulators
+     * @return the combined aggregate
+     */
+    Object combine(int[] keys);
+
+    /**
+     * Reset the accumulator of a partition.
+     *
+     * @param key the key of the partition
+     */
+    void clear(int key);
+}
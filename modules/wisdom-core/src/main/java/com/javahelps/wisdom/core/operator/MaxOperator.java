@@ -23,6 +23,7 @@ package com.javahelps.wisdom.core.operator;
 import com.javahelps.wisdom.core.event.Event;
 import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
 import com.javahelps.wisdom.core.extension.WisdomExtension;
+import com.javahelps.wisdom.core.partition.KeyedState;
 import com.javahelps.wisdom.core.partition.Partitionable;
 import com.javahelps.wisdom.core.util.Commons;
 
@@ -32,12 +33,15 @@ import java.util.Map;
 import static com.javahelps.wisdom.core.util.WisdomConstants.ATTR;
 
 @WisdomExtension("max")
-public class MaxOperator extends AggregateOperator {
+public class MaxOperator extends AggregateOperator implements KeyedAggregateOperator {
 
     private final Comparator<Comparable> naturalOrder = Comparator.naturalOrder();
     private final Comparator<Comparable> comparator = Comparator.nullsFirst(naturalOrder);
     private String attribute;
     private Comparable max;
+    private Comparable[] keyedMax = new Comparable[0];
+    private MonotonicDeque deque;
+    private MonotonicDeque[] keyedDeques = new MonotonicDeque[0];
 
     public MaxOperator(String as, Map<String, ?> properties) {
         super(as, properties);
@@ -50,9 +54,15 @@ public class MaxOperator extends AggregateOperator {
     @Override
     public Object apply(Event event) {
         Comparable value;
-        synchronized (this) {
+        this.lock.lock();
+        try {
             if (event.isReset()) {
                 value = null;
+            } else if (this.expiring) {
+                if (this.deque == null) {
+                    this.deque = new MonotonicDeque(naturalOrder.reversed());
+                }
+                value = slide(this.deque, event);
             } else {
                 Comparable newReference = (Comparable) event.get(attribute);
                 if (comparator.compare(newReference, this.max) > 0) {
@@ -60,14 +70,107 @@ public class MaxOperator extends AggregateOperator {
                 }
                 value = this.max;
             }
+        } finally {
+            this.lock.unlock();
+        }
+        return value;
+    }
+
+    @Override
+    public Object apply(int key, Event event) {
+        Comparable value;
+        this.lock.lock();
+        try {
+            this.keyedMax = KeyedState.ensureCapacity(this.keyedMax, key);
+            if (event.isReset()) {
+                value = null;
+            } else if (this.expiring) {
+                this.keyedDeques = KeyedState.ensureCapacity(this.keyedDeques, key);
+                if (this.keyedDeques[key] == null) {
+                    this.keyedDeques[key] = new MonotonicDeque(naturalOrder.reversed());
+                }
+                value = slide(this.keyedDeques[key], event);
+            } else {
+                Comparable newReference = (Comparable) event.get(attribute);
+                if (comparator.compare(newReference, this.keyedMax[key]) > 0) {
+                    this.keyedMax[key] = newReference;
+                }
+                value = this.keyedMax[key];
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        return value;
+    }
+
+    @Override
+    public Object combine(KeyedAggregateOperator[] operators, int[] keys) {
+        Comparable value = null;
+        for (int i = 0; i < keys.length; i++) {
+            MaxOperator operator = (MaxOperator) operators[i];
+            operator.lock.lock();
+            try {
+                if (keys[i] < operator.keyedMax.length && comparator.compare(operator.keyedMax[keys[i]], value) > 0) {
+                    value = operator.keyedMax[keys[i]];
+                }
+            } finally {
+                operator.lock.unlock();
+            }
         }
         return value;
     }
 
+    @Override
+    public Object combine(int[] keys) {
+        Comparable value = null;
+        this.lock.lock();
+        try {
+            for (int key : keys) {
+                if (key < this.keyedMax.length && comparator.compare(this.keyedMax[key], value) > 0) {
+                    value = this.keyedMax[key];
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        return value;
+    }
+
+    private Comparable slide(MonotonicDeque deque, Event event) {
+        Comparable value = (Comparable) event.get(attribute);
+        if (event.isExpired()) {
+            deque.remove(value);
+        } else {
+            deque.add(value);
+        }
+        return deque.peek();
+    }
+
+    @Override
+    public void clear(int key) {
+        this.lock.lock();
+        try {
+            if (key < this.keyedMax.length) {
+                this.keyedMax[key] = null;
+            }
+            if (key < this.keyedDeques.length) {
+                this.keyedDeques[key] = null;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
     @Override
     public void clear() {
-        synchronized (this) {
+        this.lock.lock();
+        try {
             this.max = null;
+            if (this.deque != null) {
+                this.deque.clear();
+            }
+        } finally {
+            this.lock.unlock();
         }
     }
 
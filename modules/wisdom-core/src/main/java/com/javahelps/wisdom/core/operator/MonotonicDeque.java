@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.operator;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+
+/**
+ * Monotonic deque of the candidates for the minimum of a sliding window according to a comparator. Values must be
+ * removed in the order they were added. Null values are ignored.
+ */
+class MonotonicDeque {
+
+    private final ArrayDeque<Comparable> deque = new ArrayDeque<>();
+    private final Comparator<Comparable> comparator;
+
+    MonotonicDeque(Comparator<Comparable> comparator) {
+        this.comparator = comparator;
+    }
+
+    void add(Comparable value) {
+        if (value != null) {
+            // Values greater than the new value can never be the minimum
+            while (!this.deque.isEmpty() && this.comparator.compare(this.deque.peekLast(), value) > 0) {
+                this.deque.pollLast();
+            }
+            this.deque.addLast(value);
+        }
+    }
+
+    void remove(Comparable value) {
+        if (value != null && !this.deque.isEmpty() && this.comparator.compare(this.deque.peekFirst(), value) == 0) {
+            this.deque.pollFirst();
+        }
+    }
+
+    Comparable peek() {
+        return this.deque.peekFirst();
+    }
+
+    void clear() {
+        this.deque.clear();
+    }
+}
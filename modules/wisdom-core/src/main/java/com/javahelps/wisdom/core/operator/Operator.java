@@ -21,6 +21,7 @@
 package com.javahelps.wisdom.core.operator;
 
 import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.operand.WisdomArray;
 import com.javahelps.wisdom.core.operator.logical.*;
 import com.javahelps.wisdom.core.processor.AttributeSelectProcessor;
 
@@ -65,6 +66,14 @@ public class Operator {
         return new CollectOperator(as, Map.of(ATTR, attribute));
     }
 
+    public static AggregateOperator PERCENTILE(final String attribute, final double quantile, final String as) {
+        return new PercentileOperator(as, Map.of(ATTR, attribute, "q", quantile));
+    }
+
+    public static AggregateOperator QUANTILES(final String attribute, final double[] quantiles, final String as) {
+        return new QuantilesOperator(as, Map.of(ATTR, attribute, "q", WisdomArray.of(quantiles)));
+    }
+
     public static LogicalOperator IN(Object left, Object right) {
         return new InOperator(Map.of("left", left, "right", right));
     }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.operator;
+
+import com.javahelps.wisdom.core.extension.WisdomExtension;
+import com.javahelps.wisdom.core.partition.Partitionable;
+import com.javahelps.wisdom.core.util.Commons;
+
+import java.util.Map;
+
+import static com.javahelps.wisdom.core.util.WisdomConstants.ATTR;
+
+/**
+ * Estimate the value of an attribute at the given quantile between 0 and 1. For example, a quantile of 0.95 gives the
+ * 95th percentile.
+ */
+@WisdomExtension("percentile")
+public class PercentileOperator extends QuantileOperator {
+
+    private final double quantile;
+
+    public PercentileOperator(String as, Map<String, ?> properties) {
+        super(as, properties);
+        this.quantile = this.toQuantile(Commons.getProperty(properties, "q", 1));
+    }
+
+    @Override
+    protected Object result(TDigest sketch) {
+        return sketch.quantile(this.quantile);
+    }
+
+    @Override
+    public Partitionable copy() {
+        return new PercentileOperator(this.newName, Map.of(ATTR, this.attribute, "q", this.quantile,
+                COMPRESSION, this.compression));
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.operator;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.RuntimeAttribute;
+import com.javahelps.wisdom.core.event.Schema;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.partition.KeyedState;
+import com.javahelps.wisdom.core.util.Commons;
+
+import java.util.Map;
+
+import static com.javahelps.wisdom.core.util.WisdomConstants.ATTR;
+
+/**
+ * Base of the aggregate operators estimating quantiles of an attribute using a {@link TDigest} sketch. The sketch has
+ * bounded memory regardless of the number of events and sketches of partial aggregates are merged to combine them.
+ * Values cannot be removed from a sketch, so these operators do not support sliding windows.
+ */
+abstract class QuantileOperator extends AggregateOperator implements KeyedAggregateOperator {
+
+    static final String COMPRESSION = "compression";
+    static final double DEFAULT_COMPRESSION = 100.0;
+
+    protected final String attribute;
+    private final RuntimeAttribute runtimeAttribute;
+    protected final double compression;
+    private TDigest sketch;
+    private TDigest[] keyedSketches = new TDigest[0];
+
+    protected QuantileOperator(String as, Map<String, ?> properties) {
+        super(as, properties);
+        this.attribute = Commons.getProperty(properties, ATTR, 0);
+        if (this.attribute == null) {
+            throw new WisdomAppValidationException("Required property %s of %s operator not found", ATTR,
+                    this.getClass().getSimpleName());
+        }
+        this.runtimeAttribute = new RuntimeAttribute(this.attribute);
+        Object compressionVal = properties.get(COMPRESSION);
+        if (compressionVal == null) {
+            this.compression = DEFAULT_COMPRESSION;
+        } else if (compressionVal instanceof Number && ((Number) compressionVal).doubleValue() >= 10) {
+            this.compression = ((Number) compressionVal).doubleValue();
+        } else {
+            throw new WisdomAppValidationException("%s of %s operator must be a number not less than 10 but found %s",
+                    COMPRESSION, this.getClass().getSimpleName(), compressionVal);
+        }
+        this.sketch = new TDigest(this.compression);
+    }
+
+    /**
+     * Read a quantile from the properties.
+     *
+     * @param value the property value
+     * @return the quantile between 0 and 1
+     */
+    protected double toQuantile(Object value) {
+        if (value instanceof Number) {
+            double q = ((Number) value).doubleValue();
+            if (q >= 0 && q <= 1) {
+                return q;
+            }
+        }
+        throw new WisdomAppValidationException("Quantiles of %s operator must be between 0 and 1 but found %s",
+                this.getClass().getSimpleName(), value);
+    }
+
+    /**
+     * Get the aggregate estimated by a non-empty sketch.
+     *
+     * @param sketch the sketch
+     * @return the aggregate
+     */
+    protected abstract Object result(TDigest sketch);
+
+    @Override
+    public void bind(Schema schema) {
+        super.bind(schema);
+        this.runtimeAttribute.bind(schema);
+    }
+
+    @Override
+    public void setExpiring(boolean expiring) {
+        if (expiring) {
+            throw new WisdomAppValidationException("%s operator cannot follow a sliding window",
+                    this.getClass().getSimpleName());
+        }
+        super.setExpiring(false);
+    }
+
+    @Override
+    public Object apply(Event event) {
+        this.lock.lock();
+        try {
+            if (event.isReset()) {
+                this.sketch.clear();
+                return null;
+            }
+            this.sketch.add(this.runtimeAttribute.getAsDouble(event));
+            return this.resultOf(this.sketch);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void accumulate(Event event) {
+        this.lock.lock();
+        try {
+            if (event.isReset()) {
+                this.sketch.clear();
+            } else {
+                this.sketch.add(this.runtimeAttribute.getAsDouble(event));
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public Object apply(int key, Event event) {
+        this.lock.lock();
+        try {
+            this.accumulate(key, event);
+            return event.isReset() ? null : this.resultOf(this.keyedSketches[key]);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void accumulate(int key, Event event) {
+        this.lock.lock();
+        try {
+            this.keyedSketches = KeyedState.ensureCapacity(this.keyedSketches, key);
+            if (this.keyedSketches[key] == null) {
+                this.keyedSketches[key] = new TDigest(this.compression);
+            }
+            if (event.isReset()) {
+                this.keyedSketches[key].clear();
+            } else {
+                this.keyedSketches[key].add(this.runtimeAttribute.getAsDouble(event));
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public Object combine(KeyedAggregateOperator[] operators, int[] keys) {
+        // Merge the partial sketches into a new sketch to keep them unchanged
+        TDigest combined = new TDigest(this.compression);
+        for (int i = 0; i < keys.length; i++) {
+            QuantileOperator operator = (QuantileOperator) operators[i];
+            operator.lock.lock();
+            try {
+                if (keys[i] < operator.keyedSketches.length && operator.keyedSketches[keys[i]] != null) {
+                    combined.add(operator.keyedSketches[keys[i]]);
+                }
+            } finally {
+                operator.lock.unlock();
+            }
+        }
+        return this.resultOf(combined);
+    }
+
+    @Override
+    public Object combine(int[] keys) {
+        this.lock.lock();
+        try {
+            if (keys.length == 1) {
+                return keys[0] < this.keyedSketches.length ? this.resultOf(this.keyedSketches[keys[0]]) : null;
+            }
+            // Merge the partial sketches into a new sketch to keep them unchanged
+            TDigest combined = new TDigest(this.compression);
+            for (int key : keys) {
+                if (key < this.keyedSketches.length && this.keyedSketches[key] != null) {
+                    combined.add(this.keyedSketches[key]);
+                }
+            }
+            return this.resultOf(combined);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private Object resultOf(TDigest sketch) {
+        return sketch == null || sketch.isEmpty() ? null : this.result(sketch);
+    }
+
+    @Override
+    public void clear(int key) {
+        this.lock.lock();
+        try {
+            if (key < this.keyedSketches.length && this.keyedSketches[key] != null) {
+                this.keyedSketches[key].clear();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        this.lock.lock();
+        try {
+            this.sketch.clear();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.keyedSketches = new TDigest[0];
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.operator;
+
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.extension.WisdomExtension;
+import com.javahelps.wisdom.core.operand.WisdomArray;
+import com.javahelps.wisdom.core.partition.Partitionable;
+import com.javahelps.wisdom.core.util.Commons;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.javahelps.wisdom.core.util.WisdomConstants.ATTR;
+
+/**
+ * Estimate the values of an attribute at the given quantiles between 0 and 1 from a single sketch. The aggregate is a
+ * {@link WisdomArray} of the values in the order of the quantiles.
+ */
+@WisdomExtension("quantiles")
+public class QuantilesOperator extends QuantileOperator {
+
+    private final double[] quantiles;
+
+    public QuantilesOperator(String as, Map<String, ?> properties) {
+        super(as, properties);
+        Object quantilesVal = Commons.getProperty(properties, "q", 1);
+        if (!(quantilesVal instanceof WisdomArray)) {
+            throw new WisdomAppValidationException("q of quantiles operator must be an array but found %s",
+                    quantilesVal);
+        }
+        List<Object> list = ((WisdomArray) quantilesVal).toList();
+        if (list.isEmpty()) {
+            throw new WisdomAppValidationException("q of quantiles operator must not be empty");
+        }
+        this.quantiles = new double[list.size()];
+        for (int i = 0; i < this.quantiles.length; i++) {
+            this.quantiles[i] = this.toQuantile(list.get(i));
+        }
+    }
+
+    @Override
+    protected Object result(TDigest sketch) {
+        double[] values = new double[this.quantiles.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = sketch.quantile(this.quantiles[i]);
+        }
+        return WisdomArray.of(values);
+    }
+
+    @Override
+    public Partitionable copy() {
+        return new QuantilesOperator(this.newName, Map.of(ATTR, this.attribute, "q", WisdomArray.of(this.quantiles),
+                COMPRESSION, this.compression));
+    }
+}
@@ -21,8 +21,11 @@
 package com.javahelps.wisdom.core.operator;
 
 import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.RuntimeAttribute;
+import com.javahelps.wisdom.core.event.Schema;
 import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
 import com.javahelps.wisdom.core.extension.WisdomExtension;
+import com.javahelps.wisdom.core.partition.KeyedState;
 import com.javahelps.wisdom.core.partition.Partitionable;
 import com.javahelps.wisdom.core.util.Commons;
 
@@ -31,10 +34,12 @@ import java.util.Map;
 import static com.javahelps.wisdom.core.util.WisdomConstants.ATTR;
 
 @WisdomExtension("sum")
-public class SumOperator extends AggregateOperator {
+public class SumOperator extends AggregateOperator implements KeyedAggregateOperator {
 
     private String attribute;
+    private final RuntimeAttribute runtimeAttribute;
     private double sum;
+    private double[] keyedSums;
 
     public SumOperator(String as, Map<String, ?> properties) {
         super(as, properties);
@@ -42,26 +47,106 @@ public class SumOperator extends AggregateOperator {
         if (this.attribute == null) {
             throw new WisdomAppValidationException("Required property %s of Sum operator not found", ATTR);
         }
+        this.runtimeAttribute = new RuntimeAttribute(this.attribute);
+    }
+
+    @Override
+    public void bind(Schema schema) {
+        super.bind(schema);
+        this.runtimeAttribute.bind(schema);
     }
 
     @Override
     public Object apply(Event event) {
         double value;
-        synchronized (this) {
+        this.lock.lock();
+        try {
             if (event.isReset()) {
                 this.sum = 0.0;
+            } else if (event.isExpired()) {
+                this.sum -= this.runtimeAttribute.getAsDouble(event);
             } else {
-                this.sum += event.getAsDouble(this.attribute);
+                this.sum += this.runtimeAttribute.getAsDouble(event);
             }
             value = this.sum;
+        } finally {
+            this.lock.unlock();
         }
         return value;
     }
 
+    @Override
+    public Object apply(int key, Event event) {
+        double value;
+        this.lock.lock();
+        try {
+            this.keyedSums = KeyedState.ensureCapacity(this.keyedSums, key);
+            if (event.isReset()) {
+                this.keyedSums[key] = 0.0;
+            } else if (event.isExpired()) {
+                this.keyedSums[key] -= this.runtimeAttribute.getAsDouble(event);
+            } else {
+                this.keyedSums[key] += this.runtimeAttribute.getAsDouble(event);
+            }
+            value = this.keyedSums[key];
+        } finally {
+            this.lock.unlock();
+        }
+        return value;
+    }
+
+    @Override
+    public Object combine(KeyedAggregateOperator[] operators, int[] keys) {
+        double value = 0.0;
+        for (int i = 0; i < keys.length; i++) {
+            SumOperator operator = (SumOperator) operators[i];
+            operator.lock.lock();
+            try {
+                if (operator.keyedSums != null && keys[i] < operator.keyedSums.length) {
+                    value += operator.keyedSums[keys[i]];
+                }
+            } finally {
+                operator.lock.unlock();
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public Object combine(int[] keys) {
+        double value = 0.0;
+        this.lock.lock();
+        try {
+            for (int key : keys) {
+                if (this.keyedSums != null && key < this.keyedSums.length) {
+                    value += this.keyedSums[key];
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        return value;
+    }
+
+    @Override
+    public void clear(int key) {
+        this.lock.lock();
+        try {
+            if (this.keyedSums != null && key < this.keyedSums.length) {
+                this.keyedSums[key] = 0.0;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
     @Override
     public void clear() {
-        synchronized (this) {
+        this.lock.lock();
+        try {
             this.sum = 0.0;
+        } finally {
+            this.lock.unlock();
         }
     }
 
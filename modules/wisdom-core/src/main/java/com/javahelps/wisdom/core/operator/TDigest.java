@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.operator;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable t-digest sketch estimating the quantiles of a stream of values in bounded memory. Values are buffered and
+ * merged into centroids sorted by their mean. Centroids near the tails are kept small, so that the extreme quantiles
+ * are more accurate than the median. The number of centroids is bounded by the compression.
+ */
+class TDigest {
+
+    private final double compression;
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+    private int centroids;
+    private final double[] buffer;
+    private int buffered;
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double[] spareMeans = new double[0];
+    private double[] spareWeights = new double[0];
+
+    /**
+     * Create a sketch.
+     *
+     * @param compression the compression trading memory for accuracy
+     */
+    TDigest(double compression) {
+        this.compression = compression;
+        this.buffer = new double[(int) Math.ceil(compression) * 5];
+    }
+
+    void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (this.buffered == this.buffer.length) {
+            this.compress();
+        }
+        this.buffer[this.buffered++] = value;
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+    }
+
+    /**
+     * Merge the values of another sketch into this sketch. The other sketch is compressed but otherwise not changed.
+     *
+     * @param other the other sketch
+     */
+    void add(TDigest other) {
+        other.compress();
+        if (other.centroids == 0) {
+            return;
+        }
+        this.compress();
+        this.merge(other.means, other.weights, other.centroids, other.totalWeight);
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+    }
+
+    boolean isEmpty() {
+        return this.buffered == 0 && this.centroids == 0;
+    }
+
+    void clear() {
+        this.centroids = 0;
+        this.buffered = 0;
+        this.totalWeight = 0.0;
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Estimate the value at the given quantile.
+     *
+     * @param q the quantile between 0 and 1
+     * @return the estimated value or NaN if the sketch is empty
+     */
+    double quantile(double q) {
+        this.compress();
+        int n = this.centroids;
+        if (n == 0) {
+            return Double.NaN;
+        }
+        if (n == 1) {
+            return this.means[0];
+        }
+        double total = this.totalWeight;
+        double index = q * total;
+        if (index < 1) {
+            return this.min;
+        }
+        if (index > total - 1) {
+            return this.max;
+        }
+        // Values between the extremes and the first and last centroids are interpolated
+        if (this.weights[0] > 1 && index < this.weights[0] / 2) {
+            return this.min + (index - 1) / (this.weights[0] / 2 - 1) * (this.means[0] - this.min);
+        }
+        if (this.weights[n - 1] > 1 && total - index <= this.weights[n - 1] / 2) {
+            return this.max - (total - index - 1) / (this.weights[n - 1] / 2 - 1) * (this.max - this.means[n - 1]);
+        }
+        double weightSoFar = this.weights[0] / 2;
+        for (int i = 0; i < n - 1; i++) {
+            double delta = (this.weights[i] + this.weights[i + 1]) / 2;
+            if (weightSoFar + delta > index) {
+                // Single values are not spread around their mean
+                double leftUnit = 0;
+                if (this.weights[i] == 1) {
+                    if (index - weightSoFar < 0.5) {
+                        return this.means[i];
+                    }
+                    leftUnit = 0.5;
+                }
+                double rightUnit = 0;
+                if (this.weights[i + 1] == 1) {
+                    if (weightSoFar + delta - index <= 0.5) {
+                        return this.means[i + 1];
+                    }
+                    rightUnit = 0.5;
+                }
+                double z1 = index - weightSoFar - leftUnit;
+                double z2 = weightSoFar + delta - index - rightUnit;
+                return weightedAverage(this.means[i], z2, this.means[i + 1], z1);
+            }
+            weightSoFar += delta;
+        }
+        double z1 = index - total - this.weights[n - 1] / 2;
+        double z2 = this.weights[n - 1] / 2 - z1;
+        return weightedAverage(this.means[n - 1], z1, this.max, z2);
+    }
+
+    private void compress() {
+        if (this.buffered > 0) {
+            Arrays.sort(this.buffer, 0, this.buffered);
+            int count = this.buffered;
+            this.buffered = 0;
+            this.merge(this.buffer, null, count, count);
+        }
+    }
+
+    /**
+     * Merge sorted centroids into the centroids of this sketch.
+     *
+     * @param otherMeans   the sorted means
+     * @param otherWeights the weights or null if all weights are 1
+     * @param count        the number of centroids
+     * @param weight       the total weight of the centroids
+     */
+    private void merge(double[] otherMeans, double[] otherWeights, int count, double weight) {
+        int capacity = this.centroids + count;
+        if (this.spareMeans.length < capacity) {
+            this.spareMeans = new double[capacity];
+            this.spareWeights = new double[capacity];
+        }
+        double[] newMeans = this.spareMeans;
+        double[] newWeights = this.spareWeights;
+        double total = this.totalWeight + weight;
+        int size = 0;
+        double weightSoFar = 0;
+        double limit = this.limit(0);
+        int i = 0;
+        int j = 0;
+        while (i < this.centroids || j < count) {
+            double mean;
+            double w;
+            if (j == count || (i < this.centroids && this.means[i] <= otherMeans[j])) {
+                mean = this.means[i];
+                w = this.weights[i++];
+            } else {
+                mean = otherMeans[j];
+                w = otherWeights == null ? 1 : otherWeights[j];
+                j++;
+            }
+            if (size > 0 && (weightSoFar + newWeights[size - 1] + w) / total <= limit) {
+                // Absorb into the current centroid
+                double merged = newWeights[size - 1] + w;
+                newMeans[size - 1] += (mean - newMeans[size - 1]) * w / merged;
+                newWeights[size - 1] = merged;
+            } else {
+                if (size > 0) {
+                    weightSoFar += newWeights[size - 1];
+                    limit = this.limit(weightSoFar / total);
+                }
+                newMeans[size] = mean;
+                newWeights[size] = w;
+                size++;
+            }
+        }
+        this.spareMeans = this.means;
+        this.spareWeights = this.weights;
+        this.means = newMeans;
+        this.weights = newWeights;
+        this.centroids = size;
+        this.totalWeight = total;
+    }
+
+    /**
+     * The largest quantile a centroid starting at the given quantile may reach, using the arcsine scale function.
+     */
+    private double limit(double q) {
+        double k = this.compression / (2 * Math.PI) * Math.asin(2 * q - 1) + 1;
+        if (k >= this.compression / 4) {
+            return 1.0;
+        }
+        return (Math.sin(k * 2 * Math.PI / this.compression) + 1) / 2;
+    }
+
+    private static double weightedAverage(double x1, double w1, double x2, double w2) {
+        double value = (x1 * w1 + x2 * w2) / (w1 + w2);
+        return Math.max(Math.min(x1, x2), Math.min(value, Math.max(x1, x2)));
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.partition;
+
+import com.javahelps.wisdom.core.event.Event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Space-Saving sketch of the most frequent partition keys. A sample of the events is counted in a fixed number of
+ * counters and the least frequent key is replaced when a new key does not have a counter. Counts decay by half
+ * periodically, so that keys which are no longer frequent lose their status.
+ * <p>
+ * A key is hot when its guaranteed share of the sampled events exceeds the given share. Checking whether a key is hot
+ * is lock-free.
+ */
+public class HeavyHitters {
+
+    /**
+     * One in this many events is counted.
+     */
+    public static final int SAMPLE_RATE = 8;
+    private static final int MIN_SAMPLES = 128;
+    private static final long[] NO_HASHES = new long[0];
+
+    private final int capacity;
+    private final double hotShare;
+    private final long decayPeriod;
+    private final Map<Long, Counter> counters;
+    private final Function<Event, Object[]> keyFunction;
+    private long total;
+    private volatile long[] hotHashes = NO_HASHES;
+
+    /**
+     * Create a sketch.
+     *
+     * @param capacity    the number of counters
+     * @param hotShare    the fraction of events above which a key is hot
+     * @param keyFunction the function building the key of an event
+     */
+    public HeavyHitters(int capacity, double hotShare, Function<Event, Object[]> keyFunction) {
+        this.capacity = capacity;
+        this.hotShare = hotShare;
+        this.decayPeriod = capacity * 1024L;
+        this.counters = new HashMap<>(capacity * 2);
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * Count the event with a probability of 1 / {@link #SAMPLE_RATE}.
+     *
+     * @param hash  the hash of the partition key
+     * @param event the event
+     */
+    public void offer(long hash, Event event) {
+        if (ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0) {
+            synchronized (this) {
+                this.count(hash, event);
+            }
+        }
+    }
+
+    /**
+     * Check whether a key is hot.
+     *
+     * @param hash the hash of the partition key
+     * @return true if the key is hot
+     */
+    public boolean isHot(long hash) {
+        for (long hotHash : this.hotHashes) {
+            if (hotHash == hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the most frequent keys in the descending order of their estimated number of events.
+     *
+     * @param limit the maximum number of keys
+     * @return the keys mapped to their estimated number of events
+     */
+    public synchronized Map<List<Object>, Long> getTopKeys(int limit) {
+        List<Counter> sorted = new ArrayList<>(this.counters.values());
+        sorted.sort((first, second) -> Long.compare(second.count, first.count));
+        Map<List<Object>, Long> topKeys = new LinkedHashMap<>();
+        for (int i = 0; i < sorted.size() && i < limit; i++) {
+            Counter counter = sorted.get(i);
+            topKeys.put(Arrays.asList(counter.key), counter.count * SAMPLE_RATE);
+        }
+        return topKeys;
+    }
+
+    public synchronized void clear() {
+        this.counters.clear();
+        this.total = 0;
+        this.hotHashes = NO_HASHES;
+    }
+
+    private void count(long hash, Event event) {
+        Counter counter = this.counters.get(hash);
+        if (counter == null) {
+            if (this.counters.size() < this.capacity) {
+                counter = new Counter();
+            } else {
+                // Replace the least frequent key and inherit its count as the error
+                counter = this.counters.values().iterator().next();
+                for (Counter candidate : this.counters.values()) {
+                    if (candidate.count < counter.count) {
+                        counter = candidate;
+                    }
+                }
+                this.counters.remove(counter.hash);
+                counter.error = counter.count;
+            }
+            counter.hash = hash;
+            counter.key = this.keyFunction.apply(event);
+            this.counters.put(hash, counter);
+        }
+        counter.count++;
+        this.total++;
+
+        if (this.total >= MIN_SAMPLES && counter.count - counter.error > this.hotShare * this.total &&
+                !this.isHot(hash)) {
+            long[] hashes = Arrays.copyOf(this.hotHashes, this.hotHashes.length + 1);
+            hashes[hashes.length - 1] = hash;
+            this.hotHashes = hashes;
+        }
+        if (this.total >= this.decayPeriod) {
+            this.decay();
+        }
+    }
+
+    private void decay() {
+        this.total /= 2;
+        this.counters.values().removeIf(counter -> {
+            counter.count /= 2;
+            counter.error /= 2;
+            return counter.count == 0;
+        });
+        this.hotHashes = this.counters.values().stream()
+                .filter(counter -> counter.count - counter.error > this.hotShare * this.total)
+                .mapToLong(counter -> counter.hash)
+                .toArray();
+    }
+
+    private static class Counter {
+        private long hash;
+        private Object[] key;
+        private long count;
+        private long error;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.partition;
+
+import java.util.Arrays;
+
+/**
+ * Utility methods to grow the columns of primitive and reference values used to keep the state of partitions
+ * indexed by their dense keys.
+ */
+public final class KeyedState {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private KeyedState() {
+
+    }
+
+    public static double[] ensureCapacity(double[] column, int key) {
+        if (column == null) {
+            return new double[capacity(0, key)];
+        }
+        return key < column.length ? column : Arrays.copyOf(column, capacity(column.length, key));
+    }
+
+    public static long[] ensureCapacity(long[] column, int key) {
+        if (column == null) {
+            return new long[capacity(0, key)];
+        }
+        return key < column.length ? column : Arrays.copyOf(column, capacity(column.length, key));
+    }
+
+    public static int[] ensureCapacity(int[] column, int key) {
+        if (column == null) {
+            return new int[capacity(0, key)];
+        }
+        return key < column.length ? column : Arrays.copyOf(column, capacity(column.length, key));
+    }
+
+    public static <T> T[] ensureCapacity(T[] column, int key) {
+        return key < column.length ? column : Arrays.copyOf(column, capacity(column.length, key));
+    }
+
+    private static int capacity(int length, int key) {
+        int capacity = Math.max(length, INITIAL_CAPACITY);
+        while (capacity <= key) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.partition;
+
+/**
+ * 64-bit hashing and equality of the raw attribute values used as partition keys. Integral numbers are compared by
+ * their long value and floating point numbers by their double value, so that the same value is mapped to the same
+ * partition regardless of its boxed type.
+ */
+public final class PartitionKeys {
+
+    private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+
+    private PartitionKeys() {
+
+    }
+
+    public static long hash(Object value) {
+        long hash;
+        if (value == null) {
+            hash = NULL_HASH;
+        } else if (isIntegral(value)) {
+            hash = ((Number) value).longValue();
+        } else if (isFloatingPoint(value)) {
+            hash = Double.doubleToLongBits(((Number) value).doubleValue());
+        } else {
+            hash = value.hashCode();
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Combine the hash of the next value of an ordered key.
+     *
+     * @param hash  the hash of the previous values
+     * @param value the next value
+     * @return the combined hash
+     */
+    public static long combine(long hash, Object value) {
+        return mix(hash * 31 + hash(value));
+    }
+
+    public static boolean equal(Object first, Object second) {
+        if (first == second) {
+            return true;
+        }
+        if (first == null || second == null) {
+            return false;
+        }
+        if (isIntegral(first) && isIntegral(second)) {
+            return ((Number) first).longValue() == ((Number) second).longValue();
+        }
+        if (isFloatingPoint(first) && isFloatingPoint(second)) {
+            return Double.doubleToLongBits(((Number) first).doubleValue()) ==
+                    Double.doubleToLongBits(((Number) second).doubleValue());
+        }
+        return first.equals(second);
+    }
+
+    /**
+     * The finalizer of SplitMix64 spreading every input bit over the whole hash.
+     *
+     * @param value the value to mix
+     * @return the mixed value
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    private static boolean isFloatingPoint(Object value) {
+        return value instanceof Double || value instanceof Float;
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.partition;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.util.NoOpLock;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Open addressing hash table mapping partition keys to values, looked up directly by the precomputed 64-bit hash of
+ * an event key and the event itself. Keys are materialized only when a new entry is inserted, and compared against
+ * the event attributes when hashes are equal.
+ * <p>
+ * Lookups are lock-free. Insertions are serialized by a lock and the table is replaced by a larger one when it is
+ * half full. A lookup racing with an insertion may miss the new entry; {@link #computeIfAbsent} checks again under
+ * the lock before inserting.
+ * <p>
+ * If eviction is enabled, every lookup records the access time of the entry. Entries idle longer than a given time
+ * can be removed using {@link #expire(long)} and the least recently used entries are removed when inserting into a
+ * full map. Removed entries are replaced by a tombstone which is discarded when the table is rebuilt. Since lookups
+ * are lock-free, other threads may still be using an evicted value when it is passed to the eviction listener.
+ *
+ * @param <V> the type of values
+ */
+public class PartitionMap<V> {
+
+    private static final int INITIAL_CAPACITY = 16;
+    @SuppressWarnings("rawtypes")
+    private static final Entry TOMBSTONE = new Entry<>(0L, null, null, 0L);
+
+    private final Function<Event, Object[]> keyFunction;
+    private final BiPredicate<Object[], Event> matcher;
+    private volatile AtomicReferenceArray<Entry<V>> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private Lock lock = NoOpLock.INSTANCE;
+    private final AtomicLong evictionCount = new AtomicLong();
+    private LongSupplier clock;
+    private int maxSize = Integer.MAX_VALUE;
+    private Consumer<V> evictionListener;
+    private volatile int size;
+    private int tombstones;
+
+    /**
+     * Create a new {@link PartitionMap}.
+     *
+     * @param keyFunction the function extracting the key values of an event
+     * @param matcher     the predicate checking whether the key values of an entry match an event
+     */
+    public PartitionMap(Function<Event, Object[]> keyFunction, BiPredicate<Object[], Event> matcher) {
+        this.keyFunction = keyFunction;
+        this.matcher = matcher;
+    }
+
+    /**
+     * Get the value mapped to the key of the event without locking.
+     *
+     * @param hash  the hash of the event key
+     * @param event the event
+     * @return the value or null if the key is not found
+     */
+    public V get(long hash, Event event) {
+        Entry<V> entry = this.find(this.table, hash, event);
+        if (entry == null) {
+            return null;
+        }
+        if (this.clock != null) {
+            long now = this.clock.getAsLong();
+            // Avoid dirtying the cache line when the time has not changed
+            if (entry.lastAccess != now) {
+                entry.lastAccess = now;
+            }
+        }
+        return entry.value;
+    }
+
+    /**
+     * Get the value mapped to the key of the event, or create and insert a new value if the key is not found.
+     *
+     * @param hash    the hash of the event key
+     * @param event   the event
+     * @param factory the supplier of the new value
+     * @return the existing or new value
+     */
+    public V computeIfAbsent(long hash, Event event, Supplier<V> factory) {
+        V value = this.get(hash, event);
+        if (value != null) {
+            return value;
+        }
+        this.lock.lock();
+        try {
+            AtomicReferenceArray<Entry<V>> tab = this.table;
+            Entry<V> entry = this.find(tab, hash, event);
+            if (entry != null) {
+                return entry.value;
+            }
+            if (this.size >= this.maxSize) {
+                this.evictLeastRecentlyUsed();
+            }
+            if ((this.size + this.tombstones + 1) * 2 > tab.length()) {
+                tab = this.resize(tab);
+            }
+            value = factory.get();
+            long now = this.clock == null ? 0L : this.clock.getAsLong();
+            if (insert(tab, new Entry<>(hash, this.keyFunction.apply(event), value, now))) {
+                this.tombstones--;
+            }
+            this.size++;
+            return value;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Remove all the entries not accessed since the given time.
+     *
+     * @param deadline the oldest access time to keep
+     * @return the number of removed entries
+     */
+    public int expire(long deadline) {
+        int count = 0;
+        this.lock.lock();
+        try {
+            AtomicReferenceArray<Entry<V>> tab = this.table;
+            for (int i = 0; i < tab.length(); i++) {
+                Entry<V> entry = tab.get(i);
+                if (entry != null && entry != TOMBSTONE && entry.lastAccess < deadline) {
+                    this.remove(tab, i);
+                    count++;
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        return count;
+    }
+
+    /**
+     * Enable recording the access time of entries to remove idle and least recently used entries.
+     *
+     * @param clock            the source of access times
+     * @param maxSize          the maximum number of entries or a non-positive value for no limit
+     * @param evictionListener the consumer of removed values, called while holding the lock. Values may still be in
+     *                         use by threads which looked them up before the eviction
+     */
+    public void setEviction(LongSupplier clock, int maxSize, Consumer<V> evictionListener) {
+        this.clock = clock;
+        this.maxSize = maxSize > 0 ? maxSize : Integer.MAX_VALUE;
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Get the number of entries removed by eviction since the creation of this map.
+     *
+     * @return the number of evicted entries
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.get();
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Remove all the entries.
+     *
+     * @param listener the consumer of removed values, called while holding the lock
+     */
+    public void clear(Consumer<V> listener) {
+        this.lock.lock();
+        try {
+            AtomicReferenceArray<Entry<V>> tab = this.table;
+            for (int i = 0; i < tab.length(); i++) {
+                Entry<V> entry = tab.get(i);
+                if (entry != null && entry != TOMBSTONE) {
+                    listener.accept(entry.value);
+                }
+            }
+            this.table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+            this.size = 0;
+            this.tombstones = 0;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Apply the action to all the values without holding the lock.
+     *
+     * @param action the consumer of values
+     */
+    public void forEach(Consumer<V> action) {
+        AtomicReferenceArray<Entry<V>> tab = this.table;
+        for (int i = 0; i < tab.length(); i++) {
+            Entry<V> entry = tab.get(i);
+            if (entry != null && entry != TOMBSTONE) {
+                action.accept(entry.value);
+            }
+        }
+    }
+
+    /**
+     * Set the lock guarding the writers of this map. The lock is provided by the
+     * {@link com.javahelps.wisdom.core.WisdomContext} so that no locking is done in single threading mode.
+     *
+     * @param lock the lock
+     */
+    public void setLock(Lock lock) {
+        this.lock = lock;
+    }
+
+    private Entry<V> find(AtomicReferenceArray<Entry<V>> tab, long hash, Event event) {
+        int mask = tab.length() - 1;
+        int index = index(hash, mask);
+        for (int probe = 0; probe <= mask; probe++) {
+            Entry<V> entry = tab.get(index);
+            if (entry == null) {
+                return null;
+            }
+            if (entry != TOMBSTONE && entry.hash == hash && this.matcher.test(entry.key, event)) {
+                return entry;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Remove the least recently used entries to make room for a new entry. A fraction of the maximum size is removed
+     * at once to amortize the cost of finding them.
+     */
+    private void evictLeastRecentlyUsed() {
+        AtomicReferenceArray<Entry<V>> tab = this.table;
+        List<Integer> indices = new ArrayList<>(this.size);
+        for (int i = 0; i < tab.length(); i++) {
+            Entry<V> entry = tab.get(i);
+            if (entry != null && entry != TOMBSTONE) {
+                indices.add(i);
+            }
+        }
+        indices.sort(Comparator.comparingLong(index -> tab.get(index).lastAccess));
+        int count = Math.min(indices.size(), this.size - this.maxSize + 1 + this.maxSize / 8);
+        for (int i = 0; i < count; i++) {
+            this.remove(tab, indices.get(i));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void remove(AtomicReferenceArray<Entry<V>> tab, int index) {
+        Entry<V> entry = tab.get(index);
+        tab.set(index, TOMBSTONE);
+        this.size--;
+        this.tombstones++;
+        this.evictionCount.incrementAndGet();
+        if (this.evictionListener != null) {
+            this.evictionListener.accept(entry.value);
+        }
+    }
+
+    private AtomicReferenceArray<Entry<V>> resize(AtomicReferenceArray<Entry<V>> tab) {
+        // Leave room to grow after rebuilding, which may also shrink a table full of tombstones
+        int capacity = INITIAL_CAPACITY;
+        while ((this.size + 1) * 4 > capacity) {
+            capacity *= 2;
+        }
+        AtomicReferenceArray<Entry<V>> newTable = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < tab.length(); i++) {
+            Entry<V> entry = tab.get(i);
+            if (entry != null && entry != TOMBSTONE) {
+                insert(newTable, entry);
+            }
+        }
+        // Publish the new table after filling it
+        this.table = newTable;
+        this.tombstones = 0;
+        return newTable;
+    }
+
+    /**
+     * Insert the entry into the first free slot.
+     *
+     * @return true if the entry replaced a tombstone
+     */
+    private static <V> boolean insert(AtomicReferenceArray<Entry<V>> tab, Entry<V> entry) {
+        int mask = tab.length() - 1;
+        int index = index(entry.hash, mask);
+        Entry<V> current;
+        while ((current = tab.get(index)) != null && current != TOMBSTONE) {
+            index = (index + 1) & mask;
+        }
+        tab.set(index, entry);
+        return current == TOMBSTONE;
+    }
+
+    private static int index(long hash, int mask) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static class Entry<V> {
+
+        private final long hash;
+        private final Object[] key;
+        private final V value;
+        private volatile long lastAccess;
+
+        private Entry(long hash, Object[] key, V value, long lastAccess) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
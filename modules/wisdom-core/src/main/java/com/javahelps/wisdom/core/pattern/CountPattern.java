@@ -54,7 +54,7 @@ class CountPattern extends WrappingPattern implements EmptiablePattern {
         });
         this.pattern.setEmitConditionMet(event -> pattern.getEvents().size() >= this.minCount);
         this.pattern.setCopyEventAttributes((pattern1, src, destination) -> {
-            for (Map.Entry<String, Object> entry : src.getData().entrySet()) {
+            for (Map.Entry<String, Object> entry : src.getDataView().entrySet()) {
                 String key = pattern.name + "[" + pattern.getEvents().size() + "]." + entry.getKey();
                 Object value = entry.getValue();
                 destination.set(key, value);
@@ -159,7 +159,7 @@ class CountPattern extends WrappingPattern implements EmptiablePattern {
         if (!actualEvents.isEmpty()) {
             Event event = actualEvents.get(0);
             for (int i = 1; i < actualEvents.size(); i++) {
-                event.getData().putAll(actualEvents.get(i).getData());
+                event.getData().putAll(actualEvents.get(i).getDataView());
             }
             list.add(event);
         } else {
@@ -23,6 +23,7 @@ package com.javahelps.wisdom.core.pattern;
 import com.javahelps.wisdom.core.WisdomApp;
 import com.javahelps.wisdom.core.event.Event;
 import com.javahelps.wisdom.core.processor.Processor;
+import com.javahelps.wisdom.core.time.ScheduledTask;
 import com.javahelps.wisdom.core.time.Scheduler;
 
 import java.util.ArrayList;
@@ -38,6 +39,7 @@ class NotPattern extends TimeConstrainedPattern implements EmptiablePattern {
 
     private Pattern pattern;
     private Scheduler scheduler;
+    private ScheduledTask timeout;
     private Event previousEvent;
     private boolean isFirst = true;
 
@@ -56,7 +58,11 @@ class NotPattern extends TimeConstrainedPattern implements EmptiablePattern {
                 this.lock.lock();
                 if (duration != null) {
                     this.previousEvent = event;
-                    scheduler.schedule(duration, this::timeoutHappened);
+                    if (this.timeout != null) {
+                        // Only the latest event waits for the timeout
+                        this.timeout.cancel();
+                    }
+                    this.timeout = scheduler.schedule(duration, this::timeoutHappened);
                 }
             } finally {
                 this.lock.unlock();
@@ -30,11 +30,11 @@ import com.javahelps.wisdom.core.stream.Stream;
 import com.javahelps.wisdom.core.time.TimestampGenerator;
 import com.javahelps.wisdom.core.util.Action;
 import com.javahelps.wisdom.core.util.FunctionalUtility;
+import com.javahelps.wisdom.core.util.NoOpLock;
 import com.javahelps.wisdom.core.util.WisdomConstants;
 
 import java.util.*;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -52,7 +52,7 @@ public class Pattern extends StreamProcessor implements Stateful {
     protected List<String> streamIds = new ArrayList<>();
     protected Predicate<Event> filter = FunctionalUtility.truePredicate();
     protected EventDistributor eventDistributor = new EventDistributor();
-    protected Lock lock = new ReentrantLock();
+    protected Lock lock = NoOpLock.INSTANCE;
     protected AttributeCache attributeCache = new AttributeCache();
     private boolean consumed = false;
     private boolean accepting = true;
@@ -72,7 +72,7 @@ public class Pattern extends StreamProcessor implements Stateful {
         return arrayList;
     };
     private CopyEventAttributes copyEventAttributes = (pattern, src, destination) -> {
-        for (Map.Entry<String, Object> entry : src.getData().entrySet()) {
+        for (Map.Entry<String, Object> entry : src.getDataView().entrySet()) {
             String key = this.name + "." + entry.getKey();
             Object value = entry.getValue();
             destination.set(key, value);
@@ -131,6 +131,7 @@ public class Pattern extends StreamProcessor implements Stateful {
     public void init(WisdomApp wisdomApp) {
 
         this.timestampGenerator = wisdomApp.getContext().getTimestampGenerator();
+        this.lock = wisdomApp.getContext().createLock();
         for (String streamId : this.streamIds) {
             Stream stream = wisdomApp.getStream(streamId);
             if (stream == null) {
@@ -310,7 +311,7 @@ public class Pattern extends StreamProcessor implements Stateful {
                     newEvent.setName(this.name);
                     this.copyEventAttributes.copy(this, event, newEvent);
 
-                    newEvent.getData().putAll(preEvent.getData());
+                    newEvent.getData().putAll(preEvent.getDataView());
 
                     this.events.add(newEvent);
                     this.eventMap.put(event.getOriginal(), newEvent);
@@ -331,7 +332,7 @@ public class Pattern extends StreamProcessor implements Stateful {
                         } else {
                             for (Event e : this.events) {
                                 if (e != newEvent) {
-                                    newEvent.getData().putAll(e.getData());
+                                    newEvent.getData().putAll(e.getDataView());
                                 }
                             }
                             this.globalResetAction.execute();
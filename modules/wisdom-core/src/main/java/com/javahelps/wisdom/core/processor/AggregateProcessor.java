@@ -20,8 +20,11 @@
 
 package com.javahelps.wisdom.core.processor;
 
+import com.javahelps.wisdom.core.WisdomApp;
 import com.javahelps.wisdom.core.event.Event;
 import com.javahelps.wisdom.core.operator.AggregateOperator;
+import com.javahelps.wisdom.core.operator.KeyedAggregateOperator;
+import com.javahelps.wisdom.core.util.NoOpLock;
 
 import java.util.List;
 import java.util.function.Function;
@@ -29,26 +32,73 @@ import java.util.function.Function;
 /**
  * {@link StreamProcessor} to modify or map into a new {@link Event} based on a {@link Function}.
  */
-public class AggregateProcessor extends StreamProcessor {
+public class AggregateProcessor extends StreamProcessor implements KeyedProcessor {
 
     private AggregateOperator[] operators;
+    private KeyedProcessor keyedNextProcessor;
+    private boolean expiring;
+    private boolean singleWriter;
+    private WisdomApp wisdomApp;
+    private KeyedAggregateOperator[][] shardOperators;
 
     public AggregateProcessor(String id, AggregateOperator... operators) {
         super(id);
         this.operators = operators;
     }
 
+    @Override
+    public void init(WisdomApp wisdomApp) {
+        this.wisdomApp = wisdomApp;
+        for (AggregateOperator operator : this.operators) {
+            operator.setLock(this.singleWriter ? NoOpLock.INSTANCE : wisdomApp.getContext().createLock());
+        }
+        this.keyedNextProcessor = KeyedProcessor.of(this.getNextProcessor());
+    }
+
     @Override
     public void start() {
 
     }
 
+    /**
+     * Let the operators update their state without locking if this processor is called by a single thread only.
+     * Must be called before initializing this processor.
+     *
+     * @param singleWriter true if events are received from a single thread
+     */
+    public void setSingleWriter(boolean singleWriter) {
+        this.singleWriter = singleWriter;
+    }
+
+    /**
+     * Remove the values of expired events from the aggregates. Set if this processor follows a sliding window.
+     *
+     * @param expiring true if expired events are received
+     */
+    public void setExpiring(boolean expiring) {
+        this.expiring = expiring;
+        for (AggregateOperator operator : this.operators) {
+            operator.setExpiring(expiring);
+        }
+    }
+
+    public boolean isExpiring() {
+        return this.expiring;
+    }
+
     @Override
     public void process(Event event) {
+        if (event.isExpired()) {
+            // Expired events only update the aggregates
+            for (AggregateOperator operator : this.operators) {
+                operator.apply(event);
+            }
+            return;
+        }
         for (AggregateOperator operator : this.operators) {
             event.set(operator.getNewName(), operator.apply(event));
-            this.getNextProcessor().process(event);
         }
+        this.getNextProcessor().process(event);
     }
 
     @Override
@@ -56,27 +106,200 @@ public class AggregateProcessor extends StreamProcessor {
         int lastIndex = events.size() - 1;
         if (lastIndex >= 0) {
             for (int i = 0; i < lastIndex; i++) {
-                for (AggregateOperator operator : this.operators) {
-                    operator.apply(events.get(i));
+                this.accumulate(events.get(i));
+            }
+            this.getNextProcessor().process(this.complete(events.get(lastIndex)));
+        }
+    }
+
+    /**
+     * Apply an event of a batch to the aggregators without emitting it. Used by windows aggregating events on arrival.
+     *
+     * @param event the event
+     */
+    public void accumulate(Event event) {
+        for (AggregateOperator operator : this.operators) {
+            operator.accumulate(event);
+        }
+    }
+
+    /**
+     * Apply the last event of a batch, set the aggregates to the event and reset the aggregators.
+     *
+     * @param event the last event of the batch
+     * @return the event with the aggregates
+     */
+    public Event complete(Event event) {
+        for (AggregateOperator operator : this.operators) {
+            event.set(operator.getNewName(), operator.apply(event));
+            // Reset the operator
+            operator.clear();
+        }
+        return event;
+    }
+
+    /**
+     * Reset the aggregators discarding the events applied since the last batch.
+     */
+    public void reset() {
+        for (AggregateOperator operator : this.operators) {
+            operator.clear();
+        }
+    }
+
+    @Override
+    public boolean isKeyed() {
+        for (AggregateOperator operator : this.operators) {
+            if (!(operator instanceof KeyedAggregateOperator)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void process(int key, Event event) {
+        if (event.isExpired()) {
+            for (AggregateOperator operator : this.operators) {
+                ((KeyedAggregateOperator) operator).apply(key, event);
+            }
+            return;
+        }
+        for (AggregateOperator operator : this.operators) {
+            event.set(operator.getNewName(), ((KeyedAggregateOperator) operator).apply(key, event));
+        }
+        this.keyedNextProcessor.process(key, event);
+    }
+
+    /**
+     * Let this processor combine the partial aggregates kept by the copies of this processor used by the other shards
+     * of a parallel partition.
+     *
+     * @param processors the processors of all shards indexed by shard
+     */
+    public void setShards(AggregateProcessor[] processors) {
+        this.shardOperators = new KeyedAggregateOperator[this.operators.length][processors.length];
+        for (int i = 0; i < this.operators.length; i++) {
+            for (int shard = 0; shard < processors.length; shard++) {
+                this.shardOperators[i][shard] = (KeyedAggregateOperator) processors[shard].operators[i];
+            }
+        }
+    }
+
+    /**
+     * Process an event of a partition split among the shards of a parallel partition and emit the aggregates
+     * combined from the partial aggregates of all shards.
+     *
+     * @param shard       the shard of this processor
+     * @param partialKeys the keys of the sub-partitions indexed by shard
+     * @param event       the event
+     */
+    public void process(int shard, int[] partialKeys, Event event) {
+        int key = partialKeys[shard];
+        for (int i = 0; i < this.operators.length; i++) {
+            KeyedAggregateOperator[] operators = this.shardOperators[i];
+            if (event.isReset()) {
+                for (int j = 0; j < operators.length; j++) {
+                    operators[j].clear(partialKeys[j]);
                 }
+            } else {
+                operators[shard].accumulate(key, event);
+            }
+            event.set(this.operators[i].getNewName(), operators[shard].combine(operators, partialKeys));
+        }
+        this.keyedNextProcessor.process(key, event);
+    }
+
+    /**
+     * Apply an event to the accumulators of the given key without emitting it. Used by windows keeping partial
+     * aggregates.
+     *
+     * @param key   the key of the accumulators
+     * @param event the event
+     */
+    public void accumulate(int key, Event event) {
+        for (AggregateOperator operator : this.operators) {
+            ((KeyedAggregateOperator) operator).accumulate(key, event);
+        }
+    }
+
+    /**
+     * Set the aggregates combined from the accumulators of the given keys to the event.
+     *
+     * @param keys  the keys of the accumulators
+     * @param event the event to set the aggregates
+     * @return the event
+     */
+    public Event combine(int[] keys, Event event) {
+        for (AggregateOperator operator : this.operators) {
+            event.set(operator.getNewName(), ((KeyedAggregateOperator) operator).combine(keys));
+        }
+        return event;
+    }
+
+    /**
+     * Reset the accumulators of the given key.
+     *
+     * @param key the key of the accumulators
+     */
+    public void reset(int key) {
+        for (AggregateOperator operator : this.operators) {
+            ((KeyedAggregateOperator) operator).clear(key);
+        }
+    }
+
+    /**
+     * Check whether the events of a partition can be aggregated in sub-partitions. It requires keyed operators and
+     * no state in the following processors.
+     *
+     * @return true if partial aggregates can be combined
+     */
+    public boolean isDecomposable() {
+        return this.isKeyed() && !KeyedProcessor.of(this.getNextProcessor()).isKeyed();
+    }
+
+    @Override
+    public void process(int key, List<Event> events) {
+        int lastIndex = events.size() - 1;
+        if (lastIndex >= 0) {
+            for (int i = 0; i < lastIndex; i++) {
+                this.accumulate(key, events.get(i));
             }
             // Set the attribute only in last event
             Event lastEvent = events.get(lastIndex);
 
             for (AggregateOperator operator : this.operators) {
-                lastEvent.set(operator.getNewName(), operator.apply(lastEvent));
+                KeyedAggregateOperator keyedOperator = (KeyedAggregateOperator) operator;
+                lastEvent.set(operator.getNewName(), keyedOperator.apply(key, lastEvent));
                 // Reset the operator
-                operator.clear();
+                keyedOperator.clear(key);
             }
-            this.getNextProcessor().process(lastEvent);
+            this.keyedNextProcessor.process(key, lastEvent);
         }
     }
 
+    @Override
+    public void release(int key) {
+        for (AggregateOperator operator : this.operators) {
+            ((KeyedAggregateOperator) operator).clear(key);
+        }
+        this.keyedNextProcessor.release(key);
+    }
+
     @Override
     public Processor copy() {
 
-        AggregateProcessor mapProcessor = new AggregateProcessor(this.id, this.operators);
+        // Every partition needs its own accumulators
+        AggregateOperator[] operators = new AggregateOperator[this.operators.length];
+        for (int i = 0; i < operators.length; i++) {
+            operators[i] = (AggregateOperator) this.operators[i].copy();
+            operators[i].bind(this.operators[i].getSchema());
+        }
+        AggregateProcessor mapProcessor = new AggregateProcessor(this.id, operators);
+        mapProcessor.setExpiring(this.expiring);
+        mapProcessor.setSingleWriter(this.singleWriter);
         mapProcessor.setNextProcessor(this.getNextProcessor().copy());
+        mapProcessor.init(this.wisdomApp);
         return mapProcessor;
     }
 
@@ -52,7 +52,7 @@ public class AttributeSelectProcessor extends StreamProcessor {
     @Override
     public void process(Event event) {
         if (!selectAll) {
-            event.getData().keySet().retainAll(attributes);
+            event.retain(attributes);
         }
         this.getNextProcessor().process(event);
     }
@@ -61,7 +61,7 @@ public class AttributeSelectProcessor extends StreamProcessor {
     public void process(List<Event> events) {
         if (!selectAll) {
             for (Event event : events) {
-                event.getData().keySet().retainAll(attributes);
+                event.retain(attributes);
             }
         }
         this.getNextProcessor().process(events);
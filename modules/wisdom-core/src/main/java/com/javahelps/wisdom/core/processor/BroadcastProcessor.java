@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.processor;
+
+import com.javahelps.wisdom.core.event.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link Processor} sending the output of a window shared by more than one query to the following processors of all
+ * these queries. Every processor except the last receives a copy, since the following processors may modify events.
+ */
+public class BroadcastProcessor implements Processor {
+
+    private final Processor[] processors;
+
+    public BroadcastProcessor(List<Processor> processors) {
+        this.processors = processors.toArray(new Processor[0]);
+    }
+
+    @Override
+    public void start() {
+
+    }
+
+    @Override
+    public void stop() {
+
+    }
+
+    @Override
+    public void process(Event event) {
+        int last = this.processors.length - 1;
+        for (int i = 0; i < last; i++) {
+            this.processors[i].process(event.copyEvent());
+        }
+        this.processors[last].process(event);
+    }
+
+    @Override
+    public void process(List<Event> events) {
+        int last = this.processors.length - 1;
+        for (int i = 0; i < last; i++) {
+            List<Event> copies = new ArrayList<>(events.size());
+            for (Event event : events) {
+                copies.add(event.copyEvent());
+            }
+            this.processors[i].process(copies);
+        }
+        this.processors[last].process(events);
+    }
+
+    @Override
+    public void onWatermark(long watermark) {
+        for (Processor processor : this.processors) {
+            processor.onWatermark(watermark);
+        }
+    }
+
+    @Override
+    public Processor copy() {
+        return this;
+    }
+
+    @Override
+    public void destroy() {
+
+    }
+}
@@ -23,6 +23,7 @@ package com.javahelps.wisdom.core.processor;
 import com.javahelps.wisdom.core.event.Event;
 import com.javahelps.wisdom.core.exception.WisdomAppRuntimeException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -52,8 +53,12 @@ public class EnsureProcessor extends StreamProcessor {
         for (int bound : this.bounds) {
             if (noOfEvents <= bound) {
                 int newEvents = bound - noOfEvents;
-                for (int i = 0; i < newEvents; i++) {
-                    events.add(events.get(0).emptyEvent());
+                if (newEvents > 0) {
+                    // Do not modify the list of the previous processor
+                    events = new ArrayList<>(events);
+                    for (int i = 0; i < newEvents; i++) {
+                        events.add(events.get(0).emptyEvent());
+                    }
                 }
                 break;
             }
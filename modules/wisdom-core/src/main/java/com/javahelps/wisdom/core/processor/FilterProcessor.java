@@ -22,6 +22,7 @@ package com.javahelps.wisdom.core.processor;
 
 import com.javahelps.wisdom.core.event.Event;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -51,9 +52,21 @@ public class FilterProcessor extends StreamProcessor {
 
     @Override
     public void process(List<Event> events) {
-        events.removeIf(this.predicate.negate());
-        if (!events.isEmpty()) {
-            this.getNextProcessor().process(events);
+        // The list may be a read-only view of a window, so it is copied only if some events are filtered out
+        List<Event> selected = events;
+        int size = events.size();
+        for (int i = 0; i < size; i++) {
+            Event event = events.get(i);
+            if (selected != events) {
+                if (this.predicate.test(event)) {
+                    selected.add(event);
+                }
+            } else if (!this.predicate.test(event)) {
+                selected = new ArrayList<>(events.subList(0, i));
+            }
+        }
+        if (!selected.isEmpty()) {
+            this.getNextProcessor().process(selected);
         }
     }
 
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.processor;
+
+import com.javahelps.wisdom.core.event.Event;
+
+import java.util.List;
+
+/**
+ * A {@link Processor} keeping the state of all partitions in a single instance, indexed by a dense integer key
+ * assigned to every partition by the {@link PartitionProcessor}. Keyed processors avoid copying the processor chain
+ * for every partition.
+ */
+public interface KeyedProcessor {
+
+    /**
+     * Wrap a processor which does not keep any state per partition.
+     *
+     * @param processor the processor to forward events to
+     * @return the processor itself if it can process keyed events or a {@link KeyedProcessor} ignoring the keys
+     */
+    static KeyedProcessor of(Processor processor) {
+        if (processor instanceof KeyedProcessor && ((KeyedProcessor) processor).isKeyed()) {
+            return (KeyedProcessor) processor;
+        }
+        return new KeyedProcessor() {
+            @Override
+            public boolean isKeyed() {
+                return false;
+            }
+
+            @Override
+            public void process(int key, Event event) {
+                processor.process(event);
+            }
+
+            @Override
+            public void process(int key, List<Event> events) {
+                processor.process(events);
+            }
+
+            @Override
+            public void release(int key) {
+                // Nothing to release
+            }
+        };
+    }
+
+    /**
+     * Check whether this processor can keep the state of all partitions.
+     *
+     * @return true if this processor supports keyed events
+     */
+    boolean isKeyed();
+
+    void process(int key, Event event);
+
+    void process(int key, List<Event> events);
+
+    /**
+     * Discard the state of a partition. The key may be reused by a new partition.
+     *
+     * @param key the key of the partition
+     */
+    void release(int key);
+}
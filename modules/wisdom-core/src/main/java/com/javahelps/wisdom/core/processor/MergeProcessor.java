@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.processor;
+
+import com.javahelps.wisdom.core.event.Event;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * {@link Processor} merging the outputs of the shards of a parallel query into a processor which may not be
+ * thread safe, by passing one event or batch at a time.
+ */
+public class MergeProcessor implements Processor {
+
+    private final Processor nextProcessor;
+    private final Lock lock;
+
+    public MergeProcessor(Processor nextProcessor, Lock lock) {
+        this.nextProcessor = nextProcessor;
+        this.lock = lock;
+    }
+
+    @Override
+    public void start() {
+
+    }
+
+    @Override
+    public void stop() {
+
+    }
+
+    @Override
+    public void process(Event event) {
+        this.lock.lock();
+        try {
+            this.nextProcessor.process(event);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void process(List<Event> events) {
+        this.lock.lock();
+        try {
+            this.nextProcessor.process(events);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void onWatermark(long watermark) {
+        this.lock.lock();
+        try {
+            this.nextProcessor.onWatermark(watermark);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public Processor copy() {
+        return this;
+    }
+
+    @Override
+    public void destroy() {
+
+    }
+}
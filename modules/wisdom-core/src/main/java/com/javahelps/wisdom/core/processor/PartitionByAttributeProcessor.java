@@ -22,7 +22,7 @@ package com.javahelps.wisdom.core.processor;
 
 import com.javahelps.wisdom.core.event.Event;
 
-import java.util.Objects;
+import com.javahelps.wisdom.core.partition.PartitionKeys;
 
 public class PartitionByAttributeProcessor extends PartitionProcessor {
 
@@ -30,22 +30,30 @@ public class PartitionByAttributeProcessor extends PartitionProcessor {
         super(id, attributes);
     }
 
-    protected String calculateKey(Event event) {
-        if (this.attributes.length == 1) {
-            return Objects.toString(event.get(this.attributes[0]));
-        } else {
-            StringBuilder builder = new StringBuilder();
-            for (String attribute : this.attributes) {
-                builder.append(Objects.toString(event.get(attribute)));
+    @Override
+    protected long hash(Event event) {
+        long hash = 0;
+        for (String attribute : this.attributes) {
+            hash = PartitionKeys.combine(hash, event.get(attribute));
+        }
+        return hash;
+    }
+
+    @Override
+    protected boolean matches(Object[] key, Event event) {
+        for (int i = 0; i < key.length; i++) {
+            if (!PartitionKeys.equal(key[i], event.get(this.attributes[i]))) {
+                return false;
             }
-            return builder.toString();
         }
+        return true;
     }
 
     @Override
     public Processor copy() {
         PartitionProcessor processor = new PartitionByAttributeProcessor(this.id, this.attributes);
         processor.setNextProcessor(getNextProcessor().copy());
+        this.copyEvictionTo(processor);
         return processor;
     }
 }
@@ -22,7 +22,7 @@ package com.javahelps.wisdom.core.processor;
 
 import com.javahelps.wisdom.core.event.Event;
 
-import java.util.Objects;
+import com.javahelps.wisdom.core.partition.PartitionKeys;
 
 public class PartitionByValueProcessor extends PartitionProcessor {
 
@@ -30,22 +30,52 @@ public class PartitionByValueProcessor extends PartitionProcessor {
         super(id, attributes);
     }
 
-    protected String calculateKey(Event event) {
-        if (this.attributes.length == 1) {
-            return Objects.toString(event.get(this.attributes[0]));
-        } else {
-            long hash = 0;
-            for (String attribute : this.attributes) {
-                hash += Objects.toString(event.get(attribute)).hashCode();
+    /**
+     * The key is the unordered collection of values, so the hash is a commutative sum.
+     *
+     * @param event the event
+     * @return the hash of the partition key
+     */
+    @Override
+    protected long hash(Event event) {
+        long hash = 0;
+        for (String attribute : this.attributes) {
+            hash += PartitionKeys.hash(event.get(attribute));
+        }
+        return hash;
+    }
+
+    @Override
+    protected boolean matches(Object[] key, Event event) {
+        if (key.length == 1) {
+            return PartitionKeys.equal(key[0], event.get(this.attributes[0]));
+        }
+        // Compare as multisets: each value must occur as many times in the key as in the event
+        for (String attribute : this.attributes) {
+            Object value = event.get(attribute);
+            int count = 0;
+            for (String other : this.attributes) {
+                if (PartitionKeys.equal(value, event.get(other))) {
+                    count++;
+                }
+            }
+            for (Object item : key) {
+                if (PartitionKeys.equal(value, item)) {
+                    count--;
+                }
+            }
+            if (count != 0) {
+                return false;
             }
-            return Long.toString(hash);
         }
+        return true;
     }
 
     @Override
     public Processor copy() {
         PartitionProcessor processor = new PartitionByValueProcessor(this.id, this.attributes);
         processor.setNextProcessor(getNextProcessor().copy());
+        this.copyEvictionTo(processor);
         return processor;
     }
 }
@@ -20,28 +20,74 @@
 
 package com.javahelps.wisdom.core.processor;
 
+import com.javahelps.wisdom.core.ThreadBarrier;
 import com.javahelps.wisdom.core.WisdomApp;
 import com.javahelps.wisdom.core.event.Event;
 import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
-import com.javahelps.wisdom.core.stream.async.EventHolder;
+import com.javahelps.wisdom.core.partition.HeavyHitters;
+import com.javahelps.wisdom.core.partition.KeyedState;
+import com.javahelps.wisdom.core.partition.PartitionMap;
+import com.javahelps.wisdom.core.time.Scheduler;
+import com.javahelps.wisdom.core.time.TimestampGenerator;
 import com.lmax.disruptor.RingBuffer;
-import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
 
+/**
+ * {@link StreamProcessor} sending events to a separate partition of the following processors for every partition
+ * key. If the following processors are either {@link KeyedProcessor}s or stateless, they are shared by all partitions
+ * and every partition is identified by a dense integer key. Otherwise, the following processors are copied for every
+ * partition.
+ * <p>
+ * Sharded partitions detect hot keys using a {@link HeavyHitters} sketch. If the following processors are a
+ * decomposable {@link AggregateProcessor} followed by stateless processors, the events of a hot key are spread over
+ * all shards, every shard aggregates them in a sub-partition and the partial aggregates are combined for every event.
+ * <p>
+ * Evicted partitions are removed from the partition map at once but destroyed only after the threads which may still
+ * be processing them have moved on: the shards have processed all the events queued before the eviction, or the
+ * threads inside the {@link ThreadBarrier} at the time of eviction have left it. Events pending in the batch windows of
+ * an evicted partition are dropped and logged.
+ */
 public abstract class PartitionProcessor extends StreamProcessor implements Stateful {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionProcessor.class);
+
     protected final String[] attributes;
-    private final Map<String, Processor> processorMap = new HashMap<>();
-    private final Lock lock = new ReentrantLock();
-    private Disruptor<EventHolder> disruptor;
-    private RingBuffer<EventHolder> ringBuffer;
+    private final PartitionMap<Processor> processorMap = new PartitionMap<>(this::keyOf, this::matches);
+    private final Queue<RetiredPartition> retired = new ConcurrentLinkedQueue<>();
+    private Disruptor<RoutedEvent>[] disruptors;
+    private RingBuffer<RoutedEvent>[] ringBuffers;
+    private AtomicLongArray completed;
+    private ThreadBarrier threadBarrier;
+    private int shards = 1;
+    private long ttl;
+    private int maxPartitions;
+    private Scheduler scheduler;
+    private TimestampGenerator timestampGenerator;
+    private volatile boolean active;
+    private KeyedProcessor keyedProcessor;
+    private KeyedProcessor[] shardProcessors;
+    private int nextKey;
+    private int[] freeKeys;
+    private int freeKeyCount;
+    private Lock lock;
+    private HeavyHitters heavyHitters;
+    private int topKeys;
+    private boolean splittable;
+    private int nextShard;
+    private volatile int splitCount;
 
     public PartitionProcessor(String id, String... attributes) {
         super(id);
@@ -52,42 +98,96 @@ public abstract class PartitionProcessor extends StreamProcessor implements Stat
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void init(WisdomApp wisdomApp) {
+        this.lock = wisdomApp.getContext().createLock();
+        this.processorMap.setLock(this.lock);
+        this.threadBarrier = wisdomApp.getContext().getThreadBarrier();
+        this.scheduler = wisdomApp.getContext().getScheduler();
+        this.setTimestampGenerator(wisdomApp.getContext().getTimestampGenerator());
+        this.keyedProcessor = this.createKeyedProcessor();
+        this.splittable = this.shards > 1 && this.keyedProcessor instanceof AggregateProcessor &&
+                ((AggregateProcessor) this.keyedProcessor).isDecomposable();
+        if (this.shards > 1 || this.topKeys > 0) {
+            // A key is hot if it has more events than a shard would receive if the load was balanced
+            this.heavyHitters = new HeavyHitters(Math.max(64, this.topKeys * 4), 1.0 / this.shards, this::keyOf);
+        }
 
-        if (wisdomApp.getContext().isAsync()) {
-            this.disruptor = new Disruptor<>(EventHolder::new, wisdomApp.getBufferSize(),
-                    wisdomApp.getContext().getThreadFactory(),
-                    ProducerType.SINGLE, new YieldingWaitStrategy());
+        if (this.shards > 1 || wisdomApp.getContext().isAsync()) {
+            // Sharded partitions may receive events from more than one thread
+            ProducerType producerType = this.shards > 1 ? ProducerType.MULTI : ProducerType.SINGLE;
+            this.disruptors = new Disruptor[this.shards];
+            this.ringBuffers = new RingBuffer[this.shards];
+            // The sequence of the last event processed by every shard
+            this.completed = new AtomicLongArray(this.shards);
+            for (int i = 0; i < this.shards; i++) {
+                final int shard = i;
+                Disruptor<RoutedEvent> disruptor = new Disruptor<>(RoutedEvent::new, wisdomApp.getBufferSize(),
+                        wisdomApp.getContext().getThreadFactory(),
+                        producerType, wisdomApp.getContext().createWaitStrategy());
 
-            // Connect the handler
-            disruptor.handleEventsWith((eventHolder, sequence, endOfBatch) -> this.sendToPartition(eventHolder.get()));
+                // Connect the handler
+                disruptor.handleEventsWith((routedEvent, sequence, endOfBatch) -> {
+                    this.sendToPartition(routedEvent.event, routedEvent.hash, routedEvent.split, shard);
+                    this.completed.lazySet(shard, sequence);
+                    if (endOfBatch && !this.retired.isEmpty()) {
+                        this.reclaimRetired();
+                    }
+                });
 
-            // Get the ring buffer from the Disruptor to be used for publishing.
-            this.ringBuffer = disruptor.getRingBuffer();
+                // Get the ring buffer from the Disruptor to be used for publishing.
+                this.disruptors[i] = disruptor;
+                this.ringBuffers[i] = disruptor.getRingBuffer();
+                this.completed.set(i, this.ringBuffers[i].getCursor());
+            }
         }
     }
 
     @Override
     public void start() {
-        if (this.disruptor != null) {
-            this.disruptor.start();
+        if (this.shardProcessors == null) {
+            this.shardProcessors = this.createShardProcessors();
+        }
+        if (this.disruptors != null) {
+            for (Disruptor<RoutedEvent> disruptor : this.disruptors) {
+                disruptor.start();
+            }
+        }
+        if (this.ttl > 0) {
+            this.active = true;
+            this.scheduler.schedule(Duration.ofMillis(this.ttl), this::expire);
         }
     }
 
     @Override
     public void stop() {
-        if (this.disruptor != null) {
-            this.disruptor.shutdown();
+        this.active = false;
+        if (this.disruptors != null) {
+            for (Disruptor<RoutedEvent> disruptor : this.disruptors) {
+                disruptor.shutdown();
+            }
         }
+        this.destroyRetired();
     }
 
     @Override
     public void process(Event event) {
 
-        if (this.disruptor != null) {
-            this.ringBuffer.publishEvent((eventHolder, sequence, buffer) -> eventHolder.set(event));
+        long hash = this.hash(event);
+        if (this.heavyHitters != null) {
+            this.heavyHitters.offer(hash, event);
+        }
+        if (this.ringBuffers == null) {
+            this.sendToPartition(event, hash, false, 0);
+        } else if (this.shards == 1) {
+            this.publish(0, event, hash, false);
+        } else if (this.splittable && this.heavyHitters.isHot(hash)) {
+            // Spread the events of a hot key over all shards. A racy counter is enough to balance them.
+            this.nextShard = (this.nextShard + 1) % this.shards;
+            this.publish(this.nextShard, event, hash, true);
         } else {
-            this.sendToPartition(event);
+            // Send all events of a partition to the same shard to preserve their order
+            this.publish(this.homeShard(hash), event, hash, false);
         }
     }
 
@@ -98,28 +198,370 @@ public abstract class PartitionProcessor extends StreamProcessor implements Stat
         }
     }
 
-    private void sendToPartition(Event event) {
-        this.getNexProcessor(event).process(event);
+    /**
+     * Publish an event to a shard along with the routing decision, so that the shard does not decide it again.
+     *
+     * @param shard the shard
+     * @param event the event
+     * @param hash  the hash of the partition key
+     * @param split true if the event was sent to any shard because its key is hot
+     */
+    private void publish(int shard, Event event, long hash, boolean split) {
+        RingBuffer<RoutedEvent> ringBuffer = this.ringBuffers[shard];
+        long sequence = ringBuffer.next();
+        try {
+            RoutedEvent routedEvent = ringBuffer.get(sequence);
+            routedEvent.event = event;
+            routedEvent.hash = hash;
+            routedEvent.split = split;
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+    }
+
+    private void sendToPartition(Event event, long hash, boolean split, int shard) {
+        Processor nextProcessor = this.processorMap.get(hash, event);
+        if (nextProcessor == null) {
+            nextProcessor = this.processorMap.computeIfAbsent(hash, event, () -> this.createPartition(hash));
+        }
+        if (this.splittable) {
+            ((KeyedPartition) nextProcessor).process(shard, split, event);
+        } else {
+            nextProcessor.process(event);
+        }
+    }
+
+    private int homeShard(long hash) {
+        return (int) ((hash >>> 32) % this.shards);
+    }
+
+    /**
+     * Create the processor of a new partition. Called while holding the lock of the partition map.
+     *
+     * @param hash the hash of the partition key
+     * @return the processor of the new partition
+     */
+    private Processor createPartition(long hash) {
+        if (!this.retired.isEmpty()) {
+            this.reclaim();
+        }
+        if (this.keyedProcessor == null) {
+            return getNextProcessor().copy();
+        }
+        return new KeyedPartition(this, this.nextKey(), this.shards == 1 ? 0 : this.homeShard(hash));
+    }
+
+    /**
+     * Give every shard its own copy of the keyed processors so that shards do not share their state and locks. The
+     * copies are created once all processors of the query are initialized.
+     *
+     * @return the keyed processors indexed by shard
+     */
+    private KeyedProcessor[] createShardProcessors() {
+        KeyedProcessor[] processors = new KeyedProcessor[this.shards];
+        processors[0] = this.keyedProcessor;
+        if (this.keyedProcessor == null || !this.keyedProcessor.isKeyed()) {
+            // Stateless processors are shared by all shards
+            Arrays.fill(processors, this.keyedProcessor);
+            return processors;
+        }
+        for (int i = 1; i < processors.length; i++) {
+            processors[i] = KeyedProcessor.of(this.getNextProcessor().copy());
+        }
+        if (this.splittable) {
+            AggregateProcessor[] aggregators = new AggregateProcessor[processors.length];
+            for (int i = 0; i < processors.length; i++) {
+                aggregators[i] = (AggregateProcessor) processors[i];
+            }
+            for (AggregateProcessor aggregator : aggregators) {
+                aggregator.setShards(aggregators);
+            }
+        }
+        return processors;
+    }
+
+    /**
+     * Get an unused key. Called while holding the lock of the partition map.
+     *
+     * @return the key
+     */
+    private int nextKey() {
+        if (this.freeKeyCount == 0) {
+            return this.nextKey++;
+        }
+        int key = this.freeKeys[--this.freeKeyCount];
+        // Start the new partition from empty slots even if the previous owner wrote them after being released
+        for (KeyedProcessor processor : this.shardProcessors) {
+            processor.release(key);
+        }
+        return key;
+    }
+
+    /**
+     * Release the key of a destroyed partition. Called while holding the lock of the partition map, once no thread
+     * can be processing the partition, so that events of the old partition never reach a new owner of the key.
+     *
+     * @param key   the key of the partition
+     * @param shard the shard keeping the state of the partition
+     */
+    private void releaseKey(int key, int shard) {
+        this.shardProcessors[shard].release(key);
+        this.freeKeys = KeyedState.ensureCapacity(this.freeKeys, this.freeKeyCount);
+        this.freeKeys[this.freeKeyCount++] = key;
+    }
+
+    /**
+     * Share the following processors among partitions if they can keep the state of all partitions, or if they have
+     * no state. Stateful processors must not follow stateless processors because keys are not passed through
+     * stateless processors.
+     *
+     * @return the first following processor or null if the processors must be copied for every partition
+     */
+    private KeyedProcessor createKeyedProcessor() {
+        Processor processor = this.getNextProcessor();
+        boolean stateless = false;
+        while (processor instanceof StreamProcessor) {
+            if (processor instanceof KeyedProcessor && ((KeyedProcessor) processor).isKeyed()) {
+                if (stateless) {
+                    return null;
+                }
+            } else if (processor instanceof Stateful || processor instanceof AggregateProcessor) {
+                return null;
+            } else {
+                stateless = true;
+            }
+            processor = ((StreamProcessor) processor).getNextProcessor();
+        }
+        return KeyedProcessor.of(this.getNextProcessor());
+    }
+
+    /**
+     * Calculate the 64-bit hash of the partition key of an event without building the key.
+     *
+     * @param event the event
+     * @return the hash of the partition key
+     */
+    protected abstract long hash(Event event);
+
+    /**
+     * Check whether the partition key of an event is equal to the given key.
+     *
+     * @param key   the key of an existing partition
+     * @param event the event
+     * @return true if the event belongs to the partition
+     */
+    protected abstract boolean matches(Object[] key, Event event);
+
+    protected Object[] keyOf(Event event) {
+        Object[] key = new Object[this.attributes.length];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = event.get(this.attributes[i]);
+        }
+        return key;
+    }
+
+    public abstract Processor copy();
+
+    /**
+     * Remove partitions idle longer than the given time or the least recently used partitions when there are more
+     * partitions than the given limit. Evicted partitions are destroyed.
+     *
+     * @param ttl           the maximum idle time in milliseconds or 0 to keep idle partitions
+     * @param maxPartitions the maximum number of partitions or 0 for no limit
+     */
+    public void setEviction(long ttl, int maxPartitions) {
+        this.ttl = ttl;
+        this.maxPartitions = maxPartitions;
+        this.setTimestampGenerator(this.timestampGenerator);
+    }
+
+    /**
+     * Process partitions in the given number of threads. Partition keys are distributed among threads by their
+     * hash and each thread has its own ring buffer.
+     *
+     * @param shards the number of threads
+     */
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * Track the most frequent partition keys.
+     *
+     * @param topKeys the number of keys to report or 0 to not report them
+     */
+    public void setTopKeys(int topKeys) {
+        this.topKeys = topKeys;
+    }
+
+    /**
+     * Get the most frequent partition keys in the descending order of their estimated number of events.
+     *
+     * @return the values of the partition attributes mapped to the estimated number of events
+     */
+    public Map<List<Object>, Long> getTopKeys() {
+        if (this.heavyHitters == null || this.topKeys == 0) {
+            return Map.of();
+        }
+        return this.heavyHitters.getTopKeys(this.topKeys);
+    }
+
+    public int getTopKeyLimit() {
+        return this.topKeys;
+    }
+
+    /**
+     * Get the number of hot partitions split among shards since the creation of this processor.
+     *
+     * @return the number of split partitions
+     */
+    public int getSplitCount() {
+        return this.splitCount;
+    }
+
+    /**
+     * Get the number of live partitions.
+     *
+     * @return the number of partitions
+     */
+    public int getPartitionCount() {
+        return this.processorMap.size();
+    }
+
+    /**
+     * Get the number of partitions evicted since the creation of this processor.
+     *
+     * @return the number of evicted partitions
+     */
+    public long getEvictionCount() {
+        return this.processorMap.getEvictionCount();
+    }
+
+    /**
+     * Copy the eviction settings to a copy of this processor. Only the size limit is enforced in copies because they
+     * are not started. Copies are not initialized either, so they share the lock and the thread barrier of this
+     * processor.
+     *
+     * @param processor the copy of this processor
+     */
+    protected void copyEvictionTo(PartitionProcessor processor) {
+        processor.setEviction(this.ttl, this.maxPartitions);
+        processor.setTimestampGenerator(this.timestampGenerator);
+        processor.lock = this.lock;
+        processor.processorMap.setLock(this.lock);
+        processor.threadBarrier = this.threadBarrier;
+    }
+
+    private void setTimestampGenerator(TimestampGenerator timestampGenerator) {
+        this.timestampGenerator = timestampGenerator;
+        if (timestampGenerator != null && (this.ttl > 0 || this.maxPartitions > 0)) {
+            this.processorMap.setEviction(timestampGenerator::currentTimestamp, this.maxPartitions,
+                    this::retire);
+        }
+    }
+
+    private void expire(long currentTime) {
+        if (!this.active) {
+            return;
+        }
+        this.processorMap.expire(currentTime - this.ttl);
+        this.reclaimRetired();
+        this.scheduler.schedule(Duration.ofMillis(this.ttl), this::expire);
+    }
+
+    /**
+     * Queue an evicted partition to be destroyed once no thread can be processing it. Called while holding the lock
+     * of the partition map.
+     *
+     * @param partition the evicted partition
+     */
+    private void retire(Processor partition) {
+        BooleanSupplier quiesced;
+        if (this.ringBuffers != null) {
+            // Wait for the shards to process the events published before the eviction
+            long[] cursors = new long[this.shards];
+            for (int i = 0; i < this.shards; i++) {
+                cursors[i] = this.ringBuffers[i].getCursor();
+            }
+            quiesced = () -> {
+                for (int i = 0; i < cursors.length; i++) {
+                    if (this.completed.get(i) < cursors[i]) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        } else if (this.threadBarrier != null) {
+            quiesced = this.threadBarrier.startGracePeriod();
+        } else {
+            quiesced = () -> true;
+        }
+        this.retired.add(new RetiredPartition(partition, quiesced));
+    }
+
+    private void reclaimRetired() {
+        this.lock.lock();
+        try {
+            this.reclaim();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Destroy the retired partitions no longer reachable by any thread. Called while holding the lock of the
+     * partition map.
+     */
+    private void reclaim() {
+        RetiredPartition partition;
+        while ((partition = this.retired.peek()) != null && partition.quiesced.getAsBoolean()) {
+            this.retired.poll();
+            this.destroyEvicted(partition.processor);
+        }
     }
 
-    private Processor getNexProcessor(Event event) {
-        String key = this.calculateKey(event);
+    /**
+     * Destroy all the retired partitions. Called when no thread is processing events.
+     */
+    private void destroyRetired() {
+        this.lock.lock();
         try {
-            this.lock.lock();
-            Processor nextProcessor = this.processorMap.get(key);
-            if (nextProcessor == null) {
-                nextProcessor = getNextProcessor().copy();
-                this.processorMap.putIfAbsent(key, nextProcessor);
+            RetiredPartition partition;
+            while ((partition = this.retired.poll()) != null) {
+                this.destroyEvicted(partition.processor);
             }
-            return nextProcessor;
         } finally {
             this.lock.unlock();
         }
     }
 
-    protected abstract String calculateKey(Event event);
+    private void destroyEvicted(Processor partition) {
+        int pending = 0;
+        if (partition instanceof KeyedPartition) {
+            pending = ((KeyedPartition) partition).getPendingCount();
+        } else {
+            for (Processor processor = partition; processor instanceof StreamProcessor;
+                 processor = ((StreamProcessor) processor).getNextProcessor()) {
+                if (processor instanceof WindowProcessor) {
+                    pending += ((WindowProcessor) processor).getPendingCount();
+                }
+            }
+        }
+        if (pending > 0) {
+            LOGGER.warn("Evicted partition of {} dropped {} pending events", this.id, pending);
+        }
+        partition.destroy();
+    }
 
-    public abstract Processor copy();
+    @Override
+    public void onWatermark(long watermark) {
+        if (this.ringBuffers != null) {
+            // Events still queued in the ring buffers of shards would become late
+            return;
+        }
+        this.processorMap.forEach(processor -> processor.onWatermark(watermark));
+        super.onWatermark(watermark);
+    }
 
     @Override
     public void destroy() {
@@ -128,14 +570,147 @@ public abstract class PartitionProcessor extends StreamProcessor implements Stat
 
     @Override
     public void clear() {
-        try {
-            this.lock.lock();
-            for (Processor processor : this.processorMap.values()) {
-                processor.destroy();
+        this.destroyRetired();
+        this.processorMap.clear(Processor::destroy);
+        if (this.heavyHitters != null) {
+            this.heavyHitters.clear();
+        }
+    }
+
+    /**
+     * The partition of a shared {@link KeyedProcessor} identified by a dense key.
+     */
+    private static class KeyedPartition implements Processor {
+
+        private final PartitionProcessor partitionProcessor;
+        private final int key;
+        private final int shard;
+        private final KeyedProcessor processor;
+        private volatile int[] partialKeys;
+
+        private KeyedPartition(PartitionProcessor partitionProcessor, int key, int shard) {
+            this.partitionProcessor = partitionProcessor;
+            this.key = key;
+            this.shard = shard;
+            this.processor = partitionProcessor.shardProcessors[shard];
+        }
+
+        @Override
+        public void start() {
+
+        }
+
+        @Override
+        public void stop() {
+
+        }
+
+        @Override
+        public void process(Event event) {
+            this.processor.process(this.key, event);
+        }
+
+        @Override
+        public void process(List<Event> events) {
+            this.processor.process(this.key, events);
+        }
+
+        /**
+         * Process an event in a shard, splitting this partition if the event was routed as an event of a hot key.
+         * Once split, the partition combines the sub-partitions even if the key cools down and its events return to
+         * the home shard.
+         *
+         * @param shard the shard processing the event
+         * @param split true if the event may have been sent to a shard other than the home shard
+         * @param event the event
+         */
+        private void process(int shard, boolean split, Event event) {
+            int[] keys = this.partialKeys;
+            if (keys == null && split) {
+                keys = this.split();
             }
-            this.processorMap.clear();
-        } finally {
-            this.lock.unlock();
+            if (keys == null) {
+                this.processor.process(this.key, event);
+            } else {
+                ((AggregateProcessor) this.partitionProcessor.shardProcessors[shard]).process(shard, keys, event);
+            }
+        }
+
+        /**
+         * Assign a sub-partition to every shard. The home shard keeps the state aggregated before splitting.
+         *
+         * @return the keys of the sub-partitions indexed by shard
+         */
+        private int[] split() {
+            PartitionProcessor processor = this.partitionProcessor;
+            processor.lock.lock();
+            try {
+                if (this.partialKeys == null) {
+                    int[] keys = new int[processor.shards];
+                    for (int i = 0; i < keys.length; i++) {
+                        keys[i] = i == this.shard ? this.key : processor.nextKey();
+                    }
+                    this.partialKeys = keys;
+                    processor.splitCount++;
+                }
+                return this.partialKeys;
+            } finally {
+                processor.lock.unlock();
+            }
+        }
+
+        /**
+         * Get the number of events of this partition pending in a keyed batch window.
+         *
+         * @return the number of pending events
+         */
+        private int getPendingCount() {
+            KeyedProcessor processor = this.processor;
+            if (processor instanceof WindowProcessor) {
+                return ((WindowProcessor) processor).getPendingCount(this.key);
+            }
+            return 0;
+        }
+
+        @Override
+        public Processor copy() {
+            return this;
+        }
+
+        @Override
+        public void destroy() {
+            this.partitionProcessor.releaseKey(this.key, this.shard);
+            int[] keys = this.partialKeys;
+            if (keys != null) {
+                for (int i = 0; i < keys.length; i++) {
+                    if (i != this.shard) {
+                        this.partitionProcessor.releaseKey(keys[i], i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * An event published to a shard with the hash of its partition key and the routing decision.
+     */
+    private static class RoutedEvent {
+        private Event event;
+        private long hash;
+        private boolean split;
+    }
+
+    /**
+     * An evicted partition waiting for the threads which may be processing it.
+     */
+    private static class RetiredPartition {
+
+        private final Processor processor;
+        private final BooleanSupplier quiesced;
+
+        private RetiredPartition(Processor processor, BooleanSupplier quiesced) {
+            this.processor = processor;
+            this.quiesced = quiesced;
         }
     }
 }
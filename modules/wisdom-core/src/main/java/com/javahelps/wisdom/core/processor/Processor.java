@@ -37,8 +37,24 @@ public interface Processor extends Partitionable, Serializable {
 
     void process(Event event);
 
+    /**
+     * Process a batch of events. The list may be a read-only view reused by the previous processor after this call
+     * returns, so processors keeping or modifying the list must copy it.
+     *
+     * @param events the events
+     */
     void process(List<Event> events);
 
     Processor copy();
 
+    /**
+     * Notify that no more events with an earlier timestamp are expected except late events. Watermarks are emitted by
+     * streams reordering events by event time and passed through the processors of queries.
+     *
+     * @param watermark the event time watermark
+     */
+    default void onWatermark(long watermark) {
+        // Do nothing
+    }
+
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.processor;
+
+import com.javahelps.wisdom.core.event.Event;
+
+import java.util.List;
+
+/**
+ * The {@link StreamProcessor} of a query using the window of another query with the same definition. It receives the
+ * output of the shared {@link WindowProcessor} and passes it to the following processors of the query.
+ */
+public class SharedWindowProcessor extends StreamProcessor {
+
+    public SharedWindowProcessor(String id) {
+        super(id);
+    }
+
+    @Override
+    public void start() {
+
+    }
+
+    @Override
+    public void process(Event event) {
+        this.getNextProcessor().process(event);
+    }
+
+    @Override
+    public void process(List<Event> events) {
+        this.getNextProcessor().process(events);
+    }
+
+    @Override
+    public Processor copy() {
+        return this;
+    }
+
+    @Override
+    public void destroy() {
+
+    }
+}
@@ -59,6 +59,13 @@ public abstract class StreamProcessor implements Processor, Initializable {
         // Do nothing
     }
 
+    @Override
+    public void onWatermark(long watermark) {
+        if (this.nextProcessor != null) {
+            this.nextProcessor.onWatermark(watermark);
+        }
+    }
+
 //    @Override
 //    public Checkpoint checkpoint(boolean includeEvents) {
 //        Checkpoint checkpoint = Checkpoint.forID(this.id);
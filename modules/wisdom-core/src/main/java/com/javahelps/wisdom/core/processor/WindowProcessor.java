@@ -22,18 +22,23 @@ package com.javahelps.wisdom.core.processor;
 
 import com.javahelps.wisdom.core.WisdomApp;
 import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.window.KeyedWindow;
+import com.javahelps.wisdom.core.window.SlidingWindow;
 import com.javahelps.wisdom.core.window.Window;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * The runtime {@link StreamProcessor} of {@link Window}s.
  */
-public class WindowProcessor extends StreamProcessor implements Stateful {
+public class WindowProcessor extends StreamProcessor implements KeyedProcessor, Stateful {
 
 
     private Window window;
     private WisdomApp wisdomApp;
+    private KeyedProcessor keyedNextProcessor;
+    private final List<Processor> sharedProcessors = new ArrayList<>();
 
     public WindowProcessor(String id, Window window) {
         super(id);
@@ -42,8 +47,57 @@ public class WindowProcessor extends StreamProcessor implements Stateful {
 
     @Override
     public void init(WisdomApp wisdomApp) {
+        this.window.setLock(wisdomApp.getContext().createLock());
+        if (!this.sharedProcessors.isEmpty()) {
+            // Send the output to the queries sharing this window
+            List<Processor> processors = new ArrayList<>(this.sharedProcessors.size() + 1);
+            processors.add(this.getNextProcessor());
+            processors.addAll(this.sharedProcessors);
+            boolean expiring = false;
+            for (int i = 0; i < processors.size(); i++) {
+                if (isExpiring(processors.get(i))) {
+                    expiring = true;
+                } else if (this.window.isSliding()) {
+                    processors.set(i, new CurrentEventProcessor(processors.get(i)));
+                }
+            }
+            this.setExpiring(expiring);
+            this.setNextProcessor(new BroadcastProcessor(processors));
+        } else if (this.window.isSliding()) {
+            this.setExpiring(isExpiring(this.getNextProcessor()));
+        } else if (this.getNextProcessor() instanceof AggregateProcessor && !this.window.isSliding()) {
+            // Aggregate events on arrival instead of keeping them in the window
+            this.window.fuse((AggregateProcessor) this.getNextProcessor());
+        }
         this.window.init(wisdomApp);
         this.wisdomApp = wisdomApp;
+        this.keyedNextProcessor = KeyedProcessor.of(this.getNextProcessor());
+    }
+
+    private void setExpiring(boolean expiring) {
+        if (this.window instanceof SlidingWindow) {
+            ((SlidingWindow) this.window).setExpiring(expiring);
+        }
+    }
+
+    /**
+     * Check whether the processor consumes the expired events of a sliding window.
+     */
+    private static boolean isExpiring(Processor processor) {
+        if (processor instanceof SharedWindowProcessor) {
+            processor = ((SharedWindowProcessor) processor).getNextProcessor();
+        }
+        return processor instanceof AggregateProcessor && ((AggregateProcessor) processor).isExpiring();
+    }
+
+    /**
+     * Send the output of the window also to a processor of another query defining the same window on the same input.
+     * Must be called before initializing this processor.
+     *
+     * @param processor the first processor of the other query after the window
+     */
+    public void share(Processor processor) {
+        this.sharedProcessors.add(processor);
     }
 
     @Override
@@ -61,10 +115,61 @@ public class WindowProcessor extends StreamProcessor implements Stateful {
         this.window.process(events, getNextProcessor());
     }
 
+    @Override
+    public void onWatermark(long watermark) {
+        this.window.onWatermark(watermark, getNextProcessor());
+        super.onWatermark(watermark);
+    }
+
+    @Override
+    public boolean isKeyed() {
+        return this.window instanceof KeyedWindow;
+    }
+
+    @Override
+    public void process(int key, Event event) {
+        ((KeyedWindow) this.window).process(key, event, this.keyedNextProcessor);
+    }
+
+    @Override
+    public void process(int key, List<Event> events) {
+        for (Event event : events) {
+            this.process(key, event);
+        }
+    }
+
+    /**
+     * Get the number of events received by the window but not emitted yet.
+     *
+     * @return the number of pending events
+     */
+    public int getPendingCount() {
+        Window window = this.window;
+        return window == null ? 0 : window.getPendingCount();
+    }
+
+    /**
+     * Get the number of events of a partition received by a keyed window but not emitted yet.
+     *
+     * @param key the key of the partition
+     * @return the number of pending events
+     */
+    public int getPendingCount(int key) {
+        return ((KeyedWindow) this.window).getPendingCount(key);
+    }
+
+    @Override
+    public void release(int key) {
+        ((KeyedWindow) this.window).release(key);
+        this.keyedNextProcessor.release(key);
+    }
+
     @Override
     public Processor copy() {
 
-        WindowProcessor windowProcessor = new WindowProcessor(this.id, this.window.copy());
+        Window window = this.window.copy();
+        window.bind(this.window.getSchema());
+        WindowProcessor windowProcessor = new WindowProcessor(this.id, window);
         windowProcessor.setNextProcessor(this.getNextProcessor().copy());
         windowProcessor.init(this.wisdomApp);
         return windowProcessor;
@@ -80,4 +185,55 @@ public class WindowProcessor extends StreamProcessor implements Stateful {
     public void clear() {
         this.window.clear();
     }
+
+    /**
+     * Drop the expired events of a shared sliding window before a processor not consuming them.
+     */
+    private static class CurrentEventProcessor implements Processor {
+
+        private final Processor processor;
+
+        private CurrentEventProcessor(Processor processor) {
+            this.processor = processor;
+        }
+
+        @Override
+        public void start() {
+
+        }
+
+        @Override
+        public void stop() {
+
+        }
+
+        @Override
+        public void process(Event event) {
+            if (!event.isExpired()) {
+                this.processor.process(event);
+            }
+        }
+
+        @Override
+        public void process(List<Event> events) {
+            for (Event event : events) {
+                this.process(event);
+            }
+        }
+
+        @Override
+        public void onWatermark(long watermark) {
+            this.processor.onWatermark(watermark);
+        }
+
+        @Override
+        public Processor copy() {
+            return this;
+        }
+
+        @Override
+        public void destroy() {
+
+        }
+    }
 }
@@ -24,6 +24,7 @@ import com.javahelps.wisdom.core.WisdomApp;
 import com.javahelps.wisdom.core.event.AttributeSupplier;
 import com.javahelps.wisdom.core.event.Event;
 import com.javahelps.wisdom.core.event.Index;
+import com.javahelps.wisdom.core.event.Schema;
 import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
 import com.javahelps.wisdom.core.map.Mapper;
 import com.javahelps.wisdom.core.operator.AggregateOperator;
@@ -31,9 +32,11 @@ import com.javahelps.wisdom.core.pattern.Pattern;
 import com.javahelps.wisdom.core.processor.*;
 import com.javahelps.wisdom.core.stream.Stream;
 import com.javahelps.wisdom.core.variable.Variable;
+import com.javahelps.wisdom.core.window.HopWindow;
 import com.javahelps.wisdom.core.window.Window;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -50,12 +53,18 @@ public class Query implements Stateful {
     private final List<Stateful> statefulList = new ArrayList<>();
     private final List<Mapper> mapperList = new ArrayList<>();
     private final Map<String, AttributeSupplier> attributeSupplierMap = new HashMap<>();
+    private final List<StreamProcessor> filters = new ArrayList<>();
+    private final List<Object> filterKeys = new ArrayList<>();
     private String id;
     private WisdomApp wisdomApp;
     private Stream inputStream;
     private Stream outputStream;
     private StreamProcessor lastStreamProcessor;
+    private boolean expiring;
+    // True if the processors may be called by more than one thread
+    private boolean concurrent;
     private int processorIndex = 0;
+    private int shards = 1;
 
     public Query(WisdomApp wisdomApp, String id) {
 
@@ -67,6 +76,9 @@ public class Query implements Stateful {
      * Initialize all stream processors of the query.
      */
     public void init() {
+        if (this.shards > 1) {
+            this.initShards();
+        }
         this.streamProcessorMap.values().forEach(processor -> processor.init(this.wisdomApp));
         this.mapperList.forEach(mapper -> mapper.init(this.wisdomApp));
     }
@@ -81,6 +93,43 @@ public class Query implements Stateful {
         this.mapperList.forEach(Mapper::stop);
     }
 
+    /**
+     * Process the partitions of this query in the given number of threads.
+     *
+     * @param shards the number of threads
+     * @return the query
+     */
+    public Query parallel(int shards) {
+        if (shards < 1) {
+            throw new WisdomAppValidationException("Parallelism of query %s must be positive but found %d", this.id,
+                    shards);
+        }
+        this.shards = shards;
+        return this;
+    }
+
+    private void initShards() {
+        if (this.wisdomApp.getContext().isSingleThreaded()) {
+            throw new WisdomAppValidationException("Query %s cannot be parallel in single threading mode", this.id);
+        }
+        boolean partitioned = false;
+        for (StreamProcessor processor : this.streamProcessorMap.values()) {
+            if (processor instanceof PartitionProcessor) {
+                ((PartitionProcessor) processor).setShards(this.shards);
+                partitioned = true;
+            }
+        }
+        if (!partitioned) {
+            throw new WisdomAppValidationException("Query %s must be partitioned to be parallel", this.id);
+        }
+        // Async streams accept events from multiple threads
+        Processor output = this.lastStreamProcessor.getNextProcessor();
+        if (!(output instanceof MergeProcessor || output instanceof Stream && ((Stream) output).isAsync())) {
+            this.lastStreamProcessor.setNextProcessor(new MergeProcessor(output,
+                    this.wisdomApp.getContext().createLock()));
+        }
+    }
+
     public Pattern definePattern(String streamId, String alias) {
         Pattern pattern = new Pattern(this.generateId(), streamId, alias);
         this.registerAttributeSupplier(alias, pattern.getAttributeCache());
@@ -97,18 +146,37 @@ public class Query implements Stateful {
         if (this.inputStream == null) {
             throw new WisdomAppValidationException("Stream %s is not defined in %s", streamId, this.wisdomApp.getName());
         }
+        // Async streams send events from a single consumer thread
+        this.concurrent = !this.inputStream.isAsync();
         return this;
     }
 
     public Query from(Pattern pattern) {
 
         this.lastStreamProcessor = pattern;
+        this.concurrent = true;
         this.addStreamProcessor(pattern);
         return this;
     }
 
     public Query filter(Predicate<Event> predicate) {
+        return this.filter(predicate, predicate);
+    }
+
+    /**
+     * Filter events using a predicate. Queries reading the same stream through filters with equal keys share the
+     * following window if it has the same definition.
+     *
+     * @param predicate the predicate
+     * @param key       the key identifying the predicate
+     * @return the query
+     */
+    public Query filter(Predicate<Event> predicate, Object key) {
 
+        if (this.filters.size() == this.streamProcessorMap.size()) {
+            // Filters reading directly from the input stream
+            this.filterKeys.add(key);
+        }
         FilterProcessor filterProcessor = new FilterProcessor(generateId(), predicate);
         if (this.lastStreamProcessor == null) {
             this.inputStream.addProcessor(filterProcessor);
@@ -117,20 +185,59 @@ public class Query implements Stateful {
         }
         this.addStreamProcessor(filterProcessor);
         this.lastStreamProcessor = filterProcessor;
+        if (this.filterKeys.size() > this.filters.size()) {
+            this.filters.add(filterProcessor);
+        }
 
         return this;
     }
 
     public Query window(Window window) {
 
+        this.concurrent |= window.isScheduled();
+        window.bind(this.getSchema());
+        // Windows reading the input stream directly or through filters can be shared by queries
+        List<Object> definition = null;
+        if (this.inputStream != null && this.filters.size() == this.streamProcessorMap.size()) {
+            definition = Arrays.asList(window.getClass(), window.getProperties(), new ArrayList<>(this.filterKeys));
+            WindowProcessor sharedProcessor = this.inputStream.getWindow(definition);
+            if (sharedProcessor != null) {
+                return this.shareWindow(sharedProcessor, window);
+            }
+        }
         WindowProcessor windowProcessor = new WindowProcessor(generateId(), window);
+        if (definition != null) {
+            this.inputStream.addWindow(definition, windowProcessor);
+        }
         if (this.lastStreamProcessor == null) {
+            if (window instanceof HopWindow) {
+                // Hopping windows reading the same stream share their panes
+                ((HopWindow) window).setInputStream(this.inputStream.getId());
+            }
             this.inputStream.addProcessor(windowProcessor);
         } else {
             this.lastStreamProcessor.setNextProcessor(windowProcessor);
         }
         this.addStreamProcessor(windowProcessor);
         this.lastStreamProcessor = windowProcessor;
+        this.expiring = window.isSliding();
+        return this;
+    }
+
+    private Query shareWindow(WindowProcessor sharedProcessor, Window window) {
+        // The shared window receives the events filtered by the other query
+        if (!this.filters.isEmpty()) {
+            this.inputStream.removeProcessor(this.filters.get(0));
+            for (StreamProcessor filter : this.filters) {
+                this.streamProcessorMap.remove(filter.getId());
+            }
+            this.filters.clear();
+        }
+        SharedWindowProcessor processor = new SharedWindowProcessor(generateId());
+        sharedProcessor.share(processor);
+        this.addStreamProcessor(processor);
+        this.lastStreamProcessor = processor;
+        this.expiring = window.isSliding();
         return this;
     }
 
@@ -233,7 +340,15 @@ public class Query implements Stateful {
 
     public Query aggregate(AggregateOperator... operators) {
 
+        Schema schema = this.getSchema();
+        for (AggregateOperator operator : operators) {
+            operator.bind(schema);
+        }
         AggregateProcessor aggregateProcessor = new AggregateProcessor(generateId(), operators);
+        // Aggregators consume the expired events of a preceding sliding window
+        aggregateProcessor.setExpiring(this.expiring);
+        aggregateProcessor.setSingleWriter(!this.concurrent);
+        this.expiring = false;
         if (this.lastStreamProcessor == null) {
             this.inputStream.addProcessor(aggregateProcessor);
         } else {
@@ -275,6 +390,8 @@ public class Query implements Stateful {
     public Query partitionByAttr(String... attributes) {
 
         PartitionProcessor partitionProcessor = new PartitionByAttributeProcessor(generateId(), attributes);
+        this.inputStream.addPartition(partitionProcessor);
+        this.concurrent = true;
         if (this.lastStreamProcessor == null) {
             this.inputStream.addProcessor(partitionProcessor);
         } else {
@@ -289,6 +406,8 @@ public class Query implements Stateful {
     public Query partitionByVal(String... attributes) {
 
         PartitionProcessor partitionProcessor = new PartitionByValueProcessor(generateId(), attributes);
+        this.inputStream.addPartition(partitionProcessor);
+        this.concurrent = true;
         if (this.lastStreamProcessor == null) {
             this.inputStream.addProcessor(partitionProcessor);
         } else {
@@ -315,6 +434,15 @@ public class Query implements Stateful {
         return supplier;
     }
 
+    /**
+     * Get the {@link Schema} of the input stream of this query.
+     *
+     * @return the schema or null if the input stream is not typed
+     */
+    public Schema getSchema() {
+        return this.inputStream == null ? null : this.inputStream.getSchema();
+    }
+
     private void addStreamProcessor(StreamProcessor processor) {
         this.streamProcessorMap.put(processor.getId(), processor);
         if (processor instanceof Stateful) {
@@ -102,6 +102,29 @@ public class StatisticsManager {
             double duration = (currentTime - tracker.getStartTime()) / 1000;
             double throughput = tracker.getCount() / duration;
             Map<String, Object> data = map("app", this.app.getName(), "name", tracker.getStreamId(), "throughput", throughput, "timestamp", currentTime);
+            long waitingTime = tracker.drainWaitingTime();
+            long period = currentTime - tracker.getStartTime();
+            if (waitingTime >= 0 && period > 0) {
+                // Fraction of the reporting period the async consumer spent waiting for events
+                data.put("wait_ratio", Math.min(1.0, waitingTime / (period * 1_000_000.0)));
+            }
+            long dropped = tracker.drainDropCount();
+            if (dropped >= 0) {
+                // Events lost or delayed by the overflow policy of the async stream
+                data.put("dropped", dropped);
+                data.put("spilled", tracker.drainSpillCount());
+            }
+            long partitions = tracker.countPartitions();
+            if (partitions >= 0) {
+                // Partitions of the queries consuming the stream
+                data.put("partitions", partitions);
+                data.put("evicted", tracker.drainEvictionCount());
+            }
+            Map<String, Long> topKeys = tracker.getTopKeys();
+            if (topKeys != null) {
+                // Most frequent partition keys with their estimated number of events
+                data.put("top_keys", topKeys);
+            }
             for (Comparable variable : this.environmentVariables) {
                 data.put(variable.toString(), this.context.getProperty(variable));
             }
@@ -20,13 +20,29 @@
 
 package com.javahelps.wisdom.core.statistics;
 
+import com.javahelps.wisdom.core.processor.PartitionProcessor;
+import com.javahelps.wisdom.core.stream.async.OverflowPolicy;
+import com.javahelps.wisdom.core.stream.async.TimedWaitStrategy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 public class StreamTracker {
 
     private final String streamId;
     private final AtomicLong count = new AtomicLong();
     private long startTime;
+    private TimedWaitStrategy waitStrategy;
+    private OverflowPolicy overflowPolicy;
+    private long lastDropCount;
+    private long lastSpillCount;
+    private final List<PartitionProcessor> partitions = new ArrayList<>();
+    private long lastEvictionCount;
 
     public StreamTracker(String streamId) {
         this.streamId = streamId;
@@ -52,6 +68,119 @@ public class StreamTracker {
         this.startTime = startTime;
     }
 
+    public void setWaitStrategy(TimedWaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Get the time the async consumer of the stream spent waiting for events since the last call.
+     *
+     * @return the waiting time in nanoseconds or -1 if the stream is not async
+     */
+    long drainWaitingTime() {
+        return this.waitStrategy == null ? -1L : this.waitStrategy.drainWaitingTime();
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        if (overflowPolicy != null) {
+            this.lastDropCount = overflowPolicy.getDropCount();
+            this.lastSpillCount = overflowPolicy.getSpillCount();
+        }
+    }
+
+    /**
+     * Get the number of events dropped by the overflow policy of the stream since the last call.
+     *
+     * @return the number of dropped events or -1 if the stream is not async
+     */
+    long drainDropCount() {
+        if (this.overflowPolicy == null) {
+            return -1L;
+        }
+        long count = this.overflowPolicy.getDropCount();
+        long dropped = count - this.lastDropCount;
+        this.lastDropCount = count;
+        return dropped;
+    }
+
+    /**
+     * Get the number of events spilled by the overflow policy of the stream since the last call.
+     *
+     * @return the number of spilled events or -1 if the stream is not async
+     */
+    long drainSpillCount() {
+        if (this.overflowPolicy == null) {
+            return -1L;
+        }
+        long count = this.overflowPolicy.getSpillCount();
+        long spilled = count - this.lastSpillCount;
+        this.lastSpillCount = count;
+        return spilled;
+    }
+
+    public void addPartition(PartitionProcessor partition) {
+        this.partitions.add(partition);
+        this.lastEvictionCount += partition.getEvictionCount();
+    }
+
+    /**
+     * Get the number of live partitions of the queries consuming the stream.
+     *
+     * @return the number of partitions or -1 if the stream is not partitioned
+     */
+    long countPartitions() {
+        if (this.partitions.isEmpty()) {
+            return -1L;
+        }
+        long count = 0;
+        for (PartitionProcessor partition : this.partitions) {
+            count += partition.getPartitionCount();
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of partitions evicted from the queries consuming the stream since the last call.
+     *
+     * @return the number of evicted partitions
+     */
+    long drainEvictionCount() {
+        long count = 0;
+        for (PartitionProcessor partition : this.partitions) {
+            count += partition.getEvictionCount();
+        }
+        long evicted = count - this.lastEvictionCount;
+        this.lastEvictionCount = count;
+        return evicted;
+    }
+
+    /**
+     * Get the most frequent partition keys of the queries consuming the stream. Every query sees all events of the
+     * stream, so the highest estimate of a key is reported.
+     *
+     * @return the keys mapped to their estimated number of events in descending order or null if no query reports
+     * its top keys
+     */
+    Map<String, Long> getTopKeys() {
+        int limit = 0;
+        Map<String, Long> counts = new HashMap<>();
+        for (PartitionProcessor partition : this.partitions) {
+            limit = Math.max(limit, partition.getTopKeyLimit());
+            partition.getTopKeys().forEach((key, count) -> counts.merge(key.stream().map(String::valueOf)
+                    .collect(Collectors.joining(",")), count, Math::max));
+        }
+        if (limit == 0) {
+            return null;
+        }
+        Map<String, Long> topKeys = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .forEach(entry -> topKeys.put(entry.getKey(), entry.getValue()));
+        return topKeys;
+    }
+
     public String getStreamId() {
         return streamId;
     }
@@ -60,7 +60,7 @@ public class AdminStream extends Stream {
             // Command is case sensitive
             Set<Consumer<Map<String, Object>>> set = this.consumers.get(command);
             if (set != null) {
-                Map<String, Object> data = Collections.unmodifiableMap(event.getData());
+                Map<String, Object> data = event.getDataView();
                 for (Consumer<Map<String, Object>> consumer : set) {
                     try {
                         consumer.accept(data);
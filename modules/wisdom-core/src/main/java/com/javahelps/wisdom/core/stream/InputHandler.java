@@ -21,11 +21,14 @@
 package com.javahelps.wisdom.core.stream;
 
 import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.WisdomContext;
 import com.javahelps.wisdom.core.event.Event;
 import com.javahelps.wisdom.core.exception.WisdomAppRuntimeException;
 import com.javahelps.wisdom.core.processor.Processor;
 import com.javahelps.wisdom.core.time.EventBasedTimestampGenerator;
 
+import java.util.function.Consumer;
+
 /**
  * InputHandler to send events into a stream.
  */
@@ -33,12 +36,15 @@ public class InputHandler {
 
     private final Processor processor;
     private final WisdomApp wisdomApp;
+    private final WisdomContext context;
+    private final Consumer<Event> target = this::process;
     private EventBasedTimestampGenerator timestampGenerator;
     private String playbackTimestamp;
 
     public InputHandler(Processor processor, WisdomApp wisdomApp) {
         this.processor = processor;
         this.wisdomApp = wisdomApp;
+        this.context = wisdomApp.getContext();
         if (wisdomApp.getContext().isPlaybackEnabled()) {
             this.timestampGenerator = (EventBasedTimestampGenerator) wisdomApp.getContext().getTimestampGenerator();
             this.playbackTimestamp = wisdomApp.getContext().getPlaybackAttribute();
@@ -46,6 +52,31 @@ public class InputHandler {
     }
 
     public void send(Event event) {
+        if (this.context.isSingleThreaded()) {
+            this.context.dispatch(this.target, event);
+        } else {
+            this.process(event);
+        }
+    }
+
+    /**
+     * Get the number of events which can be sent without overflowing the buffer of an async stream or the dispatcher
+     * of the single threading mode. Sources can use it to throttle themselves instead of being blocked or losing events.
+     *
+     * @return the remaining capacity or {@link Long#MAX_VALUE} if the events are not buffered
+     */
+    public long remainingCapacity() {
+        if (this.context.isSingleThreaded()) {
+            // Events are queued in the ring buffer of the dispatcher
+            return this.context.getDispatcher().remainingCapacity();
+        }
+        if (this.processor instanceof Stream) {
+            return ((Stream) this.processor).remainingCapacity();
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private void process(Event event) {
         if (this.timestampGenerator != null) {
             Object timestamp = event.get(this.playbackTimestamp);
             if (timestamp != null && timestamp instanceof Number) {
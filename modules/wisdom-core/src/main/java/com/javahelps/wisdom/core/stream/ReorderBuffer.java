@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.RuntimeAttribute;
+
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Min-heap of events ordered by an event time attribute. Events are held until the largest timestamp seen is more
+ * than the maximum disorder ahead of them and then released in timestamp order, advancing the watermark to the
+ * largest timestamp minus the maximum disorder. Events arriving behind the watermark are late: they are released
+ * immediately if they are within the allowed lateness, or rejected otherwise. Not thread safe.
+ */
+class ReorderBuffer {
+
+    private final RuntimeAttribute timestampAttribute;
+    private final long maxDisorder;
+    private final long allowedLateness;
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>();
+    private long watermark = Long.MIN_VALUE;
+    private long sequence;
+
+    /**
+     * Create a reorder buffer.
+     *
+     * @param timestampAttribute the attribute with the event time
+     * @param maxDisorder        the maximum time an event may arrive after an event with a later timestamp
+     * @param allowedLateness    the time a late event may be behind the watermark and still be released
+     */
+    ReorderBuffer(RuntimeAttribute timestampAttribute, long maxDisorder, long allowedLateness) {
+        this.timestampAttribute = timestampAttribute;
+        this.maxDisorder = maxDisorder;
+        this.allowedLateness = allowedLateness;
+    }
+
+    /**
+     * Add an event.
+     *
+     * @param event    the event
+     * @param released the list to add the events released in timestamp order
+     * @return false if the event is late beyond the allowed lateness
+     */
+    boolean add(Event event, List<Event> released) {
+        long timestamp = this.timestampAttribute.getAsLong(event);
+        if (timestamp < this.watermark) {
+            if (timestamp < this.watermark - this.allowedLateness) {
+                return false;
+            }
+            released.add(event);
+            return true;
+        }
+        this.heap.add(new Entry(timestamp, this.sequence++, event));
+        long watermark = timestamp - this.maxDisorder;
+        if (watermark > this.watermark) {
+            this.watermark = watermark;
+            this.release(watermark, released);
+        }
+        return true;
+    }
+
+    /**
+     * Release all the events held in the buffer and advance the watermark to the largest timestamp.
+     *
+     * @param released the list to add the events released in timestamp order
+     */
+    void flush(List<Event> released) {
+        while (!this.heap.isEmpty()) {
+            Entry entry = this.heap.poll();
+            this.watermark = Math.max(this.watermark, entry.timestamp);
+            released.add(entry.event);
+        }
+    }
+
+    long getWatermark() {
+        return this.watermark;
+    }
+
+    private void release(long watermark, List<Event> released) {
+        while (!this.heap.isEmpty() && this.heap.peek().timestamp <= watermark) {
+            released.add(this.heap.poll().event);
+        }
+    }
+
+    private static class Entry implements Comparable<Entry> {
+        private final long timestamp;
+        private final long sequence;
+        private final Event event;
+
+        private Entry(long timestamp, long sequence, Event event) {
+            this.timestamp = timestamp;
+            this.sequence = sequence;
+            this.event = event;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            // Events with the same timestamp keep their arrival order
+            int result = Long.compare(this.timestamp, other.timestamp);
+            return result != 0 ? result : Long.compare(this.sequence, other.sequence);
+        }
+    }
+}
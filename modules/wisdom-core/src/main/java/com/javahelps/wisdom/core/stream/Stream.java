@@ -23,22 +23,29 @@ package com.javahelps.wisdom.core.stream;
 import com.javahelps.wisdom.core.ThreadBarrier;
 import com.javahelps.wisdom.core.WisdomApp;
 import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.RuntimeAttribute;
+import com.javahelps.wisdom.core.event.Schema;
 import com.javahelps.wisdom.core.exception.WisdomAppRuntimeException;
 import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.processor.PartitionProcessor;
 import com.javahelps.wisdom.core.processor.Processor;
+import com.javahelps.wisdom.core.processor.WindowProcessor;
 import com.javahelps.wisdom.core.statistics.StatisticsManager;
 import com.javahelps.wisdom.core.statistics.StreamTracker;
-import com.javahelps.wisdom.core.stream.async.EventHolder;
-import com.lmax.disruptor.RingBuffer;
-import com.lmax.disruptor.YieldingWaitStrategy;
+import com.javahelps.wisdom.core.stream.async.*;
+import com.javahelps.wisdom.core.util.WisdomConfig;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.locks.Lock;
 
 import static com.javahelps.wisdom.core.util.WisdomConfig.EMPTY_PROPERTIES;
 import static com.javahelps.wisdom.core.util.WisdomConstants.*;
@@ -56,11 +63,24 @@ public class Stream implements Processor {
     private List<Processor> processorList = new ArrayList<>();
     private Processor[] processors;
     private Disruptor<EventHolder> disruptor;
-    private RingBuffer<EventHolder> ringBuffer;
+    private StripedRingBuffer stripedRingBuffer;
+    private OverflowPolicy overflowPolicy;
     private boolean disabled = false;
     private StreamTracker tracker;
+    private TimedWaitStrategy waitStrategy;
     private ThreadBarrier threadBarrier;
-
+    private Schema schema;
+    private int batchSize;
+    private long partitionTtl;
+    private int partitionMax;
+    private int partitionTopK;
+    private final List<PartitionProcessor> partitions = new ArrayList<>();
+    private final Map<Object, WindowProcessor> windows = new HashMap<>();
+    private ReorderBuffer reorderBuffer;
+    private Lock reorderLock;
+    private String lateStreamId;
+    private Stream lateStream;
+    private volatile long watermark = Long.MIN_VALUE;
 
     public Stream(WisdomApp wisdomApp, String id) {
         this(wisdomApp, id, EMPTY_PROPERTIES);
@@ -72,18 +92,81 @@ public class Stream implements Processor {
         this.threadBarrier = wisdomApp.getContext().getThreadBarrier();
         final boolean async = ((Boolean) properties.getOrDefault(ASYNC, wisdomApp.getContext().isAsync()));
         final int bufferSize = ((Number) properties.getOrDefault(BUFFER, wisdomApp.getBufferSize())).intValue();
+        this.batchSize = ((Number) properties.getOrDefault(BATCH, WisdomConfig.EVENT_BATCH_SIZE)).intValue();
+        if (batchSize < 1) {
+            throw new WisdomAppValidationException("Batch size of stream %s must be positive but found %d", id,
+                    batchSize);
+        }
+        this.schema = (Schema) properties.get(SCHEMA);
+        if (this.schema != null) {
+            this.schema.freeze();
+        }
+        this.partitionTtl = ((Number) properties.getOrDefault(PARTITION_TTL, 0L)).longValue();
+        this.partitionMax = ((Number) properties.getOrDefault(PARTITION_MAX, 0)).intValue();
+        if (this.partitionTtl < 0 || this.partitionMax < 0) {
+            throw new WisdomAppValidationException("Partition ttl and max of stream %s must not be negative but " +
+                    "found %d and %d", id, this.partitionTtl, this.partitionMax);
+        }
+        this.partitionTopK = ((Number) properties.getOrDefault(PARTITION_TOP_K, 0)).intValue();
+        if (this.partitionTopK < 0) {
+            throw new WisdomAppValidationException("Partition top k of stream %s must not be negative but found %d",
+                    id, this.partitionTopK);
+        }
+        Object eventTime = properties.get(EVENT_TIME);
+        if (eventTime != null) {
+            long maxDisorder = ((Number) properties.getOrDefault(MAX_DISORDER, 0L)).longValue();
+            long allowedLateness = ((Number) properties.getOrDefault(ALLOWED_LATENESS, 0L)).longValue();
+            if (maxDisorder < 0 || allowedLateness < 0) {
+                throw new WisdomAppValidationException("Max disorder and allowed lateness of stream %s must not be " +
+                        "negative but found %d and %d", id, maxDisorder, allowedLateness);
+            }
+            // Reorder events by event time before sending them to queries
+            this.reorderBuffer = new ReorderBuffer(new RuntimeAttribute(String.valueOf(eventTime)).bind(this.schema),
+                    maxDisorder, allowedLateness);
+            this.reorderLock = wisdomApp.getContext().createLock();
+            Object lateStream = properties.get(LATE_STREAM);
+            this.lateStreamId = lateStream == null ? null : String.valueOf(lateStream);
+        }
 
         // Create disruptor if async mode is enables
         if (async) {
-            this.disruptor = new Disruptor<>(EventHolder::new, bufferSize,
-                    wisdomApp.getContext().getThreadFactory(),
-                    ProducerType.MULTI, new YieldingWaitStrategy());
-
-            // Connect the handler
-            disruptor.handleEventsWith((eventHolder, sequence, endOfBatch) -> this.sendToProcessors(eventHolder.get()));
+            String wait = String.valueOf(properties.getOrDefault(WAIT, wisdomApp.getContext().getWaitStrategy()));
+            long waitIdleTime = ((Number) properties.getOrDefault(WAIT_IDLE,
+                    wisdomApp.getContext().getWaitIdleTime())).longValue();
+            Number stripeThreshold = (Number) properties.get(STRIPE_THRESHOLD);
+            if (stripeThreshold != null) {
+                // Give every producer its own ring buffer once there are too many of them
+                if (stripeThreshold.intValue() < 1) {
+                    throw new WisdomAppValidationException("Stripe threshold of stream %s must be positive but " +
+                            "found %d", id, stripeThreshold.intValue());
+                }
+                int maxStripes = ((Number) properties.getOrDefault(STRIPE_MAX, WisdomConfig.MAX_STRIPES)).intValue();
+                if (maxStripes < 1) {
+                    throw new WisdomAppValidationException("Maximum number of stripes of stream %s must be positive " +
+                            "but found %d", id, maxStripes);
+                }
+                // Validate the wait strategy used to decide how the idle consumer waits
+                WaitStrategies.create(wait, waitIdleTime);
+                this.stripedRingBuffer = new StripedRingBuffer(bufferSize, stripeThreshold.intValue(), maxStripes,
+                        batchSize, wait, wisdomApp.getContext().getThreadFactory(), this::consume, this::consume);
+                this.overflowPolicy = OverflowPolicy.create(id, this.stripedRingBuffer, properties);
+            } else {
+                this.waitStrategy = new TimedWaitStrategy(WaitStrategies.create(wait, waitIdleTime));
+                this.disruptor = new Disruptor<>(EventHolder::new, bufferSize,
+                        wisdomApp.getContext().getThreadFactory(),
+                        ProducerType.MULTI, this.waitStrategy);
+
+                // Connect the handler
+                if (batchSize > 1) {
+                    disruptor.handleEventsWith(new BatchEventHandler(batchSize, this::consume, this::released));
+                } else {
+                    disruptor.handleEventsWith(new SingleEventHandler(this::consume, this::released));
+                }
 
-            // Get the ring buffer from the Disruptor to be used for publishing.
-            this.ringBuffer = disruptor.getRingBuffer();
+                // Publish into the ring buffer of the Disruptor through the overflow policy
+                this.overflowPolicy = OverflowPolicy.create(id, new DisruptorEventBuffer(disruptor.getRingBuffer()),
+                        properties);
+            }
         }
         if ((Boolean) properties.getOrDefault(STATISTICS, false)) {
             StatisticsManager statisticsManager = wisdomApp.getStatisticsManager();
@@ -97,35 +180,62 @@ public class Stream implements Processor {
     @Override
     public void start() {
         this.processors = this.processorList.toArray(new Processor[0]);
+        if (this.lateStreamId != null) {
+            this.lateStream = this.wisdomApp.getStream(this.lateStreamId);
+            if (this.lateStream == null) {
+                throw new WisdomAppValidationException("Late stream %s of stream %s is not defined",
+                        this.lateStreamId, this.id);
+            }
+        }
 
         if (this.disruptor != null) {
             // Start the Disruptor, starts all threads running
             disruptor.start();
+        } else if (this.stripedRingBuffer != null) {
+            this.stripedRingBuffer.start();
         }
     }
 
     @Override
     public void stop() {
+        if (this.overflowPolicy != null) {
+            this.overflowPolicy.flush();
+        }
         if (this.disruptor != null) {
             // Start the Disruptor, starts all threads running
             disruptor.shutdown();
+        } else if (this.stripedRingBuffer != null) {
+            this.stripedRingBuffer.shutdown();
+        }
+        if (this.reorderBuffer != null) {
+            // Release the events still waiting for later events after the consumer has stopped
+            this.flushReorderBuffer();
+        }
+        if (this.overflowPolicy != null) {
+            this.overflowPolicy.close();
         }
     }
 
     @Override
     public void process(Event event) {
 
-        if (this.disabled) {
+        if (this.disabled || event.isExpired()) {
+            // Expired events of sliding windows are not inserted into streams
             return;
         }
         if (this.tracker != null) {
             this.tracker.inEvent();
         }
-        if (this.disruptor == null) {
+        if (this.overflowPolicy == null) {
             this.sendToProcessors(event);
         } else {
-            // Async enabled
-            this.ringBuffer.publishEvent((eventHolder, sequence, buffer) -> eventHolder.set(event));
+            // Async enabled. Leave the barrier while the policy may block on the consumer of this stream
+            int depth = this.threadBarrier.leave();
+            try {
+                this.overflowPolicy.publish(event);
+            } finally {
+                this.threadBarrier.rejoin(depth);
+            }
         }
     }
 
@@ -138,33 +248,176 @@ public class Stream implements Processor {
         if (this.tracker != null) {
             this.tracker.inEvent(events.size());
         }
-        if (this.disruptor == null) {
+        if (this.overflowPolicy == null) {
+            this.sendToProcessors(events);
+        } else {
+            // Async enabled. Leave the barrier while the policy may block on the consumer of this stream
+            int depth = this.threadBarrier.leave();
+            try {
+                this.overflowPolicy.publish(events);
+            } finally {
+                this.threadBarrier.rejoin(depth);
+            }
+        }
+    }
+
+    private void consume(Event event) {
+        if (!this.overflowPolicy.discard()) {
+            this.sendToProcessors(event);
+        }
+    }
+
+    private void consume(List<Event> events) {
+        int discarded = 0;
+        while (discarded < events.size() && this.overflowPolicy.discard()) {
+            discarded++;
+        }
+        if (discarded < events.size()) {
+            this.sendToProcessors(discarded == 0 ? events : events.subList(discarded, events.size()));
+        }
+    }
+
+    private void released() {
+        this.overflowPolicy.consumed();
+    }
+
+    private void sendToProcessors(List<Event> events) {
+        if (this.reorderBuffer == null) {
+            this.dispatch(events);
+        } else {
+            this.reorder(events, true);
+        }
+    }
+
+    private void sendToProcessors(Event event) {
+        if (this.reorderBuffer == null) {
+            this.dispatch(event);
+        } else {
+            this.reorder(Collections.singletonList(event), false);
+        }
+    }
+
+    /**
+     * Add events to the reorder buffer and send the released events and the new watermark to the processors. The
+     * processors are called while holding the lock to keep the event time order among producers.
+     */
+    private void reorder(List<Event> events, boolean batch) {
+        List<Event> released = new ArrayList<>(events.size());
+        List<Event> late = null;
+        this.reorderLock.lock();
+        try {
+            for (Event event : events) {
+                if (!this.reorderBuffer.add(event, released)) {
+                    if (late == null) {
+                        late = new ArrayList<>();
+                    }
+                    late.add(event);
+                }
+            }
+            if (batch && !released.isEmpty()) {
+                this.dispatch(released);
+            } else {
+                for (Event event : released) {
+                    this.dispatch(event);
+                }
+            }
+            long watermark = this.reorderBuffer.getWatermark();
+            if (watermark > this.watermark) {
+                this.watermark = watermark;
+                this.dispatchWatermark(watermark);
+            }
+        } finally {
+            this.reorderLock.unlock();
+        }
+        if (late != null) {
+            if (this.lateStream != null) {
+                this.lateStream.process(late);
+            } else {
+                LOGGER.debug("Dropped {} late events of stream {}", late.size(), this.id);
+            }
+        }
+    }
+
+    private void flushReorderBuffer() {
+        List<Event> released = new ArrayList<>();
+        this.reorderLock.lock();
+        try {
+            this.reorderBuffer.flush(released);
+            if (!released.isEmpty()) {
+                this.dispatch(released);
+            }
+            long watermark = this.reorderBuffer.getWatermark();
+            if (watermark > this.watermark) {
+                this.watermark = watermark;
+                this.dispatchWatermark(watermark);
+            }
+        } finally {
+            this.reorderLock.unlock();
+        }
+    }
+
+    @Override
+    public void onWatermark(long watermark) {
+        // Streams reordering events have their own watermark and async streams may have older events in the buffer
+        if (this.reorderBuffer == null && this.overflowPolicy == null && watermark > this.watermark) {
+            this.watermark = watermark;
+            this.dispatchWatermark(watermark);
+        }
+    }
+
+    /**
+     * Get the event time watermark of this stream.
+     *
+     * @return the watermark or Long.MIN_VALUE if this stream has not received a watermark
+     */
+    public long getWatermark() {
+        return this.watermark;
+    }
+
+    private void dispatchWatermark(long watermark) {
+        this.threadBarrier.enter();
+        try {
+            for (Processor processor : this.processors) {
+                try {
+                    processor.onWatermark(watermark);
+                } catch (WisdomAppRuntimeException ex) {
+                    this.wisdomApp.handleException(ex);
+                }
+            }
+        } finally {
+            this.threadBarrier.exit();
+        }
+    }
+
+    private void dispatch(List<Event> events) {
+        this.threadBarrier.enter();
+        try {
             for (Processor processor : this.processors) {
                 List<Event> newEvents = this.convertEvent(events);
                 try {
-                    this.threadBarrier.pass();
                     processor.process(newEvents);
                 } catch (WisdomAppRuntimeException ex) {
                     this.wisdomApp.handleException(ex);
                 }
             }
-        } else {
-            // Async enabled
-            for (Event event : events) {
-                this.ringBuffer.publishEvent((eventHolder, sequence, buffer) -> eventHolder.set(event));
-            }
+        } finally {
+            this.threadBarrier.exit();
         }
     }
 
-    private void sendToProcessors(Event event) {
-        for (Processor processor : this.processors) {
-            Event newEvent = this.convertEvent(event);
-            try {
-                this.threadBarrier.pass();
-                processor.process(newEvent);
-            } catch (WisdomAppRuntimeException ex) {
-                this.wisdomApp.handleException(ex);
+    private void dispatch(Event event) {
+        this.threadBarrier.enter();
+        try {
+            for (Processor processor : this.processors) {
+                Event newEvent = this.convertEvent(event);
+                try {
+                    processor.process(newEvent);
+                } catch (WisdomAppRuntimeException ex) {
+                    this.wisdomApp.handleException(ex);
+                }
             }
+        } finally {
+            this.threadBarrier.exit();
         }
     }
 
@@ -172,9 +425,69 @@ public class Stream implements Processor {
         return id;
     }
 
+    public boolean isAsync() {
+        return this.overflowPolicy != null;
+    }
+
+    /**
+     * Get the number of events the calling thread can publish into this stream without overflowing its buffer.
+     *
+     * @return the remaining capacity of the buffer or {@link Long#MAX_VALUE} if the stream is not async
+     */
+    public long remainingCapacity() {
+        return this.overflowPolicy == null ? Long.MAX_VALUE : this.overflowPolicy.getBuffer().remainingCapacity();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Register a partition of a query consuming this stream to apply the partition eviction and top key settings of
+     * the stream and to report its partitions in statistics.
+     *
+     * @param partition the partition processor
+     */
+    public void addPartition(PartitionProcessor partition) {
+        partition.setEviction(this.partitionTtl, this.partitionMax);
+        partition.setTopKeys(this.partitionTopK);
+        this.partitions.add(partition);
+        if (this.tracker != null) {
+            this.tracker.addPartition(partition);
+        }
+    }
+
+    /**
+     * Register a window reading directly from this stream, so that queries defining the same window can share it.
+     *
+     * @param definition the type, properties and the filters in front of the window
+     * @param window     the window processor
+     */
+    public void addWindow(Object definition, WindowProcessor window) {
+        this.windows.putIfAbsent(definition, window);
+    }
+
+    /**
+     * Get a window registered using {@link #addWindow(Object, WindowProcessor)}.
+     *
+     * @param definition the type, properties and the filters in front of the window
+     * @return the window processor or null if no such window is registered
+     */
+    public WindowProcessor getWindow(Object definition) {
+        return this.windows.get(definition);
+    }
+
     private Event convertEvent(Event from) {
 
-        Event newEvent = from.copyEvent();
+        Event newEvent = from.copyEvent(this.schema);
         newEvent.setStream(this);
         return newEvent;
     }
@@ -225,5 +538,16 @@ public class Stream implements Processor {
 
     public void setTracker(StreamTracker tracker) {
         this.tracker = tracker;
+        if (tracker != null) {
+            tracker.setOverflowPolicy(this.overflowPolicy);
+            this.partitions.forEach(tracker::addPartition);
+        }
+        if (this.waitStrategy != null) {
+            // Measure the waiting time of the consumer only if the stream is tracked
+            this.waitStrategy.setEnabled(tracker != null);
+            if (tracker != null) {
+                tracker.setWaitStrategy(this.waitStrategy);
+            }
+        }
     }
 }
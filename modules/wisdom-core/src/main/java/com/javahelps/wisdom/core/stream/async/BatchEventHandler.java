@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream.async;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceReportingEventHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Disruptor {@link EventHandler} gathering consecutive ring buffer entries until the end of the batch available to
+ * the consumer or the maximum batch size, and delivering them as a single list. The ring buffer slots are released
+ * as soon as the list is delivered.
+ */
+public class BatchEventHandler implements SequenceReportingEventHandler<EventHolder> {
+
+    private final int maxBatchSize;
+    private final Consumer<List<Event>> consumer;
+    private final Runnable released;
+    private final List<Event> batch;
+    private Sequence sequenceCallback;
+
+    /**
+     * Create a new {@link BatchEventHandler}.
+     *
+     * @param maxBatchSize the maximum number of events delivered at once
+     * @param consumer     the consumer of event lists
+     * @param released     the callback to run after releasing the slots of delivered events
+     */
+    public BatchEventHandler(int maxBatchSize, Consumer<List<Event>> consumer, Runnable released) {
+        this.maxBatchSize = maxBatchSize;
+        this.consumer = consumer;
+        this.released = released;
+        this.batch = new ArrayList<>(maxBatchSize);
+    }
+
+    @Override
+    public void setSequenceCallback(Sequence sequenceCallback) {
+        this.sequenceCallback = sequenceCallback;
+    }
+
+    @Override
+    public void onEvent(EventHolder eventHolder, long sequence, boolean endOfBatch) {
+        this.batch.add(eventHolder.get());
+        // Release the reference to let the event be garbage collected
+        eventHolder.set(null);
+        if (endOfBatch || this.batch.size() >= this.maxBatchSize) {
+            try {
+                this.consumer.accept(this.batch);
+            } finally {
+                this.batch.clear();
+            }
+            this.sequenceCallback.set(sequence);
+            this.released.run();
+        }
+    }
+}
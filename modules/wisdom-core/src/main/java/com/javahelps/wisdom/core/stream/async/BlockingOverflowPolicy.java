@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream.async;
+
+import com.javahelps.wisdom.core.event.Event;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link OverflowPolicy} blocking the publisher until the buffer has capacity. If a timeout is given, the event is
+ * dropped once the publisher has waited for the timeout.
+ */
+public class BlockingOverflowPolicy extends OverflowPolicy {
+
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private final long timeout;
+
+    /**
+     * Create a new {@link BlockingOverflowPolicy}.
+     *
+     * @param buffer  the buffer of the stream
+     * @param timeout the maximum time in milliseconds to wait or a negative value to wait forever
+     */
+    public BlockingOverflowPolicy(EventBuffer buffer, long timeout) {
+        super(buffer);
+        this.timeout = TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    @Override
+    public void publish(Event event) {
+        if (this.buffer.tryPublish(event)) {
+            return;
+        }
+        this.overflows.increment();
+        if (this.timeout < 0) {
+            this.buffer.publish(event);
+            return;
+        }
+        final long deadline = System.nanoTime() + this.timeout;
+        while (!this.buffer.tryPublish(event)) {
+            if (System.nanoTime() - deadline >= 0) {
+                this.dropped.increment();
+                return;
+            }
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    @Override
+    public void publish(List<Event> events) {
+        if (this.timeout >= 0) {
+            super.publish(events);
+            return;
+        }
+        // Publish in chunks which fit into the buffer
+        Event[] array = events.toArray(new Event[0]);
+        int bufferSize = this.buffer.getBufferSize();
+        for (int start = 0; start < array.length; start += bufferSize) {
+            this.buffer.publish(array, start, Math.min(bufferSize, array.length - start));
+        }
+    }
+}
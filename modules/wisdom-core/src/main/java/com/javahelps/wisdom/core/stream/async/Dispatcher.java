@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream.async;
+
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.Sequencer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer ring buffer feeding the dispatcher thread of an app running in the single threading mode.
+ * Publishers claim a slot in the ring buffer instead of submitting a task per event to the executor. The executor
+ * runs the dispatcher only when it is idle and the dispatcher hands the thread back to the scheduled tasks after
+ * every {@code bufferSize} tasks. Publishers block while the ring buffer is full, or drop the task once they have
+ * waited for the timeout.
+ */
+public class Dispatcher implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Dispatcher.class);
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final Consumer<Runnable> RUN = Runnable::run;
+
+    private final Executor executor;
+    private final RingBuffer<Task> ringBuffer;
+    private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final long timeout;
+    private final LongAdder overflows = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Create a new {@link Dispatcher}.
+     *
+     * @param executor   the single threaded executor owning the dispatcher thread
+     * @param bufferSize the size of the ring buffer which must be a power of 2
+     * @param timeout    the maximum time in milliseconds to wait for a free slot or a negative value to wait forever
+     */
+    public Dispatcher(Executor executor, int bufferSize, long timeout) {
+        this.executor = executor;
+        // The consumer never waits through the wait strategy
+        this.ringBuffer = RingBuffer.createMultiProducer(Task::new, bufferSize, new BusySpinWaitStrategy());
+        this.ringBuffer.addGatingSequences(this.sequence);
+        this.timeout = timeout < 0 ? -1L : TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    /**
+     * Queue the task to run in the dispatcher thread.
+     *
+     * @param task the task to run
+     */
+    public void dispatch(Runnable task) {
+        this.dispatch(RUN, task, this.timeout);
+    }
+
+    /**
+     * Queue the value to be passed to the consumer in the dispatcher thread. Unlike {@link #dispatch(Runnable)}, it
+     * does not require a new task per value.
+     *
+     * @param consumer the consumer to call
+     * @param value    the value to pass
+     * @param <T>      the type of the value
+     */
+    public <T> void dispatch(Consumer<T> consumer, T value) {
+        this.dispatch(consumer, value, this.timeout);
+    }
+
+    /**
+     * Queue the task to run in the dispatcher thread waiting for a free slot without a timeout.
+     *
+     * @param task the task to run
+     */
+    public void dispatchBlocking(Runnable task) {
+        this.dispatch(RUN, task, -1L);
+    }
+
+    private <T> void dispatch(Consumer<T> consumer, T value, long timeout) {
+        long sequence;
+        try {
+            sequence = this.ringBuffer.tryNext();
+        } catch (InsufficientCapacityException e) {
+            sequence = this.awaitSlot(timeout);
+            if (sequence < 0) {
+                return;
+            }
+        }
+        this.ringBuffer.get(sequence).set(consumer, value);
+        this.ringBuffer.publish(sequence);
+        // Order the publication before reading the flag cleared by an idle dispatcher
+        VarHandle.fullFence();
+        if (!this.scheduled.get() && this.scheduled.compareAndSet(false, true)) {
+            this.executor.execute(this);
+        }
+    }
+
+    private long awaitSlot(long timeout) {
+        this.overflows.increment();
+        final long deadline = System.nanoTime() + timeout;
+        while (true) {
+            try {
+                return this.ringBuffer.tryNext();
+            } catch (InsufficientCapacityException e) {
+                if (timeout >= 0 && System.nanoTime() - deadline >= 0) {
+                    this.dropped.increment();
+                    return -1L;
+                }
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Run the queued tasks. Called by the executor in the dispatcher thread.
+     */
+    @Override
+    public void run() {
+        final int bufferSize = this.ringBuffer.getBufferSize();
+        long processed = 0L;
+        while (true) {
+            long next = this.sequence.get() + 1L;
+            long available = this.highestPublished(next);
+            if (available < next) {
+                this.scheduled.set(false);
+                // A publisher might have read the flag before it was cleared
+                if (this.highestPublished(next) < next ||
+                        !this.scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            for (long sequence = next; sequence <= available; sequence++) {
+                Task task = this.ringBuffer.get(sequence);
+                Consumer<Object> consumer = task.consumer;
+                Object value = task.value;
+                task.clear();
+                // Release the slot for the blocked publishers before running the task
+                this.sequence.set(sequence);
+                try {
+                    consumer.accept(value);
+                } catch (RuntimeException ex) {
+                    LOGGER.error("Failed to run the dispatched task", ex);
+                }
+            }
+            processed += available - next + 1L;
+            if (processed >= bufferSize) {
+                // Let the scheduled tasks run before the next batch
+                try {
+                    this.executor.execute(this);
+                    return;
+                } catch (RejectedExecutionException ex) {
+                    // The executor is shutting down. Drain the ring buffer in this run
+                    processed = 0L;
+                }
+            }
+        }
+    }
+
+    private long highestPublished(long next) {
+        long cursor = this.ringBuffer.getCursor();
+        long sequence = next;
+        while (sequence <= cursor && this.ringBuffer.isPublished(sequence)) {
+            sequence++;
+        }
+        return sequence - 1L;
+    }
+
+    public long remainingCapacity() {
+        return this.ringBuffer.remainingCapacity();
+    }
+
+    public int getBufferSize() {
+        return this.ringBuffer.getBufferSize();
+    }
+
+    /**
+     * Get the number of times a task was dispatched while the ring buffer was full.
+     *
+     * @return the number of overflows
+     */
+    public long getOverflowCount() {
+        return this.overflows.sum();
+    }
+
+    public long getDropCount() {
+        return this.dropped.sum();
+    }
+
+    private static class Task {
+
+        private Consumer<Object> consumer;
+        private Object value;
+
+        @SuppressWarnings("unchecked")
+        void set(Consumer<?> consumer, Object value) {
+            this.consumer = (Consumer<Object>) consumer;
+            this.value = value;
+        }
+
+        void clear() {
+            this.consumer = null;
+            this.value = null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream.async;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.lmax.disruptor.RingBuffer;
+
+/**
+ * {@link EventBuffer} backed by the ring buffer of a Disruptor.
+ */
+public class DisruptorEventBuffer implements EventBuffer {
+
+    private final RingBuffer<EventHolder> ringBuffer;
+
+    public DisruptorEventBuffer(RingBuffer<EventHolder> ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
+    @Override
+    public void publish(Event event) {
+        this.ringBuffer.publishEvent(EventHolder.TRANSLATOR, event);
+    }
+
+    @Override
+    public void publish(Event[] events, int start, int length) {
+        this.ringBuffer.publishEvents(EventHolder.TRANSLATOR, start, length, events);
+    }
+
+    @Override
+    public boolean tryPublish(Event event) {
+        return this.ringBuffer.tryPublishEvent(EventHolder.TRANSLATOR, event);
+    }
+
+    @Override
+    public long remainingCapacity() {
+        return this.ringBuffer.remainingCapacity();
+    }
+
+    @Override
+    public int getBufferSize() {
+        return this.ringBuffer.getBufferSize();
+    }
+}
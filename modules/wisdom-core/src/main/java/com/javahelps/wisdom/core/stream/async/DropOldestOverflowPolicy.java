@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream.async;
+
+import com.javahelps.wisdom.core.event.Event;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link OverflowPolicy} dropping the oldest event to make room for the event published while the buffer is full.
+ * The publisher never waits: the new event is queued behind the buffer and moved into it as the consumer frees
+ * slots, while the consumer discards the oldest events in the buffer on behalf of the publisher. Once every event in
+ * the buffer is marked to be discarded, the oldest queued event is dropped instead, so that the stream never holds
+ * more events than the buffer size.
+ */
+public class DropOldestOverflowPolicy extends OverflowPolicy {
+
+    private static final long FLUSH_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong pendingDrops = new AtomicLong();
+    private final Deque<Event> waiting = new ArrayDeque<>();
+    private final Lock lock = new ReentrantLock();
+    private volatile int waitingCount;
+
+    public DropOldestOverflowPolicy(EventBuffer buffer) {
+        super(buffer);
+    }
+
+    @Override
+    public void publish(Event event) {
+        if (this.waitingCount == 0 && this.buffer.tryPublish(event)) {
+            return;
+        }
+        this.lock.lock();
+        try {
+            // Events queued earlier must reach the buffer first
+            if (this.waiting.isEmpty() && this.buffer.tryPublish(event)) {
+                return;
+            }
+            this.overflows.increment();
+            long buffered = this.buffer.getBufferSize() - this.buffer.remainingCapacity();
+            if (this.pendingDrops.get() < buffered || this.waiting.isEmpty()) {
+                this.pendingDrops.incrementAndGet();
+            } else {
+                this.waiting.pollFirst();
+                this.dropped.increment();
+            }
+            this.waiting.addLast(event);
+            this.drainWaiting();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean discard() {
+        if (this.pendingDrops.get() == 0) {
+            return false;
+        }
+        if (this.pendingDrops.getAndUpdate(count -> count > 0 ? count - 1 : 0) > 0) {
+            this.dropped.increment();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void consumed() {
+        if (this.waitingCount > 0) {
+            this.lock.lock();
+            try {
+                this.drainWaiting();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        while (this.waitingCount > 0) {
+            this.consumed();
+            if (this.waitingCount > 0) {
+                LockSupport.parkNanos(FLUSH_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Move the queued events into the buffer while it has capacity. Called while holding the lock.
+     */
+    private void drainWaiting() {
+        Event event;
+        while ((event = this.waiting.peekFirst()) != null && this.buffer.tryPublish(event)) {
+            this.waiting.pollFirst();
+        }
+        this.waitingCount = this.waiting.size();
+    }
+}
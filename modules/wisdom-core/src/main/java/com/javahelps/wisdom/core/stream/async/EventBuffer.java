@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream.async;
+
+import com.javahelps.wisdom.core.event.Event;
+
+/**
+ * Bounded buffer decoupling the threads publishing into an async stream from its consumer.
+ */
+public interface EventBuffer {
+
+    /**
+     * Publish the event, waiting until the buffer has capacity.
+     *
+     * @param event the event to publish
+     */
+    void publish(Event event);
+
+    /**
+     * Publish a range of events, waiting until the buffer has capacity. The length must not exceed the buffer size.
+     *
+     * @param events the events to publish
+     * @param start  the index of the first event
+     * @param length the number of events
+     */
+    void publish(Event[] events, int start, int length);
+
+    /**
+     * Publish the event if the buffer has capacity.
+     *
+     * @param event the event to publish
+     * @return true if the event was published or false if the buffer is full
+     */
+    boolean tryPublish(Event event);
+
+    /**
+     * Get the number of events the calling thread can publish without waiting.
+     *
+     * @return the remaining capacity
+     */
+    long remainingCapacity();
+
+    int getBufferSize();
+}
@@ -21,9 +21,16 @@
 package com.javahelps.wisdom.core.stream.async;
 
 import com.javahelps.wisdom.core.event.Event;
+import com.lmax.disruptor.EventTranslatorOneArg;
 
 public class EventHolder {
 
+    /**
+     * Non-capturing translator to publish {@link Event}s into ring buffers.
+     */
+    public static final EventTranslatorOneArg<EventHolder, Event> TRANSLATOR =
+            (eventHolder, sequence, event) -> eventHolder.set(event);
+
     private Event event;
 
     public void set(Event event) {
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream.async;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.javahelps.wisdom.core.util.WisdomConstants.*;
+
+/**
+ * Decides what happens to the events published into an async stream while its {@link EventBuffer} is full.
+ * Every policy counts the number of times the buffer was found full and the events it dropped or spilled.
+ */
+public abstract class OverflowPolicy {
+
+    public static final String BLOCK = "block";
+    public static final String DROP_NEWEST = "drop_newest";
+    public static final String DROP_OLDEST = "drop_oldest";
+    public static final String SAMPLE = "sample";
+    public static final String SPILL = "spill";
+
+    protected final EventBuffer buffer;
+    protected final LongAdder overflows = new LongAdder();
+    protected final LongAdder dropped = new LongAdder();
+    protected final LongAdder spilled = new LongAdder();
+
+    protected OverflowPolicy(EventBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Create the {@link OverflowPolicy} configured in the stream properties.
+     *
+     * @param streamId   the id of the stream
+     * @param buffer     the buffer of the stream
+     * @param properties the stream properties
+     * @return new overflow policy
+     */
+    public static OverflowPolicy create(String streamId, EventBuffer buffer, Properties properties) {
+        String name = String.valueOf(properties.getOrDefault(OVERFLOW, BLOCK));
+        boolean striped = buffer instanceof StripedRingBuffer;
+        switch (name) {
+            case BLOCK:
+                long timeout = ((Number) properties.getOrDefault(OVERFLOW_TIMEOUT, -1L)).longValue();
+                return new BlockingOverflowPolicy(buffer, timeout);
+            case DROP_NEWEST:
+                return new DropNewestOverflowPolicy(buffer);
+            case DROP_OLDEST:
+                if (striped) {
+                    throw new WisdomAppValidationException("Overflow policy %s is not supported by striped stream %s",
+                            DROP_OLDEST, streamId);
+                }
+                return new DropOldestOverflowPolicy(buffer);
+            case SAMPLE:
+                int rate = ((Number) properties.getOrDefault(OVERFLOW_SAMPLE, 10)).intValue();
+                if (rate < 1) {
+                    throw new WisdomAppValidationException("Overflow sample rate of stream %s must be positive but " +
+                            "found %d", streamId, rate);
+                }
+                return new SamplingOverflowPolicy(buffer, rate);
+            case SPILL:
+                if (striped) {
+                    throw new WisdomAppValidationException("Overflow policy %s is not supported by striped stream %s",
+                            SPILL, streamId);
+                }
+                Path directory = Paths.get(String.valueOf(properties.getOrDefault(SPILL_DIR,
+                        System.getProperty("java.io.tmpdir"))));
+                return new SpillingOverflowPolicy(buffer, streamId, directory);
+            default:
+                throw new WisdomAppValidationException("Invalid overflow policy %s of stream %s. Supported policies " +
+                        "are %s, %s, %s, %s and %s", name, streamId, BLOCK, DROP_NEWEST, DROP_OLDEST, SAMPLE, SPILL);
+        }
+    }
+
+    /**
+     * Publish the event into the buffer or handle the overflow.
+     *
+     * @param event the event to publish
+     */
+    public abstract void publish(Event event);
+
+    public void publish(List<Event> events) {
+        for (Event event : events) {
+            this.publish(event);
+        }
+    }
+
+    /**
+     * Called by the consumer before processing an event taken from the buffer.
+     *
+     * @return true if the event must be discarded
+     */
+    public boolean discard() {
+        return false;
+    }
+
+    /**
+     * Called by the consumer after processing events taken from the buffer and releasing their slots.
+     */
+    public void consumed() {
+        // Do nothing
+    }
+
+    /**
+     * Wait until the events held by this policy are moved into the buffer. Called before stopping the consumer.
+     */
+    public void flush() {
+        // Do nothing
+    }
+
+    /**
+     * Release the resources held by this policy.
+     */
+    public void close() {
+        // Do nothing
+    }
+
+    public EventBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Get the number of times an event was published while the buffer was full.
+     *
+     * @return the number of overflows
+     */
+    public long getOverflowCount() {
+        return this.overflows.sum();
+    }
+
+    public long getDropCount() {
+        return this.dropped.sum();
+    }
+
+    public long getSpillCount() {
+        return this.spilled.sum();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream.async;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceReportingEventHandler;
+
+import java.util.function.Consumer;
+
+/**
+ * Disruptor {@link EventHandler} delivering ring buffer entries one by one. The ring buffer slot of an event is
+ * released as soon as the event is delivered, instead of at the end of the batch available to the consumer.
+ */
+public class SingleEventHandler implements SequenceReportingEventHandler<EventHolder> {
+
+    private final Consumer<Event> consumer;
+    private final Runnable released;
+    private Sequence sequenceCallback;
+
+    /**
+     * Create a new {@link SingleEventHandler}.
+     *
+     * @param consumer the consumer of events
+     * @param released the callback to run after releasing the slot of a delivered event
+     */
+    public SingleEventHandler(Consumer<Event> consumer, Runnable released) {
+        this.consumer = consumer;
+        this.released = released;
+    }
+
+    @Override
+    public void setSequenceCallback(Sequence sequenceCallback) {
+        this.sequenceCallback = sequenceCallback;
+    }
+
+    @Override
+    public void onEvent(EventHolder eventHolder, long sequence, boolean endOfBatch) {
+        Event event = eventHolder.get();
+        // Release the reference to let the event be garbage collected
+        eventHolder.set(null);
+        try {
+            this.consumer.accept(event);
+        } finally {
+            this.sequenceCallback.set(sequence);
+        }
+        this.released.run();
+    }
+}
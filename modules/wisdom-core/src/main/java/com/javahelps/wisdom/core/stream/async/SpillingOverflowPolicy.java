@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream.async;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.Schema;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link OverflowPolicy} appending the events published while the buffer is full into a local segment file. Once an
+ * event is spilled, following events are spilled too until the file is drained into the buffer, to preserve the
+ * order of events. The file is drained by the consumer after processing events and by the publishers after
+ * spilling, and truncated whenever it is fully drained.
+ * <p>
+ * Only the timestamp and the attributes of events are spilled, so the attribute values must be {@link Serializable}.
+ * The source stream and the {@link Schema} of an event are kept in memory in a table of the distinct sources seen by
+ * this policy, and restored when the event is read back.
+ */
+public class SpillingOverflowPolicy extends OverflowPolicy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillingOverflowPolicy.class);
+
+    private static final long FLUSH_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Lock lock = new ReentrantLock();
+    private final ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+    private final List<Source> sources = new ArrayList<>();
+    private long readPosition;
+    private long writePosition;
+    private Event next;
+    private volatile long pending;
+
+    public SpillingOverflowPolicy(EventBuffer buffer, String streamId, Path directory) {
+        super(buffer);
+        try {
+            this.path = Files.createTempFile(directory, "wisdom-" + streamId + "-", ".spill");
+            this.path.toFile().deleteOnExit();
+            this.channel = FileChannel.open(this.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new WisdomAppValidationException("Cannot create spill file of stream %s in %s", streamId,
+                    directory);
+        }
+    }
+
+    @Override
+    public void publish(Event event) {
+        if (this.pending == 0 && this.buffer.tryPublish(event)) {
+            return;
+        }
+        this.lock.lock();
+        try {
+            if (this.pending == 0) {
+                // The buffer may have been drained while waiting for the lock
+                if (this.buffer.tryPublish(event)) {
+                    return;
+                }
+                this.overflows.increment();
+            }
+            if (this.append(event)) {
+                this.pending++;
+                this.spilled.increment();
+            } else {
+                this.dropped.increment();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        this.drain();
+    }
+
+    @Override
+    public void consumed() {
+        if (this.pending > 0) {
+            this.drain();
+        }
+    }
+
+    @Override
+    public void flush() {
+        while (this.pending > 0) {
+            this.drain();
+            if (this.pending > 0) {
+                LockSupport.parkNanos(FLUSH_PARK_NANOS);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this.lock.lock();
+        try {
+            if (this.pending > 0) {
+                LOGGER.warn("{} spilled events are discarded from {}", this.pending, this.path);
+                this.pending = 0;
+            }
+            this.channel.close();
+            Files.deleteIfExists(this.path);
+        } catch (IOException e) {
+            LOGGER.error("Failed to delete spill file " + this.path, e);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of events waiting in the spill file.
+     *
+     * @return the number of spilled events not moved into the buffer yet
+     */
+    public long getPendingCount() {
+        return this.pending;
+    }
+
+    /**
+     * Move spilled events into the buffer while it has capacity.
+     */
+    private void drain() {
+        if (!this.lock.tryLock()) {
+            // Another thread is draining or spilling
+            return;
+        }
+        try {
+            while (this.pending > 0) {
+                if (this.next == null) {
+                    this.next = this.read();
+                    if (this.next == null) {
+                        break;
+                    }
+                }
+                if (!this.buffer.tryPublish(this.next)) {
+                    break;
+                }
+                this.next = null;
+                this.pending--;
+            }
+            if (this.pending == 0 && this.writePosition > 0) {
+                this.channel.truncate(0);
+                this.readPosition = 0;
+                this.writePosition = 0;
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to truncate spill file " + this.path, e);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private boolean append(Event event) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            bytes.write(new byte[Integer.BYTES]);
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeInt(this.sourceOf(event));
+                out.writeLong(event.getTimestamp());
+                out.writeObject(new HashMap<>(event.getDataView()));
+            }
+            ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+            record.putInt(0, record.capacity() - Integer.BYTES);
+            while (record.hasRemaining()) {
+                this.writePosition += this.channel.write(record, this.writePosition);
+            }
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("Failed to spill event " + event + " into " + this.path, e);
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Event read() {
+        try {
+            this.lengthBuffer.clear();
+            this.readFully(this.lengthBuffer);
+            ByteBuffer record = ByteBuffer.allocate(this.lengthBuffer.getInt(0));
+            this.readFully(record);
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(record.array()))) {
+                Source source = this.sources.get(in.readInt());
+                Event event = new Event(source.stream, source.schema, in.readLong());
+                event.getData().putAll((Map<String, Object>) in.readObject());
+                return event;
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            // The rest of the file cannot be trusted
+            LOGGER.error("Failed to read spilled events from " + this.path, e);
+            this.dropped.add(this.pending);
+            this.pending = 0;
+            return null;
+        }
+    }
+
+    /**
+     * Get the index of the source stream and schema of the event in the source table. Called while holding the lock.
+     */
+    private int sourceOf(Event event) {
+        Stream stream = event.getStream();
+        Schema schema = event.getSchema();
+        for (int i = 0; i < this.sources.size(); i++) {
+            Source source = this.sources.get(i);
+            if (source.stream == stream && source.schema == schema) {
+                return i;
+            }
+        }
+        this.sources.add(new Source(stream, schema));
+        return this.sources.size() - 1;
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            int count = this.channel.read(buffer, this.readPosition);
+            if (count < 0) {
+                throw new EOFException();
+            }
+            this.readPosition += count;
+        }
+    }
+
+    private static class Source {
+
+        private final Stream stream;
+        private final Schema schema;
+
+        private Source(Stream stream, Schema schema) {
+            this.stream = stream;
+            this.schema = schema;
+        }
+    }
+}
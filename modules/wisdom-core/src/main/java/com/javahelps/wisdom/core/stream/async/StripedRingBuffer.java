@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream.async;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.EventPoller;
+import com.lmax.disruptor.RingBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Ingestion buffer of async streams fed by many threads. Events are published into a shared multi-producer ring
+ * buffer until more than the given number of distinct threads have published. From then on, every publishing thread
+ * gets its own single-producer ring buffer (stripe) and a single consumer thread drains the shared buffer and the
+ * stripes in round-robin.
+ * <p>
+ * Events published by the same thread are delivered in the order they were published: a stripe is not drained until
+ * the consumer has passed all the events its owner published into the shared buffer.
+ * <p>
+ * A stripe is released only when its owner terminates, so the number of stripes is capped to bound the memory held
+ * by long-lived pooled threads. Threads arriving once the cap is reached keep publishing into the shared buffer until
+ * the stripe of a terminated thread is released.
+ */
+public class StripedRingBuffer implements EventBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StripedRingBuffer.class);
+
+    /**
+     * Maximum number of events consumed from a ring buffer before moving to the next one.
+     */
+    private static final int FAIRNESS_QUOTA = 64;
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int bufferSize;
+    private final int threshold;
+    private final int maxStripes;
+    private final int maxBatchSize;
+    private final int quota;
+    private final String waitStrategy;
+    private final ThreadFactory threadFactory;
+    private final Consumer<Event> eventConsumer;
+    private final Consumer<List<Event>> batchConsumer;
+    private final List<Event> batch;
+    private final Stripe shared;
+    private final List<Stripe> stripes = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Stripe> localStripe = new ThreadLocal<>();
+    private final AtomicInteger producers = new AtomicInteger();
+    private final AtomicInteger stripeCount = new AtomicInteger();
+    private final EventPoller.Handler<EventHolder> handler = this::onEvent;
+    private volatile boolean striped;
+    private volatile boolean running;
+    private volatile boolean parked;
+    private volatile Thread consumer;
+    private int polled;
+
+    /**
+     * Create a new {@link StripedRingBuffer}.
+     *
+     * @param bufferSize    the size of the shared buffer and every stripe
+     * @param threshold     the number of distinct publishing threads tolerated before switching to stripes
+     * @param maxStripes    the maximum number of stripes
+     * @param maxBatchSize  the maximum number of events delivered at once. Events are delivered one by one if it is 1
+     * @param waitStrategy  the name of the {@link WaitStrategies} deciding how the idle consumer waits
+     * @param threadFactory the factory to create the consumer thread
+     * @param eventConsumer the consumer of single events
+     * @param batchConsumer the consumer of event batches
+     */
+    public StripedRingBuffer(int bufferSize, int threshold, int maxStripes, int maxBatchSize, String waitStrategy,
+                             ThreadFactory threadFactory, Consumer<Event> eventConsumer,
+                             Consumer<List<Event>> batchConsumer) {
+        this.bufferSize = bufferSize;
+        this.threshold = threshold;
+        this.maxStripes = maxStripes;
+        this.maxBatchSize = maxBatchSize;
+        this.quota = maxBatchSize > 1 ? maxBatchSize : FAIRNESS_QUOTA;
+        this.waitStrategy = waitStrategy;
+        this.threadFactory = threadFactory;
+        this.eventConsumer = eventConsumer;
+        this.batchConsumer = batchConsumer;
+        this.batch = new ArrayList<>(maxBatchSize);
+        this.shared = new Stripe(RingBuffer.createMultiProducer(EventHolder::new, bufferSize,
+                new BusySpinWaitStrategy()), null, -1L);
+    }
+
+    @Override
+    public void publish(Event event) {
+        this.stripe().ringBuffer.publishEvent(EventHolder.TRANSLATOR, event);
+        this.signal();
+    }
+
+    @Override
+    public void publish(Event[] events, int start, int length) {
+        this.stripe().ringBuffer.publishEvents(EventHolder.TRANSLATOR, start, length, events);
+        this.signal();
+    }
+
+    @Override
+    public boolean tryPublish(Event event) {
+        boolean published = this.stripe().ringBuffer.tryPublishEvent(EventHolder.TRANSLATOR, event);
+        if (published) {
+            this.signal();
+        }
+        return published;
+    }
+
+    @Override
+    public long remainingCapacity() {
+        return this.stripe().ringBuffer.remainingCapacity();
+    }
+
+    @Override
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+
+    public boolean isStriped() {
+        return this.striped;
+    }
+
+    /**
+     * Get the number of threads publishing into their own stripe.
+     *
+     * @return the number of stripes
+     */
+    public int getStripeCount() {
+        return this.stripeCount.get();
+    }
+
+    public synchronized void start() {
+        if (this.consumer == null) {
+            this.running = true;
+            this.consumer = this.threadFactory.newThread(this::consume);
+            this.consumer.start();
+        }
+    }
+
+    /**
+     * Stop the consumer thread after draining all the published events.
+     */
+    public synchronized void shutdown() {
+        Thread thread = this.consumer;
+        if (thread == null) {
+            return;
+        }
+        this.running = false;
+        LockSupport.unpark(thread);
+        if (thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.consumer = null;
+    }
+
+    private Stripe stripe() {
+        Stripe stripe = this.localStripe.get();
+        if (stripe == null) {
+            // First event from this thread
+            if (this.producers.incrementAndGet() > this.threshold) {
+                this.striped = true;
+            }
+            stripe = this.shared;
+            this.localStripe.set(stripe);
+        }
+        if (stripe == this.shared && this.striped && this.reserveStripe()) {
+            // Events of this thread published so far are in the shared buffer up to its cursor
+            stripe = new Stripe(RingBuffer.createSingleProducer(EventHolder::new, this.bufferSize,
+                    new BusySpinWaitStrategy()), Thread.currentThread(), this.shared.ringBuffer.getCursor());
+            this.stripes.add(stripe);
+            this.localStripe.set(stripe);
+        }
+        return stripe;
+    }
+
+    private boolean reserveStripe() {
+        int count;
+        do {
+            count = this.stripeCount.get();
+            if (count >= this.maxStripes) {
+                return false;
+            }
+        } while (!this.stripeCount.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    private void signal() {
+        if (this.parked) {
+            Thread thread = this.consumer;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    private void consume() {
+        int idleCount = 0;
+        while (true) {
+            // Read the flag before draining to consume everything published before the shutdown
+            boolean active = this.running;
+            boolean progress = this.drain(this.shared);
+            long sharedSequence = this.shared.poller.getSequence().get();
+            for (Stripe stripe : this.stripes) {
+                if (sharedSequence < stripe.fence) {
+                    continue;
+                }
+                boolean terminated = !stripe.owner.isAlive();
+                if (this.drain(stripe)) {
+                    progress = true;
+                } else if (terminated) {
+                    // Nobody can publish into this stripe anymore
+                    this.stripes.remove(stripe);
+                    this.stripeCount.decrementAndGet();
+                }
+            }
+            if (progress) {
+                idleCount = 0;
+                this.parked = false;
+            } else if (!active) {
+                break;
+            } else {
+                idleCount = this.idle(idleCount);
+            }
+        }
+    }
+
+    private int idle(int count) {
+        if (count < SPIN_TRIES || WaitStrategies.BUSY_SPIN.equals(this.waitStrategy)) {
+            Thread.onSpinWait();
+        } else if (count < SPIN_TRIES + YIELD_TRIES || WaitStrategies.YIELDING.equals(this.waitStrategy)) {
+            Thread.yield();
+        } else if (!this.parked) {
+            // Announce parking and check the buffers once more before actually parking
+            this.parked = true;
+        } else {
+            LockSupport.parkNanos(this, PARK_NANOS);
+        }
+        return count + 1;
+    }
+
+    private boolean drain(Stripe stripe) {
+        this.polled = 0;
+        try {
+            stripe.poller.poll(this.handler);
+        } catch (Exception ex) {
+            LOGGER.error("Failed to poll events", ex);
+        }
+        if (!this.batch.isEmpty()) {
+            try {
+                this.batchConsumer.accept(this.batch);
+            } catch (RuntimeException ex) {
+                LOGGER.error("Failed to consume events", ex);
+            } finally {
+                this.batch.clear();
+            }
+        }
+        return this.polled > 0;
+    }
+
+    private boolean onEvent(EventHolder eventHolder, long sequence, boolean endOfBatch) {
+        Event event = eventHolder.get();
+        // Release the reference to let the event be garbage collected
+        eventHolder.set(null);
+        if (this.maxBatchSize > 1) {
+            this.batch.add(event);
+        } else {
+            try {
+                this.eventConsumer.accept(event);
+            } catch (RuntimeException ex) {
+                LOGGER.error("Failed to consume event " + event, ex);
+            }
+        }
+        return ++this.polled < this.quota;
+    }
+
+    private static class Stripe {
+
+        private final RingBuffer<EventHolder> ringBuffer;
+        private final EventPoller<EventHolder> poller;
+        private final Thread owner;
+        /**
+         * Sequence of the shared buffer which must be consumed before draining this stripe.
+         */
+        private final long fence;
+
+        private Stripe(RingBuffer<EventHolder> ringBuffer, Thread owner, long fence) {
+            this.ringBuffer = ringBuffer;
+            this.poller = ringBuffer.newPoller();
+            this.ringBuffer.addGatingSequences(this.poller.getSequence());
+            this.owner = owner;
+            this.fence = fence;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream.async;
+
+import com.lmax.disruptor.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link WaitStrategy} decorator measuring the time the consumer spends waiting for events. The measurement is
+ * disabled until {@link #setEnabled(boolean)} is called, so that the untracked streams do not pay for it.
+ */
+public class TimedWaitStrategy implements WaitStrategy {
+
+    private final WaitStrategy waitStrategy;
+    private final AtomicLong waitingTime = new AtomicLong();
+    private final AtomicLong waitStart = new AtomicLong();
+    private volatile boolean enabled = false;
+
+    public TimedWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Override
+    public long waitFor(long sequence, Sequence cursor, Sequence dependentSequence, SequenceBarrier barrier)
+            throws AlertException, InterruptedException, TimeoutException {
+        if (!this.enabled) {
+            return this.waitStrategy.waitFor(sequence, cursor, dependentSequence, barrier);
+        }
+        this.waitStart.set(System.nanoTime());
+        try {
+            return this.waitStrategy.waitFor(sequence, cursor, dependentSequence, barrier);
+        } finally {
+            // The start time might have been moved by drainWaitingTime
+            long start = this.waitStart.getAndSet(0L);
+            if (start != 0L) {
+                this.waitingTime.addAndGet(System.nanoTime() - start);
+            }
+        }
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        this.waitStrategy.signalAllWhenBlocking();
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Get the waiting time accumulated since the last call and reset it. An ongoing wait is accounted up to now.
+     *
+     * @return the waiting time in nanoseconds
+     */
+    public long drainWaitingTime() {
+        long start = this.waitStart.get();
+        if (start != 0L) {
+            long now = System.nanoTime();
+            if (this.waitStart.compareAndSet(start, now)) {
+                this.waitingTime.addAndGet(now - start);
+            }
+        }
+        return this.waitingTime.getAndSet(0L);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream.async;
+
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.lmax.disruptor.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Factory of the Disruptor {@link WaitStrategy}s supported by async streams and partitions.
+ */
+public final class WaitStrategies {
+
+    public static final String BUSY_SPIN = "busySpin";
+    public static final String YIELDING = "yielding";
+    public static final String SLEEPING = "sleeping";
+    public static final String BLOCKING = "blocking";
+    public static final String PHASED = "phased";
+
+    private WaitStrategies() {
+
+    }
+
+    /**
+     * Create a new {@link WaitStrategy}.
+     *
+     * @param name     the name of the strategy
+     * @param idleTime the time in milliseconds a phased strategy spins and yields before falling back to blocking
+     * @return new wait strategy
+     */
+    public static WaitStrategy create(String name, long idleTime) {
+        switch (name) {
+            case BUSY_SPIN:
+                return new BusySpinWaitStrategy();
+            case YIELDING:
+                return new YieldingWaitStrategy();
+            case SLEEPING:
+                return new SleepingWaitStrategy();
+            case BLOCKING:
+                return new BlockingWaitStrategy();
+            case PHASED:
+                if (idleTime < 0) {
+                    throw new WisdomAppValidationException("Idle time of %s wait strategy cannot be negative but found %d",
+                            PHASED, idleTime);
+                }
+                return PhasedBackoffWaitStrategy.withLock(0, idleTime, TimeUnit.MILLISECONDS);
+            default:
+                throw new WisdomAppValidationException("Invalid wait strategy %s. Supported strategies are %s, %s, %s, " +
+                        "%s and %s", name, BUSY_SPIN, YIELDING, SLEEPING, BLOCKING, PHASED);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream.reactive;
+
+import com.javahelps.wisdom.core.ThreadBarrier;
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.processor.Processor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link Flow.Publisher} emitting the events of a stream to reactive subscribers. Events are not buffered beyond the
+ * demand of subscribers: the thread delivering an event waits until every subscriber has requested it, which pushes
+ * the back pressure of subscribers back into the stream. The waiting thread leaves the {@link ThreadBarrier} of the
+ * app, so that {@link com.javahelps.wisdom.core.WisdomApp#clear()} does not wait for the subscribers. A subscriber not
+ * requesting an event within the timeout is cancelled with a {@link TimeoutException}, so that it cannot stall the
+ * other processors of the stream forever.
+ * <p>
+ * Subscribers are signalled one at a time by whichever thread finds the events requested by them, without holding
+ * the lock used to wait for the demand.
+ */
+public class StreamPublisher implements Flow.Publisher<Event>, Processor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamPublisher.class);
+    private static final Object CANCELLED = new Object();
+    private static final Object COMPLETED = new Object();
+
+    private final List<StreamSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final long timeout;
+    private final ThreadBarrier threadBarrier;
+    private volatile boolean completed;
+
+    /**
+     * Create a publisher.
+     *
+     * @param timeout       the maximum time to wait for the demand of a subscriber
+     * @param threadBarrier the barrier to leave while waiting for the demand
+     */
+    public StreamPublisher(Duration timeout, ThreadBarrier threadBarrier) {
+        this.timeout = timeout.toNanos();
+        this.threadBarrier = threadBarrier;
+        if (this.timeout <= 0) {
+            throw new WisdomAppValidationException("Publisher timeout must be positive but found %s", timeout);
+        }
+    }
+    @Override
+    public void subscribe(Flow.Subscriber<? super Event> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber cannot be null");
+        StreamSubscription subscription = new StreamSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        this.subscriptions.add(subscription);
+        if (this.completed) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Complete all the subscriptions. Events processed after completing the publisher are not emitted.
+     */
+    public void complete() {
+        this.completed = true;
+        for (StreamSubscription subscription : this.subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    @Override
+    public void process(Event event) {
+        boolean first = true;
+        for (StreamSubscription subscription : this.subscriptions) {
+            // Every subscriber gets its own copy
+            subscription.deliver(first ? event : event.copyEvent());
+            first = false;
+        }
+    }
+
+    @Override
+    public void process(List<Event> events) {
+        for (Event event : events) {
+            this.process(event);
+        }
+    }
+
+    @Override
+    public void start() {
+
+    }
+
+    @Override
+    public void stop() {
+
+    }
+
+    @Override
+    public Processor copy() {
+        return this;
+    }
+
+    @Override
+    public void destroy() {
+
+    }
+
+    private class StreamSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super Event> subscriber;
+        private final Lock lock = new ReentrantLock();
+        private final Condition demanded = lock.newCondition();
+        private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private long demand;
+        private boolean terminated;
+        private volatile Object terminal;
+        private boolean signalled;
+
+        private StreamSubscription(Flow.Subscriber<? super Event> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            this.lock.lock();
+            try {
+                if (this.terminated) {
+                    return;
+                }
+                if (n <= 0) {
+                    this.terminate(new IllegalArgumentException("Non-positive request " + n));
+                } else {
+                    this.demand += n;
+                    if (this.demand < 0) {
+                        // Overflow means unbounded demand
+                        this.demand = Long.MAX_VALUE;
+                    }
+                    this.demanded.signalAll();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+            this.drain();
+        }
+
+        @Override
+        public void cancel() {
+            this.lock.lock();
+            try {
+                if (!this.terminated) {
+                    this.terminate(CANCELLED);
+                }
+            } finally {
+                this.lock.unlock();
+            }
+            this.drain();
+        }
+
+        private void deliver(Event event) {
+            int depth = 0;
+            this.lock.lock();
+            try {
+                if (this.demand == 0 && !this.terminated && !completed) {
+                    // Do not hold the barrier while the subscriber decides when to request more
+                    depth = threadBarrier.leave();
+                    long remaining = timeout;
+                    while (this.demand == 0 && !this.terminated && !completed) {
+                        if (remaining <= 0) {
+                            LOGGER.warn("Subscriber did not request {} within {} ms and is cancelled", event,
+                                    TimeUnit.NANOSECONDS.toMillis(timeout));
+                            this.terminate(new TimeoutException("No demand within the publisher timeout"));
+                            break;
+                        }
+                        remaining = this.demanded.awaitNanos(remaining);
+                    }
+                }
+                if (!this.terminated && !completed) {
+                    if (this.demand != Long.MAX_VALUE) {
+                        this.demand--;
+                    }
+                    this.queue.offer(event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                this.lock.unlock();
+            }
+            threadBarrier.rejoin(depth);
+            this.drain();
+        }
+
+        private void complete() {
+            this.lock.lock();
+            try {
+                if (!this.terminated) {
+                    this.terminate(COMPLETED);
+                }
+            } finally {
+                this.lock.unlock();
+            }
+            this.drain();
+        }
+
+        private void terminate(Object signal) {
+            this.terminated = true;
+            this.terminal = signal;
+            this.demanded.signalAll();
+            subscriptions.remove(this);
+        }
+
+        /**
+         * Signal the queued events and the terminal signal to the subscriber. Only the thread incrementing the pending
+         * count from zero signals the subscriber. Other threads leave their work to it.
+         */
+        private void drain() {
+            if (this.pending.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                Event event;
+                while (!this.signalled && this.terminal != CANCELLED && (event = this.queue.poll()) != null) {
+                    try {
+                        this.subscriber.onNext(event);
+                    } catch (RuntimeException ex) {
+                        LOGGER.error("Subscriber failed to receive " + event + " and is cancelled", ex);
+                        this.cancel();
+                    }
+                }
+                Object signal = this.terminal;
+                if (signal != null && !this.signalled) {
+                    this.signalled = true;
+                    this.queue.clear();
+                    try {
+                        if (signal == COMPLETED) {
+                            this.subscriber.onComplete();
+                        } else if (signal != CANCELLED) {
+                            this.subscriber.onError((Throwable) signal);
+                        }
+                    } catch (RuntimeException ex) {
+                        LOGGER.error("Subscriber failed to receive the terminal signal", ex);
+                    }
+                }
+                missed = this.pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
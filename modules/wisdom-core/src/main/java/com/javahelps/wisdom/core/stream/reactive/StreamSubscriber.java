@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream.reactive;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Flow.Subscriber} feeding the events of a reactive publisher into a stream. Events are requested in chunks
+ * of at most the given batch size, limited by the remaining capacity of the buffer the events are queued in: the
+ * buffer of an async stream or the ring buffer of the dispatcher in the single threading mode. The next chunk is
+ * requested only after the previous one is received and, if the buffer is full, once it has capacity again.
+ */
+public class StreamSubscriber implements Flow.Subscriber<Event> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamSubscriber.class);
+    private static final long RETRY_DELAY = 1L;
+
+    private final InputHandler inputHandler;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong outstanding = new AtomicLong();
+    private Flow.Subscription subscription;
+    private volatile boolean done;
+
+    /**
+     * Create a new {@link StreamSubscriber}.
+     *
+     * @param inputHandler the input handler of the stream
+     * @param batchSize    the maximum number of events requested at once
+     * @param scheduler    the scheduler to retry requesting events while the stream buffer is full
+     */
+    public StreamSubscriber(InputHandler inputHandler, int batchSize, ScheduledExecutorService scheduler) {
+        this.inputHandler = inputHandler;
+        this.batchSize = batchSize;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "subscription cannot be null");
+        if (this.subscription != null) {
+            // Only one publisher is allowed
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        this.requestMore();
+    }
+
+    @Override
+    public void onNext(Event event) {
+        this.inputHandler.send(event);
+        if (this.outstanding.decrementAndGet() == 0) {
+            this.requestMore();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        this.done = true;
+        LOGGER.error("Publisher of the stream failed", throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        this.done = true;
+    }
+
+    /**
+     * Stop requesting events from the publisher.
+     */
+    public void cancel() {
+        this.done = true;
+        if (this.subscription != null) {
+            this.subscription.cancel();
+        }
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private void requestMore() {
+        if (this.done) {
+            return;
+        }
+        long capacity = this.inputHandler.remainingCapacity();
+        if (capacity <= 0) {
+            try {
+                this.scheduler.schedule(this::requestMore, RETRY_DELAY, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ex) {
+                // The app is shutdown
+                this.cancel();
+            }
+            return;
+        }
+        // Never request more than a batch even if the events are not buffered
+        long count = Math.min(this.batchSize, capacity);
+        this.outstanding.addAndGet(count);
+        this.subscription.request(count);
+    }
+}
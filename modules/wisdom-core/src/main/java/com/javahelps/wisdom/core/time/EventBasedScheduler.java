@@ -21,82 +21,56 @@
 package com.javahelps.wisdom.core.time;
 
 import java.time.Duration;
-import java.util.*;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 
+/**
+ * {@link Scheduler} based on the timestamps of events in playback mode. Pending tasks are kept in a
+ * {@link TimingWheel} and every due task is executed when the timestamp passes its deadline.
+ */
 public class EventBasedScheduler implements Scheduler, EventBasedTimestampGenerator.TimeChangeListener {
 
     private final ExecutorService executorService;
     private final EventBasedTimestampGenerator timestampGenerator;
-    private Map<Long, Executor> executorMap = new HashMap<>();
-    private long nextSchedule = Long.MAX_VALUE;
+    private final TimingWheel timingWheel;
+    private volatile long nextExpiration = Long.MAX_VALUE;
 
     public EventBasedScheduler(ExecutorService executorService, EventBasedTimestampGenerator timestampGenerator) {
         this.executorService = executorService;
         this.timestampGenerator = timestampGenerator;
+        this.timingWheel = new TimingWheel(1L, timestampGenerator.currentTimestamp());
         this.timestampGenerator.addTimeChangeListener(this);
     }
 
-    public void schedule(Duration duration, Executor executor) {
-        if (duration.isZero() || duration.isNegative()) {
-            this.executorService.submit(new TaskRunner(executor));
-        } else {
-            synchronized (this) {
-                long timeToNotify = duration.toMillis() + timestampGenerator.currentTimestamp();
-                if (timeToNotify < this.nextSchedule) {
-                    this.nextSchedule = timeToNotify;
+    @Override
+    public ScheduledTask schedule(Duration duration, Executor executor) {
+        long delay = duration.toMillis();
+        if (delay > 0) {
+            long now = this.timestampGenerator.currentTimestamp();
+            TimingWheel.Timer timer = this.timingWheel.add(SystemScheduler.deadline(now, delay), executor, now);
+            if (timer != null) {
+                synchronized (this) {
+                    this.nextExpiration = this.timingWheel.nextExpiration();
                 }
-                this.executorMap.put(timeToNotify, executor);
+                return timer;
             }
         }
+        this.executorService.submit(() -> SystemScheduler.execute(executor, this.timestampGenerator.currentTimestamp()));
+        return ScheduledTask.SUBMITTED;
     }
 
     @Override
     public void onTimeChange(long timestamp) {
-        List<Executor> executors;
-        synchronized (this) {
-            if (timestamp < this.nextSchedule) {
-                return;
-            }
-            executors = new ArrayList<>();
-            Iterator<Map.Entry<Long, Executor>> iterator = this.executorMap.entrySet().iterator();
-            while (iterator.hasNext()) {
-                Map.Entry<Long, Executor> entry = iterator.next();
-                long schduledTime = entry.getKey().longValue();
-                if (schduledTime <= timestamp) {
-                    executors.add(entry.getValue());
-                    iterator.remove();
-                } else {
-                    this.nextSchedule = schduledTime;
-                }
-            }
-        }
-        if (executors != null) {
-            for (Executor executor : executors) {
-                try {
-                    executor.execute(timestamp);
-                } catch (Exception ex) {
-
-                }
-            }
+        if (timestamp < this.nextExpiration) {
+            return;
         }
-    }
-
-    private class TaskRunner implements Runnable {
-
-        private final Executor executor;
-
-        private TaskRunner(Executor executor) {
-            this.executor = executor;
+        List<TimingWheel.Timer> due;
+        synchronized (this) {
+            due = this.timingWheel.expire(timestamp);
+            this.nextExpiration = this.timingWheel.nextExpiration();
         }
-
-        @Override
-        public void run() {
-            try {
-                this.executor.execute(timestampGenerator.currentTimestamp());
-            } catch (Exception ex) {
-
-            }
+        for (TimingWheel.Timer timer : due) {
+            SystemScheduler.execute(timer.getExecutor(), timestamp);
         }
     }
 }
@@ -27,5 +27,12 @@ import java.time.Duration;
  */
 public interface Scheduler {
 
-    void schedule(Duration duration, Executor executor);
+    /**
+     * Execute the executor after the given duration.
+     *
+     * @param duration the delay
+     * @param executor the executor
+     * @return the task to cancel the execution
+     */
+    ScheduledTask schedule(Duration duration, Executor executor);
 }
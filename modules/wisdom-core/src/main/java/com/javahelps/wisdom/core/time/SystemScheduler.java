@@ -20,40 +20,89 @@
 
 package com.javahelps.wisdom.core.time;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * {@link Scheduler} based on the system time. Pending tasks are kept in a {@link TimingWheel} and a single task of the
+ * {@link ScheduledExecutorService} wakes up at the earliest expiration to execute every due task.
+ */
 public class SystemScheduler implements Scheduler {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SystemScheduler.class);
+
     private final ScheduledExecutorService scheduledExecutorService;
     private final TimestampGenerator timestampGenerator;
+    private final TimingWheel timingWheel;
+    private ScheduledFuture<?> wakeUp;
+    private long wakeUpTime = Long.MAX_VALUE;
 
     public SystemScheduler(ScheduledExecutorService scheduledExecutorService, TimestampGenerator timestampGenerator) {
         this.scheduledExecutorService = scheduledExecutorService;
         this.timestampGenerator = timestampGenerator;
+        this.timingWheel = new TimingWheel(1L, timestampGenerator.currentTimestamp());
     }
 
     @Override
-    public void schedule(Duration duration, Executor executor) {
-        this.scheduledExecutorService.schedule(new TaskRunner(executor), duration.toMillis(), TimeUnit.MILLISECONDS);
+    public ScheduledTask schedule(Duration duration, Executor executor) {
+        if (this.scheduledExecutorService.isShutdown()) {
+            return ScheduledTask.SUBMITTED;
+        }
+        long now = this.timestampGenerator.currentTimestamp();
+        long delay = duration.toMillis();
+        if (delay > 0) {
+            TimingWheel.Timer timer = this.timingWheel.add(deadline(now, delay), executor, now);
+            if (timer != null) {
+                this.wakeUpAt(this.timingWheel.nextExpiration(), now);
+                return timer;
+            }
+        }
+        this.scheduledExecutorService.execute(() -> execute(executor, this.timestampGenerator.currentTimestamp()));
+        return ScheduledTask.SUBMITTED;
     }
 
-    private class TaskRunner implements Runnable {
-
-        private final Executor executor;
+    private synchronized void wakeUpAt(long time, long now) {
+        if (time < this.wakeUpTime && !this.scheduledExecutorService.isShutdown()) {
+            if (this.wakeUp != null) {
+                this.wakeUp.cancel(false);
+            }
+            this.wakeUpTime = time;
+            this.wakeUp = this.scheduledExecutorService.schedule(this::tick, Math.max(0L, time - now),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
 
-        private TaskRunner(Executor executor) {
-            this.executor = executor;
+    private void tick() {
+        long now = this.timestampGenerator.currentTimestamp();
+        synchronized (this) {
+            this.wakeUp = null;
+            this.wakeUpTime = Long.MAX_VALUE;
+        }
+        List<TimingWheel.Timer> due = this.timingWheel.expire(now);
+        long next = this.timingWheel.nextExpiration();
+        if (next != Long.MAX_VALUE) {
+            this.wakeUpAt(next, now);
+        }
+        for (TimingWheel.Timer timer : due) {
+            execute(timer.getExecutor(), now);
         }
+    }
 
-        @Override
-        public void run() {
-            try {
-                this.executor.execute(timestampGenerator.currentTimestamp());
-            } catch (Exception ex) {
+    static long deadline(long now, long delay) {
+        return delay > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + delay;
+    }
 
-            }
+    static void execute(Executor executor, long timestamp) {
+        try {
+            executor.execute(timestamp);
+        } catch (Exception ex) {
+            LOGGER.error("Failed to execute a scheduled task", ex);
         }
     }
 }
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.time;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Hierarchical timing wheel keeping the pending timers of a {@link Scheduler}. A level of the wheel has a fixed number
+ * of buckets of a tick each and timers beyond the range of a level are kept in the next level with a tick of the
+ * range of the previous level. Timers are added to and removed from buckets in constant time and only the non-empty
+ * buckets are ordered by their expiration. When a bucket of an upper level expires, its timers move to the lower levels.
+ * Thread safe.
+ */
+class TimingWheel {
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final PriorityQueue<Bucket> queue = new PriorityQueue<>(Comparator.comparingLong(bucket -> bucket.expiration));
+    private final long tick;
+    private Level root;
+    private int size;
+
+    /**
+     * Create a timing wheel.
+     *
+     * @param tick      the length of a bucket in the lowest level in milliseconds
+     * @param startTime the current time
+     */
+    TimingWheel(long tick, long startTime) {
+        this.tick = tick;
+        this.root = new Level(tick, startTime);
+    }
+
+    /**
+     * Add a timer.
+     *
+     * @param deadline the time to execute the executor
+     * @param executor the executor
+     * @param now      the current time used to restart the wheel if there are no pending timers
+     * @return the timer or null if the deadline has already passed
+     */
+    synchronized Timer add(long deadline, Executor executor, long now) {
+        if (this.size == 0 && now >= this.root.currentTime + this.tick) {
+            // No timers are waiting so the wheel can jump to the current time
+            this.queue.clear();
+            this.root = new Level(this.tick, now);
+        }
+        Timer timer = new Timer(this, deadline, executor);
+        if (!this.root.add(timer)) {
+            return null;
+        }
+        this.size++;
+        return timer;
+    }
+
+    /**
+     * Remove the timers due at the given time.
+     *
+     * @param now the current time
+     * @return the due timers ordered by their deadline
+     */
+    synchronized List<Timer> expire(long now) {
+        List<Timer> due = new ArrayList<>();
+        Bucket bucket;
+        while ((bucket = this.queue.peek()) != null && bucket.expiration <= now) {
+            this.queue.poll();
+            this.root.advance(bucket.expiration);
+            Timer timer = bucket.flush();
+            while (timer != null) {
+                Timer next = timer.next;
+                timer.next = null;
+                timer.prev = null;
+                if (!this.root.add(timer)) {
+                    timer.bucket = null;
+                    this.size--;
+                    due.add(timer);
+                }
+                timer = next;
+            }
+        }
+        this.root.advance(now);
+        // Timers of a bucket are in insertion order but a bucket of an upper level spans many deadlines
+        due.sort(Comparator.comparingLong(timer -> timer.deadline));
+        return due;
+    }
+
+    /**
+     * Get the earliest expiration of the non-empty buckets.
+     *
+     * @return the time when the next timer may be due or Long.MAX_VALUE if there are no timers
+     */
+    synchronized long nextExpiration() {
+        Bucket bucket = this.queue.peek();
+        return bucket == null ? Long.MAX_VALUE : bucket.expiration;
+    }
+
+    synchronized int size() {
+        return this.size;
+    }
+
+    private synchronized boolean cancel(Timer timer) {
+        if (timer.bucket == null) {
+            return false;
+        }
+        timer.bucket.remove(timer);
+        this.size--;
+        return true;
+    }
+
+    private class Level {
+        private final long tick;
+        private final long interval;
+        private final Bucket[] buckets = new Bucket[WHEEL_SIZE];
+        private long currentTime;
+        private Level overflow;
+
+        private Level(long tick, long startTime) {
+            this.tick = tick;
+            this.interval = tick > Long.MAX_VALUE / WHEEL_SIZE ? Long.MAX_VALUE : tick * WHEEL_SIZE;
+            this.currentTime = startTime - Math.floorMod(startTime, tick);
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                this.buckets[i] = new Bucket();
+            }
+        }
+
+        private boolean add(Timer timer) {
+            long deadline = timer.deadline;
+            if (deadline < this.currentTime + this.tick) {
+                return false;
+            } else if (deadline - this.currentTime < this.interval) {
+                long virtualId = Math.floorDiv(deadline, this.tick);
+                Bucket bucket = this.buckets[(int) Math.floorMod(virtualId, (long) WHEEL_SIZE)];
+                bucket.add(timer);
+                if (bucket.setExpiration(virtualId * this.tick)) {
+                    queue.offer(bucket);
+                }
+                return true;
+            } else {
+                if (this.overflow == null) {
+                    this.overflow = new Level(this.interval, this.currentTime);
+                }
+                return this.overflow.add(timer);
+            }
+        }
+
+        private void advance(long time) {
+            if (time >= this.currentTime + this.tick) {
+                this.currentTime = time - Math.floorMod(time, this.tick);
+                if (this.overflow != null) {
+                    this.overflow.advance(this.currentTime);
+                }
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of timers expiring in the same tick.
+     */
+    private static class Bucket {
+        private final Timer head = new Timer(null, 0, null);
+        private long expiration = -1;
+
+        private Bucket() {
+            this.head.next = this.head;
+            this.head.prev = this.head;
+        }
+
+        private void add(Timer timer) {
+            timer.bucket = this;
+            timer.next = this.head;
+            timer.prev = this.head.prev;
+            this.head.prev.next = timer;
+            this.head.prev = timer;
+        }
+
+        private void remove(Timer timer) {
+            timer.prev.next = timer.next;
+            timer.next.prev = timer.prev;
+            timer.next = null;
+            timer.prev = null;
+            timer.bucket = null;
+        }
+
+        private boolean setExpiration(long expiration) {
+            if (this.expiration == expiration) {
+                return false;
+            }
+            this.expiration = expiration;
+            return true;
+        }
+
+        /**
+         * Remove all timers of this bucket.
+         *
+         * @return the first timer linked to the others by next or null if the bucket is empty
+         */
+        private Timer flush() {
+            this.expiration = -1;
+            if (this.head.next == this.head) {
+                return null;
+            }
+            Timer first = this.head.next;
+            this.head.prev.next = null;
+            this.head.next = this.head;
+            this.head.prev = this.head;
+            return first;
+        }
+    }
+
+    /**
+     * A pending executor of the wheel.
+     */
+    static class Timer implements ScheduledTask {
+        private final TimingWheel wheel;
+        private final long deadline;
+        private final Executor executor;
+        private Bucket bucket;
+        private Timer prev;
+        private Timer next;
+
+        private Timer(TimingWheel wheel, long deadline, Executor executor) {
+            this.wheel = wheel;
+            this.deadline = deadline;
+            this.executor = executor;
+        }
+
+        long getDeadline() {
+            return deadline;
+        }
+
+        Executor getExecutor() {
+            return executor;
+        }
+
+        @Override
+        public boolean cancel() {
+            return this.wheel.cancel(this);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * {@link Lock} which never blocks. Used by the components of a {@link com.javahelps.wisdom.core.WisdomApp} running
+ * in the single threading mode where all the events are processed by one dispatcher thread.
+ */
+public final class NoOpLock implements Lock {
+
+    public static final NoOpLock INSTANCE = new NoOpLock();
+
+    private NoOpLock() {
+
+    }
+
+    @Override
+    public void lock() {
+        // Do nothing
+    }
+
+    @Override
+    public void lockInterruptibly() {
+        // Do nothing
+    }
+
+    @Override
+    public boolean tryLock() {
+        return true;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) {
+        return true;
+    }
+
+    @Override
+    public void unlock() {
+        // Do nothing
+    }
+
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException("NoOpLock does not support conditions");
+    }
+}
@@ -20,6 +20,8 @@
 
 package com.javahelps.wisdom.core.util;
 
+import com.javahelps.wisdom.core.stream.async.WaitStrategies;
+
 import java.util.Properties;
 
 public class WisdomConfig {
@@ -28,10 +30,24 @@ public class WisdomConfig {
 
     public static final boolean ASYNC_ENABLED = false;
 
+    public static final String THREADING = WisdomConstants.THREADING_MULTI;
+
+    public static final String IO_THREADS = WisdomConstants.IO_THREADS_PLATFORM;
+
     public static final long STATISTICS_REPORT_FREQUENCY = 60_000L;
 
     public static final int EVENT_BUFFER_SIZE = 1024;
 
+    public static final int EVENT_BATCH_SIZE = 1;
+
+    public static final String WAIT_STRATEGY = WaitStrategies.YIELDING;
+
+    public static final long WAIT_IDLE_TIME = 10L;
+
+    public static final int MAX_STRIPES = 64;
+
+    public static final long PUBLISHER_TIMEOUT = 10_000L;
+
     public static final String WISDOM_APP_NAME = "WisdomApp";
 
     public static final String WISDOM_APP_VERSION = "1.0.0";
@@ -42,6 +42,52 @@ public class WisdomConstants {
 
     public static final String BUFFER = "buffer";
 
+    public static final String BATCH = "batch";
+
+    public static final String WAIT = "wait";
+
+    public static final String WAIT_IDLE = "wait_idle";
+
+    public static final String STRIPE_THRESHOLD = "stripe_threshold";
+
+    public static final String STRIPE_MAX = "stripe_max";
+
+    public static final String OVERFLOW = "overflow";
+
+    public static final String OVERFLOW_TIMEOUT = "overflow_timeout";
+
+    public static final String OVERFLOW_SAMPLE = "overflow_sample";
+
+    public static final String SPILL_DIR = "spill_dir";
+
+    public static final String PARTITION_TTL = "partition_ttl";
+
+    public static final String PARTITION_MAX = "partition_max";
+
+    public static final String PARTITION_TOP_K = "partition_top_k";
+
+    public static final String EVENT_TIME = "event_time";
+
+    public static final String MAX_DISORDER = "max_disorder";
+
+    public static final String ALLOWED_LATENESS = "allowed_lateness";
+
+    public static final String LATE_STREAM = "late_stream";
+
+    public static final String SCHEMA = "schema";
+
+    public static final String THREADING = "threading";
+
+    public static final String THREADING_MULTI = "multi";
+
+    public static final String THREADING_SINGLE = "single";
+
+    public static final String IO_THREADS = "io_threads";
+
+    public static final String IO_THREADS_PLATFORM = "platform";
+
+    public static final String IO_THREADS_VIRTUAL = "virtual";
+
     public static final String STATISTICS = "stats";
 
     public static final String TRAINABLE = "trainable";
@@ -41,7 +41,7 @@ import static com.javahelps.wisdom.core.util.WisdomConfig.EMPTY_PROPERTIES;
 public class Variable<T> implements Processor, Supplier<T> {
 
     private final String id;
-    private final ReadWriteLock lock;
+    private ReadWriteLock lock;
     private final List<OnUpdateListener<T>> listeners;
     private final Properties properties;
     private T value;
@@ -62,6 +62,7 @@ public class Variable<T> implements Processor, Supplier<T> {
     public void init(WisdomApp wisdomApp) {
         // Do nothing
         this.threadBarrier = wisdomApp.getContext().getThreadBarrier();
+        this.lock = wisdomApp.getContext().createReadWriteLock();
     }
 
     public String getId() {
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.window;
+
+import com.javahelps.wisdom.core.processor.AggregateProcessor;
+
+import java.util.Map;
+
+/**
+ * Window emitting its events in batches. A batch window followed by an {@link AggregateProcessor} aggregates events
+ * on arrival instead of keeping them until the batch is emitted.
+ */
+public abstract class BatchWindow extends Window {
+
+    EventBatch events = new EventBatch();
+
+    protected BatchWindow(Map<String, ?> properties) {
+        super(properties);
+    }
+
+    @Override
+    public int getPendingCount() {
+        try {
+            this.lock.lock();
+            return this.events == null ? 0 : this.events.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean fuse(AggregateProcessor aggregator) {
+        this.events.setAggregator(aggregator);
+        return true;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.window;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.EventListView;
+import com.javahelps.wisdom.core.processor.AggregateProcessor;
+import com.javahelps.wisdom.core.processor.Processor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The events of the current batch of a {@link BatchWindow}. If the window is followed by an
+ * {@link AggregateProcessor}, events are applied to the aggregators on arrival and only the last event is kept.
+ * Otherwise events are kept in a preallocated {@link EventListView} which is emitted as it is and reused for a later
+ * batch once the next processor returns. Not thread safe except {@link #emit(List, Processor)}.
+ */
+class EventBatch {
+
+    private final int capacity;
+    private final AtomicReference<EventListView> spare = new AtomicReference<>();
+    private EventListView events;
+    private AggregateProcessor aggregator;
+    private Event lastEvent;
+    private int size;
+
+    EventBatch() {
+        this(16);
+    }
+
+    /**
+     * Create a batch buffer.
+     *
+     * @param capacity the expected number of events in a batch
+     */
+    EventBatch(int capacity) {
+        this.capacity = capacity;
+        this.events = new EventListView(capacity);
+    }
+
+    void setAggregator(AggregateProcessor aggregator) {
+        this.aggregator = aggregator;
+    }
+
+    void add(Event event) {
+        if (this.aggregator == null) {
+            this.events.append(event);
+        } else if (this.lastEvent != null) {
+            // The last event is applied when the batch is emitted
+            this.aggregator.accumulate(this.lastEvent);
+        }
+        this.lastEvent = event;
+        this.size++;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Take the events of the batch and start a new batch.
+     *
+     * @return the events of the batch or a single event with the aggregates if the batch is aggregated on arrival
+     */
+    List<Event> take() {
+        List<Event> batch;
+        if (this.aggregator == null) {
+            batch = this.events;
+            // The buffer of the previous batch is free once its emission has completed
+            EventListView events = this.spare.getAndSet(null);
+            this.events = events != null ? events : new EventListView(this.capacity);
+        } else if (this.lastEvent != null) {
+            batch = Collections.singletonList(this.aggregator.complete(this.lastEvent));
+        } else {
+            batch = Collections.emptyList();
+        }
+        this.lastEvent = null;
+        this.size = 0;
+        return batch;
+    }
+
+    /**
+     * Send a batch taken from this buffer to the next processor of the window.
+     *
+     * @param batch         the batch returned by {@link #take()}
+     * @param nextProcessor the next processor of the window
+     */
+    void emit(List<Event> batch, Processor nextProcessor) {
+        if (this.aggregator == null) {
+            try {
+                nextProcessor.process(batch);
+            } finally {
+                if (batch instanceof EventListView) {
+                    EventListView events = (EventListView) batch;
+                    events.reset();
+                    this.spare.set(events);
+                }
+            }
+        } else if (!batch.isEmpty()) {
+            // Skip the aggregator since the aggregates are already set
+            this.aggregator.getNextProcessor().process(batch.get(0));
+        }
+    }
+
+    void clear() {
+        this.events.reset();
+        if (this.aggregator != null && this.size > 0) {
+            this.aggregator.reset();
+        }
+        this.lastEvent = null;
+        this.size = 0;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.window;
+
+import com.javahelps.wisdom.core.event.Event;
+
+import java.util.Arrays;
+
+/**
+ * A growable circular buffer of events and their arrival times used by sliding windows. Events are removed in the
+ * order they were added.
+ */
+class EventRing {
+
+    private Event[] events;
+    private long[] timestamps;
+    private int head;
+    private int size;
+
+    EventRing(int capacity) {
+        capacity = Math.max(capacity, 2);
+        this.events = new Event[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    void add(Event event, long timestamp) {
+        if (this.size == this.events.length) {
+            this.grow();
+        }
+        int tail = (this.head + this.size) % this.events.length;
+        this.events[tail] = event;
+        this.timestamps[tail] = timestamp;
+        this.size++;
+    }
+
+    Event poll() {
+        Event event = this.events[this.head];
+        this.events[this.head] = null;
+        this.head = (this.head + 1) % this.events.length;
+        this.size--;
+        return event;
+    }
+
+    long peekTimestamp() {
+        return this.timestamps[this.head];
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    void clear() {
+        Arrays.fill(this.events, null);
+        this.head = 0;
+        this.size = 0;
+    }
+
+    private void grow() {
+        int capacity = this.events.length * 2;
+        Event[] newEvents = new Event[capacity];
+        long[] newTimestamps = new long[capacity];
+        for (int i = 0; i < this.size; i++) {
+            int index = (this.head + i) % this.events.length;
+            newEvents[i] = this.events[index];
+            newTimestamps[i] = this.timestamps[index];
+        }
+        this.events = newEvents;
+        this.timestamps = newTimestamps;
+        this.head = 0;
+    }
+}
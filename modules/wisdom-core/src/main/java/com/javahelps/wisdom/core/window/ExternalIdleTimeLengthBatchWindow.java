@@ -21,12 +21,13 @@
 package com.javahelps.wisdom.core.window;
 
 import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.RuntimeAttribute;
+import com.javahelps.wisdom.core.event.Schema;
 import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
 import com.javahelps.wisdom.core.extension.WisdomExtension;
 import com.javahelps.wisdom.core.processor.Processor;
 import com.javahelps.wisdom.core.variable.Variable;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -34,11 +35,11 @@ import java.util.Map;
  * BatchWindow expires events after a given idle period of external timestamp or length.
  */
 @WisdomExtension("externalIdleTimeLengthBatch")
-public class ExternalIdleTimeLengthBatchWindow extends Window {
+public class ExternalIdleTimeLengthBatchWindow extends BatchWindow {
 
     private final String timestampKey;
+    private final RuntimeAttribute timestampAttribute;
     private long minIdleTime;
-    private List<Event> events = new ArrayList<>();
     private long lastTime = -1;
     private Variable<Number> timeVariable;
     private int length;
@@ -53,6 +54,7 @@ public class ExternalIdleTimeLengthBatchWindow extends Window {
         Object lengthVal = this.getProperty("length", 2);
         if (keyVal instanceof String) {
             this.timestampKey = (String) keyVal;
+            this.timestampAttribute = new RuntimeAttribute(this.timestampKey);
         } else {
             throw new WisdomAppValidationException("timestampKey of ExternalIdleTimeLengthBatchWindow must be java.lang.String but found %d", keyVal.getClass().getSimpleName());
         }
@@ -77,11 +79,17 @@ public class ExternalIdleTimeLengthBatchWindow extends Window {
         }
     }
 
+    @Override
+    public void bind(Schema schema) {
+        super.bind(schema);
+        this.timestampAttribute.bind(schema);
+    }
+
     @Override
     public void process(Event event, Processor nextProcessor) {
 
         List<Event> eventsToSend = null;
-        long currentTimestamp = event.getAsLong(this.timestampKey);
+        long currentTimestamp = this.timestampAttribute.getAsLong(event);
 
         try {
             this.lock.lock();
@@ -93,12 +101,10 @@ public class ExternalIdleTimeLengthBatchWindow extends Window {
             if (noOfEvents + 1 >= this.length) {
                 // Reached length
                 this.events.add(event);
-                eventsToSend = new ArrayList<>(this.events);
-                this.events.clear();
+                eventsToSend = this.events.take();
             } else if (currentTimestamp - this.lastTime >= this.minIdleTime) {
                 // Timeout happened
-                eventsToSend = new ArrayList<>(this.events);
-                this.events.clear();
+                eventsToSend = this.events.take();
             }
             this.events.add(event);
             this.lastTime = currentTimestamp;
@@ -107,7 +113,25 @@ public class ExternalIdleTimeLengthBatchWindow extends Window {
         }
 
         if (eventsToSend != null) {
-            nextProcessor.process(eventsToSend);
+            this.events.emit(eventsToSend, nextProcessor);
+        }
+    }
+
+    @Override
+    public void onWatermark(long watermark, Processor nextProcessor) {
+
+        List<Event> eventsToSend = null;
+        try {
+            this.lock.lock();
+            if (!events.isEmpty() && watermark - this.lastTime >= this.minIdleTime) {
+                eventsToSend = this.events.take();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (eventsToSend != null) {
+            this.events.emit(eventsToSend, nextProcessor);
         }
     }
 
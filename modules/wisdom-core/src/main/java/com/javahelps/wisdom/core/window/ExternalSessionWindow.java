@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.window;
+
+import com.javahelps.wisdom.core.extension.WisdomExtension;
+
+import java.util.Map;
+
+/**
+ * Session window depending on external timestamp. Sessions are closed when an event with a later timestamp arrives
+ * and events arriving up to the optional lateness late are added to their sessions, merging the sessions bridged by
+ * them.
+ */
+@WisdomExtension("externalSession")
+public class ExternalSessionWindow extends SessionWindow {
+
+    public ExternalSessionWindow(Map<String, ?> properties) {
+        super(properties, true);
+    }
+
+    @Override
+    public Window copy() {
+        return new ExternalSessionWindow(this.properties);
+    }
+}
@@ -21,12 +21,13 @@
 package com.javahelps.wisdom.core.window;
 
 import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.RuntimeAttribute;
+import com.javahelps.wisdom.core.event.Schema;
 import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
 import com.javahelps.wisdom.core.extension.WisdomExtension;
 import com.javahelps.wisdom.core.processor.Processor;
 import com.javahelps.wisdom.core.variable.Variable;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -34,11 +35,11 @@ import java.util.Map;
  * TimeBatchWindow depending on external timestamp.
  */
 @WisdomExtension("externalTimeBatch")
-public class ExternalTimeBatchWindow extends Window implements Variable.OnUpdateListener<Number> {
+public class ExternalTimeBatchWindow extends BatchWindow implements Variable.OnUpdateListener<Number> {
 
     private final String timestampKey;
+    private final RuntimeAttribute timestampAttribute;
     private long timeToKeep;
-    private List<Event> events = new ArrayList<>();
     private long endTime = -1;
     private Variable<Number> timeVariable;
 
@@ -48,6 +49,7 @@ public class ExternalTimeBatchWindow extends Window implements Variable.OnUpdate
         Object durationVal = this.getProperty("duration", 1);
         if (keyVal instanceof String) {
             this.timestampKey = (String) keyVal;
+            this.timestampAttribute = new RuntimeAttribute(this.timestampKey);
         } else {
             throw new WisdomAppValidationException("timestampKey of ExternalTimeBatchWindow must be java.lang.String but found %d", keyVal.getClass().getSimpleName());
         }
@@ -63,11 +65,17 @@ public class ExternalTimeBatchWindow extends Window implements Variable.OnUpdate
         }
     }
 
+    @Override
+    public void bind(Schema schema) {
+        super.bind(schema);
+        this.timestampAttribute.bind(schema);
+    }
+
     @Override
     public void process(Event event, Processor nextProcessor) {
 
         List<Event> eventsToSend = null;
-        long currentTimestamp = event.getAsLong(this.timestampKey);
+        long currentTimestamp = this.timestampAttribute.getAsLong(event);
 
         try {
             this.lock.lock();
@@ -77,8 +85,7 @@ public class ExternalTimeBatchWindow extends Window implements Variable.OnUpdate
 
             if (currentTimestamp >= this.endTime) {
                 // Timeout happened
-                eventsToSend = new ArrayList<>(this.events);
-                this.events.clear();
+                eventsToSend = this.events.take();
                 this.endTime = this.findEndTime(currentTimestamp, this.endTime, this.timeToKeep);
             }
             this.events.add(event);
@@ -87,7 +94,26 @@ public class ExternalTimeBatchWindow extends Window implements Variable.OnUpdate
         }
 
         if (eventsToSend != null) {
-            nextProcessor.process(eventsToSend);
+            this.events.emit(eventsToSend, nextProcessor);
+        }
+    }
+
+    @Override
+    public void onWatermark(long watermark, Processor nextProcessor) {
+
+        List<Event> eventsToSend = null;
+        try {
+            this.lock.lock();
+            if (!events.isEmpty() && watermark >= this.endTime) {
+                eventsToSend = this.events.take();
+                this.endTime = this.findEndTime(watermark, this.endTime, this.timeToKeep);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (eventsToSend != null) {
+            this.events.emit(eventsToSend, nextProcessor);
         }
     }
 
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.window;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.RuntimeAttribute;
+import com.javahelps.wisdom.core.event.Schema;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.extension.WisdomExtension;
+import com.javahelps.wisdom.core.processor.Processor;
+import com.javahelps.wisdom.core.variable.Variable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sliding window keeping the events within the given duration depending on external timestamp. Events are expired
+ * when a new event arrives or the watermark of the input stream advances.
+ */
+@WisdomExtension("externalTime")
+public class ExternalTimeWindow extends SlidingWindow implements Variable.OnUpdateListener<Number> {
+
+    private final String timestampKey;
+    private final RuntimeAttribute timestampAttribute;
+    private long timeToKeep;
+    private Variable<Number> timeVariable;
+
+    public ExternalTimeWindow(Map<String, ?> properties) {
+        super(properties);
+        Object keyVal = this.getProperty("timestampKey", 0);
+        Object durationVal = this.getProperty("duration", 1);
+        if (keyVal instanceof String) {
+            this.timestampKey = (String) keyVal;
+            this.timestampAttribute = new RuntimeAttribute(this.timestampKey);
+        } else {
+            throw new WisdomAppValidationException("timestampKey of ExternalTimeWindow must be java.lang.String but found %s", keyVal.getClass().getSimpleName());
+        }
+        if (durationVal instanceof Number) {
+            this.timeToKeep = ((Number) durationVal).longValue();
+        } else if (durationVal instanceof Variable) {
+            this.timeVariable = (Variable<Number>) durationVal;
+            this.timeToKeep = this.timeVariable.get().longValue();
+            this.timeVariable.addOnUpdateListener(this);
+        } else {
+            throw new WisdomAppValidationException("duration of ExternalTimeWindow must be long but found %s",
+                    durationVal.getClass().getSimpleName());
+        }
+    }
+
+    @Override
+    public void bind(Schema schema) {
+        super.bind(schema);
+        this.timestampAttribute.bind(schema);
+    }
+
+    @Override
+    public void process(Event event, Processor nextProcessor) {
+
+        long currentTimestamp = this.timestampAttribute.getAsLong(event);
+        List<Event> expired;
+        try {
+            this.lock.lock();
+            expired = this.expireBefore(currentTimestamp - this.timeToKeep);
+            this.keep(event, currentTimestamp);
+        } finally {
+            this.lock.unlock();
+        }
+        emit(expired, event, nextProcessor);
+    }
+
+    @Override
+    public void onWatermark(long watermark, Processor nextProcessor) {
+
+        List<Event> expired;
+        try {
+            this.lock.lock();
+            expired = this.expireBefore(watermark - this.timeToKeep);
+        } finally {
+            this.lock.unlock();
+        }
+        emit(expired, null, nextProcessor);
+    }
+
+    @Override
+    public Window copy() {
+        return new ExternalTimeWindow(this.properties);
+    }
+
+    @Override
+    public void destroy() {
+        if (this.timeVariable != null) {
+            this.timeVariable.removeOnUpdateListener(this);
+        }
+        super.destroy();
+    }
+
+    @Override
+    public void update(Number value) {
+        try {
+            this.lock.lock();
+            this.timeToKeep = value.longValue();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+}
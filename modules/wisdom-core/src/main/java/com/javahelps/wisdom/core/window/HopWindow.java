@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.window;
+
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.RuntimeAttribute;
+import com.javahelps.wisdom.core.event.Schema;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.processor.AggregateProcessor;
+import com.javahelps.wisdom.core.processor.Processor;
+import com.javahelps.wisdom.core.time.TimestampGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hopping window of the given size emitting the events of the last size milliseconds every slide milliseconds.
+ * Time is divided into panes of the greatest common divisor of size and slide, so that every event belongs to one pane
+ * and every window is made of size / pane panes.
+ * <p>
+ * If the window is followed by an {@link AggregateProcessor} of keyed operators, the window keeps a partial aggregate
+ * per pane instead of the events and emits a single event with the aggregates combined from the panes of the window.
+ * Hopping windows reading directly from a stream share their panes with other hopping windows of the stream with the
+ * same time source and pane length.
+ */
+public abstract class HopWindow extends Window {
+
+    private final String timestampKey;
+    private final RuntimeAttribute timestampAttribute;
+    private final long size;
+    private final long slide;
+    private final long paneLength;
+    private final int panesPerWindow;
+    private final int panesPerSlide;
+    private String inputStreamId;
+    private PaneStore store;
+    private TimestampGenerator timestampGenerator;
+    private Processor nextProcessor;
+    private AggregateProcessor aggregator;
+    private long[] slotPanes;
+    private Event[] slotEvents;
+    private long lastPane = Long.MIN_VALUE;
+
+    /**
+     * Create a hopping window.
+     *
+     * @param properties the properties of the window
+     * @param external   true if the timestamp is read from the timestampKey attribute of events
+     */
+    protected HopWindow(Map<String, ?> properties, boolean external) {
+        super(properties);
+        int index = 0;
+        if (external) {
+            Object keyVal = this.getProperty("timestampKey", index++);
+            if (keyVal instanceof String) {
+                this.timestampKey = (String) keyVal;
+                this.timestampAttribute = new RuntimeAttribute(this.timestampKey);
+            } else {
+                throw new WisdomAppValidationException("timestampKey of %s must be java.lang.String but found %s",
+                        this.getClass().getSimpleName(), keyVal.getClass().getSimpleName());
+            }
+        } else {
+            this.timestampKey = null;
+            this.timestampAttribute = null;
+        }
+        Object sizeVal = this.getProperty("size", index++);
+        Object slideVal = this.getProperty("slide", index);
+        if (!(sizeVal instanceof Number) || !(slideVal instanceof Number)) {
+            throw new WisdomAppValidationException("size and slide of %s must be long",
+                    this.getClass().getSimpleName());
+        }
+        this.size = ((Number) sizeVal).longValue();
+        this.slide = ((Number) slideVal).longValue();
+        if (this.size <= 0 || this.slide <= 0) {
+            throw new WisdomAppValidationException("size and slide of %s must be positive but found %d and %d",
+                    this.getClass().getSimpleName(), this.size, this.slide);
+        }
+        this.paneLength = gcd(this.size, this.slide);
+        this.panesPerWindow = (int) (this.size / this.paneLength);
+        this.panesPerSlide = (int) (this.slide / this.paneLength);
+    }
+
+    /**
+     * Share the panes with other hopping windows reading directly from the given stream.
+     *
+     * @param inputStreamId the id of the input stream
+     */
+    public void setInputStream(String inputStreamId) {
+        this.inputStreamId = inputStreamId;
+    }
+
+    /**
+     * Keep partial aggregates of the following {@link AggregateProcessor} per pane instead of the events if all its
+     * operators are keyed.
+     *
+     * @param aggregator the following aggregate processor
+     * @return true if the aggregator has keyed operators
+     */
+    @Override
+    public boolean fuse(AggregateProcessor aggregator) {
+        if (!aggregator.isKeyed()) {
+            return false;
+        }
+        this.aggregator = aggregator;
+        this.slotPanes = new long[this.panesPerWindow];
+        this.slotEvents = new Event[this.panesPerWindow];
+        Arrays.fill(this.slotPanes, Long.MIN_VALUE);
+        return true;
+    }
+
+    @Override
+    public void init(WisdomApp app) {
+        this.timestampGenerator = app.getContext().getTimestampGenerator();
+        if (this.inputStreamId == null) {
+            this.store = this.createStore(app);
+        } else {
+            String key = String.format("pane:%s:%s:%d", this.inputStreamId, this.timestampKey, this.paneLength);
+            this.store = app.getContext().getSharedState(key, () -> this.createStore(app));
+        }
+        this.store.register(this);
+    }
+
+    private PaneStore createStore(WisdomApp app) {
+        return new PaneStore(this.paneLength, app.getContext().createLock(),
+                this.timestampKey == null ? app.getContext().getScheduler() : null);
+    }
+
+    @Override
+    public void bind(Schema schema) {
+        super.bind(schema);
+        if (this.timestampAttribute != null) {
+            this.timestampAttribute.bind(schema);
+        }
+    }
+
+    @Override
+    public void process(Event event, Processor nextProcessor) {
+        long timestamp = this.timestampKey == null ? this.timestampGenerator.currentTimestamp() :
+                this.timestampAttribute.getAsLong(event);
+        long pane = this.store.add(event, timestamp, this.aggregator == null);
+        try {
+            this.lock.lock();
+            this.nextProcessor = nextProcessor;
+            if (this.aggregator != null) {
+                int slot = (int) Math.floorMod(pane, (long) this.panesPerWindow);
+                if (this.slotPanes[slot] != pane) {
+                    // Reuse the slot of a pane out of every window
+                    this.aggregator.reset(slot);
+                    this.slotPanes[slot] = pane;
+                }
+                this.aggregator.accumulate(slot, event);
+                this.slotEvents[slot] = event;
+            }
+            this.lastPane = Math.max(this.lastPane, pane);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isScheduled() {
+        return this.timestampKey == null;
+    }
+
+    @Override
+    public void onWatermark(long watermark, Processor nextProcessor) {
+        if (this.timestampKey != null) {
+            this.store.advance(watermark);
+        }
+    }
+
+    /**
+     * Emit the windows ending in the closed panes.
+     *
+     * @param from the first closed pane
+     * @param to   the open pane
+     */
+    void close(long from, long to) {
+        List<Event> aggregates = null;
+        List<List<Event>> batches = null;
+        Processor nextProcessor;
+        try {
+            this.lock.lock();
+            nextProcessor = this.nextProcessor;
+            if (this.lastPane == Long.MIN_VALUE || nextProcessor == null) {
+                return;
+            }
+            // Windows end at the last pane of a slide and windows after the last event are empty
+            long last = Math.min(to - 1, this.lastPane + this.panesPerWindow - 1);
+            long end = from + Math.floorMod(this.panesPerSlide - 1 - from, (long) this.panesPerSlide);
+            for (; end <= last; end += this.panesPerSlide) {
+                long start = end - this.panesPerWindow + 1;
+                if (this.aggregator != null) {
+                    Event aggregate = this.aggregate(start, end);
+                    if (aggregate != null) {
+                        if (aggregates == null) {
+                            aggregates = new ArrayList<>();
+                        }
+                        aggregates.add(aggregate);
+                    }
+                } else {
+                    List<Event> events = this.store.events(start, end);
+                    if (!events.isEmpty()) {
+                        // Windows of other queries may emit the same events
+                        events.replaceAll(Event::copyEvent);
+                        if (batches == null) {
+                            batches = new ArrayList<>();
+                        }
+                        batches.add(events);
+                    }
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        if (aggregates != null) {
+            Processor aggregatorNext = this.aggregator.getNextProcessor();
+            for (Event aggregate : aggregates) {
+                aggregatorNext.process(aggregate);
+            }
+        }
+        if (batches != null) {
+            for (List<Event> events : batches) {
+                nextProcessor.process(events);
+            }
+        }
+    }
+
+    private Event aggregate(long start, long end) {
+        int[] keys = new int[this.panesPerWindow];
+        int count = 0;
+        int lastSlot = -1;
+        for (int slot = 0; slot < this.panesPerWindow; slot++) {
+            long pane = this.slotPanes[slot];
+            if (pane >= start && pane <= end) {
+                keys[count++] = slot;
+                if (lastSlot == -1 || pane > this.slotPanes[lastSlot]) {
+                    lastSlot = slot;
+                }
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        // The aggregates are set to a copy of the last event of the window
+        return this.aggregator.combine(Arrays.copyOf(keys, count), this.slotEvents[lastSlot].copyEvent());
+    }
+
+    int getPanesPerWindow() {
+        return this.panesPerWindow;
+    }
+
+    boolean isAggregating() {
+        return this.aggregator != null;
+    }
+
+    @Override
+    public void clear() {
+        try {
+            this.lock.lock();
+            if (this.aggregator != null) {
+                for (int slot = 0; slot < this.panesPerWindow; slot++) {
+                    this.aggregator.reset(slot);
+                }
+                Arrays.fill(this.slotPanes, Long.MIN_VALUE);
+                Arrays.fill(this.slotEvents, null);
+            }
+            this.lastPane = Long.MIN_VALUE;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (this.store != null) {
+            this.store.unregister(this);
+        }
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
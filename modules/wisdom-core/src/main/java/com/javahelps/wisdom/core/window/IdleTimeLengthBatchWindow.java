@@ -31,7 +31,6 @@ import com.javahelps.wisdom.core.time.TimestampGenerator;
 import com.javahelps.wisdom.core.variable.Variable;
 
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -39,10 +38,9 @@ import java.util.Map;
  * BatchWindow expires events after a given idle period of external timestamp or length.
  */
 @WisdomExtension("idleTimeLengthBatch")
-public class IdleTimeLengthBatchWindow extends Window implements Executor {
+public class IdleTimeLengthBatchWindow extends BatchWindow implements Executor {
 
     private long minIdleTime;
-    private List<Event> events = new ArrayList<>();
     private long lastTime = -1;
     private int length;
     private Variable<Number> timeVariable;
@@ -99,12 +97,10 @@ public class IdleTimeLengthBatchWindow extends Window implements Executor {
             if (noOfEvents + 1 >= this.length) {
                 // Reached length
                 this.events.add(event);
-                eventsToSend = new ArrayList<>(this.events);
-                this.events.clear();
+                eventsToSend = this.events.take();
             } else if (currentTimestamp - this.lastTime >= this.minIdleTime) {
                 // Timeout happened
-                eventsToSend = new ArrayList<>(this.events);
-                this.events.clear();
+                eventsToSend = this.events.take();
             } else {
                 this.scheduler.schedule(Duration.ofMillis(this.minIdleTime), this);
             }
@@ -117,10 +113,15 @@ public class IdleTimeLengthBatchWindow extends Window implements Executor {
         }
 
         if (eventsToSend != null) {
-            nextProcessor.process(eventsToSend);
+            this.events.emit(eventsToSend, nextProcessor);
         }
     }
 
+    @Override
+    public boolean isScheduled() {
+        return true;
+    }
+
     @Override
     public Window copy() {
         return new IdleTimeLengthBatchWindow(this.properties);
@@ -155,14 +156,13 @@ public class IdleTimeLengthBatchWindow extends Window implements Executor {
             nextProcessor = this.nextProcessor;
             if (timestamp - this.lastTime >= minIdleTime && !this.events.isEmpty()) {
                 // Timeout happened
-                eventsToSend = new ArrayList<>(this.events);
-                this.events.clear();
+                eventsToSend = this.events.take();
             }
         } finally {
             this.lock.unlock();
         }
         if (eventsToSend != null && nextProcessor != null) {
-            nextProcessor.process(eventsToSend);
+            this.events.emit(eventsToSend, nextProcessor);
         }
     }
 
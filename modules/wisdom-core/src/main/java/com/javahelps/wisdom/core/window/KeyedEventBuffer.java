@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.window;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.partition.KeyedState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packed buffers of events per partition key used by length based {@link KeyedWindow}s. Buffers are allocated on
+ * the first event of a partition and grown up to the window length. Not thread safe.
+ */
+class KeyedEventBuffer {
+
+    private static final int INITIAL_BUFFER_SIZE = 4;
+
+    private Event[][] buffers = new Event[16][];
+    private int[] counts = new int[16];
+
+    /**
+     * Add an event to the buffer of a partition and drain the buffer if it has the given number of events.
+     *
+     * @param key    the key of the partition
+     * @param event  the event to add
+     * @param length the number of events to drain the buffer
+     * @return the drained events or null if the buffer is not full
+     */
+    List<Event> add(int key, Event event, int length) {
+        this.buffers = KeyedState.ensureCapacity(this.buffers, key);
+        this.counts = KeyedState.ensureCapacity(this.counts, key);
+        Event[] buffer = this.buffers[key];
+        int count = this.counts[key];
+        if (buffer == null) {
+            buffer = new Event[Math.max(1, Math.min(length, INITIAL_BUFFER_SIZE))];
+            this.buffers[key] = buffer;
+        } else if (count == buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(count + 1, Math.min(length, count * 2)));
+            this.buffers[key] = buffer;
+        }
+        buffer[count++] = event;
+        List<Event> events = null;
+        if (count >= length) {
+            events = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                events.add(buffer[i]);
+                buffer[i] = null;
+            }
+            count = 0;
+        }
+        this.counts[key] = count;
+        return events;
+    }
+
+    int count(int key) {
+        return key < this.counts.length ? this.counts[key] : 0;
+    }
+
+    void release(int key) {
+        if (key < this.buffers.length) {
+            this.buffers[key] = null;
+            this.counts[key] = 0;
+        }
+    }
+
+    void clear() {
+        Arrays.fill(this.buffers, null);
+        Arrays.fill(this.counts, 0);
+    }
+}
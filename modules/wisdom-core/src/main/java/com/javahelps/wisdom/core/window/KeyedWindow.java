@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.window;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.processor.KeyedProcessor;
+
+/**
+ * A {@link Window} able to keep the events of all partitions in a single instance.
+ */
+public interface KeyedWindow {
+
+    void process(int key, Event event, KeyedProcessor nextProcessor);
+
+    /**
+     * Get the number of events of a partition received but not emitted yet.
+     *
+     * @param key the key of the partition
+     * @return the number of pending events
+     */
+    default int getPendingCount(int key) {
+        return 0;
+    }
+
+    /**
+     * Discard the events of a partition.
+     *
+     * @param key the key of the partition
+     */
+    void release(int key);
+}
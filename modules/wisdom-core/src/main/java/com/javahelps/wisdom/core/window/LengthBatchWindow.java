@@ -23,10 +23,10 @@ package com.javahelps.wisdom.core.window;
 import com.javahelps.wisdom.core.event.Event;
 import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
 import com.javahelps.wisdom.core.extension.WisdomExtension;
+import com.javahelps.wisdom.core.processor.KeyedProcessor;
 import com.javahelps.wisdom.core.processor.Processor;
 import com.javahelps.wisdom.core.variable.Variable;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -34,11 +34,11 @@ import java.util.Map;
  * Window keeps n number of events.
  */
 @WisdomExtension("lengthBatch")
-public class LengthBatchWindow extends Window implements Variable.OnUpdateListener<Number> {
+public class LengthBatchWindow extends BatchWindow implements KeyedWindow, Variable.OnUpdateListener<Number> {
 
-    private List<Event> events;
     private int length;
     private Variable<Number> lengthVariable;
+    private KeyedEventBuffer keyedEvents;
 
     public LengthBatchWindow(Map<String, ?> properties) {
         super(properties);
@@ -52,7 +52,7 @@ public class LengthBatchWindow extends Window implements Variable.OnUpdateListen
         } else {
             throw new WisdomAppValidationException("length of LengthBatchWindow must be java.lang.Integer but found %s", val.getClass().getCanonicalName());
         }
-        this.events = new ArrayList<>(this.length);
+        this.events = new EventBatch(this.length);
     }
 
     public void process(Event event, Processor nextProcessor) {
@@ -61,14 +61,52 @@ public class LengthBatchWindow extends Window implements Variable.OnUpdateListen
             this.lock.lock();
             events.add(event);
             if (events.size() >= length) {
-                eventsToSend = new ArrayList<>(events);
-                events.clear();
+                eventsToSend = this.events.take();
             }
         } finally {
             this.lock.unlock();
         }
         if (eventsToSend != null) {
-            nextProcessor.process(eventsToSend);
+            this.events.emit(eventsToSend, nextProcessor);
+        }
+    }
+
+    @Override
+    public void process(int key, Event event, KeyedProcessor nextProcessor) {
+        List<Event> eventsToSend;
+        try {
+            this.lock.lock();
+            if (this.keyedEvents == null) {
+                this.keyedEvents = new KeyedEventBuffer();
+            }
+            eventsToSend = this.keyedEvents.add(key, event, this.length);
+        } finally {
+            this.lock.unlock();
+        }
+        if (eventsToSend != null) {
+            nextProcessor.process(key, eventsToSend);
+        }
+    }
+
+    @Override
+    public int getPendingCount(int key) {
+        try {
+            this.lock.lock();
+            return this.keyedEvents == null ? 0 : this.keyedEvents.count(key);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void release(int key) {
+        try {
+            this.lock.lock();
+            if (this.keyedEvents != null) {
+                this.keyedEvents.release(key);
+            }
+        } finally {
+            this.lock.unlock();
         }
     }
 
@@ -92,6 +130,9 @@ public class LengthBatchWindow extends Window implements Variable.OnUpdateListen
         try {
             this.lock.lock();
             this.events.clear();
+            if (this.keyedEvents != null) {
+                this.keyedEvents.clear();
+            }
         } finally {
             this.lock.unlock();
         }
@@ -103,5 +144,6 @@ public class LengthBatchWindow extends Window implements Variable.OnUpdateListen
             this.lengthVariable.removeOnUpdateListener(this);
         }
         this.events = null;
+        this.keyedEvents = null;
     }
 }
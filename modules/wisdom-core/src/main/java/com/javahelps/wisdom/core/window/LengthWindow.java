@@ -23,22 +23,24 @@ package com.javahelps.wisdom.core.window;
 import com.javahelps.wisdom.core.event.Event;
 import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
 import com.javahelps.wisdom.core.extension.WisdomExtension;
+import com.javahelps.wisdom.core.partition.KeyedState;
+import com.javahelps.wisdom.core.processor.KeyedProcessor;
 import com.javahelps.wisdom.core.processor.Processor;
 import com.javahelps.wisdom.core.variable.Variable;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Window keeps n number of events.
+ * Sliding window keeping the last n events. Every event is emitted when it arrives and an expired copy is emitted
+ * when the window is full and a new event arrives.
  */
 @WisdomExtension("length")
-public class LengthWindow extends Window implements Variable.OnUpdateListener<Number> {
+public class LengthWindow extends SlidingWindow implements KeyedWindow, Variable.OnUpdateListener<Number> {
 
-    private List<Event> events;
     private int length;
     private Variable<Number> lengthVariable;
+    private EventRing[] keyedEvents = new EventRing[0];
 
     public LengthWindow(Map<String, ?> properties) {
         super(properties);
@@ -52,24 +54,73 @@ public class LengthWindow extends Window implements Variable.OnUpdateListener<Nu
         } else {
             throw new WisdomAppValidationException("length of LengthWindow must be java.lang.Integer but found %s", val.getClass().getCanonicalName());
         }
-        this.events = new ArrayList<>(this.length);
+        this.events = new EventRing(this.length);
     }
 
     public void process(Event event, Processor nextProcessor) {
-        events.add(event);
-        List<Event> eventsToSend = null;
+        List<Event> expired = null;
+        Event expiredEvent = null;
         try {
             this.lock.lock();
-            if (events.size() >= length) {
-                eventsToSend = new ArrayList<>(events);
-                events.clear();
+            if (this.events.size() > this.length) {
+                // The length has been reduced
+                expired = expireOverflow(this.events, this.length);
+            } else {
+                expiredEvent = expireOldest(this.events, this.length);
             }
+            this.keep(event, 0L);
         } finally {
             this.lock.unlock();
         }
+        if (expiredEvent != null && this.expiring) {
+            nextProcessor.process(expiredEvent);
+        }
+        emit(expired, event, nextProcessor);
+    }
 
-        if (eventsToSend != null) {
-            nextProcessor.process(eventsToSend);
+    @Override
+    public void process(int key, Event event, KeyedProcessor nextProcessor) {
+        List<Event> expired = null;
+        Event expiredEvent = null;
+        try {
+            this.lock.lock();
+            this.keyedEvents = KeyedState.ensureCapacity(this.keyedEvents, key);
+            EventRing events = this.keyedEvents[key];
+            if (events == null) {
+                events = new EventRing(Math.min(this.length, 16));
+                this.keyedEvents[key] = events;
+            }
+            if (events.size() > this.length) {
+                expired = expireOverflow(events, this.length);
+            } else {
+                expiredEvent = expireOldest(events, this.length);
+            }
+            events.add(event.copyEvent(), 0L);
+        } finally {
+            this.lock.unlock();
+        }
+        if (this.expiring) {
+            if (expiredEvent != null) {
+                nextProcessor.process(key, expiredEvent);
+            }
+            if (expired != null) {
+                for (Event oldEvent : expired) {
+                    nextProcessor.process(key, oldEvent);
+                }
+            }
+        }
+        nextProcessor.process(key, event);
+    }
+
+    @Override
+    public void release(int key) {
+        try {
+            this.lock.lock();
+            if (key < this.keyedEvents.length) {
+                this.keyedEvents[key] = null;
+            }
+        } finally {
+            this.lock.unlock();
         }
     }
 
@@ -84,6 +135,7 @@ public class LengthWindow extends Window implements Variable.OnUpdateListener<Nu
         try {
             this.lock.lock();
             this.events.clear();
+            this.keyedEvents = new EventRing[0];
         } finally {
             this.lock.unlock();
         }
@@ -95,6 +147,7 @@ public class LengthWindow extends Window implements Variable.OnUpdateListener<Nu
             this.lengthVariable.removeOnUpdateListener(this);
         }
         this.events = null;
+        this.keyedEvents = null;
     }
 
     @Override
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.window;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.time.Executor;
+import com.javahelps.wisdom.core.time.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Time divided into panes of fixed length, shared by the {@link HopWindow}s reading the same stream with the same
+ * time source and pane length. The store tracks the open pane, closes panes when time passes and notifies the
+ * windows. Events are kept per pane only for windows that are not followed by an aggregate, and every event is kept
+ * once even if more than one window receives it. Copies of the same event are detected by the identity of their
+ * original event, so that copies arriving interleaved with other events from concurrent producers are kept once.
+ */
+class PaneStore implements Executor {
+
+    private final long paneLength;
+    private final Lock lock;
+    private final Scheduler scheduler;
+    private final List<HopWindow> windows = new CopyOnWriteArrayList<>();
+    private Pane[] panes = new Pane[0];
+    private long[] paneIds = new long[0];
+    private int maxPanes;
+    private long currentPane = Long.MIN_VALUE;
+    private long lastDataPane = Long.MIN_VALUE;
+    private boolean scheduled;
+
+    /**
+     * Create a store.
+     *
+     * @param paneLength the length of a pane in milliseconds
+     * @param lock       the lock guarding the panes
+     * @param scheduler  the scheduler closing panes in processing time or null if panes are closed by event time
+     */
+    PaneStore(long paneLength, Lock lock, Scheduler scheduler) {
+        this.paneLength = paneLength;
+        this.lock = lock;
+        this.scheduler = scheduler;
+    }
+
+    void register(HopWindow window) {
+        this.lock.lock();
+        try {
+            this.windows.add(window);
+            this.maxPanes = Math.max(this.maxPanes, window.getPanesPerWindow());
+            if (!window.isAggregating() && this.panes.length < window.getPanesPerWindow()) {
+                Pane[] panes = new Pane[window.getPanesPerWindow()];
+                long[] paneIds = new long[panes.length];
+                Arrays.fill(paneIds, Long.MIN_VALUE);
+                for (int i = 0; i < this.panes.length; i++) {
+                    if (this.panes[i] != null) {
+                        int slot = (int) Math.floorMod(this.paneIds[i], (long) panes.length);
+                        panes[slot] = this.panes[i];
+                        paneIds[slot] = this.paneIds[i];
+                    }
+                }
+                this.panes = panes;
+                this.paneIds = paneIds;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    void unregister(HopWindow window) {
+        this.windows.remove(window);
+    }
+
+    /**
+     * Add an event arrived at the given time. Panes ended before the event are closed first. Late events are added to
+     * the open pane.
+     *
+     * @param event     the event
+     * @param timestamp the time of the event
+     * @param keep      true if the event must be kept for windows emitting events
+     * @return the pane of the event
+     */
+    long add(Event event, long timestamp, boolean keep) {
+        long pane = Math.floorDiv(timestamp, this.paneLength);
+        long closedFrom = 0;
+        long closedTo = 0;
+        this.lock.lock();
+        try {
+            if (this.currentPane == Long.MIN_VALUE) {
+                this.currentPane = pane;
+            } else if (pane > this.currentPane) {
+                closedFrom = this.currentPane;
+                closedTo = pane;
+                this.currentPane = pane;
+            } else {
+                pane = this.currentPane;
+            }
+            this.lastDataPane = pane;
+            if (this.scheduler != null && !this.scheduled) {
+                this.scheduled = true;
+                this.scheduler.schedule(Duration.ofMillis((pane + 1) * this.paneLength - timestamp), this);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        if (closedTo > closedFrom) {
+            // Close the panes before the event overwrites the slot of a closed pane
+            this.close(closedFrom, closedTo);
+        }
+        if (keep) {
+            this.keep(event, pane);
+        }
+        return pane;
+    }
+
+    private void keep(Event event, long pane) {
+        this.lock.lock();
+        try {
+            if (this.panes.length > 0) {
+                int slot = (int) Math.floorMod(pane, (long) this.panes.length);
+                if (this.paneIds[slot] != pane) {
+                    this.panes[slot] = new Pane();
+                    this.paneIds[slot] = pane;
+                }
+                this.panes[slot].add(event);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Get the events kept in the given panes.
+     *
+     * @param from the first pane
+     * @param to   the last pane
+     * @return the events in their arrival order
+     */
+    List<Event> events(long from, long to) {
+        List<Event> events = new ArrayList<>();
+        this.lock.lock();
+        try {
+            for (long pane = Math.max(from, to - this.panes.length + 1); pane <= to; pane++) {
+                int slot = (int) Math.floorMod(pane, (long) this.panes.length);
+                if (this.paneIds[slot] == pane) {
+                    events.addAll(this.panes[slot].events);
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        return events;
+    }
+
+    /**
+     * Close the panes ended before the given event time without adding an event.
+     *
+     * @param timestamp the event time watermark
+     */
+    void advance(long timestamp) {
+        long pane = Math.floorDiv(timestamp, this.paneLength);
+        long closedFrom = 0;
+        long closedTo = 0;
+        this.lock.lock();
+        try {
+            if (this.currentPane != Long.MIN_VALUE && pane > this.currentPane) {
+                closedFrom = this.currentPane;
+                closedTo = pane;
+                this.currentPane = pane;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        if (closedTo > closedFrom) {
+            this.close(closedFrom, closedTo);
+        }
+    }
+
+    @Override
+    public void execute(long timestamp) {
+        long pane = Math.floorDiv(timestamp, this.paneLength);
+        long closedFrom = 0;
+        long closedTo = 0;
+        this.lock.lock();
+        try {
+            if (pane > this.currentPane) {
+                closedFrom = this.currentPane;
+                closedTo = pane;
+                this.currentPane = pane;
+            }
+            if (this.currentPane < this.lastDataPane + this.maxPanes) {
+                // Windows still contain events
+                this.scheduler.schedule(Duration.ofMillis((this.currentPane + 1) * this.paneLength - timestamp), this);
+            } else {
+                this.scheduled = false;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        if (closedTo > closedFrom) {
+            this.close(closedFrom, closedTo);
+        }
+    }
+
+    private void close(long from, long to) {
+        for (HopWindow window : this.windows) {
+            window.close(from, to);
+        }
+    }
+
+    /**
+     * The events of a pane and the original events of the copies received by the windows.
+     */
+    private static class Pane {
+
+        private final List<Event> events = new ArrayList<>();
+        private final Set<Event> originals = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private void add(Event event) {
+            Event original = event.getOriginal();
+            // Windows of other queries receive copies of the same event
+            if (original == null || this.originals.add(original)) {
+                this.events.add(event);
+            }
+        }
+    }
+}
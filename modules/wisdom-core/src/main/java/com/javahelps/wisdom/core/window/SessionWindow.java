@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.window;
+
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.RuntimeAttribute;
+import com.javahelps.wisdom.core.event.Schema;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.extension.WisdomExtension;
+import com.javahelps.wisdom.core.processor.Processor;
+import com.javahelps.wisdom.core.time.Executor;
+import com.javahelps.wisdom.core.time.Scheduler;
+import com.javahelps.wisdom.core.time.TimestampGenerator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Session window emitting the events of a key as a batch when no event of the key arrives for the given gap depending
+ * on system timestamp. Sessions of all keys are kept in a single window and closed by a single scheduled task waking up
+ * at the earliest deadline.
+ */
+@WisdomExtension("session")
+public class SessionWindow extends Window implements Executor {
+
+    private static final Comparator<Session> DEADLINE_ORDER = Comparator.<Session>comparingLong(s -> s.end)
+            .thenComparingLong(s -> s.id);
+
+    private final String keyAttribute;
+    private final String timestampKey;
+    private final RuntimeAttribute timestampAttribute;
+    private final long gap;
+    private final long lateness;
+    private Map<Object, List<Session>> sessions = new HashMap<>();
+    private TreeSet<Session> deadlines = new TreeSet<>(DEADLINE_ORDER);
+    private long sequence;
+    private long watermark = Long.MIN_VALUE;
+    private Scheduler scheduler;
+    private TimestampGenerator timestampGenerator;
+    private Processor nextProcessor;
+    private boolean scheduled;
+
+    public SessionWindow(Map<String, ?> properties) {
+        this(properties, false);
+    }
+
+    /**
+     * Create a session window.
+     *
+     * @param properties the properties of the window
+     * @param external   true if the timestamp is read from the timestampKey attribute of events
+     */
+    protected SessionWindow(Map<String, ?> properties, boolean external) {
+        super(properties);
+        int index = 0;
+        Object keyVal = this.getProperty("key", index++);
+        if (keyVal instanceof String) {
+            this.keyAttribute = (String) keyVal;
+        } else {
+            throw new WisdomAppValidationException("key of %s must be java.lang.String but found %s",
+                    this.getClass().getSimpleName(), keyVal.getClass().getSimpleName());
+        }
+        if (external) {
+            Object timestampVal = this.getProperty("timestampKey", index++);
+            if (timestampVal instanceof String) {
+                this.timestampKey = (String) timestampVal;
+                this.timestampAttribute = new RuntimeAttribute(this.timestampKey);
+            } else {
+                throw new WisdomAppValidationException("timestampKey of %s must be java.lang.String but found %s",
+                        this.getClass().getSimpleName(), timestampVal.getClass().getSimpleName());
+            }
+        } else {
+            this.timestampKey = null;
+            this.timestampAttribute = null;
+        }
+        Object gapVal = this.getProperty("gap", index++);
+        if (gapVal instanceof Number && ((Number) gapVal).longValue() > 0) {
+            this.gap = ((Number) gapVal).longValue();
+        } else {
+            throw new WisdomAppValidationException("gap of %s must be a positive long but found %s",
+                    this.getClass().getSimpleName(), gapVal);
+        }
+        // Late events are accepted only in external time
+        Object latenessVal = external ? this.properties.get("lateness") : null;
+        if (latenessVal == null && external) {
+            latenessVal = this.properties.get(String.format("_param_%d", index));
+        }
+        if (latenessVal == null) {
+            this.lateness = 0L;
+        } else if (latenessVal instanceof Number && ((Number) latenessVal).longValue() >= 0) {
+            this.lateness = ((Number) latenessVal).longValue();
+        } else {
+            throw new WisdomAppValidationException("lateness of %s must be a non-negative long but found %s",
+                    this.getClass().getSimpleName(), latenessVal);
+        }
+    }
+
+    @Override
+    public void init(WisdomApp app) {
+        this.scheduler = app.getContext().getScheduler();
+        this.timestampGenerator = app.getContext().getTimestampGenerator();
+    }
+
+    @Override
+    public void bind(Schema schema) {
+        super.bind(schema);
+        if (this.timestampAttribute != null) {
+            this.timestampAttribute.bind(schema);
+        }
+    }
+
+    @Override
+    public void process(Event event, Processor nextProcessor) {
+        Object key = event.get(this.keyAttribute);
+        List<List<Event>> closed = null;
+        try {
+            this.lock.lock();
+            this.nextProcessor = nextProcessor;
+            if (this.timestampKey == null) {
+                this.add(key, event, this.timestampGenerator.currentTimestamp());
+                if (!this.scheduled) {
+                    this.scheduled = true;
+                    this.scheduler.schedule(Duration.ofMillis(this.gap), this);
+                }
+            } else {
+                long timestamp = this.timestampAttribute.getAsLong(event);
+                this.add(key, event, timestamp);
+                this.watermark = Math.max(this.watermark, timestamp - this.lateness);
+                closed = this.closeBefore(this.watermark - this.gap);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        emit(closed, nextProcessor);
+    }
+
+    @Override
+    public boolean isScheduled() {
+        return this.timestampKey == null;
+    }
+
+    @Override
+    public void onWatermark(long watermark, Processor nextProcessor) {
+        if (this.timestampKey == null) {
+            return;
+        }
+        List<List<Event>> closed;
+        try {
+            this.lock.lock();
+            if (this.sessions == null || watermark <= this.watermark) {
+                return;
+            }
+            this.watermark = watermark;
+            closed = this.closeBefore(watermark - this.gap);
+        } finally {
+            this.lock.unlock();
+        }
+        emit(closed, nextProcessor);
+    }
+
+    @Override
+    public void execute(long timestamp) {
+        List<List<Event>> closed;
+        Processor nextProcessor;
+        try {
+            this.lock.lock();
+            if (this.sessions == null) {
+                return;
+            }
+            nextProcessor = this.nextProcessor;
+            closed = this.closeBefore(timestamp - this.gap);
+            if (this.deadlines.isEmpty()) {
+                this.scheduled = false;
+            } else {
+                // Wake up at the earliest deadline of all sessions
+                long delay = this.deadlines.first().end + this.gap - timestamp;
+                this.scheduler.schedule(Duration.ofMillis(delay), this);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        emit(closed, nextProcessor);
+    }
+
+    /**
+     * Add an event to the session of its key. A new session is started if the event is not within the gap of an open
+     * session and sessions bridged by the event are merged.
+     */
+    private void add(Object key, Event event, long timestamp) {
+        List<Session> keySessions = this.sessions.computeIfAbsent(key, k -> new ArrayList<>(1));
+        Session target = null;
+        int index = 0;
+        while (index < keySessions.size()) {
+            Session session = keySessions.get(index);
+            if (target == null) {
+                if (timestamp < session.start - this.gap) {
+                    break;
+                } else if (timestamp <= session.end + this.gap) {
+                    target = session;
+                    this.deadlines.remove(target);
+                    target.start = Math.min(target.start, timestamp);
+                    target.end = Math.max(target.end, timestamp);
+                }
+                index++;
+            } else if (session.start - this.gap <= target.end) {
+                // The event bridged the gap between two sessions
+                this.deadlines.remove(session);
+                target.end = Math.max(target.end, session.end);
+                target.events.addAll(session.events);
+                keySessions.remove(index);
+            } else {
+                break;
+            }
+        }
+        if (target == null) {
+            target = new Session(key, this.sequence++, timestamp);
+            keySessions.add(index, target);
+        }
+        target.events.add(event);
+        this.deadlines.add(target);
+    }
+
+    private List<List<Event>> closeBefore(long limit) {
+        List<List<Event>> closed = null;
+        while (!this.deadlines.isEmpty() && this.deadlines.first().end <= limit) {
+            Session session = this.deadlines.pollFirst();
+            List<Session> keySessions = this.sessions.get(session.key);
+            keySessions.remove(session);
+            if (keySessions.isEmpty()) {
+                this.sessions.remove(session.key);
+            }
+            if (closed == null) {
+                closed = new ArrayList<>();
+            }
+            closed.add(session.events);
+        }
+        return closed;
+    }
+
+    private static void emit(List<List<Event>> closed, Processor nextProcessor) {
+        if (closed != null && nextProcessor != null) {
+            for (List<Event> events : closed) {
+                nextProcessor.process(events);
+            }
+        }
+    }
+
+    @Override
+    public Window copy() {
+        return new SessionWindow(this.properties);
+    }
+
+    @Override
+    public void clear() {
+        try {
+            this.lock.lock();
+            this.sessions.clear();
+            this.deadlines.clear();
+            this.watermark = Long.MIN_VALUE;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            this.lock.lock();
+            this.sessions = null;
+            this.deadlines = null;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private static class Session {
+        private final Object key;
+        private final long id;
+        private long start;
+        private long end;
+        private final List<Event> events = new ArrayList<>();
+
+        private Session(Object key, long id, long timestamp) {
+            this.key = key;
+            this.id = id;
+            this.start = timestamp;
+            this.end = timestamp;
+        }
+    }
+}
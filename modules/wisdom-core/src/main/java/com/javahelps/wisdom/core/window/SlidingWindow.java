@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.window;
+
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.processor.Processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link Window} emitting every event when it arrives and an expired copy of the event when it leaves the window.
+ * The events are kept in an {@link EventRing} in their arrival order. Expired events are emitted only if the next
+ * processor removes them from its state, such as an aggregate following the window.
+ */
+public abstract class SlidingWindow extends Window {
+
+    protected EventRing events = new EventRing(16);
+    protected boolean expiring = true;
+
+    public SlidingWindow(Map<String, ?> properties) {
+        super(properties);
+    }
+
+    @Override
+    public boolean isSliding() {
+        return true;
+    }
+
+    /**
+     * Emit the expired events or drop them after removing them from the window.
+     *
+     * @param expiring true if the next processor consumes expired events
+     */
+    public void setExpiring(boolean expiring) {
+        this.expiring = expiring;
+    }
+
+    /**
+     * Remove the events arrived at or before the given time. Must be called while holding the lock.
+     *
+     * @param deadline the arrival time of the latest event to remove
+     * @return the expired events or null if no events expired
+     */
+    protected List<Event> expireBefore(long deadline) {
+        List<Event> expired = null;
+        while (!this.events.isEmpty() && this.events.peekTimestamp() <= deadline) {
+            expired = expire(this.events, expired);
+        }
+        return expired;
+    }
+
+    /**
+     * Remove the oldest events to make room for a new event. Must be called while holding the lock.
+     *
+     * @param events the events of the window
+     * @param length the maximum number of events in the window
+     * @return the expired events or null if no events expired
+     */
+    static List<Event> expireOverflow(EventRing events, int length) {
+        List<Event> expired = null;
+        while (!events.isEmpty() && events.size() >= length) {
+            expired = expire(events, expired);
+        }
+        return expired;
+    }
+
+    /**
+     * Remove the oldest event to make room for a new event if the window has the given number of events. Must be
+     * called while holding the lock.
+     *
+     * @param events the events of the window
+     * @param length the maximum number of events in the window
+     * @return the expired event or null if the window is not full
+     */
+    static Event expireOldest(EventRing events, int length) {
+        if (events.isEmpty() || events.size() < length) {
+            return null;
+        }
+        return expire(events);
+    }
+
+    private static List<Event> expire(EventRing events, List<Event> expired) {
+        if (expired == null) {
+            expired = new ArrayList<>();
+        }
+        expired.add(expire(events));
+        return expired;
+    }
+
+    private static Event expire(EventRing events) {
+        Event event = events.poll();
+        event.setExpired(true);
+        return event;
+    }
+
+    /**
+     * Keep a copy of the event, so that the following processors cannot modify the attributes of the expired event.
+     * Must be called while holding the lock.
+     *
+     * @param event     the current event
+     * @param timestamp the arrival time of the event
+     */
+    protected void keep(Event event, long timestamp) {
+        this.events.add(event.copyEvent(), timestamp);
+    }
+
+    protected void emit(List<Event> expired, Event event, Processor nextProcessor) {
+        if (expired != null && this.expiring) {
+            for (Event expiredEvent : expired) {
+                nextProcessor.process(expiredEvent);
+            }
+        }
+        if (event != null) {
+            nextProcessor.process(event);
+        }
+    }
+
+    @Override
+    public void clear() {
+        try {
+            this.lock.lock();
+            this.events.clear();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.events = null;
+    }
+}
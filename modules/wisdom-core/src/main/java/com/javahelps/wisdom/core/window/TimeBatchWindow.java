@@ -31,7 +31,6 @@ import com.javahelps.wisdom.core.time.TimestampGenerator;
 import com.javahelps.wisdom.core.variable.Variable;
 
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -39,10 +38,9 @@ import java.util.Map;
  * TimeBatchWindow depending on system timestamp.
  */
 @WisdomExtension("timeBatch")
-public class TimeBatchWindow extends Window implements Variable.OnUpdateListener<Number>, Executor {
+public class TimeBatchWindow extends BatchWindow implements Variable.OnUpdateListener<Number>, Executor {
 
     private long timeToKeep;
-    private List<Event> events = new ArrayList<>();
     private long endTime = -1;
     private Variable<Number> timeVariable;
     private Scheduler scheduler;
@@ -89,6 +87,11 @@ public class TimeBatchWindow extends Window implements Variable.OnUpdateListener
         }
     }
 
+    @Override
+    public boolean isScheduled() {
+        return true;
+    }
+
     @Override
     public Window copy() {
         return new TimeBatchWindow(this.properties);
@@ -134,8 +137,7 @@ public class TimeBatchWindow extends Window implements Variable.OnUpdateListener
             nextProcessor = this.nextProcessor;
             if (timestamp >= this.endTime && !this.events.isEmpty()) {
                 // Timeout happened
-                eventsToSend = new ArrayList<>(this.events);
-                this.events.clear();
+                eventsToSend = this.events.take();
                 this.endTime = this.findEndTime(timestamp, this.endTime, this.timeToKeep);
                 this.scheduler.schedule(Duration.ofMillis(this.endTime - timestamp), this);
             }
@@ -143,7 +145,7 @@ public class TimeBatchWindow extends Window implements Variable.OnUpdateListener
             this.lock.unlock();
         }
         if (eventsToSend != null && nextProcessor != null) {
-            nextProcessor.process(eventsToSend);
+            this.events.emit(eventsToSend, nextProcessor);
         }
     }
 
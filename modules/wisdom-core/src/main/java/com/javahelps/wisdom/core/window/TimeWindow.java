@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.window;
+
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.extension.WisdomExtension;
+import com.javahelps.wisdom.core.processor.Processor;
+import com.javahelps.wisdom.core.time.Executor;
+import com.javahelps.wisdom.core.time.Scheduler;
+import com.javahelps.wisdom.core.time.TimestampGenerator;
+import com.javahelps.wisdom.core.variable.Variable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sliding window keeping the events arrived within the given duration depending on system timestamp. Events are
+ * expired by the scheduler even if no new events arrive.
+ */
+@WisdomExtension("time")
+public class TimeWindow extends SlidingWindow implements Variable.OnUpdateListener<Number>, Executor {
+
+    private long timeToKeep;
+    private Variable<Number> timeVariable;
+    private Scheduler scheduler;
+    private TimestampGenerator timestampGenerator;
+    private Processor nextProcessor;
+    private boolean scheduled;
+
+    public TimeWindow(Map<String, ?> properties) {
+        super(properties);
+        Object durationVal = this.getProperty("duration", 0);
+
+        if (durationVal instanceof Number) {
+            this.timeToKeep = ((Number) durationVal).longValue();
+        } else if (durationVal instanceof Variable) {
+            this.timeVariable = (Variable<Number>) durationVal;
+            this.timeToKeep = this.timeVariable.get().longValue();
+            this.timeVariable.addOnUpdateListener(this);
+        } else {
+            throw new WisdomAppValidationException("duration of TimeWindow must be long but found %s",
+                    durationVal.getClass().getSimpleName());
+        }
+    }
+
+    @Override
+    public void init(WisdomApp app) {
+        this.scheduler = app.getContext().getScheduler();
+        this.timestampGenerator = app.getContext().getTimestampGenerator();
+    }
+
+    @Override
+    public void process(Event event, Processor nextProcessor) {
+
+        long currentTimestamp = this.timestampGenerator.currentTimestamp();
+        List<Event> expired;
+        try {
+            this.lock.lock();
+            expired = this.expireBefore(currentTimestamp - this.timeToKeep);
+            this.keep(event, currentTimestamp);
+            this.nextProcessor = nextProcessor;
+            if (!this.scheduled) {
+                this.scheduled = true;
+                this.scheduler.schedule(Duration.ofMillis(this.timeToKeep), this);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        emit(expired, event, nextProcessor);
+    }
+
+    @Override
+    public void execute(long timestamp) {
+        List<Event> expired;
+        Processor nextProcessor;
+        try {
+            this.lock.lock();
+            if (this.events == null) {
+                return;
+            }
+            nextProcessor = this.nextProcessor;
+            expired = this.expireBefore(timestamp - this.timeToKeep);
+            if (this.events.isEmpty()) {
+                this.scheduled = false;
+            } else {
+                // Wake up when the oldest event expires
+                long delay = this.events.peekTimestamp() + this.timeToKeep - timestamp;
+                this.scheduler.schedule(Duration.ofMillis(delay), this);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        if (nextProcessor != null) {
+            emit(expired, null, nextProcessor);
+        }
+    }
+
+    @Override
+    public boolean isScheduled() {
+        return true;
+    }
+
+    @Override
+    public Window copy() {
+        return new TimeWindow(this.properties);
+    }
+
+    @Override
+    public void destroy() {
+        if (this.timeVariable != null) {
+            this.timeVariable.removeOnUpdateListener(this);
+        }
+        super.destroy();
+    }
+
+    @Override
+    public void update(Number value) {
+        try {
+            this.lock.lock();
+            this.timeToKeep = value.longValue();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+}
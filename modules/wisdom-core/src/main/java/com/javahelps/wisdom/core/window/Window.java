@@ -22,13 +22,16 @@ package com.javahelps.wisdom.core.window;
 
 import com.javahelps.wisdom.core.WisdomApp;
 import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.Schema;
 import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
 import com.javahelps.wisdom.core.extension.ImportsManager;
 import com.javahelps.wisdom.core.partition.Partitionable;
+import com.javahelps.wisdom.core.processor.AggregateProcessor;
 import com.javahelps.wisdom.core.processor.Initializable;
 import com.javahelps.wisdom.core.processor.Processor;
 import com.javahelps.wisdom.core.processor.Stateful;
 import com.javahelps.wisdom.core.util.Commons;
+import com.javahelps.wisdom.core.util.NoOpLock;
 import com.javahelps.wisdom.core.variable.Variable;
 
 import java.time.Duration;
@@ -36,7 +39,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A utility to construct Windows.
@@ -47,13 +49,18 @@ public abstract class Window implements Partitionable, Stateful, Initializable {
         ImportsManager.INSTANCE.use(Window.class.getPackageName());
     }
 
-    protected final Lock lock = new ReentrantLock();
+    protected Lock lock = NoOpLock.INSTANCE;
     protected final Map<String, ?> properties;
+    private Schema schema;
 
     public Window(Map<String, ?> properties) {
         this.properties = properties;
     }
 
+    public Map<String, ?> getProperties() {
+        return properties;
+    }
+
     public static Window create(String namespace, Map<String, ?> properties) {
         return ImportsManager.INSTANCE.createWindow(namespace, properties);
     }
@@ -74,6 +81,36 @@ public abstract class Window implements Partitionable, Stateful, Initializable {
         return new LengthBatchWindow(Collections.singletonMap("length", length));
     }
 
+    public static Window time(Duration duration) {
+        return new TimeWindow(Commons.map("duration", duration.toMillis()));
+    }
+
+    public static Window externalTime(String timestampKey, Duration duration) {
+        return new ExternalTimeWindow(Commons.map("timestampKey", timestampKey, "duration", duration.toMillis()));
+    }
+
+    public static Window timeHop(Duration size, Duration slide) {
+        return new TimeHopWindow(Commons.map("size", size.toMillis(), "slide", slide.toMillis()));
+    }
+
+    public static Window externalTimeHop(String timestampKey, Duration size, Duration slide) {
+        return new ExternalTimeHopWindow(Commons.map("timestampKey", timestampKey, "size", size.toMillis(),
+                "slide", slide.toMillis()));
+    }
+
+    public static Window session(String key, Duration gap) {
+        return new SessionWindow(Commons.map("key", key, "gap", gap.toMillis()));
+    }
+
+    public static Window externalSession(String key, String timestampKey, Duration gap) {
+        return new ExternalSessionWindow(Commons.map("key", key, "timestampKey", timestampKey, "gap", gap.toMillis()));
+    }
+
+    public static Window externalSession(String key, String timestampKey, Duration gap, Duration lateness) {
+        return new ExternalSessionWindow(Commons.map("key", key, "timestampKey", timestampKey, "gap", gap.toMillis(),
+                "lateness", lateness.toMillis()));
+    }
+
     public static Window timeBatch(Duration duration) {
         return new TimeBatchWindow(Commons.map("duration", duration.toMillis()));
     }
@@ -90,8 +127,86 @@ public abstract class Window implements Partitionable, Stateful, Initializable {
         return new IdleTimeLengthBatchWindow(Commons.map("duration", duration.toMillis(), "length", length));
     }
 
+    /**
+     * Replace the lock guarding the state of this window. Called by the
+     * {@link com.javahelps.wisdom.core.processor.WindowProcessor} before initializing the window.
+     *
+     * @param lock the lock provided by the {@link com.javahelps.wisdom.core.WisdomContext}
+     */
+    public void setLock(Lock lock) {
+        this.lock = lock;
+    }
+
+    /**
+     * Resolve the attributes read by this window in the {@link Schema} of the input events. Called by the
+     * {@link com.javahelps.wisdom.core.query.Query} when the window is defined and by the
+     * {@link com.javahelps.wisdom.core.processor.WindowProcessor} for the copies of the window.
+     *
+     * @param schema the schema of the input events or null if they are not typed
+     */
+    public void bind(Schema schema) {
+        this.schema = schema;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
     public abstract void process(Event event, Processor nextProcessor);
 
+    /**
+     * Check whether this window emits expired events. Aggregators following a sliding window remove the values of
+     * expired events instead of recomputing the aggregate over the window.
+     *
+     * @return true if expired events are emitted
+     */
+    public boolean isSliding() {
+        return false;
+    }
+
+    /**
+     * Check whether this window emits events from the scheduler of the app in addition to the thread sending events
+     * to the window.
+     *
+     * @return true if the window depends on the system time
+     */
+    public boolean isScheduled() {
+        return false;
+    }
+
+    /**
+     * Get the number of events received by this window but not emitted yet, which are lost if the window is
+     * destroyed.
+     *
+     * @return the number of pending events
+     */
+    public int getPendingCount() {
+        return 0;
+    }
+
+    /**
+     * Close the parts of this window ending before the watermark of the input stream. Windows depending on external
+     * timestamp close on the watermark instead of waiting for an event with a later timestamp.
+     *
+     * @param watermark     the event time watermark
+     * @param nextProcessor the next processor
+     */
+    public void onWatermark(long watermark, Processor nextProcessor) {
+        // Do nothing
+    }
+
+    /**
+     * Let this window apply the events to the aggregators of the directly following {@link AggregateProcessor} on
+     * arrival instead of keeping them. Called by the {@link com.javahelps.wisdom.core.processor.WindowProcessor}
+     * before initializing the window.
+     *
+     * @param aggregator the following aggregate processor
+     * @return true if the window emits the aggregated events to the next processor of the aggregator
+     */
+    public boolean fuse(AggregateProcessor aggregator) {
+        return false;
+    }
+
     public void process(List<Event> events, Processor nextProcessor) {
         for (Event event : events) {
             this.process(event, nextProcessor);
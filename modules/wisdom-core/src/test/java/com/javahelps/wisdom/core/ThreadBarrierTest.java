@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+public class ThreadBarrierTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadBarrierTest.class);
+
+    @Test
+    public void testLockWaitsForInFlightThreads() throws InterruptedException {
+        LOGGER.info("Test lock waits for in-flight threads");
+
+        ThreadBarrier barrier = new ThreadBarrier();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean exited = new AtomicBoolean(false);
+
+        Thread worker = new Thread(() -> {
+            barrier.enter();
+            try {
+                entered.countDown();
+                release.await();
+                exited.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                barrier.exit();
+            }
+        });
+        worker.start();
+        entered.await();
+
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread cleaner = new Thread(() -> {
+            barrier.lock();
+            locked.countDown();
+        });
+        cleaner.start();
+
+        Assert.assertFalse("Barrier closed while a thread is in-flight", locked.await(100, TimeUnit.MILLISECONDS));
+        release.countDown();
+        Assert.assertTrue("Barrier not closed after the thread left", locked.await(1, TimeUnit.SECONDS));
+        Assert.assertTrue("In-flight thread did not complete", exited.get());
+    }
+
+    @Test
+    public void testEnterBlockedWhileLocked() throws InterruptedException {
+        LOGGER.info("Test enter blocked while the barrier is locked");
+
+        ThreadBarrier barrier = new ThreadBarrier();
+        barrier.lock();
+        // Nested lock and enter from the locking thread must not block
+        barrier.lock();
+        barrier.enter();
+        barrier.exit();
+        barrier.unlock();
+
+        CountDownLatch entered = new CountDownLatch(1);
+        Thread worker = new Thread(() -> {
+            barrier.enter();
+            entered.countDown();
+            barrier.exit();
+        });
+        worker.start();
+
+        Assert.assertFalse("Thread entered a locked barrier", entered.await(100, TimeUnit.MILLISECONDS));
+        barrier.unlock();
+        Assert.assertTrue("Thread did not enter after unlock", entered.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLockWhileThreadLeft() throws InterruptedException {
+        LOGGER.info("Test lock does not wait for a thread which left the barrier");
+
+        ThreadBarrier barrier = new ThreadBarrier();
+        CountDownLatch left = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch rejoined = new CountDownLatch(1);
+
+        Thread worker = new Thread(() -> {
+            barrier.enter();
+            barrier.enter();
+            int depth = barrier.leave();
+            try {
+                left.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                barrier.rejoin(depth);
+            }
+            rejoined.countDown();
+            barrier.exit();
+            barrier.exit();
+        });
+        worker.start();
+        left.await();
+
+        barrier.lock();
+        release.countDown();
+        Assert.assertFalse("Thread rejoined a locked barrier", rejoined.await(100, TimeUnit.MILLISECONDS));
+        barrier.unlock();
+        Assert.assertTrue("Thread did not rejoin after unlock", rejoined.await(1, TimeUnit.SECONDS));
+        worker.join(1000);
+    }
+
+    @Test
+    public void testGracePeriod() throws InterruptedException {
+        LOGGER.info("Test grace period waits for the threads inside the barrier");
+
+        ThreadBarrier barrier = new ThreadBarrier();
+        Assert.assertTrue("Grace period without threads is not over", barrier.startGracePeriod().getAsBoolean());
+
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch reentered = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread worker = new Thread(() -> {
+            try {
+                barrier.enter();
+                entered.countDown();
+                release.await();
+                barrier.exit();
+                // A thread entering again must not be waited
+                barrier.enter();
+                reentered.countDown();
+                done.await();
+                barrier.exit();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.start();
+        entered.await();
+
+        BooleanSupplier gracePeriod = barrier.startGracePeriod();
+        Assert.assertFalse("Grace period over while a thread is inside", gracePeriod.getAsBoolean());
+        release.countDown();
+        reentered.await();
+        Assert.assertTrue("Grace period not over after the thread left", gracePeriod.getAsBoolean());
+        Assert.assertFalse("New grace period over while a thread is inside",
+                barrier.startGracePeriod().getAsBoolean());
+        done.countDown();
+        worker.join(1000);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.event;
+
+import com.javahelps.wisdom.core.TestUtil;
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.operator.Operator;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.util.EventGenerator;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static com.javahelps.wisdom.core.util.Commons.map;
+
+public class CopyOnWriteEventTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CopyOnWriteEventTest.class);
+
+    @Test
+    public void testCopyOnWrite() {
+        LOGGER.info("Test copy on write event");
+
+        Event parent = EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10);
+        Event child1 = parent.copyEvent();
+        Event child2 = parent.copyEvent();
+
+        Assert.assertTrue("Attributes are not shared", child1.isShared() && child2.isShared());
+
+        child1.set("price", 55.0);
+        child2.retain(Arrays.asList("symbol"));
+
+        Assert.assertFalse("Modified event is still shared", child1.isShared());
+        Assert.assertEquals("Incorrect parent event", map("symbol", "IBM", "price", 50.0, "volume", 10),
+                parent.getDataView());
+        Assert.assertEquals("Incorrect modified event", map("symbol", "IBM", "price", 55.0, "volume", 10),
+                child1.getDataView());
+        Assert.assertEquals("Incorrect retained event", map("symbol", "IBM"), child2.getDataView());
+    }
+
+    @Test
+    public void testUntypedCopiesOfTypedEvent() {
+        LOGGER.info("Test untyped copies of an event bound to a schema");
+
+        Event parent = new Event(null, Schema.of("symbol", "string", "price", "double", "volume", "long"), 0L);
+        parent.set("symbol", "IBM").set("price", 50.0).set("volume", 10L);
+        Event child1 = parent.copyEvent(null);
+        Event child2 = parent.copyEvent(null);
+
+        Assert.assertTrue("Attributes are not shared", child1.isShared() && child2.isShared());
+        Assert.assertNull("Untyped copy is bound to the schema", child1.getSchema());
+        Assert.assertEquals("Incorrect shared attribute", 50.0, child2.getAsDouble("price"), 0.0);
+
+        child1.set("volume", "many").set("exchange", "NYSE");
+
+        Assert.assertFalse("Modified event is still shared", child1.isShared());
+        Assert.assertTrue("Untyped copy is not copied into a map", child1.getData() instanceof HashMap);
+        Assert.assertEquals("Incorrect parent event", map("symbol", "IBM", "price", 50.0, "volume", 10L),
+                parent.getDataView());
+        Assert.assertEquals("Incorrect other copy", map("symbol", "IBM", "price", 50.0, "volume", 10L),
+                child2.getDataView());
+        Assert.assertEquals("Incorrect modified event",
+                map("symbol", "IBM", "price", 50.0, "volume", "many", "exchange", "NYSE"), child1.getDataView());
+    }
+
+    @Test
+    public void testIsolatedSubscribers() throws InterruptedException {
+        LOGGER.info("Test subscribers modifying shared events - OUT 2");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream1");
+        wisdomApp.defineStream("OutputStream2");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .aggregate(Operator.SUM("price", "price"))
+                .insertInto("OutputStream1");
+
+        wisdomApp.defineQuery("query2")
+                .from("StockStream")
+                .select("symbol", "price")
+                .insertInto("OutputStream2");
+
+        TestUtil.TestCallback callback1 = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream1",
+                map("symbol", "IBM", "price", 50.0, "volume", 10),
+                map("symbol", "WSO2", "price", 110.0, "volume", 15));
+        TestUtil.TestCallback callback2 = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream2",
+                map("symbol", "IBM", "price", 50.0),
+                map("symbol", "WSO2", "price", 60.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+
+        Thread.sleep(100);
+
+        Assert.assertEquals("Incorrect number of events", 2, callback1.getEventCount());
+        Assert.assertEquals("Incorrect number of events", 2, callback2.getEventCount());
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.event;
+
+import com.javahelps.wisdom.core.TestUtil;
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.operator.Operator;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.util.EventGenerator;
+import com.javahelps.wisdom.core.window.Window;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+import static com.javahelps.wisdom.core.util.Commons.map;
+
+public class SchemaTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaTest.class);
+
+    private static Schema stockSchema() {
+        return Schema.of("symbol", "string", "price", "double", "volume", "long");
+    }
+
+    @Test
+    public void testFilterTypedStream() throws InterruptedException {
+        LOGGER.info("Test filter and select on a typed stream - OUT 2");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", stockSchema());
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .filter(Operator.GREATER_THAN(new RuntimeAttribute("price").bind(stockSchema()), 55.0))
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "WSO2", "price", 60.0),
+                map("symbol", "ORACLE", "price", 70.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 20L));
+
+        Thread.sleep(100);
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
+
+    @Test
+    public void testAggregateTypedStream() throws InterruptedException {
+        LOGGER.info("Test sum of a typed stream - OUT 1");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", stockSchema());
+        wisdomApp.defineStream("OutputStream", Schema.of("symbol", "string", "total", "double"));
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.lengthBatch(3))
+                .aggregate(Operator.SUM("price", "total"))
+                .select("symbol", "total")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "ORACLE", "total", 180.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 20L));
+
+        Thread.sleep(100);
+
+        Assert.assertEquals("Incorrect number of events", 1, callback.getEventCount());
+    }
+
+    @Test
+    public void testUndeclaredAttributes() throws InterruptedException {
+        LOGGER.info("Test attributes outside of the schema - OUT 1");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", stockSchema());
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "price", 50.0, "volume", 10L, "exchange", "NYSE"));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10,
+                "exchange", "NYSE"));
+
+        Thread.sleep(100);
+
+        Assert.assertEquals("Incorrect number of events", 1, callback.getEventCount());
+    }
+
+    @Test
+    public void testWidenIntegralValues() throws InterruptedException {
+        LOGGER.info("Test int values of long attributes - OUT 1");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", stockSchema());
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.externalTimeBatch("volume", Duration.ofMillis(10)))
+                .aggregate(Operator.SUM("price", "total"))
+                .select("symbol", "volume", "total")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "WSO2", "volume", 15L, "total", 110.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60, "volume", 15));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70, "volume", 20));
+
+        Thread.sleep(100);
+
+        Assert.assertEquals("Incorrect number of events", 1, callback.getEventCount());
+        Event event = new Event(null, stockSchema(), 0L).set("volume", 10);
+        Assert.assertEquals("Integer is not widened", 10L, event.get("volume"));
+    }
+
+    @Test(expected = WisdomAppValidationException.class)
+    public void testDuplicateAttribute() {
+        LOGGER.info("Test duplicate attribute in schema");
+
+        Schema.of("symbol", "string", "symbol", "double");
+    }
+
+    @Test
+    public void testLosslessWidening() {
+        LOGGER.info("Test values of double attributes");
+
+        Schema schema = stockSchema();
+        RuntimeAttribute price = new RuntimeAttribute("price").bind(schema);
+        long large = (1L << 53) + 1L;
+
+        Event event = new Event(null, schema, 0L).set("price", 1.5f);
+        Assert.assertEquals("Float is not widened", 1.5, event.get("price"));
+
+        event.set("price", large);
+        Assert.assertEquals("Long is not kept as it is", large, event.get("price"));
+        Assert.assertEquals("Long lost precision", large, price.getAsLong(event));
+        Assert.assertEquals("Long lost precision", large, price.apply(event));
+    }
+
+    @Test(expected = WisdomAppValidationException.class)
+    public void testModifyBoundSchema() {
+        LOGGER.info("Test adding an attribute to the schema of a stream");
+
+        Schema schema = stockSchema();
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", schema);
+
+        schema.attribute("exchange", Schema.Type.STRING);
+    }
+
+    @Test
+    public void testNamedEvents() {
+        LOGGER.info("Test runtime attribute of named events");
+
+        RuntimeAttribute price = new RuntimeAttribute("price");
+        Event event1 = new Event(0L).set("e1.price", 10.0);
+        event1.setName("e1");
+        Event event2 = new Event(0L).set("e2.price", 20.0);
+        event2.setName("e2");
+
+        Assert.assertEquals("Incorrect attribute of named event", 10.0, price.apply(event1));
+        Assert.assertEquals("Incorrect attribute of named event", 20.0, price.getAsDouble(event2), 0.0);
+        Assert.assertEquals("Incorrect attribute of named event", 10.0, price.apply(event1));
+        Assert.assertEquals("Incorrect qualified attribute", 20.0, new RuntimeAttribute("e2.price").apply(event2));
+    }
+}
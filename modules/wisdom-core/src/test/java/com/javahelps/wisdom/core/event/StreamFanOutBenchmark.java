@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.event;
+
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.util.EventGenerator;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measure the bytes allocated per input event while the number of queries subscribed to a stream grows.
+ * Run the main method with a warmed up JVM; the allocation counter requires a HotSpot based JVM.
+ */
+public class StreamFanOutBenchmark {
+
+    private static final int WARM_UP_EVENTS = 100_000;
+    private static final int MEASURED_EVENTS = 1_000_000;
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        System.out.println("subscribers, bytes/event");
+        for (int subscribers : new int[]{1, 2, 5, 10, 20, 30}) {
+            WisdomApp app = createApp(subscribers);
+            app.start();
+            InputHandler inputHandler = app.getInputHandler("PacketStream");
+            Event event = EventGenerator.generate("src", "10.0.0.1", "dst", "10.0.0.2", "port", 443L,
+                    "length", 1500L, "protocol", "TCP");
+
+            for (int i = 0; i < WARM_UP_EVENTS; i++) {
+                inputHandler.send(event);
+            }
+            long start = threadMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURED_EVENTS; i++) {
+                inputHandler.send(event);
+            }
+            long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - start;
+            app.shutdown();
+
+            System.out.printf("%d, %d%n", subscribers, allocated / MEASURED_EVENTS);
+        }
+    }
+
+    private static WisdomApp createApp(int subscribers) {
+        WisdomApp app = new WisdomApp();
+        app.defineStream("PacketStream");
+        for (int i = 0; i < subscribers; i++) {
+            String outputStream = "OutputStream" + i;
+            app.defineStream(outputStream);
+            app.defineQuery("query" + i)
+                    .from("PacketStream")
+                    .filter(e -> e.getAsLong("port") == 443L)
+                    .insertInto(outputStream);
+        }
+        return app;
+    }
+}
@@ -22,6 +22,8 @@ package com.javahelps.wisdom.core.processor.aggregator;
 
 import com.javahelps.wisdom.core.TestUtil;
 import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
 import com.javahelps.wisdom.core.map.Mapper;
 import com.javahelps.wisdom.core.operand.WisdomArray;
 import com.javahelps.wisdom.core.operator.Operator;
@@ -33,7 +35,16 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static com.javahelps.wisdom.core.util.Commons.map;
+import static com.javahelps.wisdom.core.util.Commons.toProperties;
 
 /**
  * Test the {@link com.javahelps.wisdom.core.processor.AggregateProcessor} of Wisdom.
@@ -321,4 +332,211 @@ public class AggregatorTestCase {
 
         Assert.assertEquals("Incorrect number of events", 3, callback.getEventCount());
     }
+
+    @Test
+    public void testAggregateAfterAsyncStream() throws InterruptedException {
+        LOGGER.info("Test aggregate after async stream - OUT 40000");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", toProperties("async", true, "buffer", 1024));
+        wisdomApp.defineStream("OutputStream");
+
+        // Events are aggregated by the single consumer thread of the async stream
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .aggregate(Operator.SUM("price", "total"))
+                .select("total")
+                .insertInto("OutputStream");
+
+        AtomicLong count = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        wisdomApp.addCallback("OutputStream", events -> {
+            for (Event event : events) {
+                long expected = count.incrementAndGet();
+                if (event.getAsDouble("total") != expected) {
+                    errors.incrementAndGet();
+                }
+            }
+        });
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        Thread[] producers = new Thread[4];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 1.0));
+                }
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 40_000L, count.get());
+        Assert.assertEquals("Incorrect aggregations", 0L, errors.get());
+    }
+
+    @Test
+    public void testPercentileAfterWindow() throws InterruptedException {
+        LOGGER.info("Test percentile after window - OUT 1");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.lengthBatch(5))
+                .aggregate(Operator.PERCENTILE("price", 0.5, "median"),
+                        Operator.QUANTILES("price", new double[]{0.0, 1.0}, "range"))
+                .select("median", "range")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("median", 60.0, "range", WisdomArray.of(40.0, 80.0)));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 80.0));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 40.0));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 70.0));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0));
+
+        Thread.sleep(100);
+
+        Assert.assertEquals("Incorrect number of events", 1, callback.getEventCount());
+    }
+
+    @Test
+    public void testQuantilesOfLargeBatch() throws InterruptedException {
+        LOGGER.info("Test quantiles of large batch - OUT 1");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("PacketStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("PacketStream")
+                .window(Window.lengthBatch(100_000))
+                .aggregate(Operator.QUANTILES("size", new double[]{0.5, 0.95, 0.99}, "sizes"))
+                .select("sizes")
+                .insertInto("OutputStream");
+
+        AtomicReference<WisdomArray> sizes = new AtomicReference<>();
+        wisdomApp.addCallback("OutputStream", events -> sizes.set((WisdomArray) events[0].get("sizes")));
+
+        wisdomApp.start();
+
+        List<Integer> values = new ArrayList<>();
+        for (int i = 1; i <= 100_000; i++) {
+            values.add(i);
+        }
+        Collections.shuffle(values, new Random(42));
+        InputHandler packetStreamInputHandler = wisdomApp.getInputHandler("PacketStream");
+        for (int value : values) {
+            packetStreamInputHandler.send(EventGenerator.generate("size", (double) value));
+        }
+
+        Thread.sleep(100);
+
+        // The sketch keeps a bounded number of centroids, so the quantiles are estimates
+        List<Object> estimates = sizes.get().toList();
+        Assert.assertEquals("Incorrect median", 50_000.0, (Double) estimates.get(0), 500.0);
+        Assert.assertEquals("Incorrect 95th percentile", 95_000.0, (Double) estimates.get(1), 200.0);
+        Assert.assertEquals("Incorrect 99th percentile", 99_000.0, (Double) estimates.get(2), 100.0);
+    }
+
+    @Test
+    public void testPercentileAfterPartition() throws InterruptedException {
+        LOGGER.info("Test percentile after partition - OUT 2");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .partitionByAttr("symbol")
+                .window(Window.lengthBatch(3))
+                .aggregate(Operator.PERCENTILE("price", 0.5, "price"))
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "price", 60.0),
+                map("symbol", "ORACLE", "price", 20.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 70.0));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 10.0));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 30.0));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 60.0));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 20.0));
+
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
+
+    @Test
+    public void testPercentileAfterHopWindow() throws InterruptedException {
+        LOGGER.info("Test percentile after hop window - OUT 2");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("PacketStream");
+        wisdomApp.defineStream("OutputStream");
+
+        // Sketches of the panes are merged into the sketch of every window
+        wisdomApp.defineQuery("query1")
+                .from("PacketStream")
+                .window(Window.externalTimeHop("timestamp", Duration.ofSeconds(2), Duration.ofSeconds(1)))
+                .aggregate(Operator.PERCENTILE("size", 1.0, "size"))
+                .select("size")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("size", 300.0),
+                map("size", 500.0));
+
+        wisdomApp.start();
+
+        InputHandler packetStreamInputHandler = wisdomApp.getInputHandler("PacketStream");
+        packetStreamInputHandler.send(EventGenerator.generate("size", 300.0, "timestamp", 1000L));
+        packetStreamInputHandler.send(EventGenerator.generate("size", 100.0, "timestamp", 1500L));
+        packetStreamInputHandler.send(EventGenerator.generate("size", 500.0, "timestamp", 2000L));
+        packetStreamInputHandler.send(EventGenerator.generate("size", 200.0, "timestamp", 3000L));
+
+        Thread.sleep(100);
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
+
+    @Test(expected = WisdomAppValidationException.class)
+    public void testPercentileAfterSlidingWindow() {
+        LOGGER.info("Test percentile after sliding window");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        // Values cannot be removed from a sketch
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.length(3))
+                .aggregate(Operator.PERCENTILE("price", 0.5, "price"))
+                .select("price")
+                .insertInto("OutputStream");
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.processor.partition;
+
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.util.EventGenerator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.javahelps.wisdom.core.util.Commons.toProperties;
+import static com.javahelps.wisdom.core.util.WisdomConstants.ASYNC;
+
+/**
+ * Measure the throughput of a partitioned query with CPU bound processing while the number of shards grows.
+ * Run the main method on a machine with at least as many cores as the largest number of shards.
+ */
+public class PartitionShardingBenchmark {
+
+    private static final int KEYS = 10_000;
+    private static final int WARM_UP_EVENTS = 200_000;
+    private static final int MEASURED_EVENTS = 2_000_000;
+    private static final int WORK_PER_EVENT = 200;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("shards, events/s");
+        for (int shards : new int[]{1, 2, 4, 8, 16}) {
+            AtomicLong received = new AtomicLong();
+            WisdomApp app = createApp(shards);
+            app.addCallback("OutputStream", events -> received.addAndGet(events.length));
+            app.start();
+            InputHandler inputHandler = app.getInputHandler("FlowStream");
+
+            send(inputHandler, WARM_UP_EVENTS);
+            await(received, WARM_UP_EVENTS);
+            received.set(0);
+
+            long start = System.nanoTime();
+            send(inputHandler, MEASURED_EVENTS);
+            await(received, MEASURED_EVENTS);
+            long elapsed = System.nanoTime() - start;
+            app.shutdown();
+
+            System.out.printf("%d, %.0f%n", shards, MEASURED_EVENTS * 1_000_000_000.0 / elapsed);
+        }
+    }
+
+    private static WisdomApp createApp(int shards) {
+        WisdomApp app = new WisdomApp(toProperties(ASYNC, true));
+        app.defineStream("FlowStream");
+        app.defineStream("OutputStream");
+        app.defineQuery("query1")
+                .from("FlowStream")
+                .parallel(shards)
+                .partitionByAttr("flow")
+                .filter(PartitionShardingBenchmark::score)
+                .insertInto("OutputStream");
+        return app;
+    }
+
+    private static boolean score(Event event) {
+        double score = event.getAsDouble("size");
+        for (int i = 0; i < WORK_PER_EVENT; i++) {
+            score = Math.sqrt(score + i);
+        }
+        return score >= 0;
+    }
+
+    private static void send(InputHandler inputHandler, int count) {
+        for (int i = 0; i < count; i++) {
+            inputHandler.send(EventGenerator.generate("flow", (long) (i % KEYS), "size", 1500.0));
+        }
+    }
+
+    private static void await(AtomicLong received, long count) throws InterruptedException {
+        while (received.get() < count) {
+            Thread.sleep(1);
+        }
+    }
+}
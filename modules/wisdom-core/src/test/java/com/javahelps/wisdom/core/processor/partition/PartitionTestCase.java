@@ -23,8 +23,10 @@ package com.javahelps.wisdom.core.processor.partition;
 import com.javahelps.wisdom.core.TestUtil;
 import com.javahelps.wisdom.core.WisdomApp;
 import com.javahelps.wisdom.core.event.Attribute;
+import com.javahelps.wisdom.core.event.Event;
 import com.javahelps.wisdom.core.operator.Operator;
 import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.util.Commons;
 import com.javahelps.wisdom.core.util.EventGenerator;
 import com.javahelps.wisdom.core.window.Window;
 import org.junit.Assert;
@@ -32,7 +34,11 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import static com.javahelps.wisdom.core.util.Commons.map;
+import static com.javahelps.wisdom.core.util.Commons.toProperties;
+import static com.javahelps.wisdom.core.util.WisdomConstants.*;
 
 /**
  * Test the {@link com.javahelps.wisdom.core.processor.PartitionProcessor} of Wisdom.
@@ -247,4 +253,300 @@ public class PartitionTestCase {
         Assert.assertEquals("Incorrect number of events", 1, callback.getEventCount());
     }
 
+    @Test
+    public void testPartition7() throws InterruptedException {
+        LOGGER.info("Test partition 7 - OUT 2");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .partitionByAttr("symbol", "group")
+                .window(Window.lengthBatch(2))
+                .aggregate(Operator.SUM("price", "price"))
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IB", "price", 110.0),
+                map("symbol", "I", "price", 150.0));
+
+        wisdomApp.start();
+
+        // Concatenation of both keys is IBM
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IB", "price", 50.0, "group", "M"));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "I", "price", 70.0, "group", "BM"));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IB", "price", 60.0, "group", "M"));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "I", "price", 80.0, "group", "BM"));
+
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
+
+    @Test
+    public void testPartition8() throws InterruptedException {
+        LOGGER.info("Test partition 8 - OUT 2");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .partitionByVal("symbol")
+                .window(Window.lengthBatch(2))
+                .aggregate(Operator.SUM("price", "price"))
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "Aa", "price", 110.0),
+                map("symbol", "BB", "price", 150.0));
+
+        wisdomApp.start();
+
+        // Aa and BB have the same String hash code
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "Aa", "price", 50.0));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "BB", "price", 70.0));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "Aa", "price", 60.0));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "BB", "price", 80.0));
+
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
+
+    @Test
+    public void testPartition9() throws InterruptedException {
+        LOGGER.info("Test partition 9 - OUT 2");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("PacketStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("PacketStream")
+                .partitionByVal("srcIp", "dstIp")
+                .window(Window.lengthBatch(2))
+                .aggregate(Operator.SUM("size", "size"))
+                .select("srcIp", "size")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("srcIp", "127.0.0.2", "size", 30.0),
+                map("srcIp", "127.0.0.3", "size", 70.0));
+
+        wisdomApp.start();
+
+        InputHandler packetStreamInputHandler = wisdomApp.getInputHandler("PacketStream");
+        packetStreamInputHandler.send(EventGenerator.generate("srcIp", "127.0.0.1", "dstIp", "127.0.0.2", "size", 10.0));
+        packetStreamInputHandler.send(EventGenerator.generate("srcIp", "127.0.0.1", "dstIp", "127.0.0.3", "size", 30.0));
+        packetStreamInputHandler.send(EventGenerator.generate("srcIp", "127.0.0.2", "dstIp", "127.0.0.1", "size", 20.0));
+        packetStreamInputHandler.send(EventGenerator.generate("srcIp", "127.0.0.3", "dstIp", "127.0.0.1", "size", 40.0));
+
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
+
+    @Test
+    public void testPartitionTtl() throws InterruptedException {
+        LOGGER.info("Test partition ttl - OUT 2");
+
+        WisdomApp wisdomApp = new WisdomApp(Commons.toProperties(NAME, "WisdomApp", VERSION, "1.0.0", PLAYBACK,
+                "timestamp"));
+        wisdomApp.defineStream("StockStream", toProperties(PARTITION_TTL, 1000L));
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .partitionByAttr("symbol")
+                .window(Window.lengthBatch(2))
+                .aggregate(Operator.SUM("price", "price"))
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "ORACLE", "price", 150.0),
+                map("symbol", "IBM", "price", 100.0));
+
+        wisdomApp.start();
+
+        // The idle IBM partition is evicted before receiving the second event
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "timestamp", 1000L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "timestamp", 1100L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 80.0, "timestamp", 1200L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 60.0, "timestamp", 5000L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 40.0, "timestamp", 5100L));
+
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
+
+    @Test
+    public void testPartitionMax() throws InterruptedException {
+        LOGGER.info("Test partition max - OUT 2");
+
+        WisdomApp wisdomApp = new WisdomApp(Commons.toProperties(NAME, "WisdomApp", VERSION, "1.0.0", PLAYBACK,
+                "timestamp"));
+        wisdomApp.defineStream("StockStream", toProperties(PARTITION_MAX, 2));
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .partitionByAttr("symbol")
+                .window(Window.lengthBatch(2))
+                .aggregate(Operator.SUM("price", "price"))
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "WSO2", "price", 80.0),
+                map("symbol", "IBM", "price", 70.0));
+
+        wisdomApp.start();
+
+        // WSO2 evicts IBM and the next IBM evicts ORACLE, the least recently used partitions
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "timestamp", 1000L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "timestamp", 1100L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "timestamp", 1200L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 20.0, "timestamp", 1300L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 40.0, "timestamp", 1400L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 30.0, "timestamp", 1500L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 10.0, "timestamp", 1600L));
+
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
+
+    @Test
+    public void testKeyedAggregate() throws InterruptedException {
+        LOGGER.info("Test keyed aggregate - OUT 3");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .partitionByAttr("symbol")
+                .aggregate(Operator.SUM("price", "price"))
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "price", 50.0),
+                map("symbol", "ORACLE", "price", 70.0),
+                map("symbol", "IBM", "price", 110.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 20));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 60.0, "volume", 15));
+
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 3, callback.getEventCount());
+    }
+
+    @Test
+    public void testKeyedAggregates() throws InterruptedException {
+        LOGGER.info("Test keyed aggregate with many operators - OUT 3");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .partitionByAttr("symbol")
+                .aggregate(Operator.SUM("price", "price"), Operator.COUNT("count"))
+                .select("symbol", "price", "count")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "price", 50.0, "count", 1L),
+                map("symbol", "ORACLE", "price", 70.0, "count", 1L),
+                map("symbol", "IBM", "price", 110.0, "count", 2L));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 20));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 60.0, "volume", 15));
+
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 3, callback.getEventCount());
+    }
+
+    @Test
+    public void testKeyedWindow() throws InterruptedException {
+        LOGGER.info("Test keyed window with many partitions - OUT 100000");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("FlowStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("FlowStream")
+                .partitionByVal("srcPort", "dstPort")
+                .window(Window.lengthBatch(2))
+                .aggregate(Operator.SUM("size", "size"), Operator.COUNT("count"))
+                .select("srcPort", "size", "count")
+                .insertInto("OutputStream");
+
+        AtomicLong count = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        wisdomApp.addCallback("OutputStream", events -> {
+            for (Event event : events) {
+                count.incrementAndGet();
+                if (event.getAsDouble("size") != 3.0 || ((Number) event.get("count")).longValue() != 2L) {
+                    errors.incrementAndGet();
+                }
+            }
+        });
+
+        wisdomApp.start();
+
+        // Send both directions of 100000 flows
+        InputHandler flowStreamInputHandler = wisdomApp.getInputHandler("FlowStream");
+        for (long port = 0; port < 100_000; port++) {
+            flowStreamInputHandler.send(EventGenerator.generate("srcPort", port, "dstPort", 443L, "size", 1.0));
+        }
+        for (long port = 0; port < 100_000; port++) {
+            flowStreamInputHandler.send(EventGenerator.generate("srcPort", 443L, "dstPort", port, "size", 2.0));
+        }
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 100_000L, count.get());
+        Assert.assertEquals("Incorrect aggregations", 0L, errors.get());
+    }
 }
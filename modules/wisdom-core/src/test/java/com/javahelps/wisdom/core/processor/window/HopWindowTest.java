@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.processor.window;
+
+import com.javahelps.wisdom.core.TestUtil;
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.operator.Operator;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.util.Commons;
+import com.javahelps.wisdom.core.util.EventGenerator;
+import com.javahelps.wisdom.core.window.Window;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.javahelps.wisdom.core.util.Commons.map;
+import static com.javahelps.wisdom.core.util.WisdomConstants.*;
+
+
+/**
+ * Test the hopping TimeHopWindow and ExternalTimeHopWindow of Wisdom.
+ */
+public class HopWindowTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HopWindowTest.class);
+
+    @Test
+    public void testWindow1() throws InterruptedException {
+        LOGGER.info("Test window 1 - OUT 5");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.externalTimeHop("timestamp", Duration.ofSeconds(3), Duration.ofSeconds(1)))
+                .aggregate(Operator.SUM("price", "total"))
+                .select("symbol", "total")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "WSO2", "total", 30.0),
+                map("symbol", "ORACLE", "total", 60.0),
+                map("symbol", "ORACLE", "total", 60.0),
+                map("symbol", "GOOGLE", "total", 70.0),
+                map("symbol", "GOOGLE", "total", 40.0));
+
+        wisdomApp.start();
+
+        sendEvents(wisdomApp.getInputHandler("StockStream"));
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 5, callback.getEventCount());
+    }
+
+    @Test
+    public void testWindow2() throws InterruptedException {
+        LOGGER.info("Test window 2 - OUT 5");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        // The filter keeps the window from aggregating per pane
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.externalTimeHop("timestamp", Duration.ofSeconds(3), Duration.ofSeconds(1)))
+                .filter(event -> event.getAsDouble("price") > 0)
+                .aggregate(Operator.SUM("price", "total"))
+                .select("symbol", "total")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "WSO2", "total", 30.0),
+                map("symbol", "ORACLE", "total", 60.0),
+                map("symbol", "ORACLE", "total", 60.0),
+                map("symbol", "GOOGLE", "total", 70.0),
+                map("symbol", "GOOGLE", "total", 40.0));
+
+        wisdomApp.start();
+
+        sendEvents(wisdomApp.getInputHandler("StockStream"));
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 5, callback.getEventCount());
+    }
+
+    @Test
+    public void testWindow3() throws InterruptedException {
+        LOGGER.info("Test window 3 - OUT 3");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("SumStream");
+        wisdomApp.defineStream("CountStream");
+
+        // Both windows share the panes of StockStream
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.externalTimeHop("timestamp", Duration.ofSeconds(2), Duration.ofSeconds(2)))
+                .aggregate(Operator.SUM("price", "total"))
+                .select("symbol", "total")
+                .insertInto("SumStream");
+
+        wisdomApp.defineQuery("query2")
+                .from("StockStream")
+                .window(Window.externalTimeHop("timestamp", Duration.ofSeconds(3), Duration.ofSeconds(1)))
+                .filter(event -> event.getAsDouble("price") > 0)
+                .aggregate(Operator.COUNT("count"))
+                .select("symbol", "count")
+                .insertInto("CountStream");
+
+        TestUtil.TestCallback sumCallback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "SumStream",
+                map("symbol", "WSO2", "total", 30.0),
+                map("symbol", "ORACLE", "total", 30.0),
+                map("symbol", "GOOGLE", "total", 40.0));
+        TestUtil.TestCallback countCallback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "CountStream",
+                map("symbol", "WSO2", "count", 2L),
+                map("symbol", "ORACLE", "count", 3L),
+                map("symbol", "ORACLE", "count", 3L),
+                map("symbol", "GOOGLE", "count", 2L),
+                map("symbol", "GOOGLE", "count", 1L));
+
+        wisdomApp.start();
+
+        sendEvents(wisdomApp.getInputHandler("StockStream"));
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 3, sumCallback.getEventCount());
+        Assert.assertEquals("Incorrect number of events", 5, countCallback.getEventCount());
+    }
+
+    @Test
+    public void testWindow4() throws InterruptedException {
+        LOGGER.info("Test window 4 - OUT 5");
+
+        WisdomApp wisdomApp = new WisdomApp(Commons.toProperties(NAME, "WisdomApp", VERSION, "1.0.0", PLAYBACK,
+                "timestamp"));
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.timeHop(Duration.ofSeconds(3), Duration.ofSeconds(1)))
+                .aggregate(Operator.SUM("price", "total"))
+                .select("symbol", "total")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "WSO2", "total", 30.0),
+                map("symbol", "ORACLE", "total", 60.0),
+                map("symbol", "ORACLE", "total", 60.0),
+                map("symbol", "GOOGLE", "total", 70.0),
+                map("symbol", "GOOGLE", "total", 40.0));
+
+        wisdomApp.start();
+
+        sendEvents(wisdomApp.getInputHandler("StockStream"));
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 5, callback.getEventCount());
+    }
+
+    @Test
+    public void testInterleavedProducers() throws InterruptedException {
+        LOGGER.info("Test interleaved producers - OUT 2");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+        wisdomApp.defineStream("FilterStream");
+        wisdomApp.defineStream("CountStream");
+
+        // Both windows keep the events of StockStream in shared panes
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.externalTimeHop("timestamp", Duration.ofSeconds(1), Duration.ofSeconds(1)))
+                .select("symbol")
+                .insertInto("OutputStream");
+
+        // Holds IBM between the two windows until WSO2 has reached both of them
+        CountDownLatch latch = new CountDownLatch(1);
+        wisdomApp.defineQuery("query2")
+                .from("StockStream")
+                .filter(event -> {
+                    if ("IBM".equals(event.get("symbol"))) {
+                        try {
+                            latch.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return false;
+                })
+                .insertInto("FilterStream");
+
+        wisdomApp.defineQuery("query3")
+                .from("StockStream")
+                .window(Window.externalTimeHop("timestamp", Duration.ofSeconds(2), Duration.ofSeconds(1)))
+                .select("symbol")
+                .insertInto("CountStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM"),
+                map("symbol", "WSO2"));
+
+        wisdomApp.start();
+
+        InputHandler inputHandler = wisdomApp.getInputHandler("StockStream");
+        Thread producer = new Thread(() -> inputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 10.0,
+                "timestamp", 1000L)));
+        producer.start();
+        Thread.sleep(100);
+        inputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 20.0, "timestamp", 1100L));
+        latch.countDown();
+        producer.join(5000);
+        inputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 30.0, "timestamp", 2100L));
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
+
+    private static void sendEvents(InputHandler inputHandler) {
+        inputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 10.0, "timestamp", 1000L));
+        inputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 20.0, "timestamp", 1500L));
+        inputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 30.0, "timestamp", 2100L));
+        inputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 40.0, "timestamp", 4200L));
+        inputHandler.send(EventGenerator.generate("symbol", "MICROSOFT", "price", 50.0, "timestamp", 6000L));
+    }
+}
@@ -180,4 +180,75 @@ public class LengthBatchWindowTest {
 
         Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
     }
+
+    @Test
+    public void testWindow5() throws InterruptedException {
+        LOGGER.info("Test window 5 - OUT 2");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        // The window aggregates the events on arrival
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.lengthBatch(2))
+                .aggregate(Operator.SUM("price", "total"), Operator.MAX("volume", "max_volume"))
+                .select("symbol", "total", "max_volume")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "WSO2", "total", 110.0, "max_volume", 15),
+                map("symbol", "GOOGLE", "total", 150.0, "max_volume", 25));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 20));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 80.0, "volume", 25));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "MICROSOFT", "price", 90.0, "volume", 30));
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
+
+    @Test
+    public void testWindow6() throws InterruptedException {
+        LOGGER.info("Test window 6 - OUT 4");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.lengthBatch(2))
+                .filter(Operator.GREATER_THAN(Attribute.of("price"), 55.0))
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "WSO2", "price", 60.0),
+                map("symbol", "ORACLE", "price", 70.0),
+                map("symbol", "MICROSOFT", "price", 80.0),
+                map("symbol", "AMAZON", "price", 90.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 20));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 40.0, "volume", 25));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "MICROSOFT", "price", 80.0, "volume", 30));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "AMAZON", "price", 90.0, "volume", 35));
+
+        Thread.sleep(100);
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 4, callback.getEventCount());
+    }
 }
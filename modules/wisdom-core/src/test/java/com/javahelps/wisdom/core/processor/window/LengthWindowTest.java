@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.processor.window;
+
+import com.javahelps.wisdom.core.TestUtil;
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.operator.Operator;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.util.EventGenerator;
+import com.javahelps.wisdom.core.window.Window;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.javahelps.wisdom.core.util.Commons.map;
+
+
+/**
+ * Test the sliding LengthWindow of Wisdom.
+ */
+public class LengthWindowTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LengthWindowTest.class);
+
+    @Test
+    public void testWindow1() throws InterruptedException {
+        LOGGER.info("Test window 1 - OUT 3");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.length(2))
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "price", 50.0),
+                map("symbol", "WSO2", "price", 60.0),
+                map("symbol", "ORACLE", "price", 70.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 20));
+
+        Assert.assertEquals("Incorrect number of events", 3, callback.getEventCount());
+    }
+
+    @Test
+    public void testWindow2() throws InterruptedException {
+        LOGGER.info("Test window 2 - OUT 4");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.length(2))
+                .aggregate(Operator.SUM("price", "total"))
+                .select("symbol", "total")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "total", 50.0),
+                map("symbol", "WSO2", "total", 110.0),
+                map("symbol", "ORACLE", "total", 130.0),
+                map("symbol", "GOOGLE", "total", 150.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 20));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 80.0, "volume", 25));
+
+        Assert.assertEquals("Incorrect number of events", 4, callback.getEventCount());
+    }
+
+    @Test
+    public void testWindow3() throws InterruptedException {
+        LOGGER.info("Test window 3 - OUT 5");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.length(3))
+                .aggregate(Operator.MIN("price", "min_price"))
+                .select("symbol", "min_price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "min_price", 50.0),
+                map("symbol", "WSO2", "min_price", 30.0),
+                map("symbol", "ORACLE", "min_price", 30.0),
+                map("symbol", "GOOGLE", "min_price", 30.0),
+                map("symbol", "MICROSOFT", "min_price", 40.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 30.0, "volume", 15));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 40.0, "volume", 20));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 60.0, "volume", 25));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "MICROSOFT", "price", 70.0, "volume", 30));
+
+        Assert.assertEquals("Incorrect number of events", 5, callback.getEventCount());
+    }
+
+    @Test
+    public void testWindow4() throws InterruptedException {
+        LOGGER.info("Test window 4 - OUT 5");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.length(3))
+                .aggregate(Operator.MAX("price", "max_price"))
+                .select("symbol", "max_price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "max_price", 50.0),
+                map("symbol", "WSO2", "max_price", 70.0),
+                map("symbol", "ORACLE", "max_price", 70.0),
+                map("symbol", "GOOGLE", "max_price", 70.0),
+                map("symbol", "MICROSOFT", "max_price", 60.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 70.0, "volume", 15));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 60.0, "volume", 20));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 40.0, "volume", 25));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "MICROSOFT", "price", 30.0, "volume", 30));
+
+        Assert.assertEquals("Incorrect number of events", 5, callback.getEventCount());
+    }
+
+    @Test
+    public void testWindow5() throws InterruptedException {
+        LOGGER.info("Test window 5 - OUT 4");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.length(2))
+                .aggregate(Operator.AVG("price", "avg_price"))
+                .select("symbol", "avg_price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "avg_price", 50.0),
+                map("symbol", "WSO2", "avg_price", 55.0),
+                map("symbol", "ORACLE", "avg_price", 65.0),
+                map("symbol", "GOOGLE", "avg_price", 75.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 20));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 80.0, "volume", 25));
+
+        Assert.assertEquals("Incorrect number of events", 4, callback.getEventCount());
+    }
+
+    @Test
+    public void testPartitionedWindow() throws InterruptedException {
+        LOGGER.info("Test partitioned window - OUT 5");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .partitionByAttr("symbol")
+                .window(Window.length(2))
+                .aggregate(Operator.COUNT("count"))
+                .select("symbol", "count")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "count", 1L),
+                map("symbol", "IBM", "count", 2L),
+                map("symbol", "WSO2", "count", 1L),
+                map("symbol", "IBM", "count", 2L),
+                map("symbol", "WSO2", "count", 2L));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 60.0, "volume", 15));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 70.0, "volume", 20));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 80.0, "volume", 25));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 90.0, "volume", 30));
+
+        Assert.assertEquals("Incorrect number of events", 5, callback.getEventCount());
+    }
+}
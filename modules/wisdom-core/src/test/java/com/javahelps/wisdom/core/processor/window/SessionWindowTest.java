@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.processor.window;
+
+import com.javahelps.wisdom.core.TestUtil;
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.operator.Operator;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.util.Commons;
+import com.javahelps.wisdom.core.util.EventGenerator;
+import com.javahelps.wisdom.core.window.Window;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+import static com.javahelps.wisdom.core.util.Commons.map;
+import static com.javahelps.wisdom.core.util.WisdomConstants.*;
+
+
+/**
+ * Test the SessionWindow and ExternalSessionWindow of Wisdom.
+ */
+public class SessionWindowTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionWindowTest.class);
+
+    @Test
+    public void testWindow1() throws InterruptedException {
+        LOGGER.info("Test window 1 - OUT 3");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("ClickStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("ClickStream")
+                .window(Window.externalSession("user", "timestamp", Duration.ofSeconds(1)))
+                .aggregate(Operator.SUM("price", "total"))
+                .select("user", "total")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("user", "A", "total", 40.0),
+                map("user", "B", "total", 60.0),
+                map("user", "A", "total", 50.0));
+
+        wisdomApp.start();
+
+        InputHandler inputHandler = wisdomApp.getInputHandler("ClickStream");
+        inputHandler.send(EventGenerator.generate("user", "A", "price", 10.0, "timestamp", 1000L));
+        inputHandler.send(EventGenerator.generate("user", "B", "price", 20.0, "timestamp", 1200L));
+        inputHandler.send(EventGenerator.generate("user", "A", "price", 30.0, "timestamp", 1500L));
+        inputHandler.send(EventGenerator.generate("user", "B", "price", 40.0, "timestamp", 2100L));
+        inputHandler.send(EventGenerator.generate("user", "A", "price", 50.0, "timestamp", 2600L));
+        inputHandler.send(EventGenerator.generate("user", "B", "price", 60.0, "timestamp", 3200L));
+        inputHandler.send(EventGenerator.generate("user", "A", "price", 70.0, "timestamp", 4000L));
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 3, callback.getEventCount());
+    }
+
+    @Test
+    public void testWindow2() throws InterruptedException {
+        LOGGER.info("Test window 2 - OUT 1");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("ClickStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("ClickStream")
+                .window(Window.externalSession("user", "timestamp", Duration.ofSeconds(1), Duration.ofSeconds(2)))
+                .aggregate(Operator.SUM("price", "total"))
+                .select("user", "total")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("user", "A", "total", 60.0));
+
+        wisdomApp.start();
+
+        InputHandler inputHandler = wisdomApp.getInputHandler("ClickStream");
+        inputHandler.send(EventGenerator.generate("user", "A", "price", 10.0, "timestamp", 1000L));
+        inputHandler.send(EventGenerator.generate("user", "A", "price", 20.0, "timestamp", 2500L));
+        // The late event merges both sessions
+        inputHandler.send(EventGenerator.generate("user", "A", "price", 30.0, "timestamp", 1800L));
+        inputHandler.send(EventGenerator.generate("user", "B", "price", 40.0, "timestamp", 6000L));
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 1, callback.getEventCount());
+    }
+
+    @Test
+    public void testWindow3() throws InterruptedException {
+        LOGGER.info("Test window 3 - OUT 3");
+
+        WisdomApp wisdomApp = new WisdomApp(Commons.toProperties(NAME, "WisdomApp", VERSION, "1.0.0", PLAYBACK,
+                "timestamp"));
+        wisdomApp.defineStream("ClickStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("ClickStream")
+                .window(Window.session("user", Duration.ofSeconds(1)))
+                .aggregate(Operator.SUM("price", "total"))
+                .select("user", "total")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("user", "A", "total", 30.0),
+                map("user", "B", "total", 30.0),
+                map("user", "A", "total", 40.0));
+
+        wisdomApp.start();
+
+        InputHandler inputHandler = wisdomApp.getInputHandler("ClickStream");
+        inputHandler.send(EventGenerator.generate("user", "A", "price", 10.0, "timestamp", 1000L));
+        inputHandler.send(EventGenerator.generate("user", "A", "price", 20.0, "timestamp", 1500L));
+        inputHandler.send(EventGenerator.generate("user", "B", "price", 30.0, "timestamp", 1600L));
+        inputHandler.send(EventGenerator.generate("user", "A", "price", 40.0, "timestamp", 3000L));
+        inputHandler.send(EventGenerator.generate("user", "C", "price", 50.0, "timestamp", 5000L));
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 3, callback.getEventCount());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.processor.window;
+
+import com.javahelps.wisdom.core.TestUtil;
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.event.Attribute;
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.operator.Operator;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.util.EventGenerator;
+import com.javahelps.wisdom.core.window.Window;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import static com.javahelps.wisdom.core.util.Commons.map;
+
+/**
+ * Test windows shared by queries with the same window definition.
+ */
+public class SharedWindowTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedWindowTest.class);
+
+    @Test
+    public void testSharedWindow() throws InterruptedException {
+        LOGGER.info("Test shared window - OUT 2, 1");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+        wisdomApp.defineStream("TotalStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.externalTimeBatch("timestamp", Duration.ofSeconds(1)))
+                .select("symbol")
+                .insertInto("OutputStream");
+
+        wisdomApp.defineQuery("query2")
+                .from("StockStream")
+                .window(Window.externalTimeBatch("timestamp", Duration.ofSeconds(1)))
+                .aggregate(Operator.SUM("price", "total"))
+                .select("total")
+                .insertInto("TotalStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM"),
+                map("symbol", "WSO2"));
+        TestUtil.TestCallback totalCallback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "TotalStream",
+                map("total", 110.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "timestamp", 1000L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "timestamp", 1500L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "timestamp", 2000L));
+
+        Thread.sleep(100);
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+        Assert.assertEquals("Incorrect number of events", 1, totalCallback.getEventCount());
+    }
+
+    @Test
+    public void testSharedFilter() throws InterruptedException {
+        LOGGER.info("Test shared filter - OUT 2, 1, 1");
+
+        Predicate<Event> predicate = Operator.GREATER_THAN(Attribute.of("price"), 55.0);
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+        wisdomApp.defineStream("TotalStream");
+        wisdomApp.defineStream("CountStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .filter(predicate)
+                .window(Window.lengthBatch(2))
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        wisdomApp.defineQuery("query2")
+                .from("StockStream")
+                .filter(predicate)
+                .window(Window.lengthBatch(2))
+                .aggregate(Operator.SUM("price", "total"))
+                .select("total")
+                .insertInto("TotalStream");
+
+        // A different filter must not share the window
+        wisdomApp.defineQuery("query3")
+                .from("StockStream")
+                .filter(Operator.GREATER_THAN(Attribute.of("price"), 55.0))
+                .filter(Operator.LESS_THAN(Attribute.of("price"), 65.0))
+                .window(Window.lengthBatch(2))
+                .aggregate(Operator.COUNT("count"))
+                .select("count")
+                .insertInto("CountStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "WSO2", "price", 60.0),
+                map("symbol", "ORACLE", "price", 70.0));
+        TestUtil.TestCallback totalCallback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "TotalStream",
+                map("total", 130.0));
+        TestUtil.TestCallback countCallback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "CountStream",
+                map("count", 2L));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 20));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 62.0, "volume", 25));
+
+        Thread.sleep(100);
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+        Assert.assertEquals("Incorrect number of events", 1, totalCallback.getEventCount());
+        Assert.assertEquals("Incorrect number of events", 1, countCallback.getEventCount());
+    }
+}
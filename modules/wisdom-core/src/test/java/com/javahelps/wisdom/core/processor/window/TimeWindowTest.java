@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.processor.window;
+
+import com.javahelps.wisdom.core.TestUtil;
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.operator.Operator;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.util.Commons;
+import com.javahelps.wisdom.core.util.EventGenerator;
+import com.javahelps.wisdom.core.variable.Variable;
+import com.javahelps.wisdom.core.window.Window;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.javahelps.wisdom.core.util.Commons.map;
+import static com.javahelps.wisdom.core.util.WisdomConstants.*;
+
+
+/**
+ * Test the sliding TimeWindow and ExternalTimeWindow of Wisdom.
+ */
+public class TimeWindowTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimeWindowTest.class);
+
+    @Test
+    public void testWindow1() throws InterruptedException {
+        LOGGER.info("Test window 1 - OUT 4");
+
+        WisdomApp wisdomApp = new WisdomApp(Commons.toProperties(NAME, "WisdomApp", VERSION, "1.0.0", PLAYBACK,
+                "timestamp"));
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.time(Duration.ofSeconds(1)))
+                .aggregate(Operator.SUM("price", "total"))
+                .select("symbol", "total")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "total", 50.0),
+                map("symbol", "WSO2", "total", 110.0),
+                map("symbol", "ORACLE", "total", 130.0),
+                map("symbol", "GOOGLE", "total", 150.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "timestamp", 1000L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "timestamp", 1500L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "timestamp", 2100L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 80.0, "timestamp", 3000L));
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 4, callback.getEventCount());
+    }
+
+    @Test
+    public void testWindow2() throws InterruptedException {
+        LOGGER.info("Test window 2 - OUT 4");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.externalTime("timestamp", Duration.ofSeconds(1)))
+                .aggregate(Operator.COUNT("count"))
+                .select("symbol", "count")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "count", 1L),
+                map("symbol", "WSO2", "count", 2L),
+                map("symbol", "ORACLE", "count", 2L),
+                map("symbol", "GOOGLE", "count", 1L));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "timestamp", 1000L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "timestamp", 1500L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "timestamp", 2100L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 80.0, "timestamp", 3500L));
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 4, callback.getEventCount());
+    }
+
+    @Test
+    public void testWindowBeforeUpdate() throws InterruptedException {
+        LOGGER.info("Test window before update");
+
+        WisdomApp wisdomApp = new WisdomApp(Commons.toProperties(NAME, "WisdomApp", VERSION, "1.0.0", PLAYBACK,
+                "timestamp"));
+        wisdomApp.defineStream("StockStream");
+        Variable<Double> variable = wisdomApp.defineVariable("last_price", 0.0);
+
+        // Expired events must not update the variable
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.time(Duration.ofSeconds(1)))
+                .map(event -> event.rename("price", "last_price"))
+                .update("last_price");
+
+        List<Object> values = Collections.synchronizedList(new ArrayList<>());
+        variable.addOnUpdateListener(values::add);
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "timestamp", 1000L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "timestamp", 1500L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "timestamp", 2100L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 80.0, "timestamp", 3000L));
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect updates", List.of(50.0, 60.0, 70.0, 80.0), values);
+        Assert.assertEquals("Incorrect value", 80.0, variable.get(), 0.0);
+    }
+}
@@ -22,6 +22,8 @@ package com.javahelps.wisdom.core.statistics;
 
 import com.javahelps.wisdom.core.TestUtil;
 import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
 import com.javahelps.wisdom.core.stream.InputHandler;
 import com.javahelps.wisdom.core.util.EventGenerator;
 import org.junit.Assert;
@@ -29,6 +31,9 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import static com.javahelps.wisdom.core.util.Commons.map;
@@ -125,4 +130,138 @@ public class TestStreamTracker {
 
         Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
     }
+
+    @Test
+    public void testWaitRatio() throws InterruptedException {
+        LOGGER.info("Test wait ratio of async stream - 1");
+
+        Properties properties = toProperties(NAME, "WisdomApp",
+                VERSION, "1.0.0",
+                STATISTICS, "StatisticsStream",
+                STATISTICS_REPORT_FREQUENCY, 1000L);
+        WisdomApp wisdomApp = new WisdomApp(properties);
+        wisdomApp.defineStream("StockStream", toProperties(STATISTICS, true, ASYNC, true, WAIT, "blocking"));
+        wisdomApp.defineStream("OutputStream");
+        wisdomApp.defineStream("StatisticsStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        List<Double> waitRatios = new ArrayList<>();
+        wisdomApp.addCallback("StatisticsStream", events -> {
+            for (Event event : events) {
+                waitRatios.add((Double) event.get("wait_ratio"));
+            }
+        });
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+
+        Thread.sleep(1100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 1, waitRatios.size());
+        Assert.assertTrue("Idle consumer must be waiting most of the time", waitRatios.get(0) > 0.5);
+    }
+
+    @Test
+    public void testPartitionStatistics() throws InterruptedException {
+        LOGGER.info("Test partition statistics - 1");
+
+        Properties properties = toProperties(NAME, "WisdomApp",
+                VERSION, "1.0.0",
+                STATISTICS, "StatisticsStream",
+                STATISTICS_REPORT_FREQUENCY, 1000L);
+        WisdomApp wisdomApp = new WisdomApp(properties);
+        wisdomApp.defineStream("StockStream", toProperties(STATISTICS, true, PARTITION_MAX, 2));
+        wisdomApp.defineStream("OutputStream");
+        wisdomApp.defineStream("StatisticsStream");
+        wisdomApp.defineStream("FilteredStatisticsStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .partitionByAttr("symbol")
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        wisdomApp.defineQuery("query2")
+                .from("StatisticsStream")
+                .select("name", "partitions", "evicted")
+                .insertInto("FilteredStatisticsStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "FilteredStatisticsStream",
+                map("name", "StockStream", "partitions", 2L, "evicted", 1L));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 20));
+
+        Thread.sleep(1100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 1, callback.getEventCount());
+    }
+
+    @Test
+    public void testTopKeyStatistics() throws InterruptedException {
+        LOGGER.info("Test top key statistics - 1");
+
+        Properties properties = toProperties(NAME, "WisdomApp",
+                VERSION, "1.0.0",
+                STATISTICS, "StatisticsStream",
+                STATISTICS_REPORT_FREQUENCY, 1000L);
+        WisdomApp wisdomApp = new WisdomApp(properties);
+        wisdomApp.defineStream("StockStream", toProperties(STATISTICS, true, PARTITION_TOP_K, 2));
+        wisdomApp.defineStream("OutputStream");
+        wisdomApp.defineStream("StatisticsStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .partitionByAttr("symbol")
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        List<Event> statistics = new ArrayList<>();
+        wisdomApp.addCallback("StatisticsStream", events -> {
+            synchronized (statistics) {
+                statistics.addAll(List.of(events));
+            }
+        });
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        for (int i = 0; i < 8000; i++) {
+            String symbol = i % 10 < 7 ? "IBM" : (i % 10 < 9 ? "WSO2" : "ORACLE");
+            stockStreamInputHandler.send(EventGenerator.generate("symbol", symbol, "price", 50.0));
+        }
+
+        Thread.sleep(1100);
+
+        wisdomApp.shutdown();
+
+        synchronized (statistics) {
+            Assert.assertEquals("Incorrect number of events", 1, statistics.size());
+            Map<String, Long> topKeys = (Map<String, Long>) statistics.get(0).get("top_keys");
+            Assert.assertEquals("Incorrect top keys", List.of("IBM", "WSO2"), new ArrayList<>(topKeys.keySet()));
+        }
+    }
+
+    @Test(expected = WisdomAppValidationException.class)
+    public void testInvalidWaitStrategy() {
+        LOGGER.info("Test invalid wait strategy");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", toProperties(ASYNC, true, WAIT, "napping"));
+    }
 }
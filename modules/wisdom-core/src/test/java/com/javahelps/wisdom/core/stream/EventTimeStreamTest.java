@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream;
+
+import com.javahelps.wisdom.core.TestUtil;
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.event.Attribute;
+import com.javahelps.wisdom.core.operator.Operator;
+import com.javahelps.wisdom.core.util.EventGenerator;
+import com.javahelps.wisdom.core.window.Window;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.javahelps.wisdom.core.util.Commons.map;
+import static com.javahelps.wisdom.core.util.Commons.toProperties;
+import static com.javahelps.wisdom.core.util.WisdomConstants.ALLOWED_LATENESS;
+import static com.javahelps.wisdom.core.util.WisdomConstants.EVENT_TIME;
+import static com.javahelps.wisdom.core.util.WisdomConstants.LATE_STREAM;
+import static com.javahelps.wisdom.core.util.WisdomConstants.MAX_DISORDER;
+
+/**
+ * Test the event time streams of Wisdom.
+ */
+public class EventTimeStreamTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventTimeStreamTest.class);
+
+    @Test
+    public void testReorder() throws InterruptedException {
+        LOGGER.info("Test reorder - OUT 4");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", toProperties(EVENT_TIME, "timestamp", MAX_DISORDER, 1000L));
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .select("symbol", "timestamp")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "timestamp", 1000L),
+                map("symbol", "ORACLE", "timestamp", 1200L),
+                map("symbol", "WSO2", "timestamp", 1500L),
+                map("symbol", "GOOGLE", "timestamp", 2600L));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "timestamp", 1000L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "timestamp", 1500L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "timestamp", 1200L));
+        Assert.assertEquals("Events released before the watermark", 0, callback.getEventCount());
+
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "timestamp", 2600L));
+        Thread.sleep(100);
+        Assert.assertEquals("Incorrect number of events", 3, callback.getEventCount());
+
+        // Events held in the reorder buffer are released at shutdown
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 4, callback.getEventCount());
+    }
+
+    @Test
+    public void testWatermarkClosesWindow() throws InterruptedException {
+        LOGGER.info("Test watermark closes window - OUT 1");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", toProperties(EVENT_TIME, "timestamp"));
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .filter(Operator.EQUALS(Attribute.of("symbol"), "IBM"))
+                .window(Window.externalTimeBatch("timestamp", Duration.ofSeconds(1)))
+                .select("symbol", "timestamp")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "timestamp", 1000L));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "timestamp", 1000L));
+        // Filtered out but still advances the watermark
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "timestamp", 2500L));
+        Thread.sleep(100);
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 1, callback.getEventCount());
+    }
+
+    @Test
+    public void testAllowedLateness() throws InterruptedException {
+        LOGGER.info("Test allowed lateness - OUT 3, LATE 1");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", toProperties(EVENT_TIME, "timestamp", ALLOWED_LATENESS, 500L,
+                LATE_STREAM, "LateStream"));
+        wisdomApp.defineStream("OutputStream");
+        wisdomApp.defineStream("LateStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .select("symbol", "timestamp")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "timestamp", 1000L),
+                map("symbol", "WSO2", "timestamp", 2000L),
+                map("symbol", "ORACLE", "timestamp", 1600L));
+        TestUtil.TestCallback lateCallback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "LateStream",
+                map("symbol", "GOOGLE", "price", 10.0, "timestamp", 1400L));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "timestamp", 1000L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "timestamp", 2000L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "timestamp", 1600L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 10.0, "timestamp", 1400L));
+        Thread.sleep(100);
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 3, callback.getEventCount());
+        Assert.assertEquals("Incorrect number of late events", 1, lateCallback.getEventCount());
+    }
+
+    @Test
+    public void testWatermarkInParallelPartition() throws InterruptedException {
+        LOGGER.info("Test watermark in parallel partition - OUT 1000");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", toProperties(EVENT_TIME, "timestamp"));
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .parallel(2)
+                .partitionByAttr("symbol")
+                .window(Window.externalTimeBatch("timestamp", Duration.ofSeconds(1)))
+                .select("symbol", "timestamp")
+                .insertInto("OutputStream");
+
+        AtomicLong count = new AtomicLong();
+        wisdomApp.addCallback("OutputStream", events -> count.addAndGet(events.length));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        for (long timestamp = 1000L; timestamp < 2000L; timestamp++) {
+            stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "timestamp", timestamp));
+        }
+        // The watermark must not close the window before the queued events are processed by the shards
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "timestamp", 2500L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "timestamp", 2600L));
+        Thread.sleep(500);
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 1000L, count.get());
+    }
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.stream;
+
+import com.javahelps.wisdom.core.TestUtil;
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.stream.reactive.StreamSubscriber;
+import com.javahelps.wisdom.core.util.EventGenerator;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.javahelps.wisdom.core.util.Commons.map;
+import static com.javahelps.wisdom.core.util.Commons.toProperties;
+
+public class ReactiveStreamTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveStreamTest.class);
+
+    @Test
+    public void testPublisher() throws InterruptedException {
+        LOGGER.info("Test stream publisher - OUT 3");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        List<Event> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch completed = new CountDownLatch(1);
+        TestSubscriber subscriber = new TestSubscriber(received, completed);
+        wisdomApp.getPublisher("OutputStream").subscribe(subscriber);
+
+        wisdomApp.start();
+        subscriber.subscription.request(2);
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+        Thread sender = new Thread(() -> stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE",
+                "price", 70.0, "volume", 20)));
+        sender.start();
+
+        Thread.sleep(100);
+        Assert.assertEquals("Event emitted without demand", 2, received.size());
+        Assert.assertTrue("Sender is not waiting for demand", sender.isAlive());
+
+        subscriber.subscription.request(1);
+        sender.join(1000);
+        Assert.assertEquals("Incorrect number of events", 3, received.size());
+        Assert.assertEquals("Incorrect event", map("symbol", "ORACLE", "price", 70.0),
+                received.get(2).getData());
+
+        wisdomApp.shutdown();
+        Assert.assertTrue("Subscriber is not completed", completed.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSubscriber() throws InterruptedException {
+        LOGGER.info("Test stream subscriber - OUT 100");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", toProperties("async", true, "buffer", 16, "batch", 4));
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream");
+
+        wisdomApp.start();
+
+        List<Long> requests = Collections.synchronizedList(new ArrayList<>());
+        SubmissionPublisher<Event> publisher = new SubmissionPublisher<>();
+        StreamSubscriber subscriber = wisdomApp.getSubscriber("StockStream");
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                        requests.add(n);
+                        subscription.request(n);
+                    }
+
+                    @Override
+                    public void cancel() {
+                        subscription.cancel();
+                    }
+                });
+            }
+
+            @Override
+            public void onNext(Event item) {
+                subscriber.onNext(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        });
+        for (int i = 0; i < 100; i++) {
+            publisher.submit(EventGenerator.generate("symbol", "IBM", "price", 50.0 + i));
+        }
+        publisher.close();
+
+        Thread.sleep(200);
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 100, callback.getEventCount());
+        for (long request : requests) {
+            Assert.assertTrue("Requested more than the batch size", request > 0 && request <= 4);
+        }
+    }
+
+    @Test
+    public void testSlowSubscriber() throws InterruptedException {
+        LOGGER.info("Test slow subscriber of stream publisher");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "price", 50.0));
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        // The subscriber never requests events
+        wisdomApp.getPublisher("OutputStream", Duration.ofMillis(100)).subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+
+            }
+
+            @Override
+            public void onNext(Event item) {
+                Assert.fail("Event emitted without demand");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                errors.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+
+            }
+        });
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 1, callback.getEventCount());
+        Assert.assertEquals("Slow subscriber is not cancelled", 1, errors.size());
+        Assert.assertTrue("Incorrect error", errors.get(0) instanceof TimeoutException);
+    }
+
+    @Test
+    public void testShutdownWithoutDemand() throws InterruptedException {
+        LOGGER.info("Test shutdown while stream publisher is waiting for demand");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", toProperties("async", true, "buffer", 16));
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        List<Event> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch completed = new CountDownLatch(1);
+        TestSubscriber subscriber = new TestSubscriber(received, completed);
+        wisdomApp.getPublisher("OutputStream").subscribe(subscriber);
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+
+        Thread.sleep(100);
+
+        // The consumer of the async stream is waiting for the demand of the subscriber
+        Thread shutdown = new Thread(wisdomApp::shutdown);
+        shutdown.start();
+        shutdown.join(2000);
+
+        Assert.assertFalse("Shutdown is waiting for the subscriber", shutdown.isAlive());
+        Assert.assertTrue("Subscriber is not completed", completed.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals("Event emitted without demand", 0, received.size());
+    }
+
+    @Test
+    public void testClearWhileWaitingForDemand() throws InterruptedException {
+        LOGGER.info("Test clearing the app while stream publisher is waiting for demand");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        List<Event> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch completed = new CountDownLatch(1);
+        TestSubscriber subscriber = new TestSubscriber(received, completed);
+        wisdomApp.getPublisher("OutputStream").subscribe(subscriber);
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        Thread sender = new Thread(() -> stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM",
+                "price", 50.0, "volume", 10)));
+        sender.start();
+        Thread.sleep(100);
+        Assert.assertTrue("Sender is not waiting for demand", sender.isAlive());
+
+        Thread clear = new Thread(wisdomApp::clear);
+        clear.start();
+        clear.join(2000);
+        Assert.assertFalse("Clear is waiting for the subscriber", clear.isAlive());
+
+        subscriber.subscription.request(1);
+        sender.join(1000);
+        Assert.assertEquals("Incorrect number of events", 1, received.size());
+
+        wisdomApp.shutdown();
+    }
+
+    @Test
+    public void testRequestWhileReceiving() throws InterruptedException {
+        LOGGER.info("Test requesting events while the subscriber is receiving an event - OUT 2");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        List<Event> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch requested = new CountDownLatch(1);
+        AtomicBoolean requestedInTime = new AtomicBoolean();
+        Flow.Subscription[] subscriptions = new Flow.Subscription[1];
+        wisdomApp.getPublisher("OutputStream").subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriptions[0] = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(Event item) {
+                if (received.isEmpty()) {
+                    // Another thread requests the next event while this one is being received
+                    new Thread(() -> {
+                        subscriptions[0].request(1);
+                        requested.countDown();
+                    }).start();
+                    try {
+                        requestedInTime.set(requested.await(2, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                received.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                LOGGER.error("Unexpected error", throwable);
+            }
+
+            @Override
+            public void onComplete() {
+
+            }
+        });
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        Assert.assertTrue("Request is blocked by the subscriber receiving an event", requestedInTime.get());
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, received.size());
+    }
+
+    @Test
+    public void testSubscriberInSingleThreadingMode() throws InterruptedException {
+        LOGGER.info("Test stream subscriber in single threading mode - OUT 100");
+
+        WisdomApp wisdomApp = new WisdomApp(toProperties("name", "WisdomApp", "version", "1.0.0",
+                "threading", "single", "buffer", 4));
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream");
+
+        wisdomApp.start();
+
+        List<Long> requests = Collections.synchronizedList(new ArrayList<>());
+        SubmissionPublisher<Event> publisher = new SubmissionPublisher<>();
+        StreamSubscriber subscriber = wisdomApp.getSubscriber("StockStream", 16);
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                        requests.add(n);
+                        subscription.request(n);
+                    }
+
+                    @Override
+                    public void cancel() {
+                        subscription.cancel();
+                    }
+                });
+            }
+
+            @Override
+            public void onNext(Event item) {
+                subscriber.onNext(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        });
+        for (int i = 0; i < 100; i++) {
+            publisher.submit(EventGenerator.generate("symbol", "IBM", "price", 50.0 + i));
+        }
+        publisher.close();
+
+        Thread.sleep(200);
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 100, callback.getEventCount());
+        for (long request : requests) {
+            Assert.assertTrue("Requested more than the dispatcher buffer", request > 0 && request <= 4);
+        }
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<Event> {
+
+        private final List<Event> received;
+        private final CountDownLatch completed;
+        private Flow.Subscription subscription;
+
+        private TestSubscriber(List<Event> received, CountDownLatch completed) {
+            this.received = received;
+            this.completed = completed;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Event item) {
+            LOGGER.info("{}", item);
+            this.received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            LOGGER.error("Unexpected error", throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed.countDown();
+        }
+    }
+}
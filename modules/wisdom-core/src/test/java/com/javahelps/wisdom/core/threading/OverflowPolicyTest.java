@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.threading;
+
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.event.Schema;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.stream.Stream;
+import com.javahelps.wisdom.core.stream.async.EventBuffer;
+import com.javahelps.wisdom.core.stream.async.OverflowPolicy;
+import com.javahelps.wisdom.core.stream.async.SpillingOverflowPolicy;
+import com.javahelps.wisdom.core.util.EventGenerator;
+import com.javahelps.wisdom.core.window.Window;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.javahelps.wisdom.core.util.Commons.toProperties;
+
+public class OverflowPolicyTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OverflowPolicyTest.class);
+
+    @Test
+    public void testDropNewest() throws InterruptedException {
+        LOGGER.info("Test drop newest overflow policy - OUT 4");
+
+        TestApp app = new TestApp(toProperties("async", true, "buffer", 4, "overflow", "drop_newest"));
+        app.send(1, 10);
+        app.release();
+        app.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 4, app.received.size());
+        Assert.assertEquals("Incorrect number of dropped events", 6L, app.policy().getDropCount());
+        Assert.assertEquals("Incorrect number of overflows", 6L, app.policy().getOverflowCount());
+        app.assertOrdered();
+    }
+
+    @Test
+    public void testDropOldest() throws InterruptedException {
+        LOGGER.info("Test drop oldest overflow policy - OUT 4");
+
+        TestApp app = new TestApp(toProperties("async", true, "buffer", 4, "overflow", "drop_oldest"));
+        app.send(1, 4);
+        app.releaseLater();
+        app.send(4, 5);
+        app.shutdown();
+
+        Assert.assertEquals("Incorrect number of dropped events", 1L, app.policy().getDropCount());
+        Assert.assertEquals("Incorrect number of events", 4, app.received.size());
+        Assert.assertEquals("Oldest pending event is not dropped", 2L, app.received.get(1).get("index"));
+        Assert.assertEquals("Newest event is dropped", 4L, app.received.get(3).get("index"));
+    }
+
+    @Test
+    public void testDropOldestWithoutWaiting() throws InterruptedException {
+        LOGGER.info("Test drop oldest overflow policy does not block the publisher - OUT 4");
+
+        TestApp app = new TestApp(toProperties("async", true, "buffer", 4, "overflow", "drop_oldest"));
+        long startTime = System.currentTimeMillis();
+        app.send(1, 10);
+        long duration = System.currentTimeMillis() - startTime;
+        app.release();
+        app.shutdown();
+
+        Assert.assertTrue("Publisher waited for the consumer", duration < 1000L);
+        Assert.assertEquals("Incorrect number of dropped events", 6L, app.policy().getDropCount());
+        Assert.assertEquals("Incorrect number of events", 4, app.received.size());
+        Assert.assertEquals("Oldest pending event is not dropped", 7L, app.received.get(1).get("index"));
+        app.assertOrdered();
+    }
+
+    @Test
+    public void testSample() throws InterruptedException {
+        LOGGER.info("Test sample overflow policy - OUT 5");
+
+        TestApp app = new TestApp(toProperties("async", true, "buffer", 4, "overflow", "sample",
+                "overflow_sample", 3));
+        app.send(1, 6);
+        app.releaseLater();
+        app.send(6, 7);
+        app.shutdown();
+
+        Assert.assertEquals("Incorrect number of dropped events", 2L, app.policy().getDropCount());
+        Assert.assertEquals("Incorrect number of events", 5, app.received.size());
+        Assert.assertEquals("Sampled event is not delivered", 6L, app.received.get(4).get("index"));
+        app.assertOrdered();
+    }
+
+    @Test
+    public void testBlockWithTimeout() throws InterruptedException {
+        LOGGER.info("Test block overflow policy with timeout - OUT 4");
+
+        TestApp app = new TestApp(toProperties("async", true, "buffer", 4, "overflow", "block",
+                "overflow_timeout", 50L));
+        long startTime = System.currentTimeMillis();
+        app.send(1, 5);
+        long duration = System.currentTimeMillis() - startTime;
+        app.release();
+        app.shutdown();
+
+        Assert.assertTrue("Publisher did not wait for the timeout", duration >= 50L);
+        Assert.assertEquals("Incorrect number of events", 4, app.received.size());
+        Assert.assertEquals("Incorrect number of dropped events", 1L, app.policy().getDropCount());
+    }
+
+    @Test
+    public void testSpill() throws InterruptedException {
+        LOGGER.info("Test spill overflow policy - OUT 100");
+
+        TestApp app = new TestApp(toProperties("async", true, "buffer", 4, "overflow", "spill"));
+        app.send(1, 100);
+        app.release();
+        app.shutdown();
+
+        Assert.assertEquals("Incorrect number of spilled events", 96L, app.policy().getSpillCount());
+        Assert.assertEquals("Incorrect number of dropped events", 0L, app.policy().getDropCount());
+        Assert.assertEquals("Incorrect number of events", 100, app.received.size());
+        app.assertOrdered();
+    }
+
+    @Test
+    public void testSpillRestoresSource() {
+        LOGGER.info("Test spill overflow policy restores the stream and the schema of events");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        Schema schema = Schema.of("symbol", "string", "price", "double");
+        Stream stream = wisdomApp.defineStream("StockStream", schema);
+        ListBuffer buffer = new ListBuffer(1);
+        SpillingOverflowPolicy policy = new SpillingOverflowPolicy(buffer, "StockStream",
+                Paths.get(System.getProperty("java.io.tmpdir")));
+
+        policy.publish(new Event(stream, schema, 1000L).set("symbol", "IBM").set("price", 10.0));
+        policy.publish(new Event(stream, schema, 1100L).set("symbol", "WSO2").set("price", 20.0));
+        Assert.assertEquals("Incorrect number of spilled events", 1L, policy.getSpillCount());
+
+        buffer.events.clear();
+        policy.consumed();
+        policy.close();
+
+        Event event = buffer.events.get(0);
+        Assert.assertSame("Stream is not restored", stream, event.getStream());
+        Assert.assertSame("Schema is not restored", schema, event.getSchema());
+        Assert.assertEquals("Incorrect timestamp", 1100L, event.getTimestamp());
+        Assert.assertEquals("Incorrect attribute", 20.0, event.getAsDouble("price"), 0.0);
+    }
+
+    @Test
+    public void testRemainingCapacity() throws InterruptedException {
+        LOGGER.info("Test remaining capacity of async stream");
+
+        TestApp app = new TestApp(toProperties("async", true, "buffer", 4));
+        Assert.assertEquals("Incorrect remaining capacity", 3L, app.inputHandler.remainingCapacity());
+        app.send(1, 3);
+        Assert.assertEquals("Incorrect remaining capacity", 1L, app.inputHandler.remainingCapacity());
+        app.release();
+        app.shutdown();
+
+        Assert.assertEquals("Incorrect remaining capacity of sync stream", Long.MAX_VALUE,
+                app.wisdomApp.getInputHandler("OutputStream").remainingCapacity());
+    }
+
+    @Test
+    public void testClearWhileBufferFull() throws Exception {
+        LOGGER.info("Test clear while the buffer of an async stream is full");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", toProperties("async", true, "buffer", 4));
+        wisdomApp.defineStream("FilterStream", toProperties("async", true, "buffer", 4));
+        wisdomApp.defineStream("OutputStream");
+        // Every batch is larger than the buffer of FilterStream
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.lengthBatch(8))
+                .select("index")
+                .insertInto("FilterStream");
+        wisdomApp.defineQuery("query2")
+                .from("FilterStream")
+                .select("index")
+                .insertInto("OutputStream");
+        CountDownLatch received = new CountDownLatch(1);
+        wisdomApp.addCallback("OutputStream", events -> {
+            received.countDown();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        wisdomApp.start();
+
+        InputHandler inputHandler = wisdomApp.getInputHandler("StockStream");
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        Future<?> sender = executorService.submit(() -> {
+            for (long index = 0; index < 48; index++) {
+                inputHandler.send(EventGenerator.generate("index", index));
+            }
+        });
+        // The consumer of StockStream waits for FilterStream while FilterStream is processing the first event
+        Assert.assertTrue("FilterStream did not receive events", received.await(5, TimeUnit.SECONDS));
+
+        Future<?> cleaner = executorService.submit(wisdomApp::clear);
+        cleaner.get(5, TimeUnit.SECONDS);
+        sender.get(5, TimeUnit.SECONDS);
+        executorService.shutdown();
+        wisdomApp.shutdown();
+    }
+
+    @Test(expected = WisdomAppValidationException.class)
+    public void testInvalidOverflowPolicy() {
+        LOGGER.info("Test invalid overflow policy");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", toProperties("async", true, "overflow", "ignore"));
+    }
+
+    /**
+     * {@link EventBuffer} keeping the published events in a list.
+     */
+    private static class ListBuffer implements EventBuffer {
+
+        private final int size;
+        private final List<Event> events = new ArrayList<>();
+
+        private ListBuffer(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public void publish(Event event) {
+            this.events.add(event);
+        }
+
+        @Override
+        public void publish(Event[] events, int start, int length) {
+            this.events.addAll(Arrays.asList(events).subList(start, start + length));
+        }
+
+        @Override
+        public boolean tryPublish(Event event) {
+            if (this.events.size() < this.size) {
+                this.events.add(event);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long remainingCapacity() {
+            return this.size - this.events.size();
+        }
+
+        @Override
+        public int getBufferSize() {
+            return this.size;
+        }
+    }
+
+    /**
+     * App with an async stream whose consumer is blocked by the first event until released. The first event is sent
+     * when the app is created.
+     */
+    private static class TestApp {
+
+        private final WisdomApp wisdomApp;
+        private final InputHandler inputHandler;
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final List<Event> received = Collections.synchronizedList(new ArrayList<>());
+
+        private TestApp(Properties properties) throws InterruptedException {
+            this.wisdomApp = new WisdomApp();
+            this.wisdomApp.defineStream("StockStream", properties);
+            this.wisdomApp.defineStream("OutputStream");
+            this.wisdomApp.defineQuery("query1")
+                    .from("StockStream")
+                    .select("index")
+                    .insertInto("OutputStream");
+            this.wisdomApp.addCallback("OutputStream", events -> {
+                try {
+                    this.blocked.countDown();
+                    this.latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                Collections.addAll(this.received, events);
+            });
+            this.wisdomApp.start();
+            this.inputHandler = this.wisdomApp.getInputHandler("StockStream");
+            this.send(0, 1);
+            // Make sure the consumer is running
+            this.blocked.await(5, TimeUnit.SECONDS);
+        }
+
+        private void send(long from, long to) {
+            for (long index = from; index < to; index++) {
+                this.inputHandler.send(EventGenerator.generate("index", index));
+            }
+        }
+
+        private void release() {
+            this.latch.countDown();
+        }
+
+        private void releaseLater() {
+            new Thread(() -> {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                this.latch.countDown();
+            }).start();
+        }
+
+        private OverflowPolicy policy() {
+            return this.wisdomApp.getStream("StockStream").getOverflowPolicy();
+        }
+
+        private void shutdown() {
+            this.wisdomApp.shutdown();
+        }
+
+        private void assertOrdered() {
+            long last = -1;
+            for (Event event : this.received) {
+                long index = (Long) event.get("index");
+                Assert.assertTrue("Events are out of order", index > last);
+                last = index;
+            }
+        }
+    }
+}
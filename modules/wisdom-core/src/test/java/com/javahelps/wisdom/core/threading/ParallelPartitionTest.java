@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.threading;
+
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.operator.CountOperator;
+import com.javahelps.wisdom.core.operator.Operator;
+import com.javahelps.wisdom.core.partition.Partitionable;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.util.EventGenerator;
+import com.javahelps.wisdom.core.window.Window;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ParallelPartitionTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelPartitionTest.class);
+    private static final int SHARDS = 4;
+    private static final int KEYS = 256;
+    private static final int EVENTS_PER_KEY = 100;
+
+    @Test
+    public void testParallelPartition() throws InterruptedException {
+        LOGGER.info("Test parallel partition - OUT 25600");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .parallel(SHARDS)
+                .partitionByAttr("key")
+                .filter(event -> {
+                    threads.add(Thread.currentThread().getName());
+                    return true;
+                })
+                .select("key", "index")
+                .insertInto("OutputStream");
+
+        // Outputs are merged into the sync stream one at a time
+        List<Event> received = new ArrayList<>();
+        wisdomApp.addCallback("OutputStream", events -> {
+            for (Event event : events) {
+                received.add(event);
+            }
+        });
+
+        wisdomApp.start();
+
+        InputHandler inputHandler = wisdomApp.getInputHandler("StockStream");
+        for (long index = 0; index < EVENTS_PER_KEY; index++) {
+            for (long key = 0; key < KEYS; key++) {
+                inputHandler.send(EventGenerator.generate("key", key, "index", index));
+            }
+        }
+        awaitEvents(received, KEYS * EVENTS_PER_KEY);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", KEYS * EVENTS_PER_KEY, received.size());
+        Assert.assertEquals("Partitions must be processed by all shards", SHARDS, threads.size());
+        Map<Long, Long> lastIndices = new HashMap<>();
+        for (Event event : received) {
+            long key = event.getAsLong("key");
+            long index = event.getAsLong("index");
+            Assert.assertEquals("Events of a partition are out of order", lastIndices.getOrDefault(key, -1L) + 1,
+                    index);
+            lastIndices.put(key, index);
+        }
+    }
+
+    @Test
+    public void testParallelKeyedWindow() throws InterruptedException {
+        LOGGER.info("Test parallel partition with window - OUT 12800");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .parallel(SHARDS)
+                .partitionByAttr("key")
+                .window(Window.lengthBatch(2))
+                .aggregate(Operator.SUM("index", "total"))
+                .select("key", "index", "total")
+                .insertInto("OutputStream");
+
+        List<Event> received = new ArrayList<>();
+        wisdomApp.addCallback("OutputStream", events -> {
+            for (Event event : events) {
+                received.add(event);
+            }
+        });
+
+        wisdomApp.start();
+
+        InputHandler inputHandler = wisdomApp.getInputHandler("StockStream");
+        for (long index = 0; index < EVENTS_PER_KEY; index++) {
+            for (long key = 0; key < KEYS; key++) {
+                inputHandler.send(EventGenerator.generate("key", key, "index", index));
+            }
+        }
+        awaitEvents(received, KEYS * EVENTS_PER_KEY / 2);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", KEYS * EVENTS_PER_KEY / 2, received.size());
+        for (Event event : received) {
+            // Every batch has two consecutive indices of the same key
+            long index = event.getAsLong("index");
+            Assert.assertEquals("Incorrect aggregation", 2.0 * index - 1, event.getAsDouble("total"), 0.0);
+        }
+    }
+
+    @Test
+    public void testParallelHotKey() throws InterruptedException {
+        LOGGER.info("Test parallel partition with a hot key - OUT 20000");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        Set<String> hotThreads = ConcurrentHashMap.newKeySet();
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .parallel(SHARDS)
+                .partitionByAttr("key")
+                .aggregate(Operator.COUNT("count"), Operator.SUM("key", "total"))
+                .filter(event -> {
+                    if (event.getAsLong("key") == 0L) {
+                        hotThreads.add(Thread.currentThread().getName());
+                    }
+                    return true;
+                })
+                .select("key", "count", "total")
+                .insertInto("OutputStream");
+
+        List<Event> received = new ArrayList<>();
+        wisdomApp.addCallback("OutputStream", events -> {
+            for (Event event : events) {
+                received.add(event);
+            }
+        });
+
+        wisdomApp.start();
+
+        // Key 0 sends 60% of the events
+        InputHandler inputHandler = wisdomApp.getInputHandler("StockStream");
+        int hotEvents = 0;
+        for (int i = 0; i < 20000; i++) {
+            long key = i % 5 < 3 ? 0L : 1 + i % KEYS;
+            if (key == 0L) {
+                hotEvents++;
+            }
+            inputHandler.send(EventGenerator.generate("key", key));
+        }
+        awaitEvents(received, 20000);
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 20000, received.size());
+        Assert.assertTrue("Hot key must be split among shards", hotThreads.size() > 1);
+        long hotCount = 0;
+        for (Event event : received) {
+            if (event.getAsLong("key") == 0L) {
+                hotCount = Math.max(hotCount, event.getAsLong("count"));
+            }
+        }
+        Assert.assertEquals("Partial counts are not combined", hotEvents, hotCount);
+    }
+
+    @Test
+    public void testShardsRunInParallel() throws InterruptedException {
+        LOGGER.info("Test shards aggregating while another shard is busy");
+
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .parallel(SHARDS)
+                .partitionByAttr("key")
+                .aggregate(new BlockingCountOperator("count", blocked, release))
+                .select("key", "count")
+                .insertInto("OutputStream");
+
+        List<Event> received = new ArrayList<>();
+        wisdomApp.addCallback("OutputStream", events -> {
+            synchronized (received) {
+                Collections.addAll(received, events);
+            }
+        });
+
+        wisdomApp.start();
+
+        // Block a shard inside its aggregator
+        InputHandler inputHandler = wisdomApp.getInputHandler("StockStream");
+        inputHandler.send(EventGenerator.generate("key", 0L, "block", true));
+        Assert.assertTrue("Aggregator is not blocked", blocked.await(5, TimeUnit.SECONDS));
+        for (long key = 1; key <= KEYS; key++) {
+            inputHandler.send(EventGenerator.generate("key", key));
+        }
+        awaitEvents(received, 1);
+        int count;
+        synchronized (received) {
+            count = received.size();
+        }
+        release.countDown();
+        awaitEvents(received, KEYS + 1);
+
+        wisdomApp.shutdown();
+
+        Assert.assertTrue("Other shards must not wait for the blocked shard", count > 0);
+        Assert.assertEquals("Incorrect number of events", KEYS + 1, received.size());
+    }
+
+    @Test(expected = WisdomAppValidationException.class)
+    public void testParallelWithoutPartition() {
+        LOGGER.info("Test parallel query without partition");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .parallel(SHARDS)
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        wisdomApp.start();
+    }
+
+    /**
+     * Count operator holding its lock until released when it receives an event with the block attribute.
+     */
+    private static class BlockingCountOperator extends CountOperator {
+
+        private final CountDownLatch blocked;
+        private final CountDownLatch release;
+
+        private BlockingCountOperator(String as, CountDownLatch blocked, CountDownLatch release) {
+            super(as, Collections.emptyMap());
+            this.blocked = blocked;
+            this.release = release;
+        }
+
+        @Override
+        public Object apply(int key, Event event) {
+            this.lock.lock();
+            try {
+                if (event.get("block") != null) {
+                    this.blocked.countDown();
+                    this.release.await(30, TimeUnit.SECONDS);
+                }
+                return super.apply(key, event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        @Override
+        public Partitionable copy() {
+            return new BlockingCountOperator(this.newName, this.blocked, this.release);
+        }
+    }
+
+    private static void awaitEvents(List<Event> received, int count) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            synchronized (received) {
+                if (received.size() >= count) {
+                    return;
+                }
+            }
+            Thread.sleep(50);
+        }
+    }
+}
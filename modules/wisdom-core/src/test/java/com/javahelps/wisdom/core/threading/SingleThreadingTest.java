@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.threading;
+
+import com.javahelps.wisdom.core.TestUtil;
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.operator.Operator;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.util.EventGenerator;
+import com.javahelps.wisdom.core.window.Window;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.javahelps.wisdom.core.util.Commons.map;
+import static com.javahelps.wisdom.core.util.Commons.toProperties;
+
+public class SingleThreadingTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SingleThreadingTest.class);
+
+    @Test
+    public void testSingleThreadedWindow() throws InterruptedException {
+        LOGGER.info("Test length batch window in single threading mode - OUT 1");
+
+        WisdomApp wisdomApp = new WisdomApp(toProperties("name", "WisdomApp", "version", "1.0.0",
+                "threading", "single"));
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.lengthBatch(3))
+                .aggregate(Operator.SUM("price", "total"))
+                .select("symbol", "total")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "ORACLE", "total", 180.0));
+        Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+        wisdomApp.addCallback("OutputStream", events -> threads.add(Thread.currentThread()));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 20));
+
+        Thread.sleep(100);
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 1, callback.getEventCount());
+        Assert.assertFalse("Events processed in the caller thread", threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void testSingleThreadedTimeBatchWindow() throws InterruptedException {
+        LOGGER.info("Test time batch window in single threading mode - OUT 1");
+
+        WisdomApp wisdomApp = new WisdomApp(toProperties("name", "WisdomApp", "version", "1.0.0",
+                "threading", "single"));
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .window(Window.timeBatch(Duration.ofMillis(100)))
+                .aggregate(Operator.COUNT("count"))
+                .select("count")
+                .insertInto("OutputStream");
+
+        Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+        wisdomApp.addCallback("OutputStream", events -> threads.add(Thread.currentThread()));
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("count", 2L));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+
+        Thread.sleep(250);
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 1, callback.getEventCount());
+        Assert.assertEquals("Events processed by more than one thread", 1, threads.size());
+    }
+
+    @Test
+    public void testDispatcherFromManyThreads() throws InterruptedException {
+        LOGGER.info("Test dispatcher fed by many threads - OUT 4000");
+
+        WisdomApp wisdomApp = new WisdomApp(toProperties("name", "WisdomApp", "version", "1.0.0",
+                "threading", "single", "buffer", 8));
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        AtomicInteger count = new AtomicInteger();
+        Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+        wisdomApp.addCallback("OutputStream", events -> {
+            threads.add(Thread.currentThread());
+            count.addAndGet(events.length);
+        });
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        Thread[] publishers = new Thread[4];
+        for (int i = 0; i < publishers.length; i++) {
+            publishers[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0));
+                }
+            });
+            publishers[i].start();
+        }
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+        // Wait for the queued events
+        wisdomApp.clear();
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 4000, count.get());
+        Assert.assertEquals("Events processed by more than one thread", 1, threads.size());
+        Assert.assertTrue("Dispatcher buffer is not bounded",
+                wisdomApp.getContext().getDispatcher().getOverflowCount() > 0);
+    }
+
+    @Test
+    public void testDispatcherOverflowTimeout() throws InterruptedException {
+        LOGGER.info("Test dropping events of a full dispatcher - OUT 3");
+
+        WisdomApp wisdomApp = new WisdomApp(toProperties("name", "WisdomApp", "version", "1.0.0",
+                "threading", "single", "buffer", 2, "overflow_timeout", 0L));
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger count = new AtomicInteger();
+        wisdomApp.addCallback("OutputStream", events -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            count.addAndGet(events.length);
+        });
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0));
+        Assert.assertTrue("Dispatcher did not process the first event", started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0));
+        }
+        release.countDown();
+        wisdomApp.clear();
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 3, count.get());
+        Assert.assertEquals("Incorrect number of dropped events", 3,
+                wisdomApp.getContext().getDispatcher().getDropCount());
+    }
+
+    @Test(expected = WisdomAppValidationException.class)
+    public void testInvalidDispatcherBuffer() {
+        LOGGER.info("Test dispatcher buffer which is not a power of 2");
+
+        new WisdomApp(toProperties("name", "WisdomApp", "version", "1.0.0", "threading", "single", "buffer", 10));
+    }
+
+    @Test(expected = WisdomAppValidationException.class)
+    public void testAsyncStreamInSingleThreadingMode() {
+        LOGGER.info("Test async stream in single threading mode");
+
+        WisdomApp wisdomApp = new WisdomApp(toProperties("name", "WisdomApp", "version", "1.0.0",
+                "threading", "single"));
+        wisdomApp.defineStream("StockStream", toProperties("async", true));
+        wisdomApp.start();
+    }
+
+    @Test(expected = WisdomAppValidationException.class)
+    public void testInvalidThreadingMode() {
+        LOGGER.info("Test invalid threading mode");
+
+        new WisdomApp(toProperties("name", "WisdomApp", "version", "1.0.0", "threading", "double"));
+    }
+}
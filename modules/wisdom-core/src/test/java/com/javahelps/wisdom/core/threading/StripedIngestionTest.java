@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.threading;
+
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.stream.async.StripedRingBuffer;
+import com.javahelps.wisdom.core.util.EventGenerator;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.javahelps.wisdom.core.util.Commons.toProperties;
+
+public class StripedIngestionTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StripedIngestionTest.class);
+    private static final int PRODUCERS = 4;
+    private static final int EVENTS_PER_PRODUCER = 5000;
+
+    @Test
+    public void testStripedIngestion() throws InterruptedException {
+        LOGGER.info("Test striped ingestion - OUT 20000");
+        testIngestion(1, 64);
+    }
+
+    @Test
+    public void testStripedBatchIngestion() throws InterruptedException {
+        LOGGER.info("Test striped batch ingestion - OUT 20000");
+        testIngestion(16, 64);
+    }
+
+    @Test
+    public void testStripeLimit() throws InterruptedException {
+        LOGGER.info("Test striped ingestion with limited stripes - OUT 20000");
+        // Producers beyond the limit publish into the shared buffer
+        testIngestion(1, 1);
+    }
+
+    @Test(expected = WisdomAppValidationException.class)
+    public void testInvalidStripeThreshold() {
+        LOGGER.info("Test invalid stripe threshold");
+
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", toProperties("async", true, "stripe_threshold", 0));
+    }
+
+    private void testIngestion(int batchSize, int maxStripes) throws InterruptedException {
+        WisdomApp wisdomApp = new WisdomApp();
+        wisdomApp.defineStream("StockStream", toProperties("async", true, "buffer", 64, "batch", batchSize,
+                "stripe_threshold", 2, "stripe_max", maxStripes));
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .select("producer", "index")
+                .insertInto("OutputStream");
+
+        List<Event> received = Collections.synchronizedList(new ArrayList<>());
+        wisdomApp.addCallback("OutputStream", events -> Collections.addAll(received, events));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < PRODUCERS; i++) {
+            final String producer = "producer-" + i;
+            Thread thread = new Thread(() -> {
+                for (long index = 0; index < EVENTS_PER_PRODUCER; index++) {
+                    stockStreamInputHandler.send(EventGenerator.generate("producer", producer, "index", index));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        StripedRingBuffer buffer = (StripedRingBuffer) wisdomApp.getStream("StockStream").getOverflowPolicy()
+                .getBuffer();
+        Assert.assertTrue("Too many stripes", buffer.getStripeCount() <= maxStripes);
+
+        // Shutdown drains all the published events
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", PRODUCERS * EVENTS_PER_PRODUCER, received.size());
+        Map<Object, Long> lastIndex = new HashMap<>();
+        for (Event event : received) {
+            long index = ((Number) event.get("index")).longValue();
+            long expected = lastIndex.getOrDefault(event.get("producer"), -1L) + 1;
+            Assert.assertEquals("Events of a producer are out of order", expected, index);
+            lastIndex.put(event.get("producer"), index);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.threading;
+
+import com.javahelps.wisdom.core.TestUtil;
+import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
+import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.util.EventGenerator;
+import com.javahelps.wisdom.core.util.VirtualThreads;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.javahelps.wisdom.core.util.Commons.map;
+import static com.javahelps.wisdom.core.util.Commons.toProperties;
+
+public class VirtualThreadsTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadsTest.class);
+
+    @Test
+    public void testVirtualIOThreads() throws InterruptedException {
+        LOGGER.info("Test virtual I/O threads - OUT 2");
+
+        WisdomApp wisdomApp = new WisdomApp(toProperties("name", "WisdomApp", "version", "1.0.0",
+                "io_threads", "virtual"));
+        wisdomApp.defineStream("StockStream");
+        wisdomApp.defineStream("OutputStream");
+
+        wisdomApp.defineQuery("query1")
+                .from("StockStream")
+                .select("symbol", "price")
+                .insertInto("OutputStream");
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "price", 50.0),
+                map("symbol", "WSO2", "price", 60.0));
+
+        wisdomApp.start();
+
+        // Falls back to platform threads on older Java runtimes
+        Assert.assertEquals("Incorrect thread mode", VirtualThreads.isSupported(),
+                wisdomApp.getContext().isVirtualThreads());
+
+        // Feed the stream from the executor like sources do
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        CountDownLatch latch = new CountDownLatch(1);
+        wisdomApp.getContext().getExecutorService().execute(() -> {
+            stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+            stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+            latch.countDown();
+        });
+
+        Assert.assertTrue("Task is not executed", latch.await(1, TimeUnit.SECONDS));
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
+
+    @Test(expected = WisdomAppValidationException.class)
+    public void testInvalidIOThreads() {
+        LOGGER.info("Test invalid I/O threads");
+
+        new WisdomApp(toProperties("name", "WisdomApp", "version", "1.0.0", "io_threads", "green"));
+    }
+}
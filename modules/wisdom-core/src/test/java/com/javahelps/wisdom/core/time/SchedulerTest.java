@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2019, Gobinath Loganathan (http://github.com/slgobinath) All Rights Reserved.
+ *
+ * Gobinath licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. In addition, if you are using
+ * this file in your research work, you are required to cite
+ * WISDOM as mentioned at https://github.com/slgobinath/wisdom.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.javahelps.wisdom.core.time;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test the timing wheel based schedulers of Wisdom.
+ */
+public class SchedulerTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchedulerTest.class);
+
+    @Test
+    public void testCollidingDeadlines() {
+        LOGGER.info("Test scheduler 1 - OUT 3");
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        EventBasedTimestampGenerator timestampGenerator = new EventBasedTimestampGenerator();
+        timestampGenerator.setCurrentTimestamp(1000L);
+        Scheduler scheduler = new EventBasedScheduler(executorService, timestampGenerator);
+        List<String> executed = new ArrayList<>();
+
+        scheduler.schedule(Duration.ofMillis(500), timestamp -> executed.add("A"));
+        scheduler.schedule(Duration.ofMillis(500), timestamp -> executed.add("B"));
+        scheduler.schedule(Duration.ofMillis(200), timestamp -> executed.add("C"));
+
+        timestampGenerator.setCurrentTimestamp(1499L);
+        Assert.assertEquals("Incorrect executors", Arrays.asList("C"), executed);
+        timestampGenerator.setCurrentTimestamp(1500L);
+        Assert.assertEquals("Incorrect executors", Arrays.asList("C", "A", "B"), executed);
+        executorService.shutdown();
+    }
+
+    @Test
+    public void testCancel() {
+        LOGGER.info("Test scheduler 2 - OUT 1");
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        EventBasedTimestampGenerator timestampGenerator = new EventBasedTimestampGenerator();
+        Scheduler scheduler = new EventBasedScheduler(executorService, timestampGenerator);
+        List<String> executed = new ArrayList<>();
+
+        ScheduledTask task = scheduler.schedule(Duration.ofMillis(100), timestamp -> executed.add("A"));
+        scheduler.schedule(Duration.ofMillis(100), timestamp -> executed.add("B"));
+        Assert.assertTrue("Task not cancelled", task.cancel());
+        Assert.assertFalse("Task cancelled twice", task.cancel());
+
+        timestampGenerator.setCurrentTimestamp(200L);
+        Assert.assertEquals("Incorrect executors", Arrays.asList("B"), executed);
+        executorService.shutdown();
+    }
+
+    @Test
+    public void testDistantDeadlines() {
+        LOGGER.info("Test scheduler 3 - OUT 3");
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        EventBasedTimestampGenerator timestampGenerator = new EventBasedTimestampGenerator();
+        timestampGenerator.setCurrentTimestamp(1_000L);
+        Scheduler scheduler = new EventBasedScheduler(executorService, timestampGenerator);
+        List<Long> executed = new ArrayList<>();
+
+        // Deadlines in the upper levels of the wheel move to the lower levels before they are due
+        scheduler.schedule(Duration.ofHours(2), executed::add);
+        scheduler.schedule(Duration.ofMinutes(5), executed::add);
+        scheduler.schedule(Duration.ofSeconds(3), executed::add);
+
+        timestampGenerator.setCurrentTimestamp(2_000L);
+        timestampGenerator.setCurrentTimestamp(4_000L);
+        timestampGenerator.setCurrentTimestamp(300_999L);
+        timestampGenerator.setCurrentTimestamp(301_000L);
+        timestampGenerator.setCurrentTimestamp(7_200_999L);
+        Assert.assertEquals("Incorrect executors", Arrays.asList(4_000L, 301_000L), executed);
+        timestampGenerator.setCurrentTimestamp(7_201_000L);
+        Assert.assertEquals("Incorrect executors", Arrays.asList(4_000L, 301_000L, 7_201_000L), executed);
+        executorService.shutdown();
+    }
+
+    @Test
+    public void testSystemScheduler() throws InterruptedException {
+        LOGGER.info("Test scheduler 4 - OUT 100");
+
+        ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+        Scheduler scheduler = new SystemScheduler(executorService, new SystemTimestampGenerator());
+        CountDownLatch latch = new CountDownLatch(100);
+
+        scheduler.schedule(Duration.ofMillis(50), timestamp -> {
+            throw new IllegalStateException("Failing tasks must not stop the scheduler");
+        });
+        for (int i = 0; i < 100; i++) {
+            scheduler.schedule(Duration.ofMillis(i % 10 * 10), timestamp -> latch.countDown());
+        }
+        ScheduledTask cancelled = scheduler.schedule(Duration.ofMillis(20), timestamp -> Assert.fail());
+        cancelled.cancel();
+
+        Assert.assertTrue("Scheduled tasks not executed", latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        executorService.shutdown();
+    }
+}
@@ -88,7 +88,7 @@ public class Utility {
      * @return JSON string
      */
     public static String toJson(Event event) {
-        return gson.toJson(event.getData());
+        return gson.toJson(event.getDataView());
     }
 
     /**
@@ -101,7 +101,7 @@ public class Utility {
         int length = events.size();
         Map<String, Object>[] dataArray = new Map[length];
         for (int i = 0; i < length; i++) {
-            dataArray[i] = events.get(i).getData();
+            dataArray[i] = events.get(i).getDataView();
         }
         return gson.toJson(dataArray);
     }
@@ -130,7 +130,7 @@ public class TensorFlowMapper extends Mapper {
     @Override
     public Event map(Event event) {
         Session.Runner runner = this.session.runner();
-        for (Map.Entry<String, Object> attr : event.getData().entrySet()) {
+        for (Map.Entry<String, Object> attr : event.getDataView().entrySet()) {
             runner = runner.feed(attr.getKey(), Tensor.create(attr.getValue()));
         }
         List<Tensor<?>> tensors = runner.fetch(this.operation).run();
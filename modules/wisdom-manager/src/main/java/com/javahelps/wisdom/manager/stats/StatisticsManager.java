@@ -21,6 +21,7 @@
 package com.javahelps.wisdom.manager.stats;
 
 import com.javahelps.wisdom.core.exception.WisdomAppRuntimeException;
+import com.javahelps.wisdom.core.util.VirtualThreads;
 import com.javahelps.wisdom.manager.artifact.Artifact;
 import com.javahelps.wisdom.manager.artifact.ArtifactController;
 import org.slf4j.Logger;
@@ -34,6 +35,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import static com.javahelps.wisdom.core.util.WisdomConstants.IO_THREADS;
+import static com.javahelps.wisdom.core.util.WisdomConstants.IO_THREADS_VIRTUAL;
 import static com.javahelps.wisdom.manager.util.Constants.*;
 
 public class StatisticsManager implements StatisticsConsumer.StatsListener {
@@ -53,7 +56,12 @@ public class StatisticsManager implements StatisticsConsumer.StatsListener {
             throw new WisdomAppRuntimeException("No statistics configuration in config file");
         }
         this.controller = controller;
-        this.executorService = Executors.newCachedThreadPool();
+        if (IO_THREADS_VIRTUAL.equals(configuration.get(IO_THREADS)) && VirtualThreads.isSupported()) {
+            // The statistics consumer blocks on Kafka polls
+            this.executorService = VirtualThreads.newThreadPerTaskExecutor(VirtualThreads.factory("wisdom-stats-"));
+        } else {
+            this.executorService = Executors.newCachedThreadPool();
+        }
         this.scheduledExecutorService = Executors.newScheduledThreadPool(4);
         this.initialDelay = ((Number) configuration.getOrDefault("delay", STATISTIC_MONITOR_INITIAL_DELAY)).longValue();
         this.monitorPeriod = ((Number) configuration.getOrDefault("period", STATISTIC_MONITOR_PERIOD)).longValue();
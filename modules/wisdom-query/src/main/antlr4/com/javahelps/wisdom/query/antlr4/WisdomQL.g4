@@ -91,7 +91,11 @@ definition
     ;
 
 def_stream
-    : annotation* DEF STREAM NAME END_OF_STATEMENT?
+    : annotation* DEF STREAM NAME (OPEN_PAREN stream_attribute (COMMA stream_attribute)* CLOSE_PAREN)? END_OF_STATEMENT?
+    ;
+
+stream_attribute
+    : name=NAME COLON type=NAME
     ;
 
 def_variable
@@ -99,7 +103,7 @@ def_variable
     ;
 
 query
-    : annotation? FROM (input=NAME|wisdom_pattern) END_OF_STATEMENT? query_statement* (insert_into_statement|update_statement) END_OF_STATEMENT?
+    : annotation* FROM (input=NAME|wisdom_pattern) END_OF_STATEMENT? query_statement* (insert_into_statement|update_statement) END_OF_STATEMENT?
     ;
 
 query_statement
@@ -157,7 +161,7 @@ map_operator
     ;
 
 window_statement
-    : WINDOW DOT name=NAME (COLON type=NAME)? OPEN_PAREN (optional_key_value_element (COMMA
+    : WINDOW DOT name=(NAME | TIME) (COLON type=NAME)? OPEN_PAREN (optional_key_value_element (COMMA
     optional_key_value_element)*)? CLOSE_PAREN END_OF_STATEMENT?
     ;
 
@@ -98,15 +98,24 @@ public class WisdomQLBaseVisitorImpl extends WisdomQLBaseVisitor {
             Annotation annotation = (Annotation) visit(tree);
             definition.addAnnotation(ctx, annotation);
         }
+        for (WisdomQLParser.Stream_attributeContext attribute : ctx.stream_attribute()) {
+            definition.addAttribute(attribute, attribute.name.getText(), attribute.type.getText());
+        }
         return definition;
     }
 
     @Override
     public Annotation visitAnnotation(WisdomQLParser.AnnotationContext ctx) {
         Annotation annotation = new Annotation(ctx.NAME().getText());
+        int count = 0;
         for (ParseTree tree : ctx.annotation_element()) {
             AnnotationElement element = (AnnotationElement) visit(tree);
-            annotation.setProperty(element.getKey(), element.getValue());
+            String key = element.getKey();
+            if (key == null) {
+                key = String.format("_param_%d", count);
+            }
+            annotation.setProperty(key, element.getValue());
+            count++;
         }
         return annotation;
     }
@@ -325,10 +334,20 @@ public class WisdomQLBaseVisitorImpl extends WisdomQLBaseVisitor {
             // From definePattern
             queryNode = new QueryNode(visitWisdom_pattern(ctx.wisdom_pattern()));
         }
-        if (ctx.annotation() != null) {
-            Annotation annotation = (Annotation) visit(ctx.annotation());
-            Utility.verifyAnnotation(ctx.annotation(), annotation, QUERY_ANNOTATION, NAME);
-            queryNode.setName(annotation.getProperty(NAME));
+        for (WisdomQLParser.AnnotationContext annotationContext : ctx.annotation()) {
+            Annotation annotation = (Annotation) visit(annotationContext);
+            if (PARALLEL_ANNOTATION.equals(annotation.getName())) {
+                Object shards = annotation.hasProperty(SHARDS) ? annotation.getProperty(SHARDS) :
+                        annotation.getProperty("_param_0");
+                if (!(shards instanceof Long)) {
+                    throw new WisdomParserException(annotationContext, "@" + PARALLEL_ANNOTATION +
+                            " requires the number of shards as an integer");
+                }
+                queryNode.setShards(((Long) shards).intValue());
+            } else {
+                Utility.verifyAnnotation(annotationContext, annotation, QUERY_ANNOTATION, NAME);
+                queryNode.setName(annotation.getProperty(NAME));
+            }
         }
         for (ParseTree tree : ctx.query_statement()) {
             queryNode.addStatement((Statement) visit(tree));
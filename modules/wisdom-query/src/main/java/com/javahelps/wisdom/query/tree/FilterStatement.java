@@ -33,6 +33,8 @@ public class FilterStatement implements Statement {
 
     @Override
     public void addTo(WisdomApp app, Query query) {
-        query.filter(this.operator.build(app, query));
+        // Queries with the same filter expression can share the following window
+        Object key = this.operator.getKey();
+        query.filter(this.operator.build(app, query), key);
     }
 }
@@ -25,6 +25,7 @@ import com.javahelps.wisdom.core.event.Event;
 import com.javahelps.wisdom.core.event.RuntimeAttribute;
 import com.javahelps.wisdom.core.query.Query;
 
+import java.util.Arrays;
 import java.util.function.Predicate;
 
 import static com.javahelps.wisdom.core.util.Commons.map;
@@ -69,6 +70,27 @@ public class LogicalOperator implements OperatorElement {
         }
     }
 
+    /**
+     * Get a key which is equal for the same expression in different queries. Must be called before building the
+     * operator.
+     *
+     * @return the key of the expression
+     */
+    public Object getKey() {
+        return Arrays.asList(this.operator, keyOf(this.left), keyOf(this.right), this.readFromSupplier);
+    }
+
+    private static Object keyOf(Object operand) {
+        if (operand instanceof LogicalOperator) {
+            return ((LogicalOperator) operand).getKey();
+        } else if (operand instanceof RuntimeAttribute) {
+            return Arrays.asList("attribute", ((RuntimeAttribute) operand).getName());
+        } else if (operand instanceof VariableReference) {
+            return Arrays.asList("variable", ((VariableReference) operand).getVariableId());
+        }
+        return operand;
+    }
+
     private Object convertIfReference(Object operand, WisdomApp app, Query query) {
         if (operand instanceof VariableReference) {
             operand = ((VariableReference) operand).build(app);
@@ -79,6 +101,8 @@ public class LogicalOperator implements OperatorElement {
                 String supplierId = name.substring(0, splitIndex);
                 operand = query.getAttributeSupplier(supplierId).of(name);
             }
+        } else if (operand instanceof RuntimeAttribute) {
+            operand = ((RuntimeAttribute) operand).bind(query.getSchema());
         }
         return operand;
     }
@@ -33,6 +33,7 @@ public class QueryNode {
     private PatternOperator pattern;
     private final List<Statement> statements = new ArrayList<>();
     private String name;
+    private int shards = 1;
 
     public QueryNode(String input) {
         this.input = input;
@@ -53,6 +54,10 @@ public class QueryNode {
         this.name = name;
     }
 
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
     public void addStatement(Statement statement) {
         this.statements.add(statement);
     }
@@ -67,6 +72,9 @@ public class QueryNode {
         } else {
             query.from(this.pattern.build(app, query));
         }
+        if (this.shards != 1) {
+            query.parallel(this.shards);
+        }
         for (Statement statement : this.statements) {
             statement.addTo(app, query);
         }
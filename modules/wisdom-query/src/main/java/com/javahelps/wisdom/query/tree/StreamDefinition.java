@@ -21,15 +21,23 @@
 package com.javahelps.wisdom.query.tree;
 
 import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.event.Schema;
+import com.javahelps.wisdom.core.exception.WisdomAppValidationException;
 import com.javahelps.wisdom.core.stream.input.Source;
 import com.javahelps.wisdom.core.stream.output.Sink;
+import com.javahelps.wisdom.query.antlr.WisdomParserException;
 import com.javahelps.wisdom.query.util.Utility;
 import org.antlr.v4.runtime.ParserRuleContext;
 
+import java.util.Properties;
+
+import static com.javahelps.wisdom.core.util.WisdomConstants.SCHEMA;
 import static com.javahelps.wisdom.query.util.Constants.ANNOTATION.*;
 
 public class StreamDefinition extends Definition {
 
+    private Schema schema;
+
     public StreamDefinition(String name) {
         super(name);
     }
@@ -43,8 +51,27 @@ public class StreamDefinition extends Definition {
         }
     }
 
+    public void addAttribute(ParserRuleContext ctx, String name, String type) {
+        if (this.schema == null) {
+            this.schema = new Schema();
+        }
+        try {
+            this.schema.attribute(name, Schema.Type.of(type));
+        } catch (WisdomAppValidationException ex) {
+            throw new WisdomParserException(ctx, ex.getMessage());
+        }
+    }
+
     @Override
     public void define(WisdomApp app) {
+        if (this.schema != null) {
+            Properties properties = new Properties();
+            if (this.configuration != null) {
+                properties.putAll(this.configuration);
+            }
+            properties.put(SCHEMA, this.schema);
+            this.configuration = properties;
+        }
         if (this.configuration == null) {
             app.defineStream(this.getName());
         } else {
@@ -30,6 +30,7 @@ public class Constants {
 
         public static final String APP_ANNOTATION = "app";
         public static final String QUERY_ANNOTATION = "query";
+        public static final String PARALLEL_ANNOTATION = "parallel";
         public static final String CONFIG_ANNOTATION = "config";
         public static final String SINK_ANNOTATION = "sink";
         public static final String SOURCE_ANNOTATION = "source";
@@ -37,6 +38,7 @@ public class Constants {
         public static final String TYPE = "type";
         public static final String NAME = "name";
         public static final String VERSION = "version";
+        public static final String SHARDS = "shards";
 
         private ANNOTATION() {
 
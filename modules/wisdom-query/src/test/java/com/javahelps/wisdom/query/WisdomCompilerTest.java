@@ -21,7 +21,10 @@
 package com.javahelps.wisdom.query;
 
 import com.javahelps.wisdom.core.WisdomApp;
+import com.javahelps.wisdom.core.event.Event;
+import com.javahelps.wisdom.core.operand.WisdomArray;
 import com.javahelps.wisdom.core.stream.InputHandler;
+import com.javahelps.wisdom.core.stream.async.SamplingOverflowPolicy;
 import com.javahelps.wisdom.core.util.EventGenerator;
 import com.javahelps.wisdom.core.variable.Variable;
 import org.junit.Assert;
@@ -36,6 +39,7 @@ import java.net.URISyntaxException;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.javahelps.wisdom.core.util.Commons.map;
 
@@ -73,6 +77,69 @@ public class WisdomCompilerTest {
         Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
     }
 
+    @Test
+    public void testTypedStreamQuery() {
+
+        LOGGER.info("Test typed stream query");
+
+        String query = "@app(name='WisdomApp', version='1.0.0') " +
+                "def stream StockStream(symbol: string, price: double, volume: long); " +
+                "def stream OutputStream; " +
+                "" +
+                "from StockStream " +
+                "filter volume > 10 " +
+                "select symbol, price " +
+                "insert into OutputStream;";
+
+        WisdomApp wisdomApp = WisdomCompiler.parse(query);
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "WSO2", "price", 60.0),
+                map("symbol", "GOOGLE", "price", 70.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 70.0, "volume", 20L));
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
+
+    @Test
+    public void testSingleThreadedQuery() throws InterruptedException {
+
+        LOGGER.info("Test single threaded query");
+
+        String query = "@app(name='WisdomApp', version='1.0.0', threading='single') " +
+                "def stream StockStream; " +
+                "def stream OutputStream; " +
+                "" +
+                "from StockStream " +
+                "filter volume > 10 " +
+                "select symbol, price " +
+                "insert into OutputStream;";
+
+        WisdomApp wisdomApp = WisdomCompiler.parse(query);
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "WSO2", "price", 60.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+
+        Thread.sleep(100);
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 1, callback.getEventCount());
+    }
+
     @Test
     public void testSelectEventsQuery() {
 
@@ -424,7 +491,8 @@ public class WisdomCompilerTest {
         TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
                 map("symbol", "WSO2", "price", 10.0),
                 map("symbol", "WSO2", "price", 50.0),
-                map("symbol", "WSO2", "price", 60.0));
+                map("symbol", "WSO2", "price", 60.0),
+                map("symbol", "ORACLE", "price", 20.0));
 
         wisdomApp.start();
 
@@ -436,6 +504,74 @@ public class WisdomCompilerTest {
 
         wisdomApp.shutdown();
 
+        Assert.assertEquals("Incorrect number of events", 4, callback.getEventCount());
+    }
+
+    @Test
+    public void testTimeWindowQuery() {
+
+        LOGGER.info("Test time window");
+
+        String query = "@app(name='WisdomApp', version='1.0.0', playback='timestamp') " +
+                "def stream StockStream; " +
+                "def stream OutputStream; " +
+                "" +
+                "from StockStream " +
+                "window.time(time.sec(1)) " +
+                "aggregate sum('price') as total " +
+                "select symbol, total " +
+                "insert into OutputStream;";
+
+        WisdomApp wisdomApp = WisdomCompiler.parse(query);
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "total", 10.0),
+                map("symbol", "WSO2", "total", 60.0),
+                map("symbol", "ORACLE", "total", 70.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 10.0, "timestamp", 1000L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 50.0, "timestamp", 1500L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 20.0, "timestamp", 2200L));
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 3, callback.getEventCount());
+    }
+
+    @Test
+    public void testExternalTimeHopWindowQuery() {
+
+        LOGGER.info("Test external time hop window");
+
+        String query = "def stream StockStream; " +
+                "def stream OutputStream; " +
+                "" +
+                "from StockStream " +
+                "window.externalTimeHop('timestamp', time.sec(2), time.sec(1)) " +
+                "aggregate sum('price') as total " +
+                "select symbol, total " +
+                "insert into OutputStream;";
+
+        WisdomApp wisdomApp = WisdomCompiler.parse(query);
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "WSO2", "total", 60.0),
+                map("symbol", "ORACLE", "total", 80.0),
+                map("symbol", "ORACLE", "total", 20.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 10.0, "timestamp", 1000L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 50.0, "timestamp", 1500L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 20.0, "timestamp", 2200L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 5.0, "timestamp", 4000L));
+
+        wisdomApp.shutdown();
+
         Assert.assertEquals("Incorrect number of events", 3, callback.getEventCount());
     }
 
@@ -470,6 +606,54 @@ public class WisdomCompilerTest {
         Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
     }
 
+    @Test
+    public void testSharedWindowQuery() throws InterruptedException {
+        LOGGER.info("Test shared window - OUT 2, 1");
+
+        String query = "@app(name='WisdomApp', version='1.0.0') " +
+                "def stream StockStream; " +
+                "def stream OutputStream; " +
+                "def stream TotalStream; " +
+                "" +
+                "from StockStream " +
+                "filter volume > 10 " +
+                "window.externalTimeBatch('timestamp', time.second(1)) " +
+                "select symbol, price " +
+                "insert into OutputStream; " +
+                "" +
+                "from StockStream " +
+                "filter volume > 10 " +
+                "window.externalTimeBatch('timestamp', time.second(1)) " +
+                "aggregate sum('price') as total " +
+                "select total " +
+                "insert into TotalStream;";
+
+        WisdomApp wisdomApp = WisdomCompiler.parse(query);
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "WSO2", "price", 60.0),
+                map("symbol", "ORACLE", "price", 70.0));
+        TestUtil.TestCallback totalCallback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "TotalStream",
+                map("total", 130.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10,
+                "timestamp", 1000L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15,
+                "timestamp", 1200L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 20,
+                "timestamp", 1500L));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 80.0, "volume", 25,
+                "timestamp", 2500L));
+
+        Thread.sleep(100);
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+        Assert.assertEquals("Incorrect number of events", 1, totalCallback.getEventCount());
+    }
+
     @Test
     public void testAsyncApp() throws InterruptedException {
 
@@ -502,6 +686,112 @@ public class WisdomCompilerTest {
         Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
     }
 
+    @Test
+    public void testAsyncWaitStrategy() throws InterruptedException {
+
+        LOGGER.info("Test async wait strategy annotations");
+
+        String query = "@app(name='WisdomApp', version='1.0.0', async=true, wait='phased', wait_idle=5) " +
+                "@config(wait='blocking') " +
+                "def stream StockStream; " +
+                "def stream OutputStream; " +
+                "" +
+                "from StockStream " +
+                "select symbol, price " +
+                "insert into OutputStream;";
+
+        WisdomApp wisdomApp = WisdomCompiler.parse(query);
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "price", 50.0),
+                map("symbol", "WSO2", "price", 60.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        Thread.sleep(50);
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
+
+    @Test
+    public void testStripedAsyncQuery() throws InterruptedException {
+
+        LOGGER.info("Test striped async stream annotation");
+
+        String query = "@app(name='WisdomApp', version='1.0.0') " +
+                "@config(async=true, stripe_threshold=1) " +
+                "def stream StockStream; " +
+                "def stream OutputStream; " +
+                "" +
+                "from StockStream " +
+                "select symbol, price " +
+                "insert into OutputStream;";
+
+        WisdomApp wisdomApp = WisdomCompiler.parse(query);
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "price", 50.0),
+                map("symbol", "WSO2", "price", 60.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        Thread producer = new Thread(() -> stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2",
+                "price", 60.0, "volume", 15)));
+        Thread.sleep(50);
+        producer.start();
+        producer.join();
+
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
+
+    @Test
+    public void testAsyncOverflowQuery() throws InterruptedException {
+
+        LOGGER.info("Test async stream overflow annotation");
+
+        String query = "@app(name='WisdomApp', version='1.0.0') " +
+                "@config(async=true, buffer=8, overflow='sample', overflow_sample=2) " +
+                "def stream StockStream; " +
+                "def stream OutputStream; " +
+                "" +
+                "from StockStream " +
+                "select symbol, price " +
+                "insert into OutputStream;";
+
+        WisdomApp wisdomApp = WisdomCompiler.parse(query);
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "IBM", "price", 50.0),
+                map("symbol", "WSO2", "price", 60.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+        Assert.assertTrue("Incorrect overflow policy", wisdomApp.getStream("StockStream").getOverflowPolicy()
+                instanceof SamplingOverflowPolicy);
+    }
+
     @Test
     public void testAsyncQuery() throws InterruptedException {
 
@@ -541,6 +831,48 @@ public class WisdomCompilerTest {
         Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
     }
 
+    @Test
+    public void testAsyncBatchQuery() throws InterruptedException {
+
+        LOGGER.info("Test stream async batch annotation");
+
+        String query = "@app(name='WisdomApp', version='1.0.0') " +
+                "@config(async=true, buffer=32, batch=16) " +
+                "def stream FilterStream; " +
+                "def stream StockStream; " +
+                "def stream OutputStream; " +
+                "" +
+                "from StockStream " +
+                "window.lengthBatch(2) " +
+                "insert into FilterStream; " +
+                "" +
+                "from FilterStream " +
+                "filter volume > 10 " +
+                "select symbol, price " +
+                "insert into OutputStream;";
+
+        WisdomApp wisdomApp = WisdomCompiler.parse(query);
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("symbol", "WSO2", "price", 60.0),
+                map("symbol", "ORACLE", "price", 70.0),
+                map("symbol", "GOOGLE", "price", 80.0));
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "WSO2", "price", 60.0, "volume", 15));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 25));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "GOOGLE", "price", 80.0, "volume", 30));
+
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 3, callback.getEventCount());
+    }
+
     @Test
     public void testVariableWithLengthBatchWindow() throws InterruptedException {
         LOGGER.info("Test window 4 - OUT 3");
@@ -640,6 +972,47 @@ public class WisdomCompilerTest {
         Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
     }
 
+    @Test
+    public void testParallelPartition() throws InterruptedException {
+        LOGGER.info("Test parallel partition - OUT 2");
+
+        String query = "def stream StockStream; " +
+                "def stream OutputStream; " +
+                "" +
+                "@query(name='query1') " +
+                "@parallel(2) " +
+                "from StockStream " +
+                "partition by symbol " +
+                "window.lengthBatch(2) " +
+                "aggregate sum('price') as price " +
+                "select symbol, price " +
+                "insert into OutputStream;";
+
+        WisdomApp wisdomApp = WisdomCompiler.parse(query);
+
+        // Partitions may be processed in any order
+        Map<Object, Object> prices = new ConcurrentHashMap<>();
+        wisdomApp.addCallback("OutputStream", events -> {
+            for (Event event : events) {
+                prices.put(event.get("symbol"), event.get("price"));
+            }
+        });
+
+        wisdomApp.start();
+
+        InputHandler stockStreamInputHandler = wisdomApp.getInputHandler("StockStream");
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 50.0, "volume", 10));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 70.0, "volume", 20));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "IBM", "price", 60.0, "volume", 15));
+        stockStreamInputHandler.send(EventGenerator.generate("symbol", "ORACLE", "price", 80.0, "volume", 25));
+
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect events", Map.of("IBM", 110.0, "ORACLE", 150.0), prices);
+    }
+
     @Test
     public void testPartition2() throws InterruptedException {
         LOGGER.info("Test partition 2 - OUT 1");
@@ -1319,4 +1692,42 @@ public class WisdomCompilerTest {
 
         Assert.assertEquals("Incorrect number of events", 4, callback.getEventCount());
     }
+
+    @Test
+    public void testPercentileQuery() throws InterruptedException {
+
+        LOGGER.info("Test percentile query");
+
+        String query = "def stream PacketStream; " +
+                "def stream OutputStream; " +
+                "" +
+                "from PacketStream " +
+                "partition by flow " +
+                "window.lengthBatch(3) " +
+                "aggregate percentile('size', 0.5) as median, quantiles('size', [0.0, 1.0]) as range " +
+                "select flow, median, range " +
+                "insert into OutputStream;";
+
+        WisdomApp wisdomApp = WisdomCompiler.parse(query);
+
+        TestUtil.TestCallback callback = TestUtil.addStreamCallback(LOGGER, wisdomApp, "OutputStream",
+                map("flow", "A", "median", 200.0, "range", WisdomArray.of(100.0, 1500.0)),
+                map("flow", "B", "median", 60.0, "range", WisdomArray.of(40.0, 80.0)));
+
+        wisdomApp.start();
+
+        InputHandler packetStreamInputHandler = wisdomApp.getInputHandler("PacketStream");
+        packetStreamInputHandler.send(EventGenerator.generate("flow", "A", "size", 1500.0));
+        packetStreamInputHandler.send(EventGenerator.generate("flow", "B", "size", 40.0));
+        packetStreamInputHandler.send(EventGenerator.generate("flow", "A", "size", 100.0));
+        packetStreamInputHandler.send(EventGenerator.generate("flow", "B", "size", 80.0));
+        packetStreamInputHandler.send(EventGenerator.generate("flow", "A", "size", 200.0));
+        packetStreamInputHandler.send(EventGenerator.generate("flow", "B", "size", 60.0));
+
+        Thread.sleep(100);
+
+        wisdomApp.shutdown();
+
+        Assert.assertEquals("Incorrect number of events", 2, callback.getEventCount());
+    }
 }
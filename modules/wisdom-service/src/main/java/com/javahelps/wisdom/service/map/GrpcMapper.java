@@ -79,7 +79,7 @@ public class GrpcMapper extends Mapper {
     public Event map(Event event) {
         WisdomGrpcService.Event request =
                 WisdomGrpcService.Event.newBuilder()
-                        .setData(this.gson.toJson(event.getData()))
+                        .setData(this.gson.toJson(event.getDataView()))
                         .build();
 
         WisdomGrpcService.Event response = this.stub.send(request);
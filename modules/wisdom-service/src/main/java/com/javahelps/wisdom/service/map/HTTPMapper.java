@@ -147,7 +147,7 @@ public class HTTPMapper extends Mapper {
     private Object get(Event event) throws IOException, URISyntaxException {
 
         URIBuilder builder = new URIBuilder(this.endpoint);
-        Set<Map.Entry<String, Object>> entrySet = event.getData().entrySet();
+        Set<Map.Entry<String, Object>> entrySet = event.getDataView().entrySet();
         for (Map.Entry<String, Object> entry : entrySet) {
             builder.setParameter(entry.getKey(), Objects.toString(entry.getValue()));
         }
@@ -160,7 +160,7 @@ public class HTTPMapper extends Mapper {
             if (statusCode >= 400) {
                 throw new WisdomServiceException(
                         String.format("Error in sending event %s to the endpoint %s. Response: %d, %s",
-                                event.getData(), this.endpoint, statusCode, response.getStatusLine().getReasonPhrase()));
+                                event.getDataView(), this.endpoint, statusCode, response.getStatusLine().getReasonPhrase()));
             } else {
                 Map<String, Object> result = this.gson.fromJson(new InputStreamReader(response.getEntity().getContent()), Map.class);
                 return result.get(this.select);
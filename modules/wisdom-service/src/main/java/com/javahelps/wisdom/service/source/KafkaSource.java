@@ -29,11 +29,14 @@ import com.javahelps.wisdom.core.stream.input.Source;
 import com.javahelps.wisdom.core.util.EventGenerator;
 import com.javahelps.wisdom.dev.util.Utility;
 import org.apache.kafka.clients.consumer.*;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
@@ -48,6 +51,7 @@ import static java.util.Map.entry;
 public class KafkaSource extends Source {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaSource.class);
+    private static final Duration PAUSED_POLL_TIMEOUT = Duration.ofMillis(100);
     private final String topic;
     private final String bootstrapServers;
     private WisdomApp wisdomApp;
@@ -103,6 +107,8 @@ public class KafkaSource extends Source {
             final Properties props = new Properties();
             props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, this.bootstrapServers);
             props.put(ConsumerConfig.GROUP_ID_CONFIG, this.groupId);
+            // Offsets are committed once all polled records are sent to the stream
+            props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
 
             props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
             props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
@@ -118,36 +124,79 @@ public class KafkaSource extends Source {
         @Override
         public void run() {
 
+            Iterator<ConsumerRecord<String, String>> pending = Collections.emptyIterator();
+            boolean paused = false;
             while (active) {
+                if (pending.hasNext()) {
+                    // Send the pending records while the stream has capacity
+                    while (pending.hasNext() && this.inputHandler.remainingCapacity() > 0) {
+                        this.send(pending.next());
+                    }
+                    if (pending.hasNext()) {
+                        // Keep polling to stay in the consumer group, but do not fetch more records
+                        try {
+                            lock.lock();
+                            // Pause on every poll since a rebalance may assign new partitions
+                            this.consumer.pause(this.consumer.assignment());
+                            paused = true;
+                            this.rewind(this.consumer.poll(PAUSED_POLL_TIMEOUT));
+                        } finally {
+                            lock.unlock();
+                        }
+                        continue;
+                    }
+                    this.commit();
+                }
+
                 ConsumerRecords<String, String> records = null;
                 try {
                     lock.lock();
-                    records = this.consumer.poll(1000);
+                    if (paused) {
+                        this.consumer.resume(this.consumer.paused());
+                        paused = false;
+                    }
+                    records = this.consumer.poll(Duration.ofMillis(1000));
                 } catch (CommitFailedException e) {
                     LOGGER.error("Kafka commit failed for topic " + this.topic, e);
                 } finally {
                     lock.unlock();
                 }
 
-                if (records != null) {
-                    records.forEach(record -> {
-                        Event event = EventGenerator.generate(Utility.toMap(record.value()));
-                        this.inputHandler.send(event);
-                    });
-                    try {
-                        lock.lock();
-                        if (!records.isEmpty()) {
-                            this.consumer.commitAsync();
-                        }
-                    } catch (CommitFailedException e) {
-                        LOGGER.error("Kafka commit failed for topic " + this.topic, e);
-                    } finally {
-                        lock.unlock();
-                    }
+                if (records != null && !records.isEmpty()) {
+                    pending = records.iterator();
                 }
             }
         }
 
+        /**
+         * Seek back to the first record of partitions assigned during a paused poll, so that their records are fetched
+         * again after resuming instead of being committed without being sent.
+         */
+        private void rewind(ConsumerRecords<String, String> records) {
+            for (TopicPartition partition : records.partitions()) {
+                this.consumer.seek(partition, records.records(partition).get(0).offset());
+            }
+            if (!records.isEmpty()) {
+                this.consumer.pause(records.partitions());
+            }
+        }
+
+        private void send(ConsumerRecord<String, String> record) {
+            Event event = EventGenerator.generate(Utility.toMap(record.value()));
+            this.inputHandler.send(event);
+        }
+
+        private void commit() {
+            try {
+                lock.lock();
+                this.consumer.commitAsync();
+            } catch (CommitFailedException e) {
+                LOGGER.error("Kafka commit failed for topic " + this.topic, e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
         public void stop() {
             this.active = false;
             try {